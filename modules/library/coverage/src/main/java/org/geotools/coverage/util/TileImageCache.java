@@ -0,0 +1,178 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.coverage.util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A least recently used cache of decoded tile images, bounded by the size of the image data, for
+ * readers serving pre-rendered tile pyramids (e.g. GeoPackage and MBTiles). Overlapping requests
+ * against the same pyramid hit the same tiles over and over, caching the decoded images avoids
+ * decompressing the same PNG/JPEG data each time.
+ *
+ * <p>Tiles are identified by a source, which should identify both the file and its version (e.g.,
+ * path and last modification time), the zoom level, the column and the row. The cached images are
+ * shared, and must not be modified.
+ *
+ * <p>The size of the {@link #getDefault() default cache}, in bytes, can be configured with the
+ * {@code org.geotools.coverage.tileImageCacheSize} system property, a value of zero disables it.
+ *
+ * @since 31
+ */
+public class TileImageCache {
+
+    /** Default cache size, in bytes */
+    public static final long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+
+    private static final TileImageCache DEFAULT =
+            new TileImageCache(
+                    Long.getLong("org.geotools.coverage.tileImageCacheSize", DEFAULT_MAX_SIZE));
+
+    static class Key {
+        final Object source;
+
+        final long zoom;
+
+        final long column;
+
+        final long row;
+
+        Key(Object source, long zoom, long column, long row) {
+            this.source = source;
+            this.zoom = zoom;
+            this.column = column;
+            this.row = row;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return zoom == other.zoom
+                    && column == other.column
+                    && row == other.row
+                    && Objects.equals(source, other.source);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, zoom, column, row);
+        }
+    }
+
+    private final LinkedHashMap<Key, BufferedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final long maxSize;
+
+    private long size;
+
+    private long hits;
+
+    private long misses;
+
+    /** Builds a new cache holding at most the specified amount of image data, in bytes */
+    public TileImageCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /** Returns the cache shared by all tile readers */
+    public static TileImageCache getDefault() {
+        return DEFAULT;
+    }
+
+    /** Returns the cached tile image, or null if not found */
+    public synchronized BufferedImage get(Object source, long zoom, long column, long row) {
+        BufferedImage image = cache.get(new Key(source, zoom, column, row));
+        if (image != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return image;
+    }
+
+    /**
+     * Caches a tile image, evicting the least recently used ones if needed. Images larger than
+     * the cache are ignored.
+     */
+    public synchronized void put(
+            Object source, long zoom, long column, long row, BufferedImage image) {
+        long imageSize = getSize(image);
+        if (imageSize > maxSize) {
+            return;
+        }
+        BufferedImage previous = cache.put(new Key(source, zoom, column, row), image);
+        if (previous != null) {
+            size -= getSize(previous);
+        }
+        size += imageSize;
+        Iterator<Map.Entry<Key, BufferedImage>> it = cache.entrySet().iterator();
+        while (size > maxSize && it.hasNext()) {
+            size -= getSize(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    /** Returns true if the cache can hold any image */
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /** Returns the size of the cached image data, in bytes */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /** Returns the maximum size of the cached image data, in bytes */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /** Returns the number of cached tiles */
+    public synchronized int getCount() {
+        return cache.size();
+    }
+
+    /** Returns the number of lookups that found a cached tile */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /** Returns the number of lookups that did not find a cached tile */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /** Removes all the cached tiles */
+    public synchronized void clear() {
+        cache.clear();
+        size = 0;
+    }
+
+    /** Estimates the memory used by the image data, in bytes */
+    static long getSize(BufferedImage image) {
+        DataBuffer db = image.getRaster().getDataBuffer();
+        int bits = DataBuffer.getDataTypeSize(db.getDataType());
+        return (long) db.getSize() * db.getNumBanks() * bits / 8;
+    }
+}
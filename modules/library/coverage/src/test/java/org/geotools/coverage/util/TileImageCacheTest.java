@@ -0,0 +1,65 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.coverage.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.awt.image.BufferedImage;
+import org.junit.Test;
+
+public class TileImageCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        BufferedImage tile = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+        assertEquals(1024, TileImageCache.getSize(tile));
+
+        // room for two tiles only
+        TileImageCache cache = new TileImageCache(2048);
+        cache.put("a", 0, 0, 0, tile);
+        cache.put("a", 0, 1, 0, tile);
+        assertSame(tile, cache.get("a", 0, 0, 0));
+        cache.put("a", 0, 2, 0, tile);
+
+        assertEquals(2, cache.getCount());
+        assertEquals(2048, cache.getSize());
+        assertSame(tile, cache.get("a", 0, 0, 0));
+        assertNull(cache.get("a", 0, 1, 0));
+        assertSame(tile, cache.get("a", 0, 2, 0));
+        // same position, different source
+        assertNull(cache.get("b", 0, 2, 0));
+        assertEquals(3, cache.getHits());
+        assertEquals(2, cache.getMisses());
+
+        cache.clear();
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testOversizedImage() {
+        TileImageCache cache = new TileImageCache(1000);
+        cache.put("a", 0, 0, 0, new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB));
+        assertEquals(0, cache.getCount());
+        assertEquals(0, cache.getSize());
+
+        assertFalse(new TileImageCache(0).isEnabled());
+    }
+}
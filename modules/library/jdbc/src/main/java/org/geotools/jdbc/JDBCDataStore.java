@@ -37,6 +37,7 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -45,6 +46,9 @@
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import javax.sql.DataSource;
 import org.apache.commons.lang3.ArrayUtils;
@@ -275,6 +279,15 @@ public final class JDBCDataStore extends ContentDataStore implements GmlObjectSt
      */
     protected int batchInsertSize = 1;
 
+    /**
+     * The number of features read and decoded ahead by a background task while the previous ones
+     * are being consumed, 0 (the default) to read them on the consumer thread
+     */
+    protected int prefetchSize = 0;
+
+    /** Runs the prefetching tasks, its threads are created on demand */
+    ExecutorService prefetchExecutor = createPrefetchExecutor();
+
     /** flag controlling whether primary key columns of a table are exposed via the feature type. */
     protected boolean exposePrimaryKeyColumns = false;
 
@@ -398,6 +411,38 @@ public void setBatchInsertSize(int batchInsertSize) {
         this.batchInsertSize = batchInsertSize;
     }
 
+    /**
+     * @return the number of features read ahead by a background task, 0 if prefetching is disabled
+     */
+    public int getPrefetchSize() {
+        return prefetchSize;
+    }
+
+    /**
+     * Sets the number of features read ahead. When greater than zero, the readers not bound to a
+     * transaction fetch and decode the rows in a background task, storing up to the given number
+     * of features in a queue, so that the database latency and the decoding overlap with the
+     * processing of the features by the caller.
+     */
+    public void setPrefetchSize(int prefetchSize) {
+        this.prefetchSize = prefetchSize;
+    }
+
+    /** Returns the executor running the prefetching tasks */
+    ExecutorService getPrefetchExecutor() {
+        return prefetchExecutor;
+    }
+
+    private static ExecutorService createPrefetchExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(
+                r -> {
+                    Thread t = new Thread(r, "gt-jdbc-prefetch-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
     /**
      * Determines if the datastore creates feature types which include those columns / attributes
      * which compose the primary key.
@@ -1857,6 +1902,9 @@ protected void insert(
         // first to figure out what the id will be, then the insert statement
         synchronized (this) {
             try {
+                if (insertBulk(features, featureType, cx, key)) {
+                    return;
+                }
                 if (dialect instanceof PreparedStatementSQLDialect) {
                     Map<InsertionClassifier, Collection<SimpleFeature>> kinds =
                             InsertionClassifier.classify(featureType, features);
@@ -1880,6 +1928,138 @@ protected void insert(
         }
     }
 
+    /**
+     * Inserts the features with the dialect native bulk loading, if supported for the feature type
+     * and if the primary key values can be all computed before the load.
+     *
+     * @return true if the features have been inserted, false if they have to be inserted with
+     *     INSERT statements
+     */
+    private boolean insertBulk(
+            Collection<? extends SimpleFeature> features,
+            SimpleFeatureType featureType,
+            Connection cx,
+            PrimaryKey key)
+            throws IOException, SQLException {
+        if (features.isEmpty()) {
+            return false;
+        }
+
+        // the columns, attributes first, skipping the exposed primary key columns, then the keys
+        Set<String> pkColumnNames = getColumnNames(key);
+        List<AttributeDescriptor> attributes = new ArrayList<>();
+        for (AttributeDescriptor att : featureType.getAttributeDescriptors()) {
+            if (!pkColumnNames.contains(att.getLocalName())) {
+                attributes.add(att);
+            }
+        }
+        int numColumns = attributes.size() + key.getColumns().size();
+        String[] columns = new String[numColumns];
+        Class<?>[] bindings = new Class<?>[numColumns];
+        int[] srids = new int[numColumns];
+        int[] dimensions = new int[numColumns];
+        EnumMapper[] mappers = new EnumMapper[numColumns];
+        for (int i = 0; i < attributes.size(); i++) {
+            AttributeDescriptor att = attributes.get(i);
+            columns[i] = att.getLocalName();
+            bindings[i] = att.getType().getBinding();
+            if (dialect.isArray(att)) {
+                // arrays need a dialect specific encoding, not supported in bulk loads
+                return false;
+            } else if (att instanceof GeometryDescriptor) {
+                srids[i] = getDescriptorSRID(att);
+                dimensions[i] = getDescriptorDimension(att);
+            }
+            mappers[i] = (EnumMapper) att.getUserData().get(JDBCDataStore.JDBC_ENUM_MAP);
+            if (mappers[i] != null) {
+                bindings[i] = Integer.class;
+            }
+        }
+        for (int i = 0; i < key.getColumns().size(); i++) {
+            PrimaryKeyColumn col = key.getColumns().get(i);
+            columns[attributes.size() + i] = col.getName();
+            bindings[attributes.size() + i] = col.getType();
+        }
+        if (!dialect.canBulkInsert(bindings)) {
+            return false;
+        }
+
+        // the key values, computed upfront as the load does not return them
+        List<SimpleFeature> useExistings = new ArrayList<>();
+        List<SimpleFeature> notUseExistings = new ArrayList<>();
+        for (SimpleFeature cur : features) {
+            (InsertionClassifier.useExisting(cur) ? useExistings : notUseExistings).add(cur);
+        }
+        // check all groups before fetching any key, sequence values fetched for a group would be
+        // lost if a later one fell back on INSERT statements
+        List<List<SimpleFeature>> groups = new ArrayList<>();
+        List<KeysFetcher> fetchers = new ArrayList<>();
+        for (List<SimpleFeature> group : Arrays.asList(useExistings, notUseExistings)) {
+            if (!group.isEmpty()) {
+                KeysFetcher keysFetcher =
+                        KeysFetcher.create(this, cx, group == useExistings, key);
+                if (keysFetcher.isPostInsert()) {
+                    return false;
+                }
+                groups.add(group);
+                fetchers.add(keysFetcher);
+            }
+        }
+        Map<SimpleFeature, List<Object>> keyValues = new IdentityHashMap<>();
+        for (int g = 0; g < groups.size(); g++) {
+            List<SimpleFeature> group = groups.get(g);
+            List<List<Object>> values = fetchers.get(g).getBulkValues(cx, group);
+            if (values == null) {
+                throw new IOException("Could not compute the primary key values upfront");
+            }
+            for (int i = 0; i < group.size(); i++) {
+                keyValues.put(group.get(i), values.get(i));
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(features.size());
+        for (SimpleFeature feature : features) {
+            Object[] row = new Object[numColumns];
+            for (int i = 0; i < attributes.size(); i++) {
+                AttributeDescriptor att = attributes.get(i);
+                Object value = feature.getAttribute(columns[i]);
+                if (value == null && !att.isNillable()) {
+                    throw new IOException(
+                            "Cannot set a NULL value on the not null column " + columns[i]);
+                }
+                if (att instanceof GeometryDescriptor) {
+                    value = linearize(value, att.getType().getBinding());
+                } else if (mappers[i] != null) {
+                    value = mappers[i].fromString((String) value);
+                }
+                row[i] = value;
+            }
+            List<Object> values = keyValues.get(feature);
+            for (int i = 0; i < values.size(); i++) {
+                row[attributes.size() + i] = values.get(i);
+            }
+            rows.add(row);
+        }
+
+        LOGGER.log(Level.FINE, "Bulk loading {0} features", rows.size());
+        dialect.bulkInsert(
+                databaseSchema,
+                featureType.getTypeName(),
+                columns,
+                bindings,
+                srids,
+                dimensions,
+                rows,
+                cx);
+
+        // report the feature ids as user data, as the other insert methods do
+        for (SimpleFeature feature : features) {
+            String fid = featureType.getTypeName() + "." + encodeFID(keyValues.get(feature));
+            feature.getUserData().put("fid", fid);
+        }
+        return true;
+    }
+
     /** Specialized insertion for dialects that are using prepared statements. */
     private void insertPS(
             Collection<SimpleFeature> features,
@@ -5018,6 +5198,7 @@ protected void finalize() throws Throwable {
     @Override
     public void dispose() {
         super.dispose();
+        prefetchExecutor.shutdown();
         if (dataSource != null && dataSource instanceof ManageableDataSource) {
             try {
                 @SuppressWarnings("PMD.CloseResource") // actually closing it here
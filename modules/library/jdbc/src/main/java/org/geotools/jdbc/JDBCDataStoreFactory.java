@@ -137,6 +137,16 @@ public abstract class JDBCDataStoreFactory implements DataStoreFactorySpi {
                     false,
                     1);
 
+    /** Number of features read ahead by a background task, 0 to disable */
+    public static final Param PREFETCH_SIZE =
+            new Param(
+                    "Prefetch size",
+                    Integer.class,
+                    "Number of features fetched and decoded ahead in a background thread while the "
+                            + "previous ones are processed (default 0, disabled)",
+                    false,
+                    0);
+
     /** Maximum amount of time the pool will wait when trying to grab a new connection * */
     public static final Param MAXWAIT =
             new Param(
@@ -319,6 +329,11 @@ public final JDBCDataStore createDataStore(Map<String, ?> params) throws IOExcep
             dataStore.setBatchInsertSize(batchInsertSize);
         }
 
+        Integer prefetchSize = (Integer) PREFETCH_SIZE.lookUp(params);
+        if (prefetchSize != null && prefetchSize > 0) {
+            dataStore.setPrefetchSize(prefetchSize);
+        }
+
         // namespace
         String namespace = (String) NAMESPACE.lookUp(params);
 
@@ -468,6 +483,7 @@ protected void setupParameters(Map<String, Object> parameters) {
         parameters.put(MINCONN.key, MINCONN);
         parameters.put(FETCHSIZE.key, FETCHSIZE);
         parameters.put(BATCH_INSERT_SIZE.key, BATCH_INSERT_SIZE);
+        parameters.put(PREFETCH_SIZE.key, PREFETCH_SIZE);
         parameters.put(MAXWAIT.key, MAXWAIT);
         if (getValidationQuery() != null) parameters.put(VALIDATECONN.key, VALIDATECONN);
         parameters.put(TEST_WHILE_IDLE.key, TEST_WHILE_IDLE);
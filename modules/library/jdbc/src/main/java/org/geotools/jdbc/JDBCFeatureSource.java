@@ -619,6 +619,16 @@ protected FeatureReader<SimpleFeatureType, SimpleFeature> getReaderInternal(Quer
 
                     reader = new JDBCFeatureReader(sql, cx, this, querySchema, query);
                 }
+
+                // read ahead in background, unless the connection is shared with a transaction
+                int prefetchSize = getDataStore().getPrefetchSize();
+                if (prefetchSize > 0 && getState().getTransaction() == Transaction.AUTO_COMMIT) {
+                    reader =
+                            new JDBCPrefetchingFeatureReader(
+                                    (JDBCFeatureReader) reader,
+                                    prefetchSize,
+                                    getDataStore().getPrefetchExecutor());
+                }
             } else {
                 JoinInfo join = JoinInfo.create(preQuery, this);
 
@@ -0,0 +1,227 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.jdbc;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.api.data.DelegatingFeatureReader;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Feature reader that reads and decodes the features of a {@link JDBCFeatureReader} in a
+ * background task, storing them in a bounded queue, so that fetching rows from the database and
+ * decoding them overlaps with the processing of the previous features by the consumer.
+ *
+ * <p>The wrapped reader is used only by the background task until it's done, it's closed by the
+ * consumer thread once the task has been stopped. Since the reader connection is used by another
+ * thread, this reader should be used only when the connection is not shared with a transaction.
+ *
+ * @see JDBCDataStore#setPrefetchSize(int)
+ */
+public class JDBCPrefetchingFeatureReader
+        implements DelegatingFeatureReader<SimpleFeatureType, SimpleFeature> {
+
+    static final Logger LOGGER = Logging.getLogger(JDBCPrefetchingFeatureReader.class);
+
+    /** Marks the end of the features in the queue */
+    static final Object END = new Object();
+
+    /** How long the consumer waits before checking the background task is still alive */
+    static final long POLL_MS = 100;
+
+    JDBCFeatureReader delegate;
+
+    SimpleFeatureType featureType;
+
+    BlockingQueue<Object> queue;
+
+    FutureTask<Void> task;
+
+    volatile boolean closed;
+
+    /** Set when the consumer stopped waiting for the task, which then closes the delegate */
+    volatile boolean abandoned;
+
+    AtomicBoolean delegateClosed = new AtomicBoolean();
+
+    /** The next queue element, a feature, an exception or {@link #END} */
+    Object next;
+
+    /**
+     * Builds the reader and starts prefetching
+     *
+     * @param delegate the reader to be consumed in background
+     * @param size the maximum number of features read ahead
+     * @param executor the executor running the background task
+     */
+    public JDBCPrefetchingFeatureReader(JDBCFeatureReader delegate, int size, Executor executor) {
+        this.delegate = delegate;
+        this.featureType = delegate.getFeatureType();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, size));
+        this.task =
+                new FutureTask<>(this::prefetch, null) {
+                    @Override
+                    protected void done() {
+                        if (abandoned) {
+                            try {
+                                closeDelegate();
+                            } catch (IOException e) {
+                                LOGGER.log(Level.FINE, "Failed to close the reader", e);
+                            }
+                        }
+                    }
+                };
+        executor.execute(task);
+    }
+
+    /** Reads the features of the delegate until it's exhausted or this reader gets closed */
+    private void prefetch() {
+        try {
+            while (!closed && delegate.hasNext()) {
+                queue.put(delegate.next());
+            }
+            queue.put(END);
+        } catch (InterruptedException e) {
+            // the consumer notices the task is over and reports it
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) { // NOSONAR, reported to the consumer
+            try {
+                queue.put(t);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public FeatureReader<SimpleFeatureType, SimpleFeature> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public SimpleFeatureType getFeatureType() {
+        return featureType;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        if (closed) {
+            throw new IOException("reader already closed");
+        }
+        if (next == null) {
+            next = take();
+        }
+        // failures are rethrown as is, their stack trace is the background task one
+        if (next instanceof IOException) {
+            throw (IOException) next;
+        } else if (next instanceof RuntimeException) {
+            throw (RuntimeException) next;
+        } else if (next instanceof Error) {
+            throw (Error) next;
+        } else if (next instanceof Throwable) {
+            throw new IOException((Throwable) next);
+        }
+        return next != END;
+    }
+
+    private Object take() throws IOException {
+        try {
+            while (true) {
+                Object o = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (o != null) {
+                    return o;
+                }
+                if (task.isDone()) {
+                    // the task might have added the last element right before completing
+                    o = queue.poll();
+                    if (o != null) {
+                        return o;
+                    }
+                    return new IOException("The background reading of features was interrupted");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the next feature");
+        }
+    }
+
+    @Override
+    public SimpleFeature next() throws IOException, NoSuchElementException {
+        if (!hasNext()) {
+            throw new NoSuchElementException(
+                    "No more features in this reader, you should call "
+                            + "hasNext() to check for feature availability");
+        }
+        SimpleFeature feature = (SimpleFeature) next;
+        next = null;
+        return feature;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            // free space in the queue until the task notices the closed flag and stops
+            while (!task.isDone()) {
+                queue.clear();
+                try {
+                    task.get(POLL_MS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // try again
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.FINE, "Prefetching task failed", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            // the delegate cannot be closed while the task is using it, leave it to the task,
+            // which stops at the next feature as the queue has room
+            Thread.currentThread().interrupt();
+            abandoned = true;
+            if (task.isDone()) {
+                closeDelegate();
+            }
+            throw new InterruptedIOException("Interrupted while stopping the prefetching task");
+        } finally {
+            next = null;
+        }
+        closeDelegate();
+    }
+
+    private void closeDelegate() throws IOException {
+        if (delegateClosed.compareAndSet(false, true)) {
+            delegate.close();
+        }
+    }
+}
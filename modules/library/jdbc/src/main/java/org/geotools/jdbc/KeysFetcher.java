@@ -152,6 +152,16 @@ public boolean hasAutoGeneratedKeys() {
     protected abstract List<Object> getNextValues(Connection cx, SimpleFeature feature)
             throws IOException, SQLException;
 
+    /**
+     * Computes the key values of all the features before a bulk insert, including the ones that
+     * would normally be generated by the database during the insert.
+     *
+     * @return the key values of each feature, or null if they cannot be computed upfront (that
+     *     is, when {@link #isPostInsert()} returns true), in which case no key value is consumed
+     */
+    public abstract List<List<Object>> getBulkValues(Connection cx, List<SimpleFeature> features)
+            throws IOException, SQLException;
+
     /** @return true if the given field is part of the primary key. */
     public boolean isKey(String name) {
         return columnNames.contains(name);
@@ -216,6 +226,15 @@ public boolean isPostInsert() {
         public List<Object> getNextValues(Connection cx, SimpleFeature feature) {
             return JDBCDataStore.decodeFID(key, feature.getID(), true);
         }
+
+        @Override
+        public List<List<Object>> getBulkValues(Connection cx, List<SimpleFeature> features) {
+            List<List<Object>> result = new ArrayList<>(features.size());
+            for (SimpleFeature feature : features) {
+                result.add(getNextValues(cx, feature));
+            }
+            return result;
+        }
     }
 
     /** Class for a PK that has its value computed from the database. */
@@ -344,6 +363,29 @@ public List<Object> getNextValues(Connection cx, SimpleFeature feature)
             return ret;
         }
 
+        @Override
+        public List<List<Object>> getBulkValues(Connection cx, List<SimpleFeature> features)
+                throws IOException, SQLException {
+            if (isPostInsert()) {
+                // check before fetching, the values of the other columns would be lost
+                return null;
+            }
+            List<List<Object>> result = new ArrayList<>(features.size());
+            for (int i = 0; i < features.size(); i++) {
+                result.add(new ArrayList<>(fetchers.size()));
+            }
+            for (KeyFetcher fetcher : fetchers) {
+                List<Object> values = fetcher.getNext(cx, features.size());
+                if (values == null) {
+                    return null;
+                }
+                for (int i = 0; i < values.size(); i++) {
+                    result.get(i).add(values.get(i));
+                }
+            }
+            return result;
+        }
+
         @Override
         public boolean hasAutoGeneratedKeys() {
             for (KeyFetcher fetcher : fetchers) {
@@ -362,6 +404,21 @@ private abstract static class KeyFetcher {
 
         public abstract Object getNext(Connection cx) throws IOException, SQLException;
 
+        /**
+         * Returns the next <tt>count</tt> values, before the insert, or null if the values are
+         * generated by the database during the insert
+         */
+        public List<Object> getNext(Connection cx, int count) throws IOException, SQLException {
+            if (isPostInsert()) {
+                return null;
+            }
+            List<Object> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(getNext(cx));
+            }
+            return result;
+        }
+
         KeyFetcher(JDBCDataStore ds, PrimaryKeyColumn col) {
             this.col = col;
             StringBuffer colName = new StringBuffer();
@@ -603,5 +660,13 @@ public Object getNext(Connection cx) throws IOException, SQLException {
                         .getNextSequenceValue(ds.getDatabaseSchema(), sequenceName, cx);
             }
         }
+
+        @Override
+        public List<Object> getNext(Connection cx, int count) throws SQLException {
+            // a bulk insert cannot return the generated keys, fetch them all upfront
+            String sequenceName = ((SequencedPrimaryKeyColumn) col).getSequenceName();
+            return ds.getSQLDialect()
+                    .getNextSequenceValues(ds.getDatabaseSchema(), sequenceName, count, cx);
+        }
     }
 }
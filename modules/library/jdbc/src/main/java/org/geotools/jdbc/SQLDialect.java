@@ -1116,6 +1116,81 @@ public String encodeNextSequenceValue(String schemaName, String sequenceName) {
         return null;
     }
 
+    /**
+     * Obtains the next <tt>count</tt> values of a sequence, used to assign the primary keys before
+     * a bulk insert.
+     *
+     * <p>The default implementation calls {@link #getNextSequenceValue(String, String,
+     * Connection)} <tt>count</tt> times, subclasses are encouraged to fetch all the values with a
+     * single query.
+     *
+     * @param schemaName The schema name, this might be <code>null</code>.
+     * @param sequenceName The name of the sequence.
+     * @param count The number of values to be fetched.
+     * @param cx The database connection.
+     * @return The next values of the sequence, or <code>null</code> if not supported.
+     */
+    public List<Object> getNextSequenceValues(
+            String schemaName, String sequenceName, int count, Connection cx)
+            throws SQLException {
+        List<Object> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Object value = getNextSequenceValue(schemaName, sequenceName, cx);
+            if (value == null) {
+                return null;
+            }
+            result.add(value);
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if the dialect can load rows with the given column bindings with {@link
+     * #bulkInsert(String, String, String[], Class[], int[], int[], List, Connection)}, a native
+     * loading mechanism faster than batches of INSERT statements.
+     *
+     * <p>The default implementation returns false, features are always inserted with INSERT
+     * statements.
+     *
+     * @param bindings The java types of the columns to be loaded.
+     */
+    public boolean canBulkInsert(Class<?>[] bindings) {
+        return false;
+    }
+
+    /**
+     * Loads rows in a table using a native bulk loading mechanism. Called only if {@link
+     * #canBulkInsert(Class[])} returned true for the same bindings. The primary key values are
+     * part of the rows, no value is expected to be generated by the database.
+     *
+     * <p>This method is given a direct connection to the database, but this connection should never
+     * be closed. However any statements or result sets instantiated from the connection must be
+     * closed.
+     *
+     * @param schemaName The database schema, may be <code>null</code>.
+     * @param tableName The table to be loaded.
+     * @param columns The names of the columns to be filled.
+     * @param bindings The java types of the columns.
+     * @param srids The srid of the geometry columns, -1 if unknown, ignored for the other columns.
+     * @param dimensions The dimension of the geometry columns, -1 if unknown, ignored for the other
+     *     columns.
+     * @param rows The values, one array for each row, in the same order as the columns.
+     * @param cx The database connection.
+     */
+    public void bulkInsert(
+            String schemaName,
+            String tableName,
+            String[] columns,
+            Class<?>[] bindings,
+            int[] srids,
+            int[] dimensions,
+            List<Object[]> rows,
+            Connection cx)
+            throws SQLException, IOException {
+        throw new UnsupportedOperationException(
+                "Override this method when canBulkInsert returns true");
+    }
+
     /**
      * Returns true if this dialect can encode both {@linkplain Query#getStartIndex()} and
      * {@linkplain Query#getMaxFeatures()} into native SQL.
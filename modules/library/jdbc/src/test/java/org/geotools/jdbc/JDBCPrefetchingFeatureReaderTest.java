@@ -0,0 +1,143 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JDBCPrefetchingFeatureReaderTest {
+
+    ExecutorService executor;
+
+    SimpleFeatureType featureType;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("test");
+        tb.add("id", Integer.class);
+        featureType = tb.buildFeatureType();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /** Mocks a reader returning the given number of features, a negative count for no end */
+    private JDBCFeatureReader mockReader(int count, int failAt) throws IOException {
+        JDBCFeatureReader reader = mock(JDBCFeatureReader.class);
+        AtomicInteger read = new AtomicInteger();
+        when(reader.getFeatureType()).thenReturn(featureType);
+        when(reader.hasNext()).thenAnswer(i -> count < 0 || read.get() < count);
+        when(reader.next())
+                .thenAnswer(
+                        i -> {
+                            int id = read.getAndIncrement();
+                            if (id == failAt) {
+                                throw new RuntimeException("Failed reading " + id);
+                            }
+                            return SimpleFeatureBuilder.build(
+                                    featureType, new Object[] {id}, "test." + id);
+                        });
+        return reader;
+    }
+
+    @Test
+    public void testReadAll() throws IOException {
+        JDBCFeatureReader delegate = mockReader(1000, -1);
+        try (JDBCPrefetchingFeatureReader reader =
+                new JDBCPrefetchingFeatureReader(delegate, 10, executor)) {
+            assertSame(featureType, reader.getFeatureType());
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(reader.hasNext());
+                SimpleFeature feature = reader.next();
+                assertEquals(i, feature.getAttribute("id"));
+            }
+            assertFalse(reader.hasNext());
+            try {
+                reader.next();
+                fail("Should have failed, no more features");
+            } catch (NoSuchElementException e) {
+                // fine
+            }
+        }
+        verify(delegate, times(1)).close();
+    }
+
+    @Test
+    public void testEarlyClose() throws IOException {
+        JDBCFeatureReader delegate = mockReader(-1, -1);
+        JDBCPrefetchingFeatureReader reader =
+                new JDBCPrefetchingFeatureReader(delegate, 5, executor);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, reader.next().getAttribute("id"));
+        }
+        reader.close();
+        // the background task stopped before closing the delegate
+        assertTrue(reader.task.isDone());
+        verify(delegate, times(1)).close();
+        // closing again is harmless
+        reader.close();
+        verify(delegate, times(1)).close();
+        try {
+            reader.hasNext();
+            fail("Should have failed, the reader is closed");
+        } catch (IOException e) {
+            // fine
+        }
+    }
+
+    @Test
+    public void testFailure() throws IOException {
+        JDBCFeatureReader delegate = mockReader(100, 3);
+        try (JDBCPrefetchingFeatureReader reader =
+                new JDBCPrefetchingFeatureReader(delegate, 10, executor)) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(i, reader.next().getAttribute("id"));
+            }
+            try {
+                reader.hasNext();
+                fail("Should have failed reading the fourth feature");
+            } catch (RuntimeException e) {
+                assertEquals("Failed reading 3", e.getMessage());
+            }
+        }
+        verify(delegate, times(1)).close();
+    }
+}
@@ -23,8 +23,10 @@
 import org.geotools.api.data.FeatureReader;
 import org.geotools.api.feature.Feature;
 import org.geotools.api.feature.IllegalAttributeException;
+import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.feature.type.FeatureType;
 import org.geotools.api.filter.Filter;
+import org.geotools.filter.FilterCompiler;
 import org.geotools.filter.visitor.BindingFilterVisitor;
 
 /**
@@ -46,6 +48,9 @@
     protected final Filter filter;
     protected F next;
 
+    /** The filter compiled against the feature type, when simple, used to evaluate the features */
+    private final Filter compiled;
+
     /**
      * Creates a new instance of AbstractFeatureReader
      *
@@ -61,6 +66,11 @@ public FilteringFeatureReader(FeatureReader<T, F> featureReader, Filter filter)
                 (Filter)
                         filter.accept(
                                 new BindingFilterVisitor(featureReader.getFeatureType()), null);
+        FeatureType schema = featureReader.getFeatureType();
+        this.compiled =
+                schema instanceof SimpleFeatureType
+                        ? FilterCompiler.compile(this.filter, (SimpleFeatureType) schema)
+                        : this.filter;
         next = null;
     }
 
@@ -120,7 +130,7 @@ public boolean hasNext() throws IOException {
             while (featureReader.hasNext()) {
                 peek = featureReader.next();
 
-                if (filter.evaluate(peek)) {
+                if (compiled.evaluate(peek)) {
                     next = peek;
                     return true;
                 }
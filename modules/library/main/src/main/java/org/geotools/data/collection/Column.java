@@ -0,0 +1,495 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.locationtech.jts.geom.CoordinateXY;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+
+/**
+ * The values of an attribute in a {@link ColumnarFeatureCollection}, stored in primitive arrays
+ * when the attribute type allows it.
+ *
+ * <p>Typed columns only accept values of their exact class, so that the values read back are
+ * equal to the ones stored. When an other value is added, the column is converted into a column
+ * accepting it, the {@link #add} and {@link #set} methods return the column to use from then on.
+ */
+abstract class Column {
+
+    /** Initial capacity of the columns */
+    static final int INITIAL_CAPACITY = 16;
+
+    /** The number of values in this column */
+    int size;
+
+    /** Returns a column suitable for the given attribute binding. */
+    static Column create(Class<?> binding) {
+        if (binding == Integer.class) {
+            return new IntColumn();
+        } else if (binding == Long.class || binding == Date.class) {
+            return new LongColumn(binding);
+        } else if (binding == Double.class || binding == Float.class) {
+            return new DoubleColumn(binding);
+        } else if (binding == Boolean.class) {
+            return new BooleanColumn();
+        } else if (binding == String.class) {
+            return new StringColumn();
+        } else if (binding == Point.class) {
+            return new PointColumn();
+        } else if (Geometry.class.isAssignableFrom(binding)) {
+            return new GeometryColumn();
+        }
+        return new ObjectColumn();
+    }
+
+    /** Returns the value at the given index. */
+    abstract Object get(int index);
+
+    /** Returns {@code true} if the given value can be stored in this column. */
+    abstract boolean accepts(Object value);
+
+    /** Stores an accepted value at the given index, which may be the next one. */
+    abstract void store(int index, Object value);
+
+    /** Returns the new capacity for the given one, when more room is needed. */
+    static int grow(int capacity) {
+        return Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+    }
+
+    /** Appends the value, returning the column to use from now on. */
+    final Column add(Object value) {
+        return set(size, value);
+    }
+
+    /**
+     * Sets the value at the given index, or appends it if the index is the column size. Returns
+     * the column to use from now on.
+     */
+    final Column set(int index, Object value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException(index + " is not in [0, " + size + "]");
+        }
+        Column column = this;
+        if (!accepts(value)) {
+            column = convert(value);
+        }
+        column.store(index, value);
+        if (index == column.size) {
+            column.size++;
+        }
+        return column;
+    }
+
+    /** Returns a column accepting the given value, with a copy of the values of this one. */
+    Column convert(Object value) {
+        ObjectColumn column = new ObjectColumn();
+        for (int i = 0; i < size; i++) {
+            column.add(get(i));
+        }
+        return column;
+    }
+
+    /** A column with a bit set of the null values */
+    abstract static class NullableColumn extends Column {
+        final BitSet nulls = new BitSet();
+
+        @Override
+        final Object get(int index) {
+            return nulls.get(index) ? null : getValue(index);
+        }
+
+        @Override
+        final void store(int index, Object value) {
+            nulls.set(index, value == null);
+            ensureCapacity(index + 1);
+            if (value != null) {
+                storeValue(index, value);
+            }
+        }
+
+        abstract Object getValue(int index);
+
+        abstract void storeValue(int index, Object value);
+
+        abstract void ensureCapacity(int capacity);
+    }
+
+    /** Integer values */
+    static final class IntColumn extends NullableColumn {
+        int[] values = new int[0];
+
+        @Override
+        boolean accepts(Object value) {
+            return value == null || value.getClass() == Integer.class;
+        }
+
+        @Override
+        Object getValue(int index) {
+            return values[index];
+        }
+
+        @Override
+        void storeValue(int index, Object value) {
+            values[index] = (Integer) value;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+        }
+    }
+
+    /** Long values, or dates as milliseconds */
+    static final class LongColumn extends NullableColumn {
+        final Class<?> binding;
+
+        long[] values = new long[0];
+
+        LongColumn(Class<?> binding) {
+            this.binding = binding;
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value == null || value.getClass() == binding;
+        }
+
+        @Override
+        Object getValue(int index) {
+            return binding == Date.class ? new Date(values[index]) : (Object) values[index];
+        }
+
+        @Override
+        void storeValue(int index, Object value) {
+            values[index] = binding == Date.class ? ((Date) value).getTime() : (Long) value;
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+        }
+    }
+
+    /** Double values, or float ones */
+    static final class DoubleColumn extends NullableColumn {
+        final Class<?> binding;
+
+        double[] values = new double[0];
+
+        DoubleColumn(Class<?> binding) {
+            this.binding = binding;
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value == null || value.getClass() == binding;
+        }
+
+        @Override
+        Object getValue(int index) {
+            return binding == Float.class ? (Object) (float) values[index] : values[index];
+        }
+
+        @Override
+        void storeValue(int index, Object value) {
+            values[index] = ((Number) value).doubleValue();
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+        }
+    }
+
+    /** Boolean values */
+    static final class BooleanColumn extends NullableColumn {
+        final BitSet values = new BitSet();
+
+        @Override
+        boolean accepts(Object value) {
+            return value == null || value.getClass() == Boolean.class;
+        }
+
+        @Override
+        Object getValue(int index) {
+            return values.get(index);
+        }
+
+        @Override
+        void storeValue(int index, Object value) {
+            values.set(index, (Boolean) value);
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            // bit sets grow as needed
+        }
+    }
+
+    /**
+     * Strings, dictionary encoded. Columns with mostly distinct values are converted to an {@link
+     * ObjectColumn}, since the dictionary would only add to the memory used.
+     */
+    static final class StringColumn extends Column {
+        /** Number of values after which the number of distinct values is checked */
+        static final int CHECK_SIZE = 1024;
+
+        final List<String> dictionary = new ArrayList<>();
+
+        final Map<String, Integer> codes = new HashMap<>();
+
+        /** The dictionary code of each value, -1 for null */
+        int[] values = new int[0];
+
+        @Override
+        Object get(int index) {
+            int code = values[index];
+            return code < 0 ? null : dictionary.get(code);
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            if (value == null) {
+                return true;
+            }
+            return value.getClass() == String.class
+                    && (size < CHECK_SIZE
+                            || dictionary.size() < size / 2
+                            || codes.containsKey(value));
+        }
+
+        @Override
+        void store(int index, Object value) {
+            if (index >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            if (value == null) {
+                values[index] = -1;
+            } else {
+                Integer code = codes.get(value);
+                if (code == null) {
+                    code = dictionary.size();
+                    dictionary.add((String) value);
+                    codes.put((String) value, code);
+                }
+                values[index] = code;
+            }
+        }
+    }
+
+    /**
+     * Points without elevation or measure, stored as packed coordinates. All the points of a
+     * column share the same SRID and do not have user data.
+     */
+    static final class PointColumn extends NullableColumn {
+        /** The (x, y) coordinates, packed */
+        double[] coordinates = new double[0];
+
+        /** The factory for the points read back */
+        GeometryFactory factory;
+
+        @Override
+        boolean accepts(Object value) {
+            if (value == null) {
+                return true;
+            }
+            if (value.getClass() != Point.class) {
+                return false;
+            }
+            Point point = (Point) value;
+            return !point.isEmpty()
+                    && point.getCoordinateSequence().getMeasures() == 0
+                    && Double.isNaN(point.getCoordinate().getZ())
+                    && point.getUserData() == null
+                    && (factory == null || factory.getSRID() == point.getSRID());
+        }
+
+        @Override
+        Object getValue(int index) {
+            return factory.createPoint(
+                    new CoordinateXY(coordinates[2 * index], coordinates[2 * index + 1]));
+        }
+
+        @Override
+        void storeValue(int index, Object value) {
+            Point point = (Point) value;
+            if (factory == null) {
+                factory = GeometryColumn.packedFactory(point.getSRID());
+            }
+            coordinates[2 * index] = point.getX();
+            coordinates[2 * index + 1] = point.getY();
+        }
+
+        @Override
+        void ensureCapacity(int capacity) {
+            if (2 * capacity > coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, 2 * grow(coordinates.length / 2));
+            }
+        }
+
+        /** Returns the envelope of the point at the given index, without creating it. */
+        Envelope getEnvelope(int index) {
+            if (nulls.get(index)) {
+                return null;
+            }
+            double x = coordinates[2 * index];
+            double y = coordinates[2 * index + 1];
+            return new Envelope(x, x, y, y);
+        }
+
+        @Override
+        Column convert(Object value) {
+            Column column = value instanceof Geometry ? new GeometryColumn() : new ObjectColumn();
+            for (int i = 0; i < size; i++) {
+                column.add(get(i));
+            }
+            return column;
+        }
+    }
+
+    /** Geometries, copied to use packed coordinate sequences */
+    static final class GeometryColumn extends Column {
+        /** The factories creating the packed geometries, by SRID */
+        static final Map<Integer, GeometryFactory> FACTORIES = new HashMap<>();
+
+        Geometry[] values = new Geometry[0];
+
+        /** Returns a geometry factory creating packed coordinate sequences. */
+        static GeometryFactory packedFactory(int srid) {
+            synchronized (FACTORIES) {
+                return FACTORIES.computeIfAbsent(
+                        srid,
+                        s ->
+                                new GeometryFactory(
+                                        new PrecisionModel(),
+                                        s,
+                                        PackedCoordinateSequenceFactory.DOUBLE_FACTORY));
+            }
+        }
+
+        @Override
+        Object get(int index) {
+            return values[index];
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return value == null || value instanceof Geometry;
+        }
+
+        @Override
+        void store(int index, Object value) {
+            if (index >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[index] = pack((Geometry) value);
+        }
+
+        /** Returns a copy of the geometry using packed coordinate sequences, if not already. */
+        static Geometry pack(Geometry geometry) {
+            if (geometry == null
+                    || geometry.isEmpty()
+                    || geometry.getFactory().getCoordinateSequenceFactory()
+                            instanceof PackedCoordinateSequenceFactory) {
+                return geometry;
+            }
+            Geometry packed = packedFactory(geometry.getSRID()).createGeometry(geometry);
+            packed.setUserData(geometry.getUserData());
+            return packed;
+        }
+    }
+
+    /**
+     * Feature identifiers made of a common prefix followed by a number, such as the ones assigned
+     * by the shapefile or property data stores, storing only the numbers.
+     */
+    static final class IdColumn extends Column {
+        final String prefix;
+
+        long[] values = new long[0];
+
+        IdColumn(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        Object get(int index) {
+            return prefix + values[index];
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            if (!(value instanceof String) || !((String) value).startsWith(prefix)) {
+                return false;
+            }
+            String number = ((String) value).substring(prefix.length());
+            try {
+                return Long.toString(Long.parseLong(number)).equals(number);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        @Override
+        void store(int index, Object value) {
+            if (index >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[index] = Long.parseLong(((String) value).substring(prefix.length()));
+        }
+    }
+
+    /** Any other value */
+    static final class ObjectColumn extends Column {
+        Object[] values = new Object[0];
+
+        @Override
+        Object get(int index) {
+            return values[index];
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return true;
+        }
+
+        @Override
+        void store(int index, Object value) {
+            if (index >= values.length) {
+                values = Arrays.copyOf(values, grow(values.length));
+            }
+            values[index] = value;
+        }
+    }
+}
@@ -0,0 +1,464 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.collection;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.geotools.api.feature.Attribute;
+import org.geotools.api.feature.GeometryAttribute;
+import org.geotools.api.feature.IllegalAttributeException;
+import org.geotools.api.feature.Property;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.AttributeType;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.api.feature.type.GeometryType;
+import org.geotools.api.feature.type.Name;
+import org.geotools.api.filter.identity.FeatureId;
+import org.geotools.api.filter.identity.Identifier;
+import org.geotools.api.geometry.BoundingBox;
+import org.geotools.feature.type.AttributeDescriptorImpl;
+import org.geotools.feature.type.Types;
+import org.geotools.filter.identity.FeatureIdImpl;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.util.Utilities;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A lightweight view of a row of a {@link ColumnarFeatureCollection}. Attribute values are read
+ * from, and written to, the columns of the collection.
+ *
+ * <p>The {@linkplain Property properties} returned by this feature are views over the columns as
+ * well. User data, both of the feature and of its properties, is not stored in the collection, it
+ * is only kept by this view.
+ */
+class ColumnarFeature implements SimpleFeature {
+
+    final ColumnarFeatureCollection collection;
+
+    final int index;
+
+    Map<Object, Object> userData;
+
+    Map<Object, Object>[] attributeUserData;
+
+    ColumnarFeature(ColumnarFeatureCollection collection, int index) {
+        this.collection = collection;
+        this.index = index;
+    }
+
+    @Override
+    public FeatureId getIdentifier() {
+        return new FeatureIdImpl(getID());
+    }
+
+    @Override
+    public String getID() {
+        return collection.getFeatureID(index);
+    }
+
+    @Override
+    public SimpleFeatureType getType() {
+        return collection.getSchema();
+    }
+
+    @Override
+    public SimpleFeatureType getFeatureType() {
+        return collection.getSchema();
+    }
+
+    @Override
+    public Object getAttribute(int index) throws IndexOutOfBoundsException {
+        return collection.getAttribute(this.index, index);
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        int column = getType().indexOf(name);
+        return column == -1 ? null : getAttribute(column);
+    }
+
+    @Override
+    public Object getAttribute(Name name) {
+        int column = getType().indexOf(name);
+        return column == -1 ? null : getAttribute(column);
+    }
+
+    @Override
+    public int getAttributeCount() {
+        return getType().getAttributeCount();
+    }
+
+    @Override
+    public List<Object> getAttributes() {
+        int count = getAttributeCount();
+        List<Object> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(getAttribute(i));
+        }
+        return values;
+    }
+
+    @Override
+    public void setAttribute(int index, Object value) throws IndexOutOfBoundsException {
+        collection.setAttribute(this.index, index, value);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        int column = getType().indexOf(name);
+        if (column == -1) {
+            throw new IllegalAttributeException("Unknown attribute " + name);
+        }
+        setAttribute(column, value);
+    }
+
+    @Override
+    public void setAttribute(Name name, Object value) {
+        int column = getType().indexOf(name);
+        if (column == -1) {
+            throw new IllegalAttributeException("Unknown attribute " + name);
+        }
+        setAttribute(column, value);
+    }
+
+    @Override
+    public void setAttributes(List<Object> values) {
+        for (int i = 0; i < values.size(); i++) {
+            setAttribute(i, values.get(i));
+        }
+    }
+
+    @Override
+    public void setAttributes(Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            setAttribute(i, values[i]);
+        }
+    }
+
+    @Override
+    public Object getDefaultGeometry() {
+        int column = collection.getGeometryIndex();
+        return column == -1 ? null : getAttribute(column);
+    }
+
+    @Override
+    public void setDefaultGeometry(Object geometry) {
+        int column = collection.getGeometryIndex();
+        if (column == -1) {
+            throw new IllegalAttributeException("The feature type has no default geometry");
+        }
+        setAttribute(column, geometry);
+    }
+
+    @Override
+    public BoundingBox getBounds() {
+        ReferencedEnvelope bounds =
+                ReferencedEnvelope.create(getType().getCoordinateReferenceSystem());
+        Envelope envelope = collection.getEnvelope(index);
+        if (envelope != null) {
+            bounds.init(envelope);
+        }
+        return bounds;
+    }
+
+    @Override
+    public GeometryAttribute getDefaultGeometryProperty() {
+        GeometryDescriptor descriptor = getType().getGeometryDescriptor();
+        if (descriptor == null) {
+            return null;
+        }
+        return new ColumnGeometryAttribute(collection.getGeometryIndex());
+    }
+
+    @Override
+    public void setDefaultGeometryProperty(GeometryAttribute geometryAttribute) {
+        setDefaultGeometry(geometryAttribute != null ? geometryAttribute.getValue() : null);
+    }
+
+    @Override
+    public Collection<Property> getProperties() {
+        return new AttributeList();
+    }
+
+    @Override
+    public Collection<Property> getProperties(Name name) {
+        return getProperties(name.getLocalPart());
+    }
+
+    @Override
+    public Collection<Property> getProperties(String name) {
+        Property property = getProperty(name);
+        if (property == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(property);
+    }
+
+    @Override
+    public Property getProperty(Name name) {
+        return getProperty(name.getLocalPart());
+    }
+
+    @Override
+    public Property getProperty(String name) {
+        int column = getType().indexOf(name);
+        return column == -1 ? null : createProperty(column);
+    }
+
+    private Property createProperty(int column) {
+        if (getType().getDescriptor(column) instanceof GeometryDescriptor) {
+            return new ColumnGeometryAttribute(column);
+        }
+        return new ColumnAttribute(column);
+    }
+
+    @Override
+    public Collection<? extends Property> getValue() {
+        return getProperties();
+    }
+
+    @Override
+    public void setValue(Collection<Property> values) {
+        for (Property property : values) {
+            setAttribute(property.getName(), property.getValue());
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setValue(Object newValue) {
+        setValue((Collection<Property>) newValue);
+    }
+
+    @Override
+    public AttributeDescriptor getDescriptor() {
+        return new AttributeDescriptorImpl(
+                getType(), getType().getName(), 0, Integer.MAX_VALUE, true, null);
+    }
+
+    @Override
+    public Name getName() {
+        return getType().getName();
+    }
+
+    @Override
+    public boolean isNillable() {
+        return true;
+    }
+
+    @Override
+    public Map<Object, Object> getUserData() {
+        if (userData == null) {
+            userData = new HashMap<>();
+        }
+        return userData;
+    }
+
+    @Override
+    public void validate() {
+        for (int i = 0; i < getAttributeCount(); i++) {
+            Types.validate(getType().getDescriptor(i), getAttribute(i));
+        }
+    }
+
+    /** Features are equal if they are views of the same row of the same collection. */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof ColumnarFeature) {
+            ColumnarFeature other = (ColumnarFeature) obj;
+            return collection == other.collection && index == other.index;
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(collection) * 31 + index;
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarFeature:" + getType().getTypeName() + "=" + getAttributes();
+    }
+
+    /** Live list of the feature properties, backed by the columns */
+    class AttributeList extends AbstractList<Property> {
+
+        @Override
+        public Property get(int column) {
+            return createProperty(column);
+        }
+
+        @Override
+        public Property set(int column, Property element) {
+            setAttribute(column, element.getValue());
+            return null;
+        }
+
+        @Override
+        public int size() {
+            return getAttributeCount();
+        }
+    }
+
+    /** Attribute reading and writing its value directly in the column */
+    class ColumnAttribute implements Attribute {
+
+        final int column;
+
+        ColumnAttribute(int column) {
+            this.column = column;
+        }
+
+        @Override
+        public Identifier getIdentifier() {
+            return null;
+        }
+
+        @Override
+        public AttributeDescriptor getDescriptor() {
+            return ColumnarFeature.this.getType().getDescriptor(column);
+        }
+
+        @Override
+        public AttributeType getType() {
+            return ColumnarFeature.this.getType().getType(column);
+        }
+
+        @Override
+        public Name getName() {
+            return getDescriptor().getName();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map<Object, Object> getUserData() {
+            if (attributeUserData == null) {
+                attributeUserData = new Map[getAttributeCount()];
+            }
+            if (attributeUserData[column] == null) {
+                attributeUserData[column] = new HashMap<>();
+            }
+            return attributeUserData[column];
+        }
+
+        @Override
+        public Object getValue() {
+            return getAttribute(column);
+        }
+
+        @Override
+        public void setValue(Object newValue) {
+            setAttribute(column, newValue);
+        }
+
+        @Override
+        public boolean isNillable() {
+            return getDescriptor().isNillable();
+        }
+
+        @Override
+        public void validate() {
+            Types.validate(getDescriptor(), getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return 37 * getDescriptor().hashCode() + (37 * (value == null ? 0 : value.hashCode()));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Attribute) || obj instanceof GeometryAttribute) {
+                return false;
+            }
+            Attribute other = (Attribute) obj;
+            return Utilities.equals(getDescriptor(), other.getDescriptor())
+                    && Utilities.deepEquals(getValue(), other.getValue())
+                    && Utilities.equals(getIdentifier(), other.getIdentifier());
+        }
+
+        @Override
+        public String toString() {
+            return "ColumnarFeature.Attribute: " + getName().getLocalPart() + "=" + getValue();
+        }
+    }
+
+    /** Geometry attribute reading and writing its value directly in the column */
+    class ColumnGeometryAttribute extends ColumnAttribute implements GeometryAttribute {
+
+        ColumnGeometryAttribute(int column) {
+            super(column);
+        }
+
+        @Override
+        public GeometryType getType() {
+            return (GeometryType) super.getType();
+        }
+
+        @Override
+        public GeometryDescriptor getDescriptor() {
+            return (GeometryDescriptor) super.getDescriptor();
+        }
+
+        @Override
+        public BoundingBox getBounds() {
+            ReferencedEnvelope bounds =
+                    ReferencedEnvelope.create(getDescriptor().getCoordinateReferenceSystem());
+            Object value = getValue();
+            if (value instanceof Geometry) {
+                bounds.init(((Geometry) value).getEnvelopeInternal());
+            }
+            return bounds;
+        }
+
+        @Override
+        public void setBounds(BoundingBox bounds) {
+            // derived from the geometry, nothing to do
+        }
+
+        @Override
+        public int hashCode() {
+            return 17 * super.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof GeometryAttribute)) {
+                return false;
+            }
+            GeometryAttribute other = (GeometryAttribute) obj;
+            return Utilities.equals(getDescriptor(), other.getDescriptor())
+                    && Utilities.deepEquals(getValue(), other.getValue());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.collection;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.feature.type.GeometryDescriptor;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.collection.BaseSimpleFeatureCollection;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * FeatureCollection storing the attribute values in columns, rather than as feature objects.
+ *
+ * <p>Numbers, booleans and dates are stored in primitive arrays, strings are dictionary encoded,
+ * points are stored as packed coordinates and other geometries use packed coordinate sequences.
+ * Feature identifiers made of the type name followed by a number, as assigned by many data
+ * stores, are stored as numbers. This uses a fraction of the memory needed by a {@link
+ * ListFeatureCollection} holding the same features.
+ *
+ * <p>The features returned are lightweight views of a row of the collection, setting their
+ * attributes modifies the collection. A column falls back to storing objects when a value of an
+ * unexpected type is added, so the values read back are always equal to the ones added. User
+ * data is not stored.
+ *
+ * <p>Like {@link ListFeatureCollection}, this implementation does not use a spatial index and is
+ * not safe for concurrent modification.
+ *
+ * @since 31
+ */
+public class ColumnarFeatureCollection extends BaseSimpleFeatureCollection {
+
+    /** The attribute columns, replaced when a value is not accepted by a column */
+    Column[] columns;
+
+    /** The feature identifiers */
+    Column ids;
+
+    /** The index of the default geometry, or -1 */
+    final int geometryIndex;
+
+    int size;
+
+    /** Cached bounds */
+    ReferencedEnvelope bounds;
+
+    /** Create an empty collection for the provided schema. */
+    public ColumnarFeatureCollection(SimpleFeatureType schema) {
+        super(schema);
+        int count = schema.getAttributeCount();
+        columns = new Column[count];
+        for (int i = 0; i < count; i++) {
+            columns[i] = Column.create(schema.getDescriptor(i).getType().getBinding());
+        }
+        ids = new Column.IdColumn(schema.getTypeName() + ".");
+        GeometryDescriptor geometry = schema.getGeometryDescriptor();
+        geometryIndex = geometry == null ? -1 : schema.indexOf(geometry.getName());
+    }
+
+    /** Create a collection holding a copy of the provided features. */
+    public ColumnarFeatureCollection(SimpleFeatureCollection copy) throws IOException {
+        this(copy.getSchema());
+        copy.accepts(feature -> add((SimpleFeature) feature), null);
+    }
+
+    /**
+     * Adds a copy of the feature attributes and identifier. Attributes are matched by position if
+     * the feature has the schema of this collection, by name otherwise.
+     */
+    public void add(SimpleFeature feature) {
+        SimpleFeatureType type = feature.getFeatureType();
+        if (type == schema || type.equals(schema)) {
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = columns[i].add(feature.getAttribute(i));
+            }
+        } else {
+            for (int i = 0; i < columns.length; i++) {
+                AttributeDescriptor descriptor = schema.getDescriptor(i);
+                columns[i] = columns[i].add(feature.getAttribute(descriptor.getName()));
+            }
+        }
+        ids = ids.add(feature.getID());
+        size++;
+        bounds = null;
+    }
+
+    /** Returns a view of the feature at the given index. */
+    public SimpleFeature get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index + " is not in [0, " + size + ")");
+        }
+        return new ColumnarFeature(this, index);
+    }
+
+    /** Removes all the features. */
+    public void clear() {
+        ColumnarFeatureCollection empty = new ColumnarFeatureCollection(schema);
+        columns = empty.columns;
+        ids = empty.ids;
+        size = 0;
+        bounds = null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public SimpleFeatureIterator features() {
+        return new ColumnarFeatureIterator();
+    }
+
+    @Override
+    public synchronized ReferencedEnvelope getBounds() {
+        if (bounds == null) {
+            bounds = calculateBounds();
+        }
+        return bounds;
+    }
+
+    /** Calculate bounds from the geometries, without creating the features */
+    protected ReferencedEnvelope calculateBounds() {
+        ReferencedEnvelope extent =
+                ReferencedEnvelope.create(schema.getCoordinateReferenceSystem());
+        for (int i = 0; i < size; i++) {
+            Envelope envelope = getEnvelope(i);
+            if (envelope != null && !envelope.isNull()) {
+                extent.expandToInclude(envelope);
+            }
+        }
+        return extent;
+    }
+
+    Object getAttribute(int row, int column) {
+        checkRow(row);
+        return columns[column].get(row);
+    }
+
+    void setAttribute(int row, int column, Object value) {
+        checkRow(row);
+        columns[column] = columns[column].set(row, value);
+        if (column == geometryIndex) {
+            bounds = null;
+        }
+    }
+
+    String getFeatureID(int row) {
+        checkRow(row);
+        Object id = ids.get(row);
+        return id == null ? null : id.toString();
+    }
+
+    int getGeometryIndex() {
+        return geometryIndex;
+    }
+
+    /** Returns the envelope of the default geometry of the given row, or null if missing. */
+    Envelope getEnvelope(int row) {
+        if (geometryIndex == -1) {
+            return null;
+        }
+        Column column = columns[geometryIndex];
+        if (column instanceof Column.PointColumn) {
+            return ((Column.PointColumn) column).getEnvelope(row);
+        }
+        Object value = column.get(row);
+        return value instanceof Geometry ? ((Geometry) value).getEnvelopeInternal() : null;
+    }
+
+    private void checkRow(int row) {
+        if (row >= size) {
+            throw new IndexOutOfBoundsException(row + " is not in [0, " + size + ")");
+        }
+    }
+
+    /** Iterator returning a view for each row */
+    private class ColumnarFeatureIterator implements SimpleFeatureIterator {
+        int next;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public SimpleFeature next() throws NoSuchElementException {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            return new ColumnarFeature(ColumnarFeatureCollection.this, next++);
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+}
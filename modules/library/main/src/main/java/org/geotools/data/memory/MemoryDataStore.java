@@ -21,6 +21,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import org.geotools.api.data.DataSourceException;
 import org.geotools.api.data.DataStore;
@@ -31,6 +32,7 @@
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.feature.type.Name;
+import org.geotools.api.filter.Filter;
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.data.store.ContentDataStore;
@@ -39,6 +41,8 @@
 import org.geotools.feature.FeatureCollection;
 import org.geotools.feature.FeatureIterator;
 import org.geotools.feature.FeatureTypes;
+import org.geotools.feature.collection.FilteringSimpleFeatureCollection;
+import org.geotools.feature.collection.ParallelFeatureCollection;
 import org.geotools.util.SuppressFBWarnings;
 
 /**
@@ -239,6 +243,79 @@ private void addFeatureInternal(SimpleFeature feature) {
         }
     }
 
+    /**
+     * Indexes the values of an attribute, so that equality and range comparisons against a literal
+     * do not need to scan all the features. Indexing the default geometry speeds up spatial
+     * filters. Nothing is indexed until requested.
+     *
+     * <p>Indexes are kept up to date as features are added, modified and removed through this
+     * store, its feature writers, or the {@link MemoryEntry#getMemory()} map. Features modified in
+     * place, without a feature writer, are not seen by the indexes.
+     *
+     * @param typeName the feature type name
+     * @param attributeName the attribute to index
+     * @throws IOException If typeName cannot be found
+     * @throws IllegalArgumentException If the attribute is not part of the feature type
+     * @since 31
+     */
+    public void createIndex(String typeName, String attributeName) throws IOException {
+        entry(typeName).addAttributeIndex(attributeName);
+    }
+
+    /**
+     * Returns the features matching the query split in partitions of about the same size, so that
+     * mergeable visitors (count, sum, group by, ...) are computed concurrently on the executor, see
+     * {@link ParallelFeatureCollection}. The attribute indexes, if any, are used to select the
+     * candidate features, the filter is then evaluated by each partition.
+     *
+     * <p>The partitions are a snapshot of the committed features, later modifications are not
+     * visible. Queries that cannot be split (sorting, paging, property selection, reprojection)
+     * result in a single partition.
+     *
+     * @param query the query, its type name is required
+     * @param partitions the desired number of partitions, fewer might be returned for small
+     *     contents
+     * @param executor the executor visiting the partitions, owned by the caller
+     * @throws IOException If the type name cannot be found
+     * @since 31
+     */
+    public ParallelFeatureCollection getPartitionedFeatures(
+            Query query, int partitions, ExecutorService executor) throws IOException {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("The partition count must be positive");
+        }
+        MemoryEntry entry = entry(query.getTypeName());
+        if (!canPartition(query)) {
+            SimpleFeatureCollection features =
+                    getFeatureSource(query.getTypeName()).getFeatures(query);
+            return new ParallelFeatureCollection(
+                    features.getSchema(), Collections.singletonList(features), executor);
+        }
+
+        Filter filter = query.getFilter() != null ? query.getFilter() : Filter.INCLUDE;
+        ParallelFeatureCollection candidates =
+                ParallelFeatureCollection.partition(
+                        entry.schema, entry.getFeatures(filter), partitions, executor);
+        if (filter == Filter.INCLUDE) {
+            return candidates;
+        }
+        List<SimpleFeatureCollection> filtered = new ArrayList<>();
+        for (SimpleFeatureCollection partition : candidates.getPartitions()) {
+            filtered.add(new FilteringSimpleFeatureCollection(partition, filter));
+        }
+        return new ParallelFeatureCollection(entry.schema, filtered, executor);
+    }
+
+    /** Checks if the query can be answered by filtering partitions of the features */
+    private boolean canPartition(Query query) {
+        return (query.getSortBy() == null || query.getSortBy().length == 0)
+                && query.getStartIndex() == null
+                && query.getMaxFeatures() == Query.DEFAULT_MAX
+                && query.retrieveAllProperties()
+                && query.getCoordinateSystem() == null
+                && query.getCoordinateSystemReproject() == null;
+    }
+
     /**
      * Access MemoryState for typeName.
      *
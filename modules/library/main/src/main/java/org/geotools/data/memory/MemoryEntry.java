@@ -16,11 +16,16 @@
  */
 package org.geotools.data.memory;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
 import org.geotools.data.store.ContentEntry;
 
 /**
@@ -52,11 +57,17 @@ public class MemoryEntry extends ContentEntry {
      */
     private final Map<String, SimpleFeature> memory;
 
+    /** Spatial and attribute indexes of {@link #memory}, null until requested, guarded by it. */
+    private MemoryIndex index;
+
+    /** True if {@link #memory} changed in a way the index could not follow, guarded by it. */
+    private boolean stale;
+
     /** Entry to store content of the provided SimpleFeatureType. */
     MemoryEntry(MemoryDataStore store, SimpleFeatureType schema) {
         super(store, schema.getName());
         this.schema = schema;
-        memory = Collections.synchronizedMap(new LinkedHashMap<>());
+        memory = Collections.synchronizedMap(new IndexedMap());
     }
 
     protected MemoryState createContentState(ContentEntry entry) {
@@ -66,6 +77,10 @@ protected MemoryState createContentState(ContentEntry entry) {
     /**
      * Access the {@link #memory} field used to store feature content.
      *
+     * <p>Features added, replaced and removed through this map are reflected in the indexes, if
+     * any. The map holds the features themselves, modifying them in place, or replacing them
+     * through the entry views, is not seen by the indexes, please use a FeatureWriter instead.
+     *
      * @return the memory
      */
     public Map<String, SimpleFeature> getMemory() {
@@ -93,6 +108,189 @@ void addFeature(SimpleFeature feature) {
                             + feature.getFeatureType().getTypeName()
                             + ")");
         }
-        getMemory().put(feature.getID(), feature);
+        synchronized (memory) {
+            memory.put(feature.getID(), feature);
+        }
+    }
+
+    /** Updates the indexes after the feature has been modified in place. */
+    void featureModified(SimpleFeature feature) {
+        synchronized (memory) {
+            if (index != null) {
+                index.add(feature);
+            }
+        }
+    }
+
+    /** Updates the indexes after the feature has been removed from {@link #memory}. */
+    void featureRemoved(String fid) {
+        synchronized (memory) {
+            if (index != null) {
+                index.remove(fid);
+            }
+        }
+    }
+
+    /**
+     * Adds an index on the values of an attribute, used for equality and range comparisons.
+     *
+     * @param attribute the attribute name
+     * @throws IllegalArgumentException if the attribute is not part of the schema
+     */
+    void addAttributeIndex(String attribute) {
+        synchronized (memory) {
+            if (index == null) {
+                index = new MemoryIndex(schema);
+            }
+            index.addAttributeIndex(attribute, memory.values());
+        }
+    }
+
+    /** True if the values of the attribute are indexed. */
+    boolean hasAttributeIndex(String attribute) {
+        synchronized (memory) {
+            return index != null && index.hasAttributeIndex(attribute);
+        }
+    }
+
+    /**
+     * Snapshot of the features that might match the filter, in insertion order.
+     *
+     * <p>The indexes are used to skip features that cannot match, the filter still has to be
+     * evaluated on the returned features.
+     */
+    List<SimpleFeature> getFeatures(Filter filter) {
+        synchronized (memory) {
+            if (index != null && filter != null && filter != Filter.INCLUDE) {
+                if (stale || index.size() != memory.size()) {
+                    // content was modified through the views of getMemory()
+                    index.rebuild(memory.values());
+                    stale = false;
+                }
+                List<String> fids = index.candidates(filter);
+                if (fids != null) {
+                    List<SimpleFeature> features = new ArrayList<>(fids.size());
+                    for (String fid : fids) {
+                        SimpleFeature feature = memory.get(fid);
+                        if (feature != null) {
+                            features.add(feature);
+                        }
+                    }
+                    return features;
+                }
+            }
+            return new ArrayList<>(memory.values());
+        }
+    }
+
+    /**
+     * Feature map keeping the indexes up to date as features are put and removed. Changes the
+     * indexes cannot follow mark them stale, so that they are rebuilt on the next query.
+     *
+     * <p>Accessed through the synchronized wrapper, so under the {@link #memory} lock.
+     */
+    private class IndexedMap extends LinkedHashMap<String, SimpleFeature> {
+        private static final long serialVersionUID = 4516617853227564335L;
+
+        @Override
+        public SimpleFeature put(String fid, SimpleFeature feature) {
+            SimpleFeature previous = super.put(fid, feature);
+            if (index != null) {
+                if (feature != null) {
+                    index.add(feature);
+                } else {
+                    index.remove(fid);
+                }
+            }
+            return previous;
+        }
+
+        @Override
+        public void putAll(Map<? extends String, ? extends SimpleFeature> features) {
+            for (Map.Entry<? extends String, ? extends SimpleFeature> e : features.entrySet()) {
+                put(e.getKey(), e.getValue());
+            }
+        }
+
+        @Override
+        public SimpleFeature remove(Object fid) {
+            SimpleFeature removed = super.remove(fid);
+            if (removed != null && index != null) {
+                index.remove((String) fid);
+            }
+            return removed;
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            if (index != null) {
+                index.rebuild(Collections.emptyList());
+            }
+        }
+
+        @Override
+        public boolean remove(Object fid, Object feature) {
+            stale = true;
+            return super.remove(fid, feature);
+        }
+
+        @Override
+        public SimpleFeature putIfAbsent(String fid, SimpleFeature feature) {
+            stale = true;
+            return super.putIfAbsent(fid, feature);
+        }
+
+        @Override
+        public SimpleFeature replace(String fid, SimpleFeature feature) {
+            stale = true;
+            return super.replace(fid, feature);
+        }
+
+        @Override
+        public boolean replace(String fid, SimpleFeature previous, SimpleFeature feature) {
+            stale = true;
+            return super.replace(fid, previous, feature);
+        }
+
+        @Override
+        public void replaceAll(
+                BiFunction<? super String, ? super SimpleFeature, ? extends SimpleFeature> f) {
+            stale = true;
+            super.replaceAll(f);
+        }
+
+        @Override
+        public SimpleFeature computeIfAbsent(
+                String fid, Function<? super String, ? extends SimpleFeature> f) {
+            stale = true;
+            return super.computeIfAbsent(fid, f);
+        }
+
+        @Override
+        public SimpleFeature computeIfPresent(
+                String fid,
+                BiFunction<? super String, ? super SimpleFeature, ? extends SimpleFeature> f) {
+            stale = true;
+            return super.computeIfPresent(fid, f);
+        }
+
+        @Override
+        public SimpleFeature compute(
+                String fid,
+                BiFunction<? super String, ? super SimpleFeature, ? extends SimpleFeature> f) {
+            stale = true;
+            return super.compute(fid, f);
+        }
+
+        @Override
+        public SimpleFeature merge(
+                String fid,
+                SimpleFeature feature,
+                BiFunction<? super SimpleFeature, ? super SimpleFeature, ? extends SimpleFeature>
+                        f) {
+            stale = true;
+            return super.merge(fid, feature, f);
+        }
     }
 }
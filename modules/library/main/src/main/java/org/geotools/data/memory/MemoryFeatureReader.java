@@ -17,7 +17,6 @@
 package org.geotools.data.memory;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -40,7 +39,9 @@ public MemoryFeatureReader(ContentState state, Query query) throws IOException {
         featureType = state.getFeatureType();
         MemoryEntry entry = (MemoryEntry) state.getEntry();
 
-        final List<SimpleFeature> internalCollection = new ArrayList<>(entry.getMemory().values());
+        // candidates selected by the indexes, the query filter is applied by the caller
+        final List<SimpleFeature> internalCollection =
+                entry.getFeatures(query == null ? null : query.getFilter());
         iterator = internalCollection.iterator();
     }
 
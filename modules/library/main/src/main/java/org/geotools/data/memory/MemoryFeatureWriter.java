@@ -96,6 +96,7 @@ public void remove() throws IOException {
         if (live != null) {
             // remove existing content
             iterator.remove();
+            state.getEntry().featureRemoved(live.getID());
             live = null;
             current = null;
         } else {
@@ -142,6 +143,7 @@ public void write() throws IOException {
                                     + " on "
                                     + typeName);
                 }
+                state.getEntry().featureModified(live);
 
                 ReferencedEnvelope bounds = new ReferencedEnvelope();
                 bounds.expandToInclude(new ReferencedEnvelope(live.getBounds()));
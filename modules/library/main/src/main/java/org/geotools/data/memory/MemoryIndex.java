@@ -0,0 +1,544 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.memory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.api.filter.And;
+import org.geotools.api.filter.BinaryComparisonOperator;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.Id;
+import org.geotools.api.filter.Or;
+import org.geotools.api.filter.PropertyIsBetween;
+import org.geotools.api.filter.PropertyIsEqualTo;
+import org.geotools.api.filter.PropertyIsGreaterThan;
+import org.geotools.api.filter.PropertyIsGreaterThanOrEqualTo;
+import org.geotools.api.filter.PropertyIsLessThan;
+import org.geotools.api.filter.PropertyIsLessThanOrEqualTo;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.api.filter.identity.FeatureId;
+import org.geotools.api.filter.identity.Identifier;
+import org.geotools.api.filter.identity.ResourceId;
+import org.geotools.api.filter.spatial.BinarySpatialOperator;
+import org.geotools.api.filter.spatial.Disjoint;
+import org.geotools.api.filter.spatial.DistanceBufferOperator;
+import org.geotools.api.geometry.BoundingBox;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.quadtree.Quadtree;
+
+/**
+ * Indexes the features of a {@link MemoryEntry}, so that filters can be answered without scanning
+ * all the features.
+ *
+ * <p>When requested, the default geometry is kept in a {@link Quadtree}, which unlike the STRtree
+ * can be updated after it has been built. Attributes can be added to sorted indexes, used for
+ * equality and range comparisons against a literal. The index only selects candidates, a superset
+ * of the features matching the filter, which still has to be evaluated on each of them.
+ *
+ * <p>This class is not thread safe, access is guarded by the {@link MemoryEntry} memory.
+ */
+final class MemoryIndex {
+
+    /** What is indexed for a feature */
+    static final class Record {
+        /** The insertion order, preserved in the candidates */
+        final long sequence;
+
+        /** The bounds of the default geometry, or null if empty */
+        Envelope envelope;
+
+        /** The keys in each of the attribute indexes, null when not indexed */
+        Object[] keys;
+
+        Record(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    /** A sorted index of the values of an attribute */
+    static final class AttributeIndex {
+        final int position;
+
+        /** Integral and double values are indexed as doubles, to allow mixed comparisons */
+        final boolean numeric;
+
+        /** True for integral bindings, the range of values they can hold */
+        final boolean integral;
+
+        final double min;
+
+        final double max;
+
+        final Class<?> binding;
+
+        final NavigableMap<Object, Set<String>> values = new TreeMap<>();
+
+        /** Features whose value could not be indexed, they are candidates for any filter */
+        final Set<String> unindexed = new HashSet<>();
+
+        AttributeIndex(int position, Class<?> binding) {
+            this.position = position;
+            this.binding = binding;
+            this.numeric =
+                    binding == Byte.class
+                            || binding == Short.class
+                            || binding == Integer.class
+                            || binding == Double.class;
+            this.integral = numeric && binding != Double.class;
+            if (binding == Byte.class) {
+                min = Byte.MIN_VALUE;
+                max = Byte.MAX_VALUE;
+            } else if (binding == Short.class) {
+                min = Short.MIN_VALUE;
+                max = Short.MAX_VALUE;
+            } else {
+                min = Integer.MIN_VALUE;
+                max = Integer.MAX_VALUE;
+            }
+        }
+
+        /** The key of an attribute value, or null if it cannot be indexed */
+        Object valueKey(Object value) {
+            if (value == null) {
+                return null;
+            } else if (numeric) {
+                if (value.getClass() != binding || Double.isNaN(((Number) value).doubleValue())) {
+                    return null;
+                }
+                return ((Number) value).doubleValue();
+            }
+            return value.getClass() == binding && value instanceof Comparable ? value : null;
+        }
+
+        /**
+         * The key of a literal, or null if comparing it with the indexed keys could give a
+         * different answer than the filter
+         *
+         * @param converted true if the filter converts the literal to the attribute binding, as
+         *     equality and between do, truncating decimals for integral bindings
+         * @param ordered true for the less and greater comparisons, which compare strings that
+         *     parse as numbers as numbers
+         */
+        Object literalKey(Object value, boolean converted, boolean ordered) {
+            if (numeric) {
+                double number;
+                if (value instanceof Byte
+                        || value instanceof Short
+                        || value instanceof Integer
+                        || value instanceof Double) {
+                    number = ((Number) value).doubleValue();
+                } else if (value instanceof Long
+                        && Math.abs((Long) value) <= MAX_EXACT_DOUBLE) {
+                    number = ((Long) value).doubleValue();
+                } else {
+                    return null;
+                }
+                if (Double.isNaN(number)) {
+                    return null;
+                } else if (converted
+                        && integral
+                        && (number != Math.rint(number) || number < min || number > max)) {
+                    // the conversion would change the literal value
+                    return null;
+                }
+                return number;
+            } else if (ordered && value instanceof String && isNumber((String) value)) {
+                // indexed strings are sorted lexically
+                return null;
+            }
+            return valueKey(value);
+        }
+
+        private static boolean isNumber(String value) {
+            try {
+                Double.parseDouble(value);
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        void add(String fid, Object key) {
+            if (key == null) {
+                unindexed.add(fid);
+            } else {
+                values.computeIfAbsent(key, k -> new HashSet<>()).add(fid);
+            }
+        }
+
+        void remove(String fid, Object key) {
+            if (key == null) {
+                unindexed.remove(fid);
+            } else {
+                Set<String> fids = values.get(key);
+                if (fids != null) {
+                    fids.remove(fid);
+                    if (fids.isEmpty()) {
+                        values.remove(key);
+                    }
+                }
+            }
+        }
+
+        Set<String> select(NavigableMap<Object, Set<String>> range) {
+            Set<String> result = new HashSet<>(unindexed);
+            for (Set<String> fids : range.values()) {
+                result.addAll(fids);
+            }
+            return result;
+        }
+    }
+
+    /** Longs up to this value are exactly represented by doubles */
+    static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    final SimpleFeatureType schema;
+
+    /** The default geometry name, null until the spatial index is requested */
+    String geometryName;
+
+    Quadtree spatialIndex = new Quadtree();
+
+    final Map<String, Record> records = new HashMap<>();
+
+    final Map<String, AttributeIndex> attributeIndexes = new LinkedHashMap<>();
+
+    long sequence;
+
+    MemoryIndex(SimpleFeatureType schema) {
+        this.schema = schema;
+    }
+
+    /** Number of features indexed */
+    int size() {
+        return records.size();
+    }
+
+    /** Adds a feature, or updates its entries if already indexed */
+    void add(SimpleFeature feature) {
+        String fid = feature.getID();
+        Record record = records.get(fid);
+        if (record == null) {
+            record = new Record(sequence++);
+            records.put(fid, record);
+        } else {
+            unindex(fid, record);
+        }
+        index(fid, record, feature);
+    }
+
+    /** Removes a feature from the index */
+    void remove(String fid) {
+        Record record = records.remove(fid);
+        if (record != null) {
+            unindex(fid, record);
+        }
+    }
+
+    /** Rebuilds the index from scratch, preserving the iteration order of the features */
+    void rebuild(Collection<SimpleFeature> features) {
+        records.clear();
+        spatialIndex = new Quadtree();
+        for (AttributeIndex index : attributeIndexes.values()) {
+            index.values.clear();
+            index.unindexed.clear();
+        }
+        sequence = 0;
+        for (SimpleFeature feature : features) {
+            add(feature);
+        }
+    }
+
+    /**
+     * Adds an attribute index, filled with the provided features. The default geometry goes in the
+     * spatial index.
+     */
+    void addAttributeIndex(String attribute, Collection<SimpleFeature> features) {
+        AttributeDescriptor descriptor = schema.getDescriptor(attribute);
+        if (descriptor == null) {
+            throw new IllegalArgumentException(
+                    "Attribute " + attribute + " not found in " + schema.getTypeName());
+        }
+        if (descriptor.equals(schema.getGeometryDescriptor())) {
+            if (geometryName == null) {
+                geometryName = descriptor.getLocalName();
+                rebuild(features);
+            }
+            return;
+        }
+        if (attributeIndexes.containsKey(attribute)) {
+            return;
+        }
+        attributeIndexes.put(
+                attribute,
+                new AttributeIndex(schema.indexOf(attribute), descriptor.getType().getBinding()));
+        rebuild(features);
+    }
+
+    boolean hasAttributeIndex(String attribute) {
+        return attributeIndexes.containsKey(attribute) || attribute.equals(geometryName);
+    }
+
+    private void index(String fid, Record record, SimpleFeature feature) {
+        if (geometryName != null) {
+            Object geometry = feature.getDefaultGeometry();
+            if (geometry instanceof Geometry && !((Geometry) geometry).isEmpty()) {
+                record.envelope = ((Geometry) geometry).getEnvelopeInternal();
+                spatialIndex.insert(record.envelope, fid);
+            } else {
+                record.envelope = null;
+            }
+        }
+        if (!attributeIndexes.isEmpty()) {
+            record.keys = new Object[attributeIndexes.size()];
+            int i = 0;
+            for (AttributeIndex index : attributeIndexes.values()) {
+                Object key = index.valueKey(feature.getAttribute(index.position));
+                record.keys[i++] = key;
+                index.add(fid, key);
+            }
+        }
+    }
+
+    private void unindex(String fid, Record record) {
+        if (record.envelope != null) {
+            spatialIndex.remove(record.envelope, fid);
+            record.envelope = null;
+        }
+        if (record.keys != null) {
+            int i = 0;
+            for (AttributeIndex index : attributeIndexes.values()) {
+                if (i < record.keys.length) {
+                    index.remove(fid, record.keys[i++]);
+                }
+            }
+            record.keys = null;
+        }
+    }
+
+    /**
+     * Returns the ids of the features that might match the filter, in insertion order, or null if
+     * the filter cannot use the index and all the features have to be scanned.
+     */
+    List<String> candidates(Filter filter) {
+        Set<String> selected = select(filter);
+        if (selected == null) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(selected.size());
+        for (String fid : selected) {
+            if (records.containsKey(fid)) {
+                result.add(fid);
+            }
+        }
+        result.sort(Comparator.comparingLong(fid -> records.get(fid).sequence));
+        return result;
+    }
+
+    /** The candidates for a filter, in no particular order, or null if not indexable */
+    private Set<String> select(Filter filter) {
+        if (filter == Filter.EXCLUDE) {
+            return new HashSet<>();
+        } else if (filter instanceof Id) {
+            return selectIds((Id) filter);
+        } else if (filter instanceof And) {
+            Set<String> result = null;
+            for (Filter child : ((And) filter).getChildren()) {
+                Set<String> selected = select(child);
+                if (selected == null) {
+                    continue;
+                } else if (result == null) {
+                    result = selected;
+                } else if (selected.size() < result.size()) {
+                    selected.retainAll(result);
+                    result = selected;
+                } else {
+                    result.retainAll(selected);
+                }
+            }
+            return result;
+        } else if (filter instanceof Or) {
+            Set<String> result = new HashSet<>();
+            for (Filter child : ((Or) filter).getChildren()) {
+                Set<String> selected = select(child);
+                if (selected == null) {
+                    return null;
+                }
+                result.addAll(selected);
+            }
+            return result;
+        } else if (filter instanceof BinarySpatialOperator) {
+            return selectSpatial((BinarySpatialOperator) filter);
+        } else if (filter instanceof BinaryComparisonOperator) {
+            return selectComparison((BinaryComparisonOperator) filter);
+        } else if (filter instanceof PropertyIsBetween) {
+            return selectBetween((PropertyIsBetween) filter);
+        }
+        return null;
+    }
+
+    private Set<String> selectIds(Id filter) {
+        Set<String> result = new HashSet<>();
+        for (Identifier identifier : filter.getIdentifiers()) {
+            if (!(identifier instanceof FeatureId) || identifier instanceof ResourceId) {
+                // versioned lookups are left to the filter
+                return null;
+            }
+            result.add(((FeatureId) identifier).getID());
+        }
+        return result;
+    }
+
+    private Set<String> selectSpatial(BinarySpatialOperator filter) {
+        // all the other operators imply the envelopes intersect
+        if (geometryName == null
+                || filter instanceof Disjoint
+                || filter instanceof DistanceBufferOperator) {
+            return null;
+        }
+        Expression property = filter.getExpression1();
+        Expression literal = filter.getExpression2();
+        if (property instanceof Literal) {
+            property = filter.getExpression2();
+            literal = filter.getExpression1();
+        }
+        if (!(property instanceof PropertyName) || !(literal instanceof Literal)) {
+            return null;
+        }
+        String name = ((PropertyName) property).getPropertyName();
+        if (name != null && !name.isEmpty() && !name.equals(geometryName)) {
+            return null;
+        }
+        Envelope envelope = toEnvelope(((Literal) literal).getValue());
+        if (envelope == null || envelope.isNull()) {
+            return null;
+        }
+        Set<String> result = new HashSet<>();
+        for (Object item : spatialIndex.query(envelope)) {
+            // the quadtree returns the items of the intersecting nodes
+            Record record = records.get(item);
+            if (record != null
+                    && record.envelope != null
+                    && record.envelope.intersects(envelope)) {
+                result.add((String) item);
+            }
+        }
+        return result;
+    }
+
+    private static Envelope toEnvelope(Object value) {
+        if (value instanceof Geometry) {
+            return ((Geometry) value).getEnvelopeInternal();
+        } else if (value instanceof Envelope) {
+            return (Envelope) value;
+        } else if (value instanceof BoundingBox) {
+            return ReferencedEnvelope.reference((BoundingBox) value);
+        }
+        return null;
+    }
+
+    private Set<String> selectComparison(BinaryComparisonOperator filter) {
+        boolean equal = filter instanceof PropertyIsEqualTo;
+        boolean less =
+                filter instanceof PropertyIsLessThan
+                        || filter instanceof PropertyIsLessThanOrEqualTo;
+        boolean greater =
+                filter instanceof PropertyIsGreaterThan
+                        || filter instanceof PropertyIsGreaterThanOrEqualTo;
+        if (!equal && !less && !greater) {
+            return null;
+        }
+        boolean inclusive =
+                equal
+                        || filter instanceof PropertyIsLessThanOrEqualTo
+                        || filter instanceof PropertyIsGreaterThanOrEqualTo;
+        Expression property = filter.getExpression1();
+        Expression literal = filter.getExpression2();
+        if (property instanceof Literal && literal instanceof PropertyName) {
+            // literal on the left, flip the comparison
+            property = filter.getExpression2();
+            literal = filter.getExpression1();
+            boolean swap = less;
+            less = greater;
+            greater = swap;
+        }
+        AttributeIndex index = getAttributeIndex(property);
+        if (index == null || !(literal instanceof Literal)) {
+            return null;
+        }
+        Object value = ((Literal) literal).getValue();
+        if (equal && !filter.isMatchingCase() && value instanceof String) {
+            return null;
+        }
+        Object key = value == null ? null : index.literalKey(value, equal, !equal);
+        if (key == null) {
+            return null;
+        }
+        if (equal) {
+            return index.select(index.values.subMap(key, true, key, true));
+        } else if (less) {
+            return index.select(index.values.headMap(key, inclusive));
+        } else {
+            return index.select(index.values.tailMap(key, inclusive));
+        }
+    }
+
+    private Set<String> selectBetween(PropertyIsBetween filter) {
+        AttributeIndex index = getAttributeIndex(filter.getExpression());
+        if (index == null
+                || !(filter.getLowerBoundary() instanceof Literal)
+                || !(filter.getUpperBoundary() instanceof Literal)) {
+            return null;
+        }
+        Object lower = ((Literal) filter.getLowerBoundary()).getValue();
+        Object upper = ((Literal) filter.getUpperBoundary()).getValue();
+        Object lowerKey = lower == null ? null : index.literalKey(lower, true, false);
+        Object upperKey = upper == null ? null : index.literalKey(upper, true, false);
+        if (lowerKey == null || upperKey == null) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        Comparable<Object> comparable = (Comparable<Object>) lowerKey;
+        if (comparable.compareTo(upperKey) > 0) {
+            return index.select(new TreeMap<>());
+        }
+        return index.select(index.values.subMap(lowerKey, true, upperKey, true));
+    }
+
+    private AttributeIndex getAttributeIndex(Expression expression) {
+        if (!(expression instanceof PropertyName)) {
+            return null;
+        }
+        return attributeIndexes.get(((PropertyName) expression).getPropertyName());
+    }
+}
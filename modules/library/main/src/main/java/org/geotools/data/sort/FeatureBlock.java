@@ -0,0 +1,30 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.sort;
+
+import java.io.IOException;
+import org.geotools.api.feature.simple.SimpleFeature;
+
+/** A sorted block of features, as spilled to disk by the {@link MergeSortDumper} */
+interface FeatureBlock {
+
+    /** Returns the current feature, or null if the block is exhausted */
+    SimpleFeature feature() throws IOException;
+
+    /** Moves to the next feature and returns it, or returns null if the block is exhausted */
+    SimpleFeature next() throws IOException;
+}
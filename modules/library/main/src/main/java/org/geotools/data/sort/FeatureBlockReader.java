@@ -25,7 +25,7 @@
  *
  * @author Andrea Aime - GeoSolutions
  */
-class FeatureBlockReader {
+class FeatureBlockReader implements FeatureBlock {
 
     SimpleFeature curr;
 
@@ -41,6 +41,7 @@ public FeatureBlockReader(SimpleFeatureIO io, long start, int count) {
         this.io = io;
     }
 
+    @Override
     public SimpleFeature feature() throws IOException {
         if (curr == null && count > 0) {
             curr = readNextFeature();
@@ -48,6 +49,7 @@ public SimpleFeature feature() throws IOException {
         return curr;
     }
 
+    @Override
     public SimpleFeature next() throws IOException {
         curr = readNextFeature();
         return curr;
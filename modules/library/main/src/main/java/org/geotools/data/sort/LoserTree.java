@@ -0,0 +1,116 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.sort;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.geotools.api.feature.simple.SimpleFeature;
+
+/**
+ * Merges a list of sorted {@link FeatureBlock} using a tournament tree of losers, performing
+ * log2(k) comparisons for each returned feature, instead of the k-1 of a linear scan.
+ *
+ * <p>The tree is stored in an array, the internal nodes are at positions [1, k) and hold the
+ * loser of the match played at that node, while position 0 holds the overall winner. The leaves,
+ * at positions [k, 2k), are implicit, and map to the blocks. Ties are broken using the block
+ * index, so that the merge is stable when the blocks are listed in input order.
+ */
+class LoserTree {
+
+    private final List<? extends FeatureBlock> blocks;
+
+    private final Comparator<SimpleFeature> comparator;
+
+    private final SimpleFeature[] heads;
+
+    private final int[] tree;
+
+    public LoserTree(List<? extends FeatureBlock> blocks, Comparator<SimpleFeature> comparator)
+            throws IOException {
+        this.blocks = blocks;
+        this.comparator = comparator;
+        int k = blocks.size();
+        this.heads = new SimpleFeature[k];
+        this.tree = new int[Math.max(k, 1)];
+        for (int i = 0; i < k; i++) {
+            heads[i] = blocks.get(i).feature();
+        }
+        if (k > 0) {
+            tree[0] = build(1);
+        }
+    }
+
+    /** Plays the initial matches in the sub-tree rooted at the given node, returns the winner */
+    private int build(int node) {
+        int k = heads.length;
+        if (node >= k) {
+            return node - k;
+        }
+        int left = build(node * 2);
+        int right = build(node * 2 + 1);
+        if (beats(left, right)) {
+            tree[node] = right;
+            return left;
+        } else {
+            tree[node] = left;
+            return right;
+        }
+    }
+
+    /** Returns true if the head of block a comes before the head of block b */
+    private boolean beats(int a, int b) {
+        SimpleFeature fa = heads[a];
+        SimpleFeature fb = heads[b];
+        // exhausted blocks always lose
+        if (fa == null) {
+            return false;
+        } else if (fb == null) {
+            return true;
+        }
+        int result = comparator.compare(fa, fb);
+        return result < 0 || (result == 0 && a < b);
+    }
+
+    /** Returns true if there are more features to be merged */
+    public boolean hasNext() {
+        return heads.length > 0 && heads[tree[0]] != null;
+    }
+
+    /** Returns the smallest feature among the block heads, and moves forward its block */
+    public SimpleFeature next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int winner = tree[0];
+        SimpleFeature result = heads[winner];
+        heads[winner] = blocks.get(winner).next();
+
+        // replay the matches along the path from the leaf to the root
+        for (int node = (winner + heads.length) >>> 1; node > 0; node >>>= 1) {
+            int loser = tree[node];
+            if (beats(loser, winner)) {
+                tree[node] = winner;
+                winner = loser;
+            }
+        }
+        tree[0] = winner;
+
+        return result;
+    }
+}
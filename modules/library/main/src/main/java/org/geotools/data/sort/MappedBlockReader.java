@@ -0,0 +1,210 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.sort;
+
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.util.NIOUtilities;
+
+/**
+ * Reads the features stored in a spill file, containing a single sorted block, by memory mapping
+ * it. The file is deleted when the reader is closed.
+ */
+class MappedBlockReader implements FeatureBlock, Closeable {
+
+    File file;
+
+    MappedByteBuffer buffer;
+
+    SimpleFeatureIO io;
+
+    SimpleFeature curr;
+
+    int count;
+
+    public MappedBlockReader(File file, SimpleFeatureType schema, int count) throws IOException {
+        this.file = file;
+        this.count = count;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(
+                        "Sorted block "
+                                + file
+                                + " is too large to be mapped, reduce the maximum number of "
+                                + "features sorted in memory");
+            }
+            // the mapping stays valid after the channel is closed
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        this.io = new SimpleFeatureIO(schema, new BufferInput(buffer), null);
+    }
+
+    @Override
+    public SimpleFeature feature() throws IOException {
+        if (curr == null && count > 0) {
+            curr = readNextFeature();
+        }
+        return curr;
+    }
+
+    @Override
+    public SimpleFeature next() throws IOException {
+        curr = readNextFeature();
+        return curr;
+    }
+
+    private SimpleFeature readNextFeature() throws IOException {
+        if (count <= 0) {
+            return null;
+        }
+        count--;
+        try {
+            return io.read();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Sorted block " + file + " is truncated", e);
+        }
+    }
+
+    /** Unmaps and deletes the spill file */
+    @Override
+    public void close() throws IOException {
+        if (buffer != null) {
+            NIOUtilities.clean(buffer, true);
+            buffer = null;
+        }
+        file.delete();
+    }
+
+    /** A {@link DataInput} reading directly from a {@link ByteBuffer} */
+    static class BufferInput implements DataInput {
+
+        ByteBuffer buffer;
+
+        BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void readFully(byte[] b) throws IOException {
+            readFully(b, 0, b.length);
+        }
+
+        @Override
+        public void readFully(byte[] b, int off, int len) throws IOException {
+            if (buffer.remaining() < len) {
+                throw new EOFException();
+            }
+            buffer.get(b, off, len);
+        }
+
+        @Override
+        public int skipBytes(int n) {
+            int skipped = Math.min(Math.max(n, 0), buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean readBoolean() {
+            return buffer.get() != 0;
+        }
+
+        @Override
+        public byte readByte() {
+            return buffer.get();
+        }
+
+        @Override
+        public int readUnsignedByte() {
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public short readShort() {
+            return buffer.getShort();
+        }
+
+        @Override
+        public int readUnsignedShort() {
+            return buffer.getShort() & 0xFFFF;
+        }
+
+        @Override
+        public char readChar() {
+            return buffer.getChar();
+        }
+
+        @Override
+        public int readInt() {
+            return buffer.getInt();
+        }
+
+        @Override
+        public long readLong() {
+            return buffer.getLong();
+        }
+
+        @Override
+        public float readFloat() {
+            return buffer.getFloat();
+        }
+
+        @Override
+        public double readDouble() {
+            return buffer.getDouble();
+        }
+
+        /** Same as {@link DataInputStream#readLine()}, bytes are turned into chars as is */
+        @Override
+        public String readLine() {
+            if (!buffer.hasRemaining()) {
+                return null;
+            }
+            StringBuilder sb = new StringBuilder();
+            while (buffer.hasRemaining()) {
+                int c = buffer.get() & 0xFF;
+                if (c == '\n') {
+                    break;
+                } else if (c == '\r') {
+                    if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n') {
+                        buffer.get();
+                    }
+                    break;
+                }
+                sb.append((char) c);
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String readUTF() throws IOException {
+            return DataInputStream.readUTF(this);
+        }
+    }
+}
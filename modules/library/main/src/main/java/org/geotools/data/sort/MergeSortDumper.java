@@ -16,7 +16,10 @@
  */
 package org.geotools.data.sort;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -24,6 +27,10 @@
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.geotools.api.data.Query;
 import org.geotools.api.data.SimpleFeatureReader;
 import org.geotools.api.feature.simple.SimpleFeature;
@@ -74,7 +81,7 @@ static SimpleFeatureReader getDelegateReader(SimpleFeatureReader reader, Query q
             throws IOException {
         int maxFeatures = getMaxFeatures(query);
 
-        return getDelegateReader(reader, query.getSortBy(), maxFeatures);
+        return getDelegateReader(reader, query.getSortBy(), maxFeatures, isParallel(query));
     }
 
     /** Gets the max amount amount of features to keep in memory from the query and system hints */
@@ -92,8 +99,29 @@ static int getMaxFeatures(Query query) {
         return maxFeatures;
     }
 
+    /** Checks if the parallel merge-sort has been enabled in the query or system hints */
+    static boolean isParallel(Query query) {
+        Hints hints = null;
+        if (query != null) {
+            hints = query.getHints();
+        }
+        Object parallel = null;
+        if (hints != null && hints.get(Hints.PARALLEL_MEMORY_SORT) != null) {
+            parallel = hints.get(Hints.PARALLEL_MEMORY_SORT);
+        } else {
+            parallel = Hints.getSystemDefault(Hints.PARALLEL_MEMORY_SORT);
+        }
+        return Boolean.TRUE.equals(parallel);
+    }
+
     static SimpleFeatureReader getDelegateReader(
             SimpleFeatureReader reader, SortBy[] sortBy, int maxFeatures) throws IOException {
+        return getDelegateReader(reader, sortBy, maxFeatures, isParallel(null));
+    }
+
+    static SimpleFeatureReader getDelegateReader(
+            SimpleFeatureReader reader, SortBy[] sortBy, int maxFeatures, boolean parallel)
+            throws IOException {
         if (maxFeatures < 0) {
             maxFeatures = getMaxFeatures(Query.ALL);
         }
@@ -116,6 +144,10 @@ static SimpleFeatureReader getDelegateReader(
                             + Arrays.toString(sortBy));
         }
 
+        if (parallel) {
+            return getParallelReader(reader, comparator, maxFeatures);
+        }
+
         int count = 0;
         File file = null;
         SimpleFeatureIO io = null;
@@ -162,8 +194,9 @@ static SimpleFeatureReader getDelegateReader(
                 return new DelegateSimpleFeatureReader(schema, fi);
             } else {
                 // go merge-sort
+                MergeSortReader result = new MergeSortReader(schema, io, readers, comparator);
                 cleanFile = false;
-                return new MergeSortReader(schema, io, readers, comparator);
+                return result;
             }
 
         } finally {
@@ -188,4 +221,146 @@ static FeatureBlockReader storeToFile(SimpleFeatureIO io, List<SimpleFeature> fe
 
         return new FeatureBlockReader(io, start, features.size());
     }
+
+    /**
+     * Parallel version of the merge-sort, blocks are sorted and written each to its own spill file
+     * on a dedicated set of threads, while the next block is being read, and then merged reading
+     * back the spill files via memory mapping. The spills block on disk writes, so they are kept
+     * off the common fork join pool.
+     */
+    static SimpleFeatureReader getParallelReader(
+            SimpleFeatureReader reader, Comparator<SimpleFeature> comparator, int maxFeatures)
+            throws IOException {
+        SimpleFeatureType schema = reader.getFeatureType();
+        int maxPending = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(maxPending);
+        List<Future<File>> spills = new ArrayList<>();
+        List<MappedBlockReader> blocks = new ArrayList<>();
+        List<Integer> counts = new ArrayList<>();
+        boolean cleanFiles = true;
+        try {
+            List<SimpleFeature> features = new ArrayList<>();
+            int joined = 0;
+            while (reader.hasNext()) {
+                features.add(reader.next());
+                if (features.size() > maxFeatures) {
+                    // bound the number of blocks in memory
+                    if (spills.size() - joined >= maxPending) {
+                        join(spills.get(joined++));
+                    }
+                    List<SimpleFeature> block = features;
+                    spills.add(pool.submit(() -> sortAndSpill(schema, block, comparator)));
+                    counts.add(block.size());
+                    features = new ArrayList<>();
+                }
+            }
+
+            if (spills.isEmpty()) {
+                // everything fit in memory, sort and return a reader on top of the list
+                SimpleFeature[] sorted = features.toArray(new SimpleFeature[features.size()]);
+                Arrays.parallelSort(sorted, comparator);
+
+                @SuppressWarnings("PMD.CloseResource") // returned in wrapper
+                SimpleFeatureIterator fi =
+                        new ListFeatureCollection(schema, Arrays.asList(sorted)).features();
+                return new DelegateSimpleFeatureReader(schema, fi);
+            }
+            if (!features.isEmpty()) {
+                List<SimpleFeature> block = features;
+                spills.add(pool.submit(() -> sortAndSpill(schema, block, comparator)));
+                counts.add(block.size());
+            }
+
+            // merge the blocks, in input order to keep the sort stable
+            for (int i = 0; i < spills.size(); i++) {
+                blocks.add(new MappedBlockReader(join(spills.get(i)), schema, counts.get(i)));
+            }
+            MergeSortReader result =
+                    new MergeSortReader(schema, blocks, comparator, () -> closeAll(blocks));
+            cleanFiles = false;
+            return result;
+        } finally {
+            try {
+                if (cleanFiles) {
+                    discard(blocks, spills);
+                }
+            } finally {
+                pool.shutdown();
+                reader.close();
+            }
+        }
+    }
+
+    /** Sorts the features and writes them in a new spill file */
+    static File sortAndSpill(
+            SimpleFeatureType schema,
+            List<SimpleFeature> features,
+            Comparator<SimpleFeature> comparator)
+            throws IOException {
+        features.sort(comparator);
+        File file = File.createTempFile("sorted", ".features");
+        boolean success = false;
+        try (DataOutputStream out =
+                new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(file), 64 * 1024))) {
+            SimpleFeatureIO io = new SimpleFeatureIO(schema, null, out);
+            for (SimpleFeature sf : features) {
+                io.write(sf);
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                file.delete();
+            }
+        }
+        return file;
+    }
+
+    /** Waits for the spill task to complete, unwrapping its eventual exception */
+    private static File join(Future<File> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sorting features", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to sort features", cause);
+        }
+    }
+
+    /** Removes all the spill files, waiting for the outstanding spills to complete */
+    private static void discard(List<MappedBlockReader> blocks, List<Future<File>> spills) {
+        for (MappedBlockReader block : blocks) {
+            try {
+                block.close();
+            } catch (IOException e) {
+                // we are already failing, the original exception is more relevant
+            }
+        }
+        for (int i = blocks.size(); i < spills.size(); i++) {
+            try {
+                join(spills.get(i)).delete();
+            } catch (IOException e) {
+                // the spill failed, and its file has already been removed
+            }
+        }
+    }
+
+    private static void closeAll(List<MappedBlockReader> blocks) throws IOException {
+        IOException exception = null;
+        for (MappedBlockReader block : blocks) {
+            try {
+                block.close();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.geotools.data.sort;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.util.Comparator;
@@ -26,30 +27,43 @@
 import org.geotools.api.feature.simple.SimpleFeatureType;
 
 /**
- * Reads from a list of {@link FeatureBlockReader} backed by a {@link RandomAccessFile} and performs
- * the classic merge-sort algorithm
+ * Reads from a list of sorted {@link FeatureBlock}, backed by a {@link RandomAccessFile} or by
+ * spill files, and performs the classic merge-sort algorithm, using a {@link LoserTree} to pick the
+ * next feature
  *
  * @author Andrea Aime - GeoSolutions
  */
 class MergeSortReader implements SimpleFeatureReader {
 
-    List<FeatureBlockReader> readers;
+    LoserTree tree;
 
-    SimpleFeatureIO io;
+    Closeable resources;
 
     SimpleFeatureType schema;
 
-    Comparator<SimpleFeature> comparator;
-
     public MergeSortReader(
             SimpleFeatureType schema,
             SimpleFeatureIO io,
             List<FeatureBlockReader> readers,
-            Comparator<SimpleFeature> comparator) {
+            Comparator<SimpleFeature> comparator)
+            throws IOException {
+        this(schema, readers, comparator, () -> io.close(true));
+    }
+
+    /**
+     * Builds a reader merging the given blocks
+     *
+     * @param resources Releases the resources backing the blocks, called on {@link #close()}
+     */
+    MergeSortReader(
+            SimpleFeatureType schema,
+            List<? extends FeatureBlock> blocks,
+            Comparator<SimpleFeature> comparator,
+            Closeable resources)
+            throws IOException {
         this.schema = schema;
-        this.comparator = comparator;
-        this.readers = readers;
-        this.io = io;
+        this.resources = resources;
+        this.tree = new LoserTree(blocks, comparator);
     }
 
     @Override
@@ -60,38 +74,16 @@ public SimpleFeatureType getFeatureType() {
     @Override
     public SimpleFeature next()
             throws IOException, IllegalArgumentException, NoSuchElementException {
-        if (readers.isEmpty()) {
-            throw new NoSuchElementException();
-        }
-
-        // find the smallest feature
-        int selected = 0;
-        for (int i = 1; i < readers.size(); i++) {
-            SimpleFeature sf = readers.get(selected).feature();
-            SimpleFeature cf = readers.get(i).feature();
-            if (comparator.compare(sf, cf) > 0) {
-                selected = i;
-            }
-        }
-
-        // move on the reader of the selected feature
-        FeatureBlockReader reader = readers.get(selected);
-        SimpleFeature sf = reader.feature();
-        if (reader.next() == null) {
-            readers.remove(selected);
-        }
-
-        // return the selected feature
-        return sf;
+        return tree.next();
     }
 
     @Override
     public boolean hasNext() throws IOException {
-        return !readers.isEmpty();
+        return tree.hasNext();
     }
 
     @Override
     public void close() throws IOException {
-        io.close(true);
+        resources.close();
     }
 }
@@ -18,6 +18,8 @@
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -53,6 +55,10 @@ public class SimpleFeatureIO {
 
     RandomAccessFile raf;
 
+    DataInput in;
+
+    DataOutput out;
+
     SimpleFeatureType schema;
 
     SimpleFeatureBuilder builder;
@@ -68,6 +74,19 @@ public class SimpleFeatureIO {
     public SimpleFeatureIO(File file, SimpleFeatureType schema) throws FileNotFoundException {
         this.file = file;
         this.raf = new RandomAccessFile(file, "rw");
+        this.in = raf;
+        this.out = raf;
+        this.schema = schema;
+        this.builder = new SimpleFeatureBuilder(schema);
+    }
+
+    /**
+     * Builds an IO encoding and decoding features over the given streams, without a backing random
+     * access file. Either stream can be null, if only reading or writing is required.
+     */
+    SimpleFeatureIO(SimpleFeatureType schema, DataInput in, DataOutput out) {
+        this.in = in;
+        this.out = out;
         this.schema = schema;
         this.builder = new SimpleFeatureBuilder(schema);
     }
@@ -77,7 +96,7 @@ public void write(SimpleFeature sf) throws IOException {
         // write each attribute in the random access file
         List<AttributeDescriptor> attributes = schema.getAttributeDescriptors();
         // write feature id
-        raf.writeUTF(sf.getID());
+        out.writeUTF(sf.getID());
         // write the attributes
         for (AttributeDescriptor ad : attributes) {
             Object value = sf.getAttribute(ad.getLocalName());
@@ -88,7 +107,7 @@ public void write(SimpleFeature sf) throws IOException {
     void writeAttribute(AttributeDescriptor ad, Object value) throws IOException {
         if (value == null) {
             // null marker
-            raf.writeBoolean(true);
+            out.writeBoolean(true);
         } else {
             // not null, write the contents. This one requires some explanation. We are not
             // writing any type metadata in the stream for the types we can optimize (primitives,
@@ -97,22 +116,22 @@ void writeAttribute(AttributeDescriptor ad, Object value) throws IOException {
             // actually the one we can optimize for, and not some subclass. Thus, we are authorized
             // to use identity comparison instead of isAssignableFrom or equality, when we read back
             // it must be as if we did not serialize stuff at all
-            raf.writeBoolean(false);
+            out.writeBoolean(false);
             Class<?> binding = ad.getType().getBinding();
             if (binding == Boolean.class) {
-                raf.writeBoolean((Boolean) value);
+                out.writeBoolean((Boolean) value);
             } else if (binding == Byte.class || binding == byte.class) {
-                raf.writeByte((Byte) value);
+                out.writeByte((Byte) value);
             } else if (binding == Short.class || binding == short.class) {
-                raf.writeShort((Short) value);
+                out.writeShort((Short) value);
             } else if (binding == Integer.class || binding == int.class) {
-                raf.writeInt((Integer) value);
+                out.writeInt((Integer) value);
             } else if (binding == Long.class || binding == long.class) {
-                raf.writeLong((Long) value);
+                out.writeLong((Long) value);
             } else if (binding == Float.class || binding == float.class) {
-                raf.writeFloat((Float) value);
+                out.writeFloat((Float) value);
             } else if (binding == Double.class || binding == double.class) {
-                raf.writeDouble((Double) value);
+                out.writeDouble((Double) value);
             } else if (binding == String.class) {
                 if (isBigString(ad)) {
                     // if attribute descriptor marked as Big String
@@ -125,26 +144,26 @@ void writeAttribute(AttributeDescriptor ad, Object value) throws IOException {
                         values.add(strVal);
                     }
                     // write total parts
-                    raf.writeInt(values.size());
+                    out.writeInt(values.size());
                     // write every string chunk
                     for (String evalue : values) {
-                        raf.writeUTF(evalue);
+                        out.writeUTF(evalue);
                     }
                 } else {
                     // normal string encoding
-                    raf.writeUTF((String) value);
+                    out.writeUTF((String) value);
                 }
             } else if (binding == java.sql.Date.class
                     || binding == java.sql.Time.class
                     || binding == java.sql.Timestamp.class
                     || binding == java.util.Date.class) {
-                raf.writeLong(((Date) value).getTime());
+                out.writeLong(((Date) value).getTime());
             } else if (Geometry.class.isAssignableFrom(binding)) {
                 ByteArrayOutStream os = getOutStream(this.buffer);
                 writer.write((Geometry) value, os);
                 int len = os.getPosition();
-                raf.writeInt(len);
-                raf.write(os.getBuffer(), 0, len);
+                out.writeInt(len);
+                out.write(os.getBuffer(), 0, len);
             } else {
                 // can't optimize, in this case we use an ObjectOutputStream to write out
                 // full metadata
@@ -153,8 +172,8 @@ void writeAttribute(AttributeDescriptor ad, Object value) throws IOException {
                 oos.writeObject(value);
                 oos.flush();
                 byte[] bytes = bos.toByteArray();
-                raf.writeInt(bytes.length);
-                raf.write(bytes);
+                out.writeInt(bytes.length);
+                out.write(bytes);
             }
         }
     }
@@ -169,7 +188,7 @@ private boolean isBigString(AttributeDescriptor ad) {
     /** Reads the next feature form the file */
     public SimpleFeature read() throws IOException {
         // read the fid, check for file end
-        String fid = raf.readUTF();
+        String fid = in.readUTF();
         // read the other attributes, build the feature
         for (AttributeDescriptor ad : schema.getAttributeDescriptors()) {
             Object att = readAttribute(ad);
@@ -184,50 +203,50 @@ public SimpleFeature read() throws IOException {
     Object readAttribute(AttributeDescriptor ad) throws IOException {
         // See the comments in {@link MergeSortDumper#writeAttribute(RandomAccessFile,
         // AttributeDescriptor, Object)} to get an insight on why the method is built like this
-        boolean isNull = raf.readBoolean();
+        boolean isNull = in.readBoolean();
         if (isNull) {
             return null;
         } else {
             Class<?> binding = ad.getType().getBinding();
             if (binding == Boolean.class) {
-                return raf.readBoolean();
+                return in.readBoolean();
             } else if (binding == Byte.class || binding == byte.class) {
-                return raf.readByte();
+                return in.readByte();
             } else if (binding == Short.class || binding == short.class) {
-                return raf.readShort();
+                return in.readShort();
             } else if (binding == Integer.class || binding == int.class) {
-                return raf.readInt();
+                return in.readInt();
             } else if (binding == Long.class || binding == long.class) {
-                return raf.readLong();
+                return in.readLong();
             } else if (binding == Float.class || binding == float.class) {
-                return raf.readFloat();
+                return in.readFloat();
             } else if (binding == Double.class || binding == double.class) {
-                return raf.readDouble();
+                return in.readDouble();
             } else if (binding == String.class) {
                 if (isBigString(ad)) {
                     // read total parts
-                    int parts = raf.readInt();
+                    int parts = in.readInt();
                     // read every part
                     StringBuilder sb = new StringBuilder();
                     for (int i = 0; i < parts; i++) {
-                        sb.append(raf.readUTF());
+                        sb.append(in.readUTF());
                     }
                     return sb.toString();
                 } else {
-                    return raf.readUTF();
+                    return in.readUTF();
                 }
             } else if (binding == java.sql.Date.class) {
-                return new java.sql.Date(raf.readLong());
+                return new java.sql.Date(in.readLong());
             } else if (binding == java.sql.Time.class) {
-                return new java.sql.Time(raf.readLong());
+                return new java.sql.Time(in.readLong());
             } else if (binding == java.sql.Timestamp.class) {
-                return new java.sql.Timestamp(raf.readLong());
+                return new java.sql.Timestamp(in.readLong());
             } else if (binding == java.util.Date.class) {
-                return new java.util.Date(raf.readLong());
+                return new java.util.Date(in.readLong());
             } else if (Geometry.class.isAssignableFrom(binding)) {
-                int length = raf.readInt();
+                int length = in.readInt();
                 byte[] buffer = getByteBuffer(length);
-                raf.read(buffer, 0, length);
+                in.readFully(buffer, 0, length);
                 try {
                     return reader.read(getInStream(buffer));
                 } catch (ParseException e) {
@@ -269,9 +288,9 @@ private byte[] getByteBuffer(int length) {
 
     @SuppressWarnings("BanSerializableRead")
     private Object readObject() throws IOException {
-        int length = raf.readInt();
+        int length = in.readInt();
         byte[] buffer = new byte[length];
-        raf.read(buffer);
+        in.readFully(buffer);
         ByteArrayInputStream bis = new ByteArrayInputStream(buffer);
         ObjectInputStream ois = new ObjectInputStream(bis);
         try {
@@ -299,9 +318,11 @@ public boolean endOfFile() throws IOException {
     /** Closes the IO, eventually deleting the file in the process */
     public void close(boolean deleteFile) throws IOException {
         try {
-            raf.close();
+            if (raf != null) {
+                raf.close();
+            }
         } finally {
-            if (deleteFile) {
+            if (deleteFile && file != null) {
                 file.delete();
             }
         }
@@ -0,0 +1,308 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import org.geotools.api.referencing.operation.MathTransform;
+
+/**
+ * A {@link ScreenMap} keeping its bitmap off-heap, in direct buffers recycled across requests, and
+ * organized as a small pyramid, suitable for very large screens (e.g., large print renderings).
+ *
+ * <p>On top of the one bit per pixel matrix the screen map keeps two levels of occupancy counts,
+ * one for blocks of 8x8 pixels, and one for blocks of 64x64 pixels. Lookups go from coarse to fine,
+ * and stop as soon as a block is found to be either empty or full, so that the (large) bit matrix
+ * is accessed only in partially populated areas. The counts are also used, when the screen map is
+ * {@link #dispose() disposed}, to clear only the areas that have been touched before returning the
+ * buffer to the pool.
+ *
+ * <p>The buffer pool is shared and its maximum size, in bytes, can be configured using the {@link
+ * #POOL_SIZE_KEY} system variable (defaults to 64MB). The screen map must be disposed of after
+ * usage, otherwise its buffer will just be garbage collected and not returned to the pool.
+ */
+public class OffHeapScreenMap extends ScreenMap {
+
+    /** System property controlling the maximum size of the buffer pool, in bytes */
+    public static final String POOL_SIZE_KEY = "org.geotools.screenmap.poolSize";
+
+    static final BufferPool POOL =
+            new BufferPool(Long.getLong(POOL_SIZE_KEY, 64 * 1024 * 1024).longValue());
+
+    /** Fine level blocks are 8x8 pixels */
+    static final int FINE_SHIFT = 3;
+
+    /** Coarse level blocks are 64x64 pixels, matching a long in the bit matrix */
+    static final int COARSE_SHIFT = 6;
+
+    private final int wordsPerRow;
+
+    private final int fineCols;
+
+    private final int fineRows;
+
+    private final int coarseRows;
+
+    private final int fineOffset;
+
+    private final int coarseOffset;
+
+    private final int byteSize;
+
+    ByteBuffer buffer;
+
+    public OffHeapScreenMap(int x, int y, int width, int height) {
+        this(x, y, width, height, null);
+    }
+
+    public OffHeapScreenMap(int x, int y, int width, int height, MathTransform mt) {
+        super(x, y, width, height, mt);
+        this.wordsPerRow = (width + 63) >> COARSE_SHIFT;
+        this.fineCols = (width + 7) >> FINE_SHIFT;
+        this.fineRows = (height + 7) >> FINE_SHIFT;
+        this.coarseRows = (height + 63) >> COARSE_SHIFT;
+
+        long bitsSize = (long) wordsPerRow * height * Long.BYTES;
+        long fineSize = (long) fineCols * fineRows * Short.BYTES;
+        long coarseSize = (long) wordsPerRow * coarseRows * Short.BYTES;
+        long total = bitsSize + fineSize + coarseSize;
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Screen map of " + width + "x" + height + " pixels is too large");
+        }
+        this.fineOffset = (int) bitsSize;
+        this.coarseOffset = (int) (bitsSize + fineSize);
+        this.byteSize = (int) total;
+    }
+
+    @Override
+    public boolean checkAndSet(int x, int y) {
+        int px = x - minx;
+        int py = y - miny;
+        // if it's outside of the screenmap we cannot say whether it's busy or not, and
+        // we cannot skip it because rendering or geometry transformation might put the geometry
+        // right in the map
+        if (px < 0 || px >= width || py < 0 || py >= height) {
+            return false;
+        }
+        if (buffer == null) {
+            buffer = POOL.acquire(byteSize);
+        }
+
+        int coarseIndex = coarseIndex(px, py);
+        int coarse = getCount(coarseIndex);
+        if (coarse != 0) {
+            if (coarse == blockPixels(px, py, COARSE_SHIFT)) {
+                return true;
+            }
+            int fine = getCount(fineIndex(px, py));
+            if (fine != 0 && fine == blockPixels(px, py, FINE_SHIFT)) {
+                return true;
+            }
+        }
+
+        int wordIndex = wordIndex(px, py);
+        long word = buffer.getLong(wordIndex);
+        long mask = 1L << (px & 63);
+        if ((word & mask) != 0) {
+            return true;
+        }
+        buffer.putLong(wordIndex, word | mask);
+        incrementCounts(px, py, coarseIndex, 1);
+        return false;
+    }
+
+    @Override
+    public boolean get(int x, int y) {
+        int px = x - minx;
+        int py = y - miny;
+        // see checkAndSet for out of bounds
+        if (buffer == null || px < 0 || px >= width || py < 0 || py >= height) {
+            return false;
+        }
+
+        // coarse to fine, empty or full blocks short circuit the lookup
+        int coarse = getCount(coarseIndex(px, py));
+        if (coarse == 0) {
+            return false;
+        } else if (coarse == blockPixels(px, py, COARSE_SHIFT)) {
+            return true;
+        }
+        int fine = getCount(fineIndex(px, py));
+        if (fine == 0) {
+            return false;
+        } else if (fine == blockPixels(px, py, FINE_SHIFT)) {
+            return true;
+        }
+        return (buffer.getLong(wordIndex(px, py)) & (1L << (px & 63))) != 0;
+    }
+
+    @Override
+    public void set(int x, int y, boolean value) {
+        int px = x - minx;
+        int py = y - miny;
+        if (px < 0 || px >= width || py < 0 || py >= height) {
+            return;
+        }
+        if (buffer == null) {
+            if (!value) {
+                return;
+            }
+            buffer = POOL.acquire(byteSize);
+        }
+
+        int wordIndex = wordIndex(px, py);
+        long word = buffer.getLong(wordIndex);
+        long mask = 1L << (px & 63);
+        boolean current = (word & mask) != 0;
+        if (current != value) {
+            buffer.putLong(wordIndex, value ? word | mask : word & ~mask);
+            incrementCounts(px, py, coarseIndex(px, py), value ? 1 : -1);
+        }
+    }
+
+    /**
+     * Clears the areas that have been touched and returns the buffer to the pool. The screen map
+     * can still be used after this call, but will allocate a new buffer.
+     */
+    @Override
+    public void dispose() {
+        if (buffer == null) {
+            return;
+        }
+        ByteBuffer released = buffer;
+        buffer = null;
+
+        for (int cy = 0; cy < coarseRows; cy++) {
+            for (int cx = 0; cx < wordsPerRow; cx++) {
+                int coarseIndex = coarseOffset + (cy * wordsPerRow + cx) * Short.BYTES;
+                if (released.getShort(coarseIndex) == 0) {
+                    continue;
+                }
+                // a coarse block is a column of longs in the bit matrix
+                int maxRow = Math.min((cy + 1) << COARSE_SHIFT, height);
+                for (int row = cy << COARSE_SHIFT; row < maxRow; row++) {
+                    released.putLong((row * wordsPerRow + cx) * Long.BYTES, 0);
+                }
+                // and a square of 8x8 fine blocks
+                int fineMaxRow = Math.min((cy + 1) << 3, fineRows);
+                int fineMaxCol = Math.min((cx + 1) << 3, fineCols);
+                for (int fy = cy << 3; fy < fineMaxRow; fy++) {
+                    for (int fx = cx << 3; fx < fineMaxCol; fx++) {
+                        int fineIndex = fineOffset + (fy * fineCols + fx) * Short.BYTES;
+                        released.putShort(fineIndex, (short) 0);
+                    }
+                }
+                released.putShort(coarseIndex, (short) 0);
+            }
+        }
+
+        POOL.release(released);
+    }
+
+    private int wordIndex(int px, int py) {
+        return (py * wordsPerRow + (px >> COARSE_SHIFT)) * Long.BYTES;
+    }
+
+    private int fineIndex(int px, int py) {
+        return fineOffset + ((py >> FINE_SHIFT) * fineCols + (px >> FINE_SHIFT)) * Short.BYTES;
+    }
+
+    private int coarseIndex(int px, int py) {
+        return coarseOffset
+                + ((py >> COARSE_SHIFT) * wordsPerRow + (px >> COARSE_SHIFT)) * Short.BYTES;
+    }
+
+    private int getCount(int index) {
+        // counts go up to 4096, always positive as shorts
+        return buffer.getShort(index);
+    }
+
+    private void incrementCounts(int px, int py, int coarseIndex, int delta) {
+        int fineIndex = fineIndex(px, py);
+        buffer.putShort(fineIndex, (short) (buffer.getShort(fineIndex) + delta));
+        buffer.putShort(coarseIndex, (short) (buffer.getShort(coarseIndex) + delta));
+    }
+
+    /** Number of pixels in the block containing the pixel, taking into account the map borders */
+    private int blockPixels(int px, int py, int shift) {
+        int bx = (px >> shift) << shift;
+        int by = (py >> shift) << shift;
+        int size = 1 << shift;
+        return Math.min(size, width - bx) * Math.min(size, height - by);
+    }
+
+    /**
+     * A bounded pool of zeroed direct buffers. Buffers are returned to the pool only if they fit in
+     * the maximum pool size, otherwise they are left to the garbage collector.
+     */
+    static final class BufferPool {
+
+        private final long maxBytes;
+
+        private final List<ByteBuffer> buffers = new ArrayList<>();
+
+        private long pooledBytes;
+
+        BufferPool(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * Returns a zeroed buffer with at least the given capacity, reusing a pooled one if
+         * possible
+         */
+        synchronized ByteBuffer acquire(int bytes) {
+            ByteBuffer best = null;
+            for (ByteBuffer buffer : buffers) {
+                int capacity = buffer.capacity();
+                // avoid using a much bigger buffer than needed, would waste it
+                if (capacity >= bytes
+                        && capacity / 2 <= bytes
+                        && (best == null || capacity < best.capacity())) {
+                    best = buffer;
+                }
+            }
+            if (best != null) {
+                buffers.remove(best);
+                pooledBytes -= best.capacity();
+                return best;
+            }
+
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+
+        /** Returns a zeroed buffer to the pool */
+        synchronized void release(ByteBuffer buffer) {
+            if (pooledBytes + buffer.capacity() <= maxBytes) {
+                buffers.add(buffer);
+                pooledBytes += buffer.capacity();
+            }
+        }
+
+        synchronized long getPooledBytes() {
+            return pooledBytes;
+        }
+
+        synchronized void clear() {
+            buffers.clear();
+            pooledBytes = 0;
+        }
+    }
+}
@@ -58,9 +58,9 @@ public class ScreenMap {
 
     int height;
 
-    private int minx;
+    int minx;
 
-    private int miny;
+    int miny;
 
     MathTransform mt;
 
@@ -237,6 +237,14 @@ public void set(int x, int y, boolean value) {
         getBitField().set(x, y, value);
     }
 
+    /**
+     * Releases the resources associated to this screen map, which should not be used anymore after
+     * this call. The default implementation does nothing, as the bitfield is kept on the heap.
+     */
+    public void dispose() {
+        // nothing to do
+    }
+
     /**
      * Incapsulates the bitfield representation and access logic, allows for lazy creation of the
      * bitfield at the first time we actually need to use it (only fairly zoomed in requestes not
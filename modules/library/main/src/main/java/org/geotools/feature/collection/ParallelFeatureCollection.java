@@ -0,0 +1,265 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.collection;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.geotools.api.feature.FeatureVisitor;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.util.ProgressListener;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.data.util.NullProgressListener;
+import org.geotools.feature.visitor.MergeableFeatureCalc;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+
+/**
+ * A feature collection made of partitions, visited concurrently by {@link MergeableFeatureCalc}
+ * visitors.
+ *
+ * <p>Sources able to partition their data (e.g., in memory stores, ranges of a file, the files of
+ * a directory or the granules of a mosaic) can expose each partition as a collection. When
+ * visited by a {@link MergeableFeatureCalc} that can be {@linkplain MergeableFeatureCalc#split()
+ * split}, each partition is visited by its own copy of the visitor on the executor, and the
+ * partial results are merged back in partition order. Other visitors, and iteration, go through
+ * the partitions sequentially.
+ *
+ * <p>The partitions must not share features, and must be safe to visit concurrently. Visiting a
+ * partition usually involves blocking reads, the executor should be dedicated to this kind of work
+ * rather than a shared compute pool such as the common fork join pool.
+ *
+ * @since 31
+ */
+public class ParallelFeatureCollection extends BaseSimpleFeatureCollection {
+
+    /** The partitions */
+    protected final List<SimpleFeatureCollection> partitions;
+
+    /** The executor visiting the partitions */
+    protected final ExecutorService executor;
+
+    /**
+     * Creates a collection visiting the partitions on the given executor
+     *
+     * @param schema The feature type
+     * @param partitions The partitions, not sharing any feature
+     * @param executor The executor visiting the partitions, owned by the caller
+     */
+    public ParallelFeatureCollection(
+            SimpleFeatureType schema,
+            List<SimpleFeatureCollection> partitions,
+            ExecutorService executor) {
+        super(schema);
+        if (executor == null) {
+            throw new IllegalArgumentException("An executor is required to visit the partitions");
+        }
+        this.partitions = new ArrayList<>(partitions);
+        this.executor = executor;
+    }
+
+    /**
+     * Splits a list of features in memory in the given number of partitions, of about the same
+     * size, visited on the given executor. The list must not be modified while the returned
+     * collection is in use.
+     */
+    public static ParallelFeatureCollection partition(
+            SimpleFeatureType schema,
+            List<SimpleFeature> features,
+            int count,
+            ExecutorService executor) {
+        if (count < 1) {
+            throw new IllegalArgumentException("The partition count must be positive: " + count);
+        }
+        List<SimpleFeatureCollection> partitions = new ArrayList<>();
+        int size = features.size();
+        for (int i = 0; i < count; i++) {
+            int start = (int) ((long) size * i / count);
+            int end = (int) ((long) size * (i + 1) / count);
+            if (start < end) {
+                partitions.add(new ListFeatureCollection(schema, features.subList(start, end)));
+            }
+        }
+        return new ParallelFeatureCollection(schema, partitions, executor);
+    }
+
+    /** The partitions of this collection */
+    public List<SimpleFeatureCollection> getPartitions() {
+        return partitions;
+    }
+
+    @Override
+    public void accepts(FeatureVisitor visitor, ProgressListener progress) throws IOException {
+        List<MergeableFeatureCalc> partials = split(visitor);
+        if (partials == null) {
+            DataUtilities.visit(this, visitor, progress);
+            return;
+        }
+
+        ProgressListener listener = progress == null ? new NullProgressListener() : progress;
+        listener.started();
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < partitions.size(); i++) {
+                SimpleFeatureCollection partition = partitions.get(i);
+                MergeableFeatureCalc partial = partials.get(i);
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    if (!listener.isCanceled()) {
+                                        partition.accepts(partial, new CancelListener(listener));
+                                    }
+                                    return null;
+                                }));
+            }
+            MergeableFeatureCalc calc = (MergeableFeatureCalc) visitor;
+            for (int i = 0; i < futures.size(); i++) {
+                waitFor(futures.get(i), futures);
+                calc.merge(partials.get(i));
+                listener.progress(100f * (i + 1) / futures.size());
+            }
+        } catch (IOException | RuntimeException e) {
+            listener.exceptionOccurred(e);
+            throw e;
+        } finally {
+            listener.complete();
+        }
+    }
+
+    /** Returns a partial visitor for each partition, or null if the visit cannot be split */
+    private List<MergeableFeatureCalc> split(FeatureVisitor visitor) {
+        if (!(visitor instanceof MergeableFeatureCalc) || partitions.size() < 2) {
+            return null;
+        }
+        List<MergeableFeatureCalc> partials = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            MergeableFeatureCalc partial = ((MergeableFeatureCalc) visitor).split();
+            if (partial == null) {
+                return null;
+            }
+            partials.add(partial);
+        }
+        return partials;
+    }
+
+    /** Waits for a partition visit, cancelling all the others if it failed */
+    private void waitFor(Future<Void> future, List<Future<Void>> futures) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while visiting the partitions", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to visit a partition", cause);
+        }
+    }
+
+    @Override
+    public SimpleFeatureIterator features() {
+        return new PartitionsIterator();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (SimpleFeatureCollection partition : partitions) {
+            size += partition.size();
+        }
+        return size;
+    }
+
+    @Override
+    public ReferencedEnvelope getBounds() {
+        ReferencedEnvelope bounds =
+                ReferencedEnvelope.create(schema.getCoordinateReferenceSystem());
+        for (SimpleFeatureCollection partition : partitions) {
+            ReferencedEnvelope partitionBounds = partition.getBounds();
+            if (partitionBounds != null && !partitionBounds.isNull()) {
+                bounds.expandToInclude(partitionBounds);
+            }
+        }
+        return bounds;
+    }
+
+    /** Reports the cancellation of the parent listener to the partition visits */
+    private static class CancelListener extends NullProgressListener {
+        private final ProgressListener parent;
+
+        CancelListener(ProgressListener parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return parent.isCanceled();
+        }
+    }
+
+    /** Iterates over the partitions, one after the other */
+    private class PartitionsIterator implements SimpleFeatureIterator {
+        int next = 0;
+
+        SimpleFeatureIterator current;
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (current != null) {
+                    current.close();
+                    current = null;
+                }
+                if (next >= partitions.size()) {
+                    return false;
+                }
+                current = partitions.get(next++).features();
+            }
+            return true;
+        }
+
+        @Override
+        public SimpleFeature next() throws NoSuchElementException {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        @Override
+        public void close() {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+            next = partitions.size();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.visitor;
+
+import org.geotools.api.feature.Feature;
+import org.geotools.api.filter.expression.Expression;
+
+/**
+ * Approximate counterpart of {@link EqualAreaListVisitor}, estimating breaks such that each class
+ * covers about the same area. The values are weighted by their area in a t-digest, and the breaks
+ * are the weighted quantiles, so memory stays bounded whatever the number of features.
+ *
+ * @since 31
+ */
+public class ApproximateEqualAreaListVisitor extends ApproximateQuantileListVisitor {
+
+    protected final Expression areaExpression;
+
+    /** The values, weighted by area */
+    TDigest weighted;
+
+    public ApproximateEqualAreaListVisitor(
+            Expression expression, Expression areaExpression, int bins) {
+        this(expression, areaExpression, bins, DEFAULT_COMPRESSION);
+    }
+
+    public ApproximateEqualAreaListVisitor(
+            Expression expression, Expression areaExpression, int bins, double compression) {
+        super(expression, bins, compression);
+        this.areaExpression = areaExpression;
+        this.weighted = new TDigest(compression);
+    }
+
+    @Override
+    protected void add(Feature feature, double value) {
+        super.add(feature, value);
+        Double area = areaExpression.evaluate(feature, Double.class);
+        if (area != null) {
+            weighted.add(value, area);
+        }
+    }
+
+    @Override
+    TDigest getBreaksDigest() {
+        // features without area, e.g. points, fall back on counts
+        return weighted.size() > 0 ? weighted : digest;
+    }
+
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != ApproximateEqualAreaListVisitor.class) {
+            // subclasses might visit the features differently
+            return null;
+        }
+        return new ApproximateEqualAreaListVisitor(expr, areaExpression, bins, compression);
+    }
+
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        super.merge(partial);
+        weighted.merge(((ApproximateEqualAreaListVisitor) partial).weighted);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        weighted = new TDigest(compression);
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.geotools.api.feature.Feature;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.util.Converters;
+
+/**
+ * Approximate counterpart of {@link QuantileListVisitor}, estimating the quantile breaks of a
+ * numeric expression with a t-digest of bounded size instead of keeping all the values in memory.
+ *
+ * <p>The result has the same structure as the one of {@link QuantileListVisitor}, an array of
+ * bins, but each bin only contains its lower and upper break. The {@link Result} also provides
+ * the estimated percentage of values in each bin. Arbitrary quantiles, such as the median, can be
+ * obtained with {@link #getQuantile(double)}.
+ *
+ * <p>With the default compression the relative rank error is well below 1%, and the memory used
+ * is a few KB whatever the number of values. Null, NaN and infinite values are skipped, other
+ * values must be numbers or convertible to numbers.
+ *
+ * @since 31
+ */
+public class ApproximateQuantileListVisitor implements MergeableFeatureCalc {
+
+    /** The default t-digest compression, trading memory for accuracy */
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    /** The result, bins containing the lower and upper break */
+    public static class Result extends AbstractCalcResult {
+        final List<Comparable>[] bins;
+
+        final double[] percentages;
+
+        Result(List<Comparable>[] bins, double[] percentages) {
+            this.bins = bins;
+            this.percentages = percentages;
+        }
+
+        @Override
+        public Object getValue() {
+            return bins;
+        }
+
+        /** The estimated percentage of values in each bin */
+        public double[] getPercentages() {
+            return percentages;
+        }
+    }
+
+    protected final Expression expr;
+
+    protected final int bins;
+
+    protected final double compression;
+
+    /** The values, by count */
+    TDigest digest;
+
+    int countNull = 0;
+
+    int countNaN = 0;
+
+    public ApproximateQuantileListVisitor(Expression expr, int bins) {
+        this(expr, bins, DEFAULT_COMPRESSION);
+    }
+
+    public ApproximateQuantileListVisitor(Expression expr, int bins, double compression) {
+        this.expr = expr;
+        this.bins = bins;
+        this.compression = compression;
+        this.digest = new TDigest(compression);
+    }
+
+    @Override
+    public void visit(Feature feature) {
+        Object value = expr.evaluate(feature);
+        if (value == null) {
+            countNull++;
+            return;
+        }
+        Double number = Converters.convert(value, Double.class);
+        if (number == null) {
+            throw new IllegalArgumentException(
+                    "Approximate quantiles need numeric values, found " + value);
+        }
+        if (number.isNaN() || number.isInfinite()) {
+            countNaN++;
+            return;
+        }
+        add(feature, number);
+    }
+
+    /** Adds a valid value to the digests */
+    protected void add(Feature feature, double value) {
+        digest.add(value, 1);
+    }
+
+    /** The digest the breaks are computed from */
+    TDigest getBreaksDigest() {
+        return digest;
+    }
+
+    /**
+     * Returns the estimated value at the given quantile, between 0 and 1, or NaN if no value has
+     * been visited.
+     */
+    public double getQuantile(double quantile) {
+        return getBreaksDigest().quantile(quantile);
+    }
+
+    /** The number of values visited, nulls and NaNs excluded */
+    public long getCount() {
+        return (long) digest.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CalcResult getResult() {
+        long count = getCount();
+        if (bins == 0 || count == 0) {
+            return CalcResult.NULL_RESULT;
+        }
+        int binCount = (int) Math.min(bins, count);
+        TDigest breaksDigest = getBreaksDigest();
+        double[] breaks = new double[binCount + 1];
+        for (int i = 0; i <= binCount; i++) {
+            breaks[i] = breaksDigest.quantile((double) i / binCount);
+        }
+        List<Comparable>[] result = new List[binCount];
+        double[] percentages = new double[binCount];
+        double previous = 0;
+        for (int i = 0; i < binCount; i++) {
+            result[i] = new ArrayList<>(Arrays.asList(breaks[i], breaks[i + 1]));
+            double cdf = i == binCount - 1 ? 1 : digest.cdf(breaks[i + 1]);
+            percentages[i] = (cdf - previous) * 100;
+            previous = cdf;
+        }
+        return new Result(result, percentages);
+    }
+
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != ApproximateQuantileListVisitor.class) {
+            // subclasses might visit the features differently
+            return null;
+        }
+        return new ApproximateQuantileListVisitor(expr, bins, compression);
+    }
+
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        ApproximateQuantileListVisitor other = (ApproximateQuantileListVisitor) partial;
+        digest.merge(other.digest);
+        countNull += other.countNull;
+        countNaN += other.countNaN;
+    }
+
+    public void reset() {
+        digest = new TDigest(compression);
+        countNull = 0;
+        countNaN = 0;
+    }
+
+    /** @return the number of features which returned a NaN */
+    public int getNaNCount() {
+        return countNaN;
+    }
+
+    /** @return the number of features which returned a null */
+    public int getNullCount() {
+        return countNull;
+    }
+}
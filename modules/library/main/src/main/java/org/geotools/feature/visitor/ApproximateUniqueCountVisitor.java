@@ -0,0 +1,125 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.visitor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.geotools.api.feature.Feature;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.factory.CommonFactoryFinder;
+
+/**
+ * Estimates the number of unique values of an expression, using a HyperLogLog sketch of fixed
+ * size instead of keeping the values in memory like {@link UniqueCountVisitor}.
+ *
+ * <p>With the default precision the sketch uses 16KB, and the relative standard error of the
+ * estimate is about 0.8%. Null values are ignored.
+ *
+ * @since 31
+ */
+public class ApproximateUniqueCountVisitor
+        implements MergeableFeatureCalc, FeatureAttributeVisitor {
+
+    /** The default precision, using {@code 2^14} registers */
+    public static final int DEFAULT_PRECISION = 14;
+
+    private final Expression expr;
+
+    private final int precision;
+
+    HyperLogLog sketch;
+
+    boolean visited = false;
+
+    public ApproximateUniqueCountVisitor(String attributeTypeName) {
+        this(CommonFactoryFinder.getFilterFactory(null).property(attributeTypeName));
+    }
+
+    public ApproximateUniqueCountVisitor(Expression expr) {
+        this(expr, DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates a visitor using {@code 2^precision} registers, the precision must be between 4 and
+     * 18.
+     */
+    public ApproximateUniqueCountVisitor(Expression expr, int precision) {
+        this.expr = expr;
+        this.precision = precision;
+        this.sketch = new HyperLogLog(precision);
+    }
+
+    @Override
+    public List<Expression> getExpressions() {
+        return Arrays.asList(expr);
+    }
+
+    @Override
+    public Optional<List<Class>> getResultType(List<Class> inputTypes) {
+        return Optional.of(Arrays.asList(Integer.class));
+    }
+
+    @Override
+    public void visit(Feature feature) {
+        Object value = expr.evaluate(feature);
+        if (value != null) {
+            sketch.add(value);
+            visited = true;
+        }
+    }
+
+    public Expression getExpression() {
+        return expr;
+    }
+
+    /** Returns the estimated number of unique values */
+    public long getCount() {
+        return visited ? sketch.cardinality() : 0;
+    }
+
+    public void reset() {
+        sketch = new HyperLogLog(precision);
+        visited = false;
+    }
+
+    @Override
+    public CalcResult getResult() {
+        if (!visited) {
+            return CalcResult.NULL_RESULT;
+        }
+        return new CountVisitor.CountResult((int) Math.min(Integer.MAX_VALUE, getCount()));
+    }
+
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != ApproximateUniqueCountVisitor.class) {
+            // subclasses might visit the features differently
+            return null;
+        }
+        return new ApproximateUniqueCountVisitor(expr, precision);
+    }
+
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        ApproximateUniqueCountVisitor other = (ApproximateUniqueCountVisitor) partial;
+        if (other.visited) {
+            sketch.merge(other.sketch);
+            visited = true;
+        }
+    }
+}
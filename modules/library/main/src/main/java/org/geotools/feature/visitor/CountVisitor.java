@@ -26,7 +26,7 @@
  * @author Cory Horner, Refractions
  * @since 2.2.M2
  */
-public class CountVisitor implements FeatureCalc {
+public class CountVisitor implements MergeableFeatureCalc {
     Integer count = null;
 
     public void init(SimpleFeatureCollection collection) {
@@ -68,6 +68,23 @@ public CalcResult getResult() {
         return new CountResult(count);
     }
 
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != CountVisitor.class) {
+            // subclasses might visit the features differently
+            return null;
+        }
+        return new CountVisitor();
+    }
+
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        Integer other = ((CountVisitor) partial).count;
+        if (other != null) {
+            count = getCount() + other;
+        }
+    }
+
     public static class CountResult extends AbstractCalcResult {
         private int count;
 
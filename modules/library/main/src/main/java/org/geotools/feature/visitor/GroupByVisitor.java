@@ -34,7 +34,7 @@
 import org.locationtech.jts.geom.Point;
 
 /** Group features by one or several attributes and applies an aggregator visitor to each group. */
-public class GroupByVisitor implements FeatureCalc, FeatureAttributeVisitor {
+public class GroupByVisitor implements MergeableFeatureCalc, FeatureAttributeVisitor {
 
     private final Aggregate aggregate;
     private final Expression expression;
@@ -92,6 +92,40 @@ public void visit(Feature feature) {
         inMemoryGroupBy.index((SimpleFeature) feature);
     }
 
+    /** Returns null if the aggregate visitor cannot be split. */
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != GroupByVisitor.class
+                || !(visitorProtoType instanceof MergeableFeatureCalc)
+                || ((MergeableFeatureCalc) visitorProtoType).split() == null) {
+            return null;
+        }
+        return new GroupByVisitor(aggregate, expression, groupByAttributes, null);
+    }
+
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        GroupByVisitor other = (GroupByVisitor) partial;
+        Map<List<Object>, FeatureCalc> groups = inMemoryGroupBy.groupByIndexes;
+        for (Map.Entry<List<Object>, FeatureCalc> entry :
+                other.inMemoryGroupBy.groupByIndexes.entrySet()) {
+            FeatureCalc calc = groups.get(entry.getKey());
+            if (calc == null) {
+                groups.put(entry.getKey(), entry.getValue());
+            } else {
+                ((MergeableFeatureCalc) calc).merge((MergeableFeatureCalc) entry.getValue());
+            }
+        }
+        // the partition might have been optimized, e.g. by a store computing the groups natively
+        if (other.optimizationResult != CalcResult.NULL_RESULT) {
+            if (optimizationResult == CalcResult.NULL_RESULT) {
+                optimizationResult = other.optimizationResult;
+            } else {
+                optimizationResult = optimizationResult.merge(other.optimizationResult);
+            }
+        }
+    }
+
     public Expression getExpression() {
         return expression;
     }
@@ -0,0 +1,129 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.visitor;
+
+import java.util.Date;
+
+/**
+ * A HyperLogLog sketch, estimating the number of distinct values of a stream in fixed memory.
+ *
+ * <p>Uses {@code 2^precision} one byte registers, with a relative standard error of about {@code
+ * 1.04 / sqrt(2^precision)}, e.g. 0.8% using 16KB for the default precision of 14. Values are
+ * hashed on 64 bits, so no large range correction is needed.
+ *
+ * <p>See Flajolet et al., "HyperLogLog: the analysis of a near-optimal cardinality estimation
+ * algorithm".
+ */
+final class HyperLogLog {
+
+    final int precision;
+
+    final byte[] registers;
+
+    HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("The precision must be in [4, 18]: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    void add(Object value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        // the trailing bit bounds the rank when the remaining bits are all zeros
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of different precisions");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /** Returns the estimated number of distinct values added */
+    long cardinality() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1d / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // small range correction, linear counting
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /** A 64 bit hash of the value, consistent with equals for the common attribute types */
+    static long hash(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            return mix(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            return mix(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof CharSequence) {
+            // FNV-1a, then mixed
+            CharSequence chars = (CharSequence) value;
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < chars.length(); i++) {
+                hash ^= chars.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return mix(hash);
+        } else if (value instanceof Date) {
+            return mix(((Date) value).getTime());
+        }
+        return mix(value.hashCode());
+    }
+
+    /** The MurmurHash3 finalizer, spreading the bits of the key */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
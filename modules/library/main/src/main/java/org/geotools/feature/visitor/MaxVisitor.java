@@ -33,7 +33,7 @@
  * @author Cory Horner, Refractions Research Inc.
  * @since 2.2.M2
  */
-public class MaxVisitor implements FeatureCalc, FeatureAttributeVisitor {
+public class MaxVisitor implements MergeableFeatureCalc, FeatureAttributeVisitor {
     private Expression expr;
     Comparable maxvalue;
     boolean visited = false;
@@ -149,6 +149,26 @@ public void reset() {
         this.countNull = 0;
     }
 
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != MaxVisitor.class) {
+            // subclasses might visit the features differently
+            return null;
+        }
+        return new MaxVisitor(expr);
+    }
+
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        MaxVisitor other = (MaxVisitor) partial;
+        countNull += other.countNull;
+        countNaN += other.countNaN;
+        if (other.visited && (!visited || compare(other.maxvalue))) {
+            maxvalue = other.maxvalue;
+            visited = true;
+        }
+    }
+
     public Expression getExpression() {
         return expr;
     }
@@ -0,0 +1,44 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.visitor;
+
+/**
+ * A {@link FeatureCalc} whose calculation can be split among partitions of the features, visited
+ * concurrently, and merged back.
+ *
+ * <p>The visitors returned by {@link #split()} are each used by a single thread to visit one
+ * partition, then merged into this visitor, one at a time and in partition order, by {@link
+ * #merge(MergeableFeatureCalc)}.
+ *
+ * @see org.geotools.feature.collection.ParallelFeatureCollection
+ * @since 31
+ */
+public interface MergeableFeatureCalc extends FeatureCalc {
+
+    /**
+     * Returns a new visitor with the same configuration as this one and no visited features, or
+     * null if the current configuration cannot be computed on partitions (e.g., a visitor with
+     * paging limits).
+     */
+    MergeableFeatureCalc split();
+
+    /**
+     * Merges the state of a visitor returned by {@link #split()}, after it visited its partition,
+     * into this visitor.
+     */
+    void merge(MergeableFeatureCalc partial);
+}
@@ -33,7 +33,7 @@
  * @author Cory Horner, Refractions
  * @since 2.2.M2
  */
-public class MinVisitor implements FeatureCalc, FeatureAttributeVisitor {
+public class MinVisitor implements MergeableFeatureCalc, FeatureAttributeVisitor {
     private Expression expr;
     Comparable minvalue;
     boolean visited = false;
@@ -133,6 +133,24 @@ public CalcResult getResult() {
         return new MinResult(minvalue);
     }
 
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != MinVisitor.class) {
+            // subclasses might visit the features differently
+            return null;
+        }
+        return new MinVisitor(expr);
+    }
+
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        MinVisitor other = (MinVisitor) partial;
+        if (other.visited && (!visited || compare(other.minvalue))) {
+            minvalue = other.minvalue;
+            visited = true;
+        }
+    }
+
     public Expression getExpression() {
         return expr;
     }
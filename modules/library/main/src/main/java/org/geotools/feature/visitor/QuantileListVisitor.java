@@ -31,7 +31,7 @@
  *
  * @author Cory Horner, Refractions Research Inc.
  */
-public class QuantileListVisitor implements FeatureCalc {
+public class QuantileListVisitor implements MergeableFeatureCalc {
     private Expression expr;
     private int count = 0;
     private int bins;
@@ -93,6 +93,24 @@ public Object getValue() {
         };
     }
 
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != QuantileListVisitor.class) {
+            // subclasses might visit the features differently
+            return null;
+        }
+        return new QuantileListVisitor(expr, bins);
+    }
+
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        QuantileListVisitor other = (QuantileListVisitor) partial;
+        items.addAll(other.items);
+        count += other.count;
+        countNull += other.countNull;
+        countNaN += other.countNaN;
+    }
+
     public void visit(SimpleFeature feature) {
         visit((org.geotools.api.feature.Feature) feature);
     }
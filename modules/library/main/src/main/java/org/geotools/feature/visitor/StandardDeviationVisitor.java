@@ -42,7 +42,7 @@
  * @author Cory Horner, Refractions Research Inc.
  * @author Andrea Aime, GeoSolutions
  */
-public class StandardDeviationVisitor implements FeatureCalc, FeatureAttributeVisitor {
+public class StandardDeviationVisitor implements MergeableFeatureCalc, FeatureAttributeVisitor {
     public static class Result extends AbstractCalcResult {
         final Double deviation;
 
@@ -118,6 +118,31 @@ public CalcResult getResult() {
         return new Result(Math.sqrt(m2 / count));
     }
 
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != StandardDeviationVisitor.class) {
+            // subclasses might visit the features differently
+            return null;
+        }
+        return new StandardDeviationVisitor(expr);
+    }
+
+    /** Combines the partial mean and variance using the parallel variance algorithm. */
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        StandardDeviationVisitor other = (StandardDeviationVisitor) partial;
+        countNull += other.countNull;
+        countNaN += other.countNaN;
+        if (other.count == 0) {
+            return;
+        }
+        int total = count + other.count;
+        double delta = other.mean - mean;
+        m2 = m2 + other.m2 + delta * delta * ((double) count * other.count / total);
+        mean = mean + delta * other.count / total;
+        count = total;
+    }
+
     public void visit(SimpleFeature feature) {
         visit((org.geotools.api.feature.Feature) feature);
     }
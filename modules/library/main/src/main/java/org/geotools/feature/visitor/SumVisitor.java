@@ -37,7 +37,7 @@
  * @author Cory Horner, Refractions
  * @since 2.2.M2
  */
-public class SumVisitor implements FeatureCalc, FeatureAttributeVisitor {
+public class SumVisitor implements MergeableFeatureCalc, FeatureAttributeVisitor {
     private Expression expr;
 
     SumStrategy strategy;
@@ -152,6 +152,28 @@ public CalcResult getResult() {
         return new SumResult(strategy);
     }
 
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != SumVisitor.class) {
+            // subclasses might visit the features differently
+            return null;
+        }
+        return new SumVisitor(expr);
+    }
+
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        SumStrategy other = ((SumVisitor) partial).strategy;
+        if (other == null) {
+            return;
+        }
+        if (strategy == null) {
+            strategy = other;
+        } else {
+            strategy.add(other.getResult());
+        }
+    }
+
     protected interface SumStrategy {
         public void add(Object value);
 
@@ -0,0 +1,255 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.visitor;
+
+import java.util.Arrays;
+
+/**
+ * A merging t-digest, estimating the quantiles of a stream of weighted values in bounded memory.
+ *
+ * <p>Values are buffered and periodically merged into a sorted list of centroids, whose size is
+ * limited by the scale function {@code k(q) = compression / PI * asin(2q - 1)}: centroids are
+ * small near the extremes and larger in the middle of the distribution, so the tails are
+ * estimated more accurately. The memory used is proportional to the compression, not to the
+ * number of values.
+ *
+ * <p>See Dunning and Ertl, "Computing Extremely Accurate Quantiles Using t-Digests".
+ */
+final class TDigest {
+
+    final double compression;
+
+    /** The centroids, sorted by mean */
+    double[] means;
+
+    double[] weights;
+
+    int centroids;
+
+    /** The values added since the last merge */
+    double[] bufferMeans;
+
+    double[] bufferWeights;
+
+    int buffered;
+
+    double totalWeight;
+
+    double min = Double.POSITIVE_INFINITY;
+
+    double max = Double.NEGATIVE_INFINITY;
+
+    TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("The compression should be at least 10");
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) * 2 + 10;
+        means = new double[capacity];
+        weights = new double[capacity];
+        bufferMeans = new double[capacity * 4];
+        bufferWeights = new double[capacity * 4];
+    }
+
+    /** Adds a value with the given weight, zero or negative weights are ignored */
+    void add(double value, double weight) {
+        if (Double.isNaN(value) || !(weight > 0)) {
+            return;
+        }
+        if (buffered == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[buffered] = value;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        totalWeight += weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /** Adds the values summarized by the other digest */
+    void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.centroids; i++) {
+            if (buffered == bufferMeans.length) {
+                compress();
+            }
+            bufferMeans[buffered] = other.means[i];
+            bufferWeights[buffered] = other.weights[i];
+            buffered++;
+        }
+        totalWeight += other.totalWeight;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /** Total weight of the values added */
+    double size() {
+        return totalWeight;
+    }
+
+    /** Merges the buffered values into the centroids */
+    void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int count = centroids + buffered;
+        double[] allMeans = Arrays.copyOf(means, count);
+        double[] allWeights = Arrays.copyOf(weights, count);
+        System.arraycopy(bufferMeans, 0, allMeans, centroids, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, centroids, buffered);
+        buffered = 0;
+        sort(allMeans, allWeights, 0, count - 1);
+
+        // merge neighbours as long as the merged centroid spans at most one unit of k
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += allWeights[i];
+        }
+        int merged = 0;
+        double mean = allMeans[0];
+        double weight = allWeights[0];
+        double before = 0;
+        for (int i = 1; i < count; i++) {
+            double proposed = weight + allWeights[i];
+            if (k((before + proposed) / total) - k(before / total) <= 1) {
+                mean += (allMeans[i] - mean) * allWeights[i] / proposed;
+                weight = proposed;
+            } else {
+                merged = store(merged, mean, weight);
+                before += weight;
+                mean = allMeans[i];
+                weight = allWeights[i];
+            }
+        }
+        centroids = store(merged, mean, weight);
+    }
+
+    private int store(int index, double mean, double weight) {
+        if (index == means.length) {
+            means = Arrays.copyOf(means, index * 2);
+            weights = Arrays.copyOf(weights, index * 2);
+        }
+        means[index] = mean;
+        weights[index] = weight;
+        return index + 1;
+    }
+
+    private double k(double q) {
+        return compression / Math.PI * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    /** Returns the estimated value at the given quantile, in [0, 1], or NaN if empty */
+    double quantile(double q) {
+        compress();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (q <= 0) {
+            return min;
+        }
+        if (q >= 1) {
+            return max;
+        }
+        if (centroids == 1) {
+            return means[0];
+        }
+        // interpolate between the centroid centers, and the extremes at both ends
+        double index = q * totalWeight;
+        double center = weights[0] / 2;
+        if (index < center) {
+            return min + (means[0] - min) * index / center;
+        }
+        for (int i = 0; i < centroids - 1; i++) {
+            double next = center + (weights[i] + weights[i + 1]) / 2;
+            if (index < next) {
+                return means[i] + (means[i + 1] - means[i]) * (index - center) / (next - center);
+            }
+            center = next;
+        }
+        double last = weights[centroids - 1] / 2;
+        return means[centroids - 1]
+                + (max - means[centroids - 1]) * Math.min(1, (index - center) / last);
+    }
+
+    /** Returns the estimated fraction of the weight at or below the given value */
+    double cdf(double value) {
+        compress();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (value < min) {
+            return 0;
+        }
+        if (value >= max) {
+            return 1;
+        }
+        double center = weights[0] / 2;
+        if (value < means[0]) {
+            return means[0] == min ? 0 : center * (value - min) / (means[0] - min) / totalWeight;
+        }
+        for (int i = 0; i < centroids - 1; i++) {
+            double next = center + (weights[i] + weights[i + 1]) / 2;
+            if (value < means[i + 1]) {
+                double ratio = (value - means[i]) / (means[i + 1] - means[i]);
+                return (center + (next - center) * ratio) / totalWeight;
+            }
+            center = next;
+        }
+        double last = means[centroids - 1];
+        double ratio = (value - last) / (max - last);
+        return (center + weights[centroids - 1] / 2 * ratio) / totalWeight;
+    }
+
+    /** Sorts the means, moving the weights along */
+    private static void sort(double[] keys, double[] values, int from, int to) {
+        while (to - from > 16) {
+            double pivot = keys[(from + to) >>> 1];
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            // recurse on the smaller part, loop on the larger one
+            if (j - from < to - i) {
+                sort(keys, values, from, j);
+                from = i;
+            } else {
+                sort(keys, values, i, to);
+                to = j;
+            }
+        }
+        for (int i = from + 1; i <= to; i++) {
+            for (int j = i; j > from && keys[j - 1] > keys[j]; j--) {
+                swap(keys, values, j, j - 1);
+            }
+        }
+    }
+
+    private static void swap(double[] keys, double[] values, int i, int j) {
+        double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
@@ -42,7 +42,8 @@
  * @author Cory Horner, Refractions
  * @since 2.2.M2
  */
-public class UniqueVisitor implements FeatureCalc, FeatureAttributeVisitor, LimitingVisitor {
+public class UniqueVisitor
+        implements MergeableFeatureCalc, FeatureAttributeVisitor, LimitingVisitor {
     private List<Expression> expressions = new LinkedList<>();
     Set<Object> set = new HashSet<>();
     Set<Object> skipped = new HashSet<>();
@@ -221,6 +222,26 @@ public CalcResult getResult() {
         return new UniqueResult(set, this.preserveOrder);
     }
 
+    /** Returns null if paging limits are set, they cannot be applied to partitions. */
+    @Override
+    public MergeableFeatureCalc split() {
+        if (getClass() != UniqueVisitor.class || hasLimits()) {
+            // subclasses might visit the features differently
+            return null;
+        }
+        UniqueVisitor visitor = new UniqueVisitor(expressions.toArray(new Expression[0]));
+        visitor.setPreserveOrder(preserveOrder);
+        return visitor;
+    }
+
+    @Override
+    public void merge(MergeableFeatureCalc partial) {
+        // with no limits all values are kept, in the order they were first found
+        UniqueVisitor other = (UniqueVisitor) partial;
+        set.addAll(other.set);
+        currentItem = set.size();
+    }
+
     public List<String> getAttrNames() {
         List<String> attributes = new LinkedList<>();
         for (Expression e : expressions) {
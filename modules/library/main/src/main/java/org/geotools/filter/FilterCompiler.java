@@ -0,0 +1,731 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.filter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import org.geotools.api.feature.Attribute;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.And;
+import org.geotools.api.filter.BinaryLogicOperator;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterVisitor;
+import org.geotools.api.filter.Not;
+import org.geotools.api.filter.Or;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.util.ConverterFactory;
+import org.geotools.util.Converters;
+import org.geotools.util.factory.Hints;
+
+/**
+ * Compiles a filter against a {@link SimpleFeatureType}, turning it into a filter that evaluates
+ * simple features of that very type without interpreting the filter tree.
+ *
+ * <p>The comparisons between an attribute and a literal, the null checks and the logic operators
+ * combining them are turned into predicates reading the attribute by index, with the literal
+ * already converted to the class of the attribute values, and comparing numbers as primitives. The
+ * results are the same as the ones of the original filter: whenever a value is not handled by the
+ * compiled predicate (e.g., a value of an unexpected class, or needing conversions depending on the
+ * value itself) the original filter is used for it. The other filters are evaluated as is.
+ *
+ * <p>The compiled filter uses the original filter for objects other than simple features of the
+ * type it has been compiled for (or an equal one), and visitors get to visit the original filter.
+ */
+public class FilterCompiler {
+
+    private FilterCompiler() {}
+
+    /**
+     * Compiles the filter against the given feature type
+     *
+     * @param filter the filter to compile
+     * @param schema the type of the features the filter will be evaluated against
+     * @return the compiled filter, or the original one if no part of it could be compiled
+     */
+    public static Filter compile(Filter filter, SimpleFeatureType schema) {
+        if (filter == null
+                || schema == null
+                || filter == Filter.INCLUDE
+                || filter == Filter.EXCLUDE
+                || filter instanceof CompiledFilter) {
+            return filter;
+        }
+        Predicate<SimpleFeature> predicate = compileNode(filter, schema);
+        if (predicate == null) {
+            return filter;
+        }
+        return new CompiledFilter(filter, schema, predicate);
+    }
+
+    /**
+     * Returns the filter that has been compiled, if the filter is the result of a compilation, or
+     * the filter itself otherwise
+     */
+    public static Filter getOriginal(Filter filter) {
+        if (filter instanceof CompiledFilter) {
+            return ((CompiledFilter) filter).filter;
+        }
+        return filter;
+    }
+
+    /** Compiles a filter tree node, returns null if neither it nor its children can be compiled */
+    static Predicate<SimpleFeature> compileNode(Filter filter, SimpleFeatureType schema) {
+        if (filter == Filter.INCLUDE) {
+            return f -> true;
+        } else if (filter == Filter.EXCLUDE) {
+            return f -> false;
+        } else if (filter instanceof And || filter instanceof Or) {
+            List<Filter> children = ((BinaryLogicOperator) filter).getChildren();
+            @SuppressWarnings("unchecked")
+            Predicate<SimpleFeature>[] predicates = new Predicate[children.size()];
+            boolean compiled = false;
+            for (int i = 0; i < predicates.length; i++) {
+                Filter child = children.get(i);
+                predicates[i] = compileNode(child, schema);
+                if (predicates[i] == null) {
+                    predicates[i] = child::evaluate;
+                } else {
+                    compiled = true;
+                }
+            }
+            if (!compiled) {
+                return null;
+            }
+            return filter instanceof And
+                    ? new AndPredicate(predicates)
+                    : new OrPredicate(predicates);
+        } else if (filter instanceof Not) {
+            Predicate<SimpleFeature> predicate = compileNode(((Not) filter).getFilter(), schema);
+            return predicate == null ? null : predicate.negate();
+        } else if (filter.getClass() == IsNullImpl.class) {
+            int index = attributeIndex(((IsNullImpl) filter).getExpression(), schema);
+            return index < 0 ? null : f -> f.getAttribute(index) == null;
+        } else if (filter.getClass() == IsBetweenImpl.class) {
+            IsBetweenImpl between = (IsBetweenImpl) filter;
+            int index = attributeIndex(between.getExpression(), schema);
+            Object lower = literalValue(between.getLowerBoundary());
+            Object upper = literalValue(between.getUpperBoundary());
+            if (index < 0 || lower == null || upper == null) {
+                return null;
+            }
+            return new Between(filter, index, lower, upper);
+        } else if (filter instanceof MultiCompareFilterImpl) {
+            return compileComparison((MultiCompareFilterImpl) filter, schema);
+        }
+        return null;
+    }
+
+    private static Predicate<SimpleFeature> compileComparison(
+            MultiCompareFilterImpl filter, SimpleFeatureType schema) {
+        boolean literalFirst;
+        int index = attributeIndex(filter.getExpression1(), schema);
+        Object literal;
+        if (index >= 0) {
+            literal = literalValue(filter.getExpression2());
+            literalFirst = false;
+        } else {
+            index = attributeIndex(filter.getExpression2(), schema);
+            literal = literalValue(filter.getExpression1());
+            literalFirst = true;
+        }
+        if (index < 0 || literal == null) {
+            return null;
+        }
+
+        Class<?> type = filter.getClass();
+        if (type == IsEqualsToImpl.class) {
+            return new EqualTo(filter, index, literal, literalFirst, filter.isMatchingCase());
+        } else if (type == IsNotEqualToImpl.class) {
+            return new EqualTo(filter, index, literal, literalFirst, filter.isMatchingCase())
+                    .negate(filter);
+        } else if (type == IsLessThenImpl.class) {
+            return new Ordering(filter, index, literal, literalFirst, Ordering.LESS);
+        } else if (type == IsLessThenOrEqualToImpl.class) {
+            return new Ordering(filter, index, literal, literalFirst, Ordering.LESS_EQUAL);
+        } else if (type == IsGreaterThanImpl.class) {
+            return new Ordering(filter, index, literal, literalFirst, Ordering.GREATER);
+        } else if (type == IsGreaterThanOrEqualToImpl.class) {
+            return new Ordering(filter, index, literal, literalFirst, Ordering.GREATER_EQUAL);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the index of the attribute read by the expression, if it's a plain property name
+     * matching an attribute of the type, -1 otherwise
+     */
+    static int attributeIndex(Expression expression, SimpleFeatureType schema) {
+        if (expression == null || expression.getClass() != AttributeExpressionImpl.class) {
+            return -1;
+        }
+        String name = ((AttributeExpressionImpl) expression).getPropertyName();
+        if (name == null
+                || name.isEmpty()
+                || !(Character.isLetter(name.charAt(0)) || name.charAt(0) == '_')) {
+            return -1;
+        }
+        // no prefixes, xpath steps or indexes, the names the simple feature accessor reads as is
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                return -1;
+            }
+        }
+        return schema.indexOf(name);
+    }
+
+    /** Returns the value of a literal expression, null if not a literal or not a single value */
+    static Object literalValue(Expression expression) {
+        if (!(expression instanceof Literal)) {
+            return null;
+        }
+        Object value = expression.evaluate(null);
+        if (value == null || isMultiValued(value)) {
+            return null;
+        }
+        return value;
+    }
+
+    static boolean isMultiValued(Object value) {
+        return value instanceof Collection
+                || value instanceof Attribute
+                || value.getClass().isArray();
+    }
+
+    /** Parses the string as a long or a double, as {@link IsEqualsToImpl} does, null on failure */
+    static Number parseToNumber(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            try {
+                return Double.valueOf(value);
+            } catch (NumberFormatException e2) {
+                return null;
+            }
+        }
+    }
+
+    /** Parses the string as a double, null on failure */
+    static Double parseDouble(String value) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** The filter evaluating the compiled predicate against the features of the compiled type */
+    static final class CompiledFilter implements Filter {
+
+        final Filter filter;
+
+        final SimpleFeatureType schema;
+
+        final Predicate<SimpleFeature> predicate;
+
+        /**
+         * The last type found to be equal, but not the same, as the compiled one. Stores often
+         * return features whose type is a copy of the one they advertise.
+         */
+        volatile SimpleFeatureType equalSchema;
+
+        CompiledFilter(
+                Filter filter, SimpleFeatureType schema, Predicate<SimpleFeature> predicate) {
+            this.filter = filter;
+            this.schema = schema;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean evaluate(Object object) {
+            if (object instanceof SimpleFeature) {
+                SimpleFeatureType type = ((SimpleFeature) object).getFeatureType();
+                if (type == schema || type == equalSchema) {
+                    return predicate.test((SimpleFeature) object);
+                } else if (schema.equals(type)) {
+                    equalSchema = type;
+                    return predicate.test((SimpleFeature) object);
+                }
+            }
+            return filter.evaluate(object);
+        }
+
+        @Override
+        public Object accept(FilterVisitor visitor, Object extraData) {
+            return filter.accept(visitor, extraData);
+        }
+
+        @Override
+        public String toString() {
+            return filter.toString();
+        }
+    }
+
+    static final class AndPredicate implements Predicate<SimpleFeature> {
+
+        final Predicate<SimpleFeature>[] predicates;
+
+        AndPredicate(Predicate<SimpleFeature>[] predicates) {
+            this.predicates = predicates;
+        }
+
+        @Override
+        public boolean test(SimpleFeature feature) {
+            for (Predicate<SimpleFeature> predicate : predicates) {
+                if (!predicate.test(feature)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    static final class OrPredicate implements Predicate<SimpleFeature> {
+
+        final Predicate<SimpleFeature>[] predicates;
+
+        OrPredicate(Predicate<SimpleFeature>[] predicates) {
+            this.predicates = predicates;
+        }
+
+        @Override
+        public boolean test(SimpleFeature feature) {
+            for (Predicate<SimpleFeature> predicate : predicates) {
+                if (predicate.test(feature)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Base class for the comparison of an attribute with a literal. The literal is converted once
+     * for each class of the attribute values, the conversion of the last class seen is kept.
+     */
+    abstract static class AttributeComparison<C> implements Predicate<SimpleFeature> {
+
+        static final int FALSE = 0;
+
+        static final int TRUE = 1;
+
+        /** The value cannot be handled, the original filter has to be used */
+        static final int UNKNOWN = -1;
+
+        final Filter filter;
+
+        final int index;
+
+        /** Immutable, safely shared among threads */
+        volatile C converted;
+
+        AttributeComparison(Filter filter, int index) {
+            this.filter = filter;
+            this.index = index;
+        }
+
+        @Override
+        public boolean test(SimpleFeature feature) {
+            Object value = feature.getAttribute(index);
+            int result;
+            if (value == null) {
+                result = evaluateNull();
+            } else if (isMultiValued(value)) {
+                result = UNKNOWN;
+            } else {
+                C c = converted;
+                if (c == null || type(c) != value.getClass()) {
+                    c = convert(value.getClass());
+                    converted = c;
+                }
+                result = evaluate(value, c);
+            }
+            if (result == UNKNOWN) {
+                return filter.evaluate(feature);
+            }
+            return result == TRUE;
+        }
+
+        /** The class the conversion has been computed for */
+        abstract Class<?> type(C converted);
+
+        /** Prepares the literal for comparisons with values of the given class */
+        abstract C convert(Class<?> type);
+
+        /** Evaluates the comparison for a null attribute value */
+        abstract int evaluateNull();
+
+        /** Evaluates the comparison for a non null attribute value */
+        abstract int evaluate(Object value, C converted);
+
+        /** Returns the negation of this comparison, using the given filter as the fallback */
+        Predicate<SimpleFeature> negate(Filter negated) {
+            AttributeComparison<C> comparison = this;
+            return new AttributeComparison<C>(negated, index) {
+                @Override
+                Class<?> type(C converted) {
+                    return comparison.type(converted);
+                }
+
+                @Override
+                C convert(Class<?> type) {
+                    return comparison.convert(type);
+                }
+
+                @Override
+                int evaluateNull() {
+                    return not(comparison.evaluateNull());
+                }
+
+                @Override
+                int evaluate(Object value, C converted) {
+                    return not(comparison.evaluate(value, converted));
+                }
+
+                private int not(int result) {
+                    return result == UNKNOWN ? UNKNOWN : TRUE - result;
+                }
+            };
+        }
+    }
+
+    /** The literal converted to the class of the attribute values */
+    static final class ConvertedLiteral {
+
+        final Class<?> type;
+
+        final Object value;
+
+        ConvertedLiteral(Class<?> type, Object value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    /** Compiled form of {@link IsEqualsToImpl} */
+    static final class EqualTo extends AttributeComparison<ConvertedLiteral> {
+
+        final Object literal;
+
+        final boolean literalFirst;
+
+        final boolean matchCase;
+
+        /** Whether the literal can take part in numeric comparisons */
+        final boolean numericLiteral;
+
+        /** The literal as a number, null if it's not a number or cannot be parsed as one */
+        final Number number;
+
+        EqualTo(Filter filter, int index, Object literal, boolean literalFirst, boolean matchCase) {
+            super(filter, index);
+            this.literal = literal;
+            this.literalFirst = literalFirst;
+            this.matchCase = matchCase;
+            this.numericLiteral = literal instanceof Number || literal instanceof CharSequence;
+            this.number =
+                    literal instanceof Number
+                            ? (Number) literal
+                            : numericLiteral ? parseToNumber(literal.toString()) : null;
+        }
+
+        @Override
+        Class<?> type(ConvertedLiteral converted) {
+            return converted.type;
+        }
+
+        @Override
+        ConvertedLiteral convert(Class<?> type) {
+            Object value = literal.getClass() == type ? literal : Converters.convert(literal, type);
+            return new ConvertedLiteral(type, value);
+        }
+
+        @Override
+        int evaluateNull() {
+            return FALSE;
+        }
+
+        @Override
+        int evaluate(Object value, ConvertedLiteral converted) {
+            if (literal.getClass() == value.getClass()) {
+                if (!matchCase && value instanceof String) {
+                    return ((String) value).equalsIgnoreCase((String) literal) ? TRUE : FALSE;
+                }
+                return value.equals(literal) ? TRUE : FALSE;
+            }
+            if (literalFirst ? literal.equals(value) : value.equals(literal)) {
+                return TRUE;
+            }
+            if (converted.value != null && converted.value.equals(value)) {
+                return TRUE;
+            }
+            boolean numericValue = value instanceof Number;
+            if ((numericValue && numericLiteral)
+                    || (literal instanceof Number && value instanceof CharSequence)) {
+                if (number == null) {
+                    return FALSE;
+                }
+                Number n = numericValue ? (Number) value : parseToNumber(value.toString());
+                if (n == null) {
+                    return FALSE;
+                }
+                return numericEquals(n, number) ? TRUE : FALSE;
+            }
+            return UNKNOWN;
+        }
+
+        /** Same numeric comparison as {@link IsEqualsToImpl} */
+        static boolean numericEquals(Number n1, Number n2) {
+            final double fp1 = n1.doubleValue();
+            final double fp2 = n2.doubleValue();
+            final long lg1 = n1.longValue();
+            final long lg2 = n2.longValue();
+            if (fp1 == (double) lg1 && fp2 == (double) lg2) {
+                return lg1 == lg2;
+            }
+            return (fp1 == fp2) || (Double.isNaN(fp1) && Double.isNaN(fp2));
+        }
+    }
+
+    /** The literal prepared for ordering comparisons with values of a given class */
+    static final class OrderedLiteral {
+
+        static final int NUMBER = 0;
+
+        static final int STRING = 1;
+
+        static final int COMPARABLE = 2;
+
+        final Class<?> type;
+
+        /** How values are compared, one of the constants above, or -1 if they can't be */
+        final int mode;
+
+        final Object value;
+
+        final double number;
+
+        /** For strings, the value parsed as a double, if possible */
+        final Double parsed;
+
+        OrderedLiteral(Class<?> type, int mode, Object value, double number, Double parsed) {
+            this.type = type;
+            this.mode = mode;
+            this.value = value;
+            this.number = number;
+            this.parsed = parsed;
+        }
+    }
+
+    /**
+     * Compiled form of {@link IsLessThenImpl}, {@link IsLessThenOrEqualToImpl}, {@link
+     * IsGreaterThanImpl} and {@link IsGreaterThanOrEqualToImpl}
+     */
+    static final class Ordering extends AttributeComparison<OrderedLiteral> {
+
+        static final int LESS = 0;
+
+        static final int LESS_EQUAL = 1;
+
+        static final int GREATER = 2;
+
+        static final int GREATER_EQUAL = 3;
+
+        static final Hints SAFE = new Hints(ConverterFactory.SAFE_CONVERSION, Boolean.TRUE);
+
+        final Object literal;
+
+        final boolean literalFirst;
+
+        final int operator;
+
+        Ordering(Filter filter, int index, Object literal, boolean literalFirst, int operator) {
+            super(filter, index);
+            this.literal = literal;
+            this.literalFirst = literalFirst;
+            this.operator = operator;
+        }
+
+        @Override
+        Class<?> type(OrderedLiteral converted) {
+            return converted.type;
+        }
+
+        @Override
+        OrderedLiteral convert(Class<?> type) {
+            // mirrors BinaryComparisonAbstract.eval(Object, Object), for the cases not depending
+            // on the attribute value
+            Object value = null;
+            if (literal.getClass() == type) {
+                value = literal;
+            } else if (literal instanceof Number && Number.class.isAssignableFrom(type)) {
+                // whichever way the safe conversion goes, numbers get compared as doubles
+                Object converted = Converters.convert(literal, type, SAFE);
+                if (converted != null) {
+                    return new OrderedLiteral(
+                            type,
+                            OrderedLiteral.NUMBER,
+                            converted,
+                            ((Number) converted).doubleValue(),
+                            null);
+                }
+            } else if (!literalFirst) {
+                Object converted = Converters.convert(literal, type, SAFE);
+                if (converted != null && converted.getClass() == type) {
+                    value = converted;
+                }
+            }
+
+            if (value instanceof Number) {
+                return new OrderedLiteral(
+                        type, OrderedLiteral.NUMBER, value, ((Number) value).doubleValue(), null);
+            } else if (value instanceof String) {
+                return new OrderedLiteral(
+                        type, OrderedLiteral.STRING, value, 0, parseDouble((String) value));
+            } else if (value instanceof Comparable) {
+                return new OrderedLiteral(type, OrderedLiteral.COMPARABLE, value, 0, null);
+            }
+            return new OrderedLiteral(type, -1, null, 0, null);
+        }
+
+        @Override
+        int evaluateNull() {
+            return FALSE;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int evaluate(Object value, OrderedLiteral converted) {
+            int compare;
+            switch (converted.mode) {
+                case OrderedLiteral.NUMBER:
+                    double n = ((Number) value).doubleValue();
+                    compare =
+                            literalFirst
+                                    ? compare(converted.number, n)
+                                    : compare(n, converted.number);
+                    break;
+                case OrderedLiteral.STRING:
+                    Double parsed = converted.parsed == null ? null : parseDouble((String) value);
+                    if (parsed != null) {
+                        compare =
+                                literalFirst
+                                        ? Double.compare(converted.parsed, parsed)
+                                        : Double.compare(parsed, converted.parsed);
+                    } else {
+                        compare =
+                                literalFirst
+                                        ? ((String) converted.value).compareTo((String) value)
+                                        : ((String) value).compareTo((String) converted.value);
+                    }
+                    break;
+                case OrderedLiteral.COMPARABLE:
+                    compare =
+                            literalFirst
+                                    ? ((Comparable<Object>) converted.value).compareTo(value)
+                                    : ((Comparable<Object>) value).compareTo(converted.value);
+                    break;
+                default:
+                    return UNKNOWN;
+            }
+            boolean result;
+            switch (operator) {
+                case LESS:
+                    result = compare < 0;
+                    break;
+                case LESS_EQUAL:
+                    result = compare <= 0;
+                    break;
+                case GREATER:
+                    result = compare > 0;
+                    break;
+                default:
+                    result = compare >= 0;
+            }
+            return result ? TRUE : FALSE;
+        }
+
+        /** Same number comparison as {@link CompareFilterImpl#compare(Comparable, Comparable)} */
+        static int compare(double left, double right) {
+            return left > right ? 1 : (left == right ? 0 : -1);
+        }
+    }
+
+    /** The bounds of a between filter converted to the class of the attribute values */
+    static final class ConvertedBounds {
+
+        final Class<?> type;
+
+        final Comparable<Object> lower;
+
+        final Comparable<Object> upper;
+
+        ConvertedBounds(Class<?> type, Comparable<Object> lower, Comparable<Object> upper) {
+            this.type = type;
+            this.lower = lower;
+            this.upper = upper;
+        }
+    }
+
+    /** Compiled form of {@link IsBetweenImpl} */
+    static final class Between extends AttributeComparison<ConvertedBounds> {
+
+        final Object lower;
+
+        final Object upper;
+
+        Between(Filter filter, int index, Object lower, Object upper) {
+            super(filter, index);
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        @Override
+        Class<?> type(ConvertedBounds converted) {
+            return converted.type;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        ConvertedBounds convert(Class<?> type) {
+            Object l = Converters.convert(lower, type);
+            Object u = Converters.convert(upper, type);
+            if (l instanceof Comparable && u instanceof Comparable) {
+                return new ConvertedBounds(type, (Comparable<Object>) l, (Comparable<Object>) u);
+            }
+            return new ConvertedBounds(type, null, null);
+        }
+
+        @Override
+        int evaluateNull() {
+            return FALSE;
+        }
+
+        @Override
+        int evaluate(Object value, ConvertedBounds converted) {
+            if (converted.lower == null) {
+                return UNKNOWN;
+            }
+            return converted.lower.compareTo(value) <= 0 && converted.upper.compareTo(value) >= 0
+                    ? TRUE
+                    : FALSE;
+        }
+    }
+}
@@ -23,12 +23,17 @@
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
+import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.filter.capability.FunctionName;
+import org.geotools.api.filter.expression.Expression;
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.util.NullProgressListener;
 import org.geotools.feature.FeatureCollection;
+import org.geotools.feature.visitor.ApproximateQuantileListVisitor;
 import org.geotools.feature.visitor.CalcResult;
 import org.geotools.feature.visitor.FeatureCalc;
+import org.geotools.filter.visitor.ExpressionTypeVisitor;
+import org.geotools.util.factory.Hints;
 
 public abstract class AbstractQuantityClassificationFunction extends ClassificationFunction {
 
@@ -43,8 +48,22 @@ public AbstractQuantityClassificationFunction(FunctionName name) {
      */
     protected abstract FeatureCalc getListVisitor();
 
+    /**
+     * Returns the approximate counterpart of {@link #getListVisitor()}, used when {@link
+     * #isApproximate()} is true and the classified expression is numeric, or null if there is none.
+     */
+    protected ApproximateQuantileListVisitor getApproximateListVisitor() {
+        return null;
+    }
+
     private Object calculate(SimpleFeatureCollection featureCollection) {
-        FeatureCalc quantityVisitor = getListVisitor();
+        FeatureCalc quantityVisitor = null;
+        if (isApproximate() && isNumeric(featureCollection.getSchema())) {
+            quantityVisitor = getApproximateListVisitor();
+        }
+        if (quantityVisitor == null) {
+            quantityVisitor = getListVisitor();
+        }
         if (progress == null) progress = new NullProgressListener();
         try {
             featureCollection.accepts(quantityVisitor, progress);
@@ -73,8 +92,17 @@ private Object calculate(SimpleFeatureCollection featureCollection) {
         } else {
             result = (Classifier) calculateNonNumerical(bin, globalMin, globalMax);
         }
-        if (percentages())
-            result.setPercentages(calculatePercentages(bin, featureCollection.size()));
+        if (percentages()) {
+            if (calcResult instanceof ApproximateQuantileListVisitor.Result) {
+                result.setPercentages(
+                        calculatePercentages(
+                                (ApproximateQuantileListVisitor) quantityVisitor,
+                                (ApproximateQuantileListVisitor.Result) calcResult,
+                                featureCollection.size()));
+            } else {
+                result.setPercentages(calculatePercentages(bin, featureCollection.size()));
+            }
+        }
 
         return result;
     }
@@ -182,6 +210,41 @@ private double[] calculatePercentages(List[] bin, int totalSize) {
         return percentages;
     }
 
+    /**
+     * Scales the estimated percentages, which are relative to the non null values, to the total
+     * size, as done for the exact ones
+     */
+    private double[] calculatePercentages(
+            ApproximateQuantileListVisitor visitor,
+            ApproximateQuantileListVisitor.Result result,
+            int totalSize) {
+        double[] percentages = result.getPercentages().clone();
+        double ratio = totalSize > 0 ? (double) visitor.getCount() / totalSize : 1;
+        for (int i = 0; i < percentages.length; i++) {
+            percentages[i] *= ratio;
+        }
+        return percentages;
+    }
+
+    /**
+     * Returns true if the classified expression evaluates to numbers for the given schema. The
+     * approximate visitors only handle numbers.
+     */
+    private boolean isNumeric(SimpleFeatureType schema) {
+        Expression expression = getParameters().get(0);
+        Object type = expression.accept(new ExpressionTypeVisitor(schema), null);
+        return type instanceof Class && Number.class.isAssignableFrom((Class<?>) type);
+    }
+
+    /**
+     * Returns true if the {@link Hints#APPROXIMATE_AGGREGATES} hint is set, in which case the
+     * breaks of numeric expressions are estimated in bounded memory, and bins only contain their
+     * lower and upper break.
+     */
+    protected boolean isApproximate() {
+        return Boolean.TRUE.equals(Hints.getSystemDefault(Hints.APPROXIMATE_AGGREGATES));
+    }
+
     /** @return true if percentages computation is enabled, false if not */
     protected abstract boolean percentages();
 }
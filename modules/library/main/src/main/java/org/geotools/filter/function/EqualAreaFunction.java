@@ -24,6 +24,7 @@
 import org.geotools.api.filter.expression.Function;
 import org.geotools.api.filter.expression.Literal;
 import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.visitor.ApproximateEqualAreaListVisitor;
 import org.geotools.feature.visitor.EqualAreaListVisitor;
 import org.geotools.feature.visitor.FeatureCalc;
 import org.geotools.filter.capability.FunctionNameImpl;
@@ -73,6 +74,16 @@ protected FeatureCalc getListVisitor() {
         return new EqualAreaListVisitor(getParameters().get(0), areaFunction, getClasses());
     }
 
+    @Override
+    protected ApproximateEqualAreaListVisitor getApproximateListVisitor() {
+        Expression areaFunction = getEqualAreaParameter();
+        if (areaFunction == null) {
+            areaFunction = getCartesianAreaFunction();
+        }
+        return new ApproximateEqualAreaListVisitor(
+                getParameters().get(0), areaFunction, getClasses());
+    }
+
     @Override
     protected boolean percentages() {
         if (getParameters().size() > 3) {
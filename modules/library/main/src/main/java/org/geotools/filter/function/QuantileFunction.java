@@ -20,6 +20,7 @@
 
 import org.geotools.api.filter.capability.FunctionName;
 import org.geotools.api.filter.expression.Literal;
+import org.geotools.feature.visitor.ApproximateQuantileListVisitor;
 import org.geotools.feature.visitor.QuantileListVisitor;
 import org.geotools.filter.capability.FunctionNameImpl;
 
@@ -48,6 +49,11 @@ protected QuantileListVisitor getListVisitor() {
         return new QuantileListVisitor(getParameters().get(0), getClasses());
     }
 
+    @Override
+    protected ApproximateQuantileListVisitor getApproximateListVisitor() {
+        return new ApproximateQuantileListVisitor(getParameters().get(0), getClasses());
+    }
+
     @Override
     protected boolean percentages() {
         boolean percentages = false;
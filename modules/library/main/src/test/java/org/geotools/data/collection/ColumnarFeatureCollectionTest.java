@@ -0,0 +1,196 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.geotools.api.feature.GeometryAttribute;
+import org.geotools.api.feature.Property;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+
+public class ColumnarFeatureCollectionTest {
+
+    static final GeometryFactory GF = new GeometryFactory();
+
+    SimpleFeatureType type;
+
+    List<SimpleFeature> features;
+
+    @Before
+    public void setUp() {
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("test");
+        tb.setCRS(DefaultGeographicCRS.WGS84);
+        tb.add("geom", Point.class);
+        tb.add("name", String.class);
+        tb.add("count", Integer.class);
+        tb.add("total", Long.class);
+        tb.add("ratio", Double.class);
+        tb.add("flag", Boolean.class);
+        tb.add("date", Date.class);
+        tb.add("line", LineString.class);
+        type = tb.buildFeatureType();
+
+        features = new ArrayList<>();
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        for (int i = 0; i < 100; i++) {
+            fb.add(i % 10 == 0 ? null : GF.createPoint(new Coordinate(i, -i)));
+            fb.add(i % 7 == 0 ? null : "name" + (i % 3));
+            fb.add(i % 11 == 0 ? null : i);
+            fb.add((long) i * Integer.MAX_VALUE);
+            fb.add(i / 4d);
+            fb.add(i % 2 == 0);
+            fb.add(new Date(i * 1000L));
+            fb.add(
+                    GF.createLineString(
+                            new Coordinate[] {new Coordinate(0, 0), new Coordinate(i, i)}));
+            features.add(fb.buildFeature("test." + i));
+        }
+    }
+
+    ColumnarFeatureCollection collection() {
+        ColumnarFeatureCollection collection = new ColumnarFeatureCollection(type);
+        features.forEach(collection::add);
+        return collection;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        ColumnarFeatureCollection collection = collection();
+        assertEquals(features.size(), collection.size());
+        assertTrue(collection.columns[0] instanceof Column.PointColumn);
+        assertTrue(collection.columns[1] instanceof Column.StringColumn);
+        assertTrue(collection.columns[2] instanceof Column.IntColumn);
+        assertTrue(collection.ids instanceof Column.IdColumn);
+
+        try (SimpleFeatureIterator it = collection.features()) {
+            for (SimpleFeature expected : features) {
+                assertTrue(it.hasNext());
+                SimpleFeature actual = it.next();
+                assertEquals(expected.getID(), actual.getID());
+                assertEquals(expected.getAttributes(), actual.getAttributes());
+                assertEquals(expected.getDefaultGeometry(), actual.getDefaultGeometry());
+                assertEquals(expected.getAttribute("name"), actual.getAttribute("name"));
+                assertEquals(expected.getProperty("count").getValue(), actual.getAttribute(2));
+            }
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    public void testUnexpectedValues() {
+        ColumnarFeatureCollection collection = collection();
+        SimpleFeature feature = DataUtilities.template(type, "custom-id");
+        feature.setAttribute("geom", GF.createPoint(new Coordinate(1, 2, 3)));
+        feature.setAttribute("count", "not a number");
+        collection.add(feature);
+
+        // the columns fall back to storing objects, the values are unchanged
+        assertTrue(collection.columns[0] instanceof Column.GeometryColumn);
+        assertTrue(collection.columns[2] instanceof Column.ObjectColumn);
+        SimpleFeature actual = collection.get(100);
+        assertEquals("custom-id", actual.getID());
+        assertEquals(3, ((Point) actual.getDefaultGeometry()).getCoordinate().getZ(), 0);
+        assertEquals("not a number", actual.getAttribute("count"));
+        for (int i = 0; i < features.size(); i++) {
+            assertEquals(features.get(i).getID(), collection.get(i).getID());
+            assertEquals(features.get(i).getAttributes(), collection.get(i).getAttributes());
+        }
+    }
+
+    @Test
+    public void testSetAttribute() {
+        ColumnarFeatureCollection collection = collection();
+        SimpleFeature feature = collection.get(5);
+        feature.setAttribute("name", "updated");
+        feature.setAttribute("ratio", null);
+        feature.setDefaultGeometry(GF.createPoint(new Coordinate(1000, 1000)));
+
+        SimpleFeature other = collection.get(5);
+        assertEquals(feature, other);
+        assertEquals("updated", other.getAttribute("name"));
+        assertNull(other.getAttribute("ratio"));
+        assertEquals(1000, collection.getBounds().getMaxX(), 0);
+    }
+
+    @Test
+    public void testPropertyViews() {
+        ColumnarFeatureCollection collection = collection();
+        SimpleFeature feature = collection.get(1);
+        assertEquals(type.getAttributeCount(), feature.getProperties().size());
+        assertTrue(feature.getProperty("geom") instanceof GeometryAttribute);
+        assertNull(feature.getProperty("missing"));
+        assertTrue(feature.getProperties("missing").isEmpty());
+
+        // the properties read and write through the columns
+        Property count = feature.getProperty("count");
+        assertEquals(1, count.getValue());
+        count.setValue(42);
+        assertEquals(42, collection.get(1).getAttribute("count"));
+        feature.setAttribute("name", "updated");
+        assertEquals("updated", feature.getProperties("name").iterator().next().getValue());
+        Point point = GF.createPoint(new Coordinate(10, 20));
+        feature.getDefaultGeometryProperty().setValue(point);
+        assertEquals(point, collection.get(1).getDefaultGeometry());
+        assertEquals(10, feature.getDefaultGeometryProperty().getBounds().getMinX(), 0);
+    }
+
+    @Test
+    public void testBounds() {
+        ReferencedEnvelope expected = DataUtilities.collection(features).getBounds();
+        ReferencedEnvelope bounds = collection().getBounds();
+        assertEquals(expected, bounds);
+        assertEquals(DefaultGeographicCRS.WGS84, bounds.getCoordinateReferenceSystem());
+        assertEquals(features.get(1).getBounds(), collection().get(1).getBounds());
+    }
+
+    @Test
+    public void testCopy() throws Exception {
+        ListFeatureCollection list = new ListFeatureCollection(type, features);
+        ColumnarFeatureCollection copy = new ColumnarFeatureCollection(list);
+        assertEquals(list.size(), copy.size());
+        for (int i = 0; i < features.size(); i++) {
+            SimpleFeature feature = copy.get(i);
+            assertEquals(features.get(i).getID(), feature.getID());
+            assertEquals(features.get(i).getAttributes(), feature.getAttributes());
+            assertEquals(features.get(i).getAttribute("line"), feature.getAttribute("line"));
+            assertTrue(feature.getAttribute("line") instanceof Geometry);
+        }
+        copy.clear();
+        assertTrue(copy.isEmpty());
+    }
+}
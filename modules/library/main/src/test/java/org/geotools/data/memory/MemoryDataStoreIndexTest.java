@@ -0,0 +1,283 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureStore;
+import org.geotools.api.data.Transaction;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.sort.SortOrder;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.DefaultTransaction;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.collection.ParallelFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.visitor.CountVisitor;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+
+public class MemoryDataStoreIndexTest {
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
+    static final GeometryFactory GF = new GeometryFactory();
+
+    SimpleFeatureType type;
+
+    MemoryDataStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        type = DataUtilities.createType("grid", "geom:Point,value:Integer,name:String");
+        store = new MemoryDataStore(type);
+        for (int x = 0; x < 20; x++) {
+            for (int y = 0; y < 20; y++) {
+                store.addFeature(feature(x * 20 + y, x, y));
+            }
+        }
+        store.createIndex("grid", "geom");
+        store.createIndex("grid", "value");
+        store.createIndex("grid", "name");
+    }
+
+    SimpleFeature feature(int value, double x, double y) {
+        Point point = GF.createPoint(new Coordinate(x, y));
+        return SimpleFeatureBuilder.build(
+                type, new Object[] {point, value, "n" + value}, "grid." + value);
+    }
+
+    List<String> read(Filter filter) throws Exception {
+        List<String> ids = new ArrayList<>();
+        try (SimpleFeatureIterator it =
+                store.getFeatureSource("grid").getFeatures(filter).features()) {
+            while (it.hasNext()) {
+                ids.add(it.next().getID());
+            }
+        }
+        return ids;
+    }
+
+    /** Evaluates the filter on all the features */
+    List<String> scan(Filter filter) throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (SimpleFeature feature : store.entry(type).getMemory().values()) {
+            if (filter.evaluate(feature)) {
+                ids.add(feature.getID());
+            }
+        }
+        return ids;
+    }
+
+    int candidates(Filter filter) throws Exception {
+        return store.entry(type).getFeatures(filter).size();
+    }
+
+    void assertIndexed(Filter filter, int expected) throws Exception {
+        List<String> ids = read(filter);
+        assertEquals(scan(filter), ids);
+        assertEquals(expected, ids.size());
+        assertTrue(candidates(filter) < 400);
+    }
+
+    @Test
+    public void testSpatialFilters() throws Exception {
+        assertIndexed(FF.bbox("geom", 2.5, 2.5, 4.5, 5.5, null), 6);
+        assertIndexed(FF.bbox("geom", 0, 0, 1, 1, null), 4);
+        Point point = GF.createPoint(new Coordinate(3, 3));
+        assertIndexed(FF.intersects(FF.property("geom"), FF.literal(point)), 1);
+        assertIndexed(FF.equals(FF.literal(point), FF.property("geom")), 1);
+        // the envelope of a disjoint filter says nothing about the candidates
+        assertEquals(400, candidates(FF.disjoint(FF.property("geom"), FF.literal(point))));
+    }
+
+    @Test
+    public void testAttributeFilters() throws Exception {
+        assertIndexed(FF.equals(FF.property("value"), FF.literal(42)), 1);
+        assertIndexed(FF.equals(FF.property("value"), FF.literal(42L)), 1);
+        assertIndexed(FF.equals(FF.property("value"), FF.literal(42d)), 1);
+        assertIndexed(FF.equals(FF.property("name"), FF.literal("n42")), 1);
+        assertIndexed(FF.less(FF.property("value"), FF.literal(10)), 10);
+        assertIndexed(FF.lessOrEqual(FF.property("value"), FF.literal(10.5)), 11);
+        assertIndexed(FF.greater(FF.literal(10), FF.property("value")), 10);
+        assertIndexed(FF.greaterOrEqual(FF.property("value"), FF.literal(390)), 10);
+        assertIndexed(FF.between(FF.property("value"), FF.literal(5), FF.literal(14)), 10);
+        assertIndexed(
+                FF.or(
+                        FF.equals(FF.property("value"), FF.literal(1)),
+                        FF.equals(FF.property("value"), FF.literal(2))),
+                2);
+        assertIndexed(
+                FF.and(
+                        FF.bbox("geom", 0, 0, 4, 19, null),
+                        FF.less(FF.property("value"), FF.literal(50))),
+                50);
+        assertIndexed(FF.id(FF.featureId("grid.7"), FF.featureId("grid.3")), 2);
+        // no index on case insensitive comparisons, but the result is still correct
+        Filter insensitive = FF.equal(FF.property("name"), FF.literal("N42"), false);
+        assertEquals(scan(insensitive), read(insensitive));
+        assertEquals(400, candidates(insensitive));
+    }
+
+    @Test
+    public void testAutoCommitUpdates() throws Exception {
+        SimpleFeatureStore featureStore = (SimpleFeatureStore) store.getFeatureSource("grid");
+        Filter moved = FF.id(FF.featureId("grid.0"));
+        featureStore.modifyFeatures(
+                new String[] {"geom", "value"},
+                new Object[] {GF.createPoint(new Coordinate(100, 100)), 1000},
+                moved);
+        assertIndexed(FF.bbox("geom", 99, 99, 101, 101, null), 1);
+        assertIndexed(FF.bbox("geom", -1, -1, 0.5, 0.5, null), 0);
+        assertIndexed(FF.greater(FF.property("value"), FF.literal(999)), 1);
+        assertIndexed(FF.equals(FF.property("value"), FF.literal(0)), 0);
+
+        featureStore.removeFeatures(FF.bbox("geom", 99, 99, 101, 101, null));
+        assertIndexed(FF.greater(FF.property("value"), FF.literal(999)), 0);
+        assertEquals(399, store.entry(type).getMemory().size());
+    }
+
+    @Test
+    public void testTransaction() throws Exception {
+        Filter area = FF.bbox("geom", 49, 49, 51, 51, null);
+        try (Transaction t = new DefaultTransaction()) {
+            SimpleFeatureStore featureStore =
+                    (SimpleFeatureStore) store.getFeatureSource("grid");
+            featureStore.setTransaction(t);
+            featureStore.addFeatures(DataUtilities.collection(feature(2000, 50, 50)));
+            assertEquals(1, featureStore.getFeatures(area).size());
+            // not visible outside of the transaction
+            assertTrue(read(area).isEmpty());
+            t.commit();
+        }
+        assertIndexed(area, 1);
+        assertIndexed(FF.equals(FF.property("value"), FF.literal(2000)), 1);
+    }
+
+    @Test
+    public void testDirectModificationsRebuildIndex() throws Exception {
+        SimpleFeature added = feature(3000, 70, 70);
+        store.entry(type).getMemory().put(added.getID(), added);
+        assertIndexed(FF.bbox("geom", 69, 69, 71, 71, null), 1);
+        assertIndexed(FF.equals(FF.property("value"), FF.literal(3000)), 1);
+    }
+
+    @Test
+    public void testNumericStrings() throws Exception {
+        SimpleFeature ten = feature(1000, 60, 60);
+        ten.setAttribute("name", "10");
+        store.addFeature(ten);
+        SimpleFeature nine = feature(1001, 61, 61);
+        nine.setAttribute("name", "9");
+        store.addFeature(nine);
+
+        // strings parsing as numbers are compared as numbers, 10 > 9
+        Filter greater = FF.greater(FF.property("name"), FF.literal("9"));
+        List<String> ids = read(greater);
+        assertEquals(scan(greater), ids);
+        assertTrue(ids.contains(ten.getID()));
+        Filter less = FF.lessOrEqual(FF.property("name"), FF.literal("10"));
+        assertEquals(scan(less), read(less));
+        assertTrue(read(less).contains(nine.getID()));
+
+        // a non numeric literal is compared lexically, the index is still used
+        assertIndexed(FF.less(FF.property("name"), FF.literal("n1")), 3);
+        assertIndexed(FF.equals(FF.property("name"), FF.literal("10")), 1);
+    }
+
+    @Test
+    public void testTruncatedLiterals() throws Exception {
+        // the literal is converted to Integer before comparing, truncating the decimals
+        Filter equal = FF.equals(FF.property("value"), FF.literal(5.5));
+        assertEquals(scan(equal), read(equal));
+        Filter between = FF.between(FF.property("value"), FF.literal(4.5), FF.literal(6));
+        assertEquals(scan(between), read(between));
+        Filter outside = FF.equals(FF.property("value"), FF.literal(1e10));
+        assertEquals(scan(outside), read(outside));
+
+        // integral literals still use the index
+        assertIndexed(FF.equals(FF.property("value"), FF.literal(5.0)), 1);
+        assertIndexed(FF.between(FF.property("value"), FF.literal(4.0), FF.literal(6)), 3);
+        assertIndexed(FF.greater(FF.property("value"), FF.literal(398.5)), 1);
+    }
+
+    @Test
+    public void testReplacedThroughMemory() throws Exception {
+        // same fid, moved and with a new value
+        SimpleFeature moved = feature(0, 80, 80);
+        moved.setAttribute("value", 4000);
+        store.entry(type).getMemory().put(moved.getID(), moved);
+        assertIndexed(FF.bbox("geom", 79, 79, 81, 81, null), 1);
+        assertIndexed(FF.bbox("geom", -1, -1, 0.5, 0.5, null), 0);
+        assertIndexed(FF.equals(FF.property("value"), FF.literal(4000)), 1);
+        assertIndexed(FF.equals(FF.property("value"), FF.literal(0)), 0);
+
+        store.entry(type).getMemory().remove(moved.getID());
+        assertIndexed(FF.bbox("geom", 79, 79, 81, 81, null), 0);
+    }
+
+    @Test
+    public void testPartitionedFeatures() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Filter filter = FF.less(FF.property("value"), FF.literal(100));
+            ParallelFeatureCollection partitioned =
+                    store.getPartitionedFeatures(new Query("grid", filter), 4, executor);
+            assertEquals(4, partitioned.getPartitions().size());
+            CountVisitor count = new CountVisitor();
+            partitioned.accepts(count, null);
+            assertEquals(scan(filter).size(), count.getCount());
+
+            // sorted queries are not split
+            Query sorted = new Query("grid", filter);
+            sorted.setSortBy(FF.sort("value", SortOrder.DESCENDING));
+            partitioned = store.getPartitionedFeatures(sorted, 4, executor);
+            assertEquals(1, partitioned.getPartitions().size());
+            assertEquals(100, partitioned.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNotIndexedByDefault() throws Exception {
+        MemoryDataStore plain = new MemoryDataStore(type);
+        plain.addFeature(feature(0, 0, 0));
+        plain.addFeature(feature(1, 10, 10));
+        Filter filter = FF.bbox("geom", -1, -1, 1, 1, null);
+        assertEquals(2, plain.entry(type).getFeatures(filter).size());
+        assertEquals(1, plain.getFeatureSource("grid").getFeatures(filter).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownAttribute() throws Exception {
+        store.createIndex("grid", "missing");
+    }
+}
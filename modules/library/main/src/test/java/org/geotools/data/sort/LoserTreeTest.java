@@ -0,0 +1,144 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.junit.Test;
+
+public class LoserTreeTest {
+
+    static final Comparator<SimpleFeature> BY_VALUE =
+            Comparator.comparing(f -> (Integer) f.getAttribute("value"));
+
+    SimpleFeatureType schema;
+
+    public LoserTreeTest() {
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.setName("test");
+        tb.add("value", Integer.class);
+        schema = tb.buildFeatureType();
+    }
+
+    /** A block on top of an in memory list */
+    static class ListBlock implements FeatureBlock {
+        List<SimpleFeature> features;
+        int position = 0;
+
+        ListBlock(List<SimpleFeature> features) {
+            this.features = features;
+        }
+
+        @Override
+        public SimpleFeature feature() {
+            return position < features.size() ? features.get(position) : null;
+        }
+
+        @Override
+        public SimpleFeature next() {
+            position++;
+            return feature();
+        }
+    }
+
+    @Test
+    public void testRandomBlocks() throws IOException {
+        Random random = new Random(0);
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(schema);
+        for (int test = 0; test < 200; test++) {
+            // random number of blocks, including empty ones, with lots of ties
+            int k = random.nextInt(20);
+            int id = 0;
+            List<ListBlock> blocks = new ArrayList<>();
+            List<SimpleFeature> all = new ArrayList<>();
+            for (int b = 0; b < k; b++) {
+                List<SimpleFeature> features = new ArrayList<>();
+                int count = random.nextInt(10);
+                for (int i = 0; i < count; i++) {
+                    fb.add(random.nextInt(5));
+                    features.add(fb.buildFeature(String.valueOf(id++)));
+                }
+                Collections.sort(features, BY_VALUE);
+                all.addAll(features);
+                blocks.add(new ListBlock(features));
+            }
+            // the merge is stable, same as sorting all the features in block order
+            Collections.sort(all, BY_VALUE);
+
+            LoserTree tree = new LoserTree(blocks, BY_VALUE);
+            List<SimpleFeature> merged = new ArrayList<>();
+            while (tree.hasNext()) {
+                merged.add(tree.next());
+            }
+            assertEquals(all, merged);
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNoBlocks() throws IOException {
+        LoserTree tree = new LoserTree(Collections.emptyList(), BY_VALUE);
+        assertFalse(tree.hasNext());
+        tree.next();
+    }
+
+    @Test
+    public void testMappedBlocks() throws IOException {
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(schema);
+        List<MappedBlockReader> blocks = new ArrayList<>();
+        List<File> files = new ArrayList<>();
+        try {
+            for (int b = 0; b < 3; b++) {
+                List<SimpleFeature> features = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    fb.add(i * 3 + b);
+                    features.add(fb.buildFeature(b + "." + i));
+                }
+                File file = MergeSortDumper.sortAndSpill(schema, features, BY_VALUE);
+                files.add(file);
+                blocks.add(new MappedBlockReader(file, schema, features.size()));
+            }
+
+            LoserTree tree = new LoserTree(blocks, BY_VALUE);
+            for (int i = 0; i < 30; i++) {
+                SimpleFeature f = tree.next();
+                assertEquals(Integer.valueOf(i), f.getAttribute("value"));
+                assertEquals((i % 3) + "." + (i / 3), f.getID());
+            }
+            assertFalse(tree.hasNext());
+        } finally {
+            for (MappedBlockReader block : blocks) {
+                block.close();
+            }
+        }
+        for (File file : files) {
+            assertFalse(file.exists());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class MappedBlockReaderTest {
+
+    @Test
+    public void testReadLine() {
+        byte[] bytes = "first\nsecond\r\nthird\rlast".getBytes(StandardCharsets.ISO_8859_1);
+        MappedBlockReader.BufferInput input =
+                new MappedBlockReader.BufferInput(ByteBuffer.wrap(bytes));
+        assertEquals("first", input.readLine());
+        assertEquals("second", input.readLine());
+        assertEquals("third", input.readLine());
+        assertEquals("last", input.readLine());
+        assertNull(input.readLine());
+    }
+
+    @Test
+    public void testReadLineEmpty() {
+        MappedBlockReader.BufferInput input =
+                new MappedBlockReader.BufferInput(ByteBuffer.wrap(new byte[] {'\n', '\n'}));
+        assertEquals("", input.readLine());
+        assertEquals("", input.readLine());
+        assertNull(input.readLine());
+    }
+
+    @Test
+    public void testReadPrimitives() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            out.writeInt(42);
+            out.writeUTF("àbc");
+            out.writeDouble(1.5);
+            out.writeShort(-1);
+        }
+        MappedBlockReader.BufferInput input =
+                new MappedBlockReader.BufferInput(ByteBuffer.wrap(bos.toByteArray()));
+        assertEquals(42, input.readInt());
+        assertEquals("àbc", input.readUTF());
+        assertEquals(1.5, input.readDouble(), 0d);
+        assertEquals(0xFFFF, input.readUnsignedShort());
+    }
+}
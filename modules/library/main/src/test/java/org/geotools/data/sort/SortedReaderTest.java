@@ -5,8 +5,11 @@
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.NoSuchElementException;
+import org.geotools.api.data.Query;
 import org.geotools.api.data.SimpleFeatureReader;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
@@ -20,6 +23,7 @@
 import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
 import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.util.factory.Hints;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -222,6 +226,62 @@ public void testSortNaturalPartialLastPage() throws IOException {
         }
     }
 
+    @Test
+    public void testParallelMemorySort() throws IOException {
+        // make it so that we are not going to hit the disk
+        try (SimpleFeatureReader sr = new SortedFeatureReader(fr, parallelQuery(peopleAsc, 1000))) {
+            assertSortedOnPeopleAsc(sr);
+        }
+    }
+
+    @Test
+    public void testParallelFileSortPeople() throws IOException {
+        // make it so that we are going to hit the disk
+        try (SimpleFeatureReader sr = new SortedFeatureReader(fr, parallelQuery(peopleAsc, 5))) {
+            assertSortedOnPeopleAsc(sr);
+        }
+    }
+
+    @Test
+    public void testParallelFileSortDate() throws IOException {
+        // make it so that we are going to hit the disk
+        try (SimpleFeatureReader sr = new SortedFeatureReader(fr, parallelQuery(dateAsc, 100))) {
+            assertSortedOnDateAsc(sr);
+        }
+    }
+
+    @Test
+    public void testParallelSameAsSequential() throws IOException {
+        // same output as the sequential merge sort, including the order of ties
+        final int PRIME = 173;
+        SortBy[] dateDesc = {ff.sort("date", SortOrder.DESCENDING)};
+        List<String> expected = new ArrayList<>();
+        try (SimpleFeatureReader sr = new SortedFeatureReader(fr, dateDesc, PRIME)) {
+            while (sr.hasNext()) {
+                expected.add(sr.next().getID());
+            }
+        }
+        List<String> actual = new ArrayList<>();
+        SimpleFeatureReader reader = new DelegateSimpleFeatureReader(schema, fc.features());
+        try (SimpleFeatureReader sr =
+                new SortedFeatureReader(reader, parallelQuery(dateDesc, PRIME))) {
+            while (sr.hasNext()) {
+                actual.add(sr.next().getID());
+            }
+        }
+        assertEquals(fc.size(), actual.size());
+        assertEquals(expected, actual);
+    }
+
+    private Query parallelQuery(SortBy[] sortBy, int maxFeatures) {
+        Query query = new Query(schema.getTypeName());
+        query.setSortBy(sortBy);
+        Hints hints = new Hints(Hints.PARALLEL_MEMORY_SORT, true);
+        hints.put(Hints.MAX_MEMORY_SORT, maxFeatures);
+        query.setHints(hints);
+        return query;
+    }
+
     private void assertSortedOnPeopleAsc(SimpleFeatureReader fr)
             throws IllegalArgumentException, NoSuchElementException, IOException {
         double prev = -1;
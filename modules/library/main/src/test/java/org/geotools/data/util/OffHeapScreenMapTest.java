@@ -0,0 +1,161 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.util;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OffHeapScreenMapTest {
+
+    @Before
+    @After
+    public void clearPool() {
+        OffHeapScreenMap.POOL.clear();
+    }
+
+    @Test
+    public void testSetGet() {
+        OffHeapScreenMap map = new OffHeapScreenMap(0, 0, 100, 70);
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 70; y++) {
+                Assert.assertFalse(map.get(x, y));
+            }
+        }
+
+        map.set(3, 4, true);
+        Assert.assertTrue(map.get(3, 4));
+        Assert.assertFalse(map.get(4, 3));
+        map.set(3, 4, false);
+        Assert.assertFalse(map.get(3, 4));
+
+        // fill everything, and then clear everything
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 70; y++) {
+                map.set(x, y, true);
+            }
+        }
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 70; y++) {
+                Assert.assertTrue(map.get(x, y));
+                map.set(x, y, false);
+            }
+        }
+        for (int x = 0; x < 100; x++) {
+            for (int y = 0; y < 70; y++) {
+                Assert.assertFalse(map.get(x, y));
+            }
+        }
+        map.dispose();
+    }
+
+    @Test
+    public void testCheckAndSet() {
+        OffHeapScreenMap map = new OffHeapScreenMap(10, 20, 130, 90);
+        Assert.assertFalse(map.checkAndSet(10, 20));
+        Assert.assertTrue(map.checkAndSet(10, 20));
+        Assert.assertTrue(map.get(10, 20));
+
+        // last pixel, partial blocks on both axis
+        Assert.assertFalse(map.checkAndSet(139, 109));
+        Assert.assertTrue(map.checkAndSet(139, 109));
+        map.dispose();
+    }
+
+    @Test
+    public void testOutsideScreen() {
+        OffHeapScreenMap map = new OffHeapScreenMap(0, 0, 10, 10);
+        Assert.assertFalse(map.checkAndSet(-10, -10));
+        Assert.assertFalse(map.checkAndSet(-10, -10));
+        Assert.assertFalse(map.checkAndSet(20, 10));
+        Assert.assertFalse(map.checkAndSet(20, 10));
+        Assert.assertFalse(map.get(-10, -10));
+        Assert.assertFalse(map.get(20, 10));
+        map.set(20, 10, true);
+        Assert.assertFalse(map.get(20, 10));
+        map.dispose();
+    }
+
+    @Test
+    public void testSameAsScreenMap() {
+        // compare with the heap based implementation on random accesses
+        int width = 300;
+        int height = 200;
+        ScreenMap reference = new ScreenMap(-5, -5, width, height);
+        OffHeapScreenMap map = new OffHeapScreenMap(-5, -5, width, height);
+        Random random = new Random(0);
+        for (int i = 0; i < 100000; i++) {
+            int x = random.nextInt(width + 20) - 15;
+            int y = random.nextInt(height + 20) - 15;
+            int op = random.nextInt(4);
+            if (op == 0) {
+                boolean value = random.nextBoolean();
+                reference.set(x, y, value);
+                map.set(x, y, value);
+            } else if (op == 1) {
+                Assert.assertEquals(reference.get(x, y), map.get(x, y));
+            } else {
+                Assert.assertEquals(reference.checkAndSet(x, y), map.checkAndSet(x, y));
+            }
+        }
+        for (int x = -5; x < width - 5; x++) {
+            for (int y = -5; y < height - 5; y++) {
+                Assert.assertEquals(reference.get(x, y), map.get(x, y));
+            }
+        }
+        map.dispose();
+    }
+
+    @Test
+    public void testBufferReuse() {
+        OffHeapScreenMap map = new OffHeapScreenMap(0, 0, 200, 200);
+        map.checkAndSet(5, 5);
+        map.checkAndSet(150, 199);
+        ByteBuffer buffer = map.buffer;
+        map.dispose();
+        Assert.assertNull(map.buffer);
+        Assert.assertEquals(buffer.capacity(), OffHeapScreenMap.POOL.getPooledBytes());
+        // the buffer has been cleared before getting back in the pool
+        for (int i = 0; i < buffer.capacity(); i++) {
+            Assert.assertEquals("Byte at " + i + " is not zero", 0, buffer.get(i));
+        }
+
+        // a similar screen map reuses the buffer, which has been cleared
+        OffHeapScreenMap other = new OffHeapScreenMap(0, 0, 190, 200);
+        Assert.assertFalse(other.checkAndSet(0, 0));
+        Assert.assertSame(buffer, other.buffer);
+        Assert.assertEquals(0, OffHeapScreenMap.POOL.getPooledBytes());
+        Assert.assertFalse(other.get(5, 5));
+        Assert.assertFalse(other.get(150, 199));
+        other.dispose();
+    }
+
+    @Test
+    public void testPoolSkipsBiggerBuffers() {
+        OffHeapScreenMap big = new OffHeapScreenMap(0, 0, 1000, 1000);
+        big.checkAndSet(0, 0);
+        big.dispose();
+
+        OffHeapScreenMap small = new OffHeapScreenMap(0, 0, 10, 10);
+        small.checkAndSet(0, 0);
+        Assert.assertTrue(small.buffer.capacity() < 1000);
+        small.dispose();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.geotools.api.feature.FeatureVisitor;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.util.ProgressListener;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.visitor.Aggregate;
+import org.geotools.feature.visitor.CountVisitor;
+import org.geotools.feature.visitor.FeatureCalc;
+import org.geotools.feature.visitor.GroupByVisitor;
+import org.geotools.feature.visitor.GroupByVisitor.GroupByRawResult;
+import org.geotools.feature.visitor.MaxVisitor;
+import org.geotools.feature.visitor.MedianVisitor;
+import org.geotools.feature.visitor.MinVisitor;
+import org.geotools.feature.visitor.QuantileListVisitor;
+import org.geotools.feature.visitor.StandardDeviationVisitor;
+import org.geotools.feature.visitor.SumVisitor;
+import org.geotools.feature.visitor.UniqueVisitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelFeatureCollectionTest {
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
+    SimpleFeatureType type;
+
+    List<SimpleFeature> features;
+
+    ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        type = DataUtilities.createType("test", "value:Integer,ratio:Double,group:String");
+        features = new ArrayList<>();
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        for (int i = 0; i < 1000; i++) {
+            fb.add(i % 13 == 0 ? null : (i * 7) % 1000);
+            fb.add(Math.sin(i) * 100);
+            fb.add("group" + (i % 5));
+            features.add(fb.buildFeature("test." + i));
+        }
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    ParallelFeatureCollection parallel(int count) {
+        return ParallelFeatureCollection.partition(type, features, count, executor);
+    }
+
+    /** Visits the features sequentially and in parallel, returning both results */
+    Object[] visit(FeatureCalc sequential, FeatureCalc parallel) throws Exception {
+        new ListFeatureCollection(type, features).accepts(sequential, null);
+        parallel(7).accepts(parallel, null);
+        return new Object[] {sequential.getResult().getValue(), parallel.getResult().getValue()};
+    }
+
+    @Test
+    public void testPartition() throws Exception {
+        ParallelFeatureCollection collection = parallel(7);
+        assertEquals(7, collection.getPartitions().size());
+        assertEquals(features.size(), collection.size());
+        List<SimpleFeature> visited = new ArrayList<>();
+        try (SimpleFeatureIterator it = collection.features()) {
+            while (it.hasNext()) {
+                visited.add(it.next());
+            }
+        }
+        assertEquals(features, visited);
+        // no empty partitions
+        List<SimpleFeature> three = features.subList(0, 3);
+        collection = ParallelFeatureCollection.partition(type, three, 5, executor);
+        assertEquals(3, collection.getPartitions().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExecutorRequired() {
+        new ParallelFeatureCollection(type, parallel(2).getPartitions(), null);
+    }
+
+    @Test
+    public void testCountSumMinMax() throws Exception {
+        Object[] count = visit(new CountVisitor(), new CountVisitor());
+        assertEquals(count[0], count[1]);
+        Object[] sum = visit(new SumVisitor("value", type), new SumVisitor("value", type));
+        assertEquals(sum[0], sum[1]);
+        Object[] min = visit(new MinVisitor("ratio"), new MinVisitor("ratio"));
+        assertEquals(min[0], min[1]);
+        Object[] max = visit(new MaxVisitor("value"), new MaxVisitor("value"));
+        assertEquals(max[0], max[1]);
+    }
+
+    @Test
+    public void testUnique() throws Exception {
+        Object[] unique = visit(new UniqueVisitor("group"), new UniqueVisitor("group"));
+        assertEquals(unique[0], unique[1]);
+
+        UniqueVisitor sequential = new UniqueVisitor("value");
+        sequential.setPreserveOrder(true);
+        UniqueVisitor parallel = new UniqueVisitor("value");
+        parallel.setPreserveOrder(true);
+        unique = visit(sequential, parallel);
+        assertEquals(new ArrayList<>((Set<?>) unique[0]), new ArrayList<>((Set<?>) unique[1]));
+
+        // paging cannot be applied to partitions
+        UniqueVisitor paged = new UniqueVisitor("value");
+        paged.setMaxFeatures(10);
+        assertNull(paged.split());
+    }
+
+    @Test
+    public void testStandardDeviation() throws Exception {
+        Expression ratio = FF.property("ratio");
+        StandardDeviationVisitor sequential = new StandardDeviationVisitor(ratio);
+        StandardDeviationVisitor parallel = new StandardDeviationVisitor(ratio);
+        Object[] deviation = visit(sequential, parallel);
+        assertEquals((Double) deviation[0], (Double) deviation[1], 1e-9);
+        assertEquals(sequential.getMean(), parallel.getMean(), 1e-9);
+    }
+
+    @Test
+    public void testQuantileList() throws Exception {
+        Expression value = FF.property("value");
+        Object[] bins =
+                visit(new QuantileListVisitor(value, 4), new QuantileListVisitor(value, 4));
+        assertArrayEquals((Object[]) bins[0], (Object[]) bins[1]);
+    }
+
+    @Test
+    public void testGroupBy() throws Exception {
+        List<Expression> groups = Arrays.asList(FF.property("group"));
+        Expression value = FF.property("value");
+        GroupByVisitor sequential = new GroupByVisitor(Aggregate.SUM, value, groups, null);
+        GroupByVisitor parallel = new GroupByVisitor(Aggregate.SUM, value, groups, null);
+        visit(sequential, parallel);
+        assertEquals(sequential.getResult().toMap(), parallel.getResult().toMap());
+
+        // aggregates that cannot be merged are visited sequentially
+        GroupByVisitor median = new GroupByVisitor(Aggregate.MEDIAN, value, groups, null);
+        assertNull(median.split());
+        GroupByVisitor expected = new GroupByVisitor(Aggregate.MEDIAN, value, groups, null);
+        visit(expected, median);
+        assertEquals(expected.getResult().toMap(), median.getResult().toMap());
+    }
+
+    @Test
+    public void testGroupByOptimizedPartition() throws Exception {
+        List<Expression> groups = Arrays.asList(FF.property("group"));
+        Expression value = FF.property("value");
+        // a partition computing the groups natively, the way a database would
+        SimpleFeatureCollection optimized =
+                new ListFeatureCollection(type, features.subList(0, 500)) {
+                    @Override
+                    public void accepts(FeatureVisitor visitor, ProgressListener progress)
+                            throws IOException {
+                        GroupByVisitor computed =
+                                new GroupByVisitor(Aggregate.COUNT, value, groups, null);
+                        super.accepts(computed, progress);
+                        List<GroupByRawResult> raw = new ArrayList<>();
+                        Map<List<Object>, Object> counts = computed.getResult().toMap();
+                        counts.forEach((k, v) -> raw.add(new GroupByRawResult(k, v)));
+                        ((GroupByVisitor) visitor).setValue(raw);
+                    }
+                };
+        SimpleFeatureCollection visited =
+                new ListFeatureCollection(type, features.subList(500, features.size()));
+        ParallelFeatureCollection collection =
+                new ParallelFeatureCollection(
+                        type, Arrays.asList(optimized, visited), executor);
+
+        GroupByVisitor parallel = new GroupByVisitor(Aggregate.COUNT, value, groups, null);
+        collection.accepts(parallel, null);
+        assertTrue(parallel.wasOptimized());
+        GroupByVisitor sequential = new GroupByVisitor(Aggregate.COUNT, value, groups, null);
+        new ListFeatureCollection(type, features).accepts(sequential, null);
+        assertEquals(sequential.getResult().toMap(), parallel.getResult().toMap());
+    }
+
+    @Test
+    public void testOtherVisitors() throws Exception {
+        MedianVisitor sequential = new MedianVisitor("value");
+        MedianVisitor parallel = new MedianVisitor("value");
+        Object[] median = visit(sequential, parallel);
+        assertNotNull(median[1]);
+        assertEquals(median[0], median[1]);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.visitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.data.DataUtilities;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApproximateQuantileListVisitorTest {
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
+    List<SimpleFeature> features;
+
+    double[] values;
+
+    @Before
+    public void setUp() throws Exception {
+        SimpleFeatureType type = DataUtilities.createType("test", "value:Double,area:Double");
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        Random random = new Random(0);
+        int count = 100000;
+        values = new double[count];
+        features = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values[i] = Math.exp(random.nextGaussian());
+            // the larger half of the values have twice the area
+            fb.add(values[i]);
+            fb.add(values[i] > 1 ? 2d : 1d);
+            features.add(fb.buildFeature(null));
+        }
+        fb.add(null);
+        fb.add(1d);
+        features.add(fb.buildFeature(null));
+        Arrays.sort(values);
+    }
+
+    @Test
+    public void testQuantiles() {
+        ApproximateQuantileListVisitor visitor =
+                new ApproximateQuantileListVisitor(FF.property("value"), 4);
+        assertSame(CalcResult.NULL_RESULT, visitor.getResult());
+        features.forEach(visitor::visit);
+        assertEquals(values.length, visitor.getCount());
+        assertEquals(1, visitor.getNullCount());
+        for (double q : new double[] {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            assertEquals(q, rank(visitor.getQuantile(q)), 0.002);
+        }
+
+        ApproximateQuantileListVisitor.Result result =
+                (ApproximateQuantileListVisitor.Result) visitor.getResult();
+        @SuppressWarnings("unchecked")
+        List<Comparable>[] bins = (List<Comparable>[]) result.getValue();
+        assertEquals(4, bins.length);
+        assertEquals(values[0], bins[0].get(0));
+        assertEquals(values[values.length - 1], bins[3].get(1));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(2, bins[i].size());
+            assertEquals(25, result.getPercentages()[i], 0.5);
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        ApproximateQuantileListVisitor visitor =
+                new ApproximateQuantileListVisitor(FF.property("value"), 4);
+        MergeableFeatureCalc[] partials = {visitor.split(), visitor.split(), visitor.split()};
+        for (int i = 0; i < features.size(); i++) {
+            partials[i % 3].visit(features.get(i));
+        }
+        for (MergeableFeatureCalc partial : partials) {
+            visitor.merge(partial);
+        }
+        assertEquals(values.length, visitor.getCount());
+        assertEquals(1, visitor.getNullCount());
+        assertEquals(0.5, rank(visitor.getQuantile(0.5)), 0.002);
+    }
+
+    @Test
+    public void testEqualArea() {
+        ApproximateEqualAreaListVisitor visitor =
+                new ApproximateEqualAreaListVisitor(FF.property("value"), FF.property("area"), 3);
+        ApproximateEqualAreaListVisitor partial =
+                (ApproximateEqualAreaListVisitor) visitor.split();
+        for (int i = 0; i < features.size(); i++) {
+            (i % 2 == 0 ? visitor : partial).visit(features.get(i));
+        }
+        visitor.merge(partial);
+        // the values above the median weigh twice as much, so the breaks at a third and two
+        // thirds of the total area are found at the ranks 0.5 and 0.75
+        ApproximateQuantileListVisitor.Result result =
+                (ApproximateQuantileListVisitor.Result) visitor.getResult();
+        @SuppressWarnings("unchecked")
+        List<Comparable>[] bins = (List<Comparable>[]) result.getValue();
+        assertEquals(3, bins.length);
+        double firstBreak = (Double) bins[0].get(1);
+        assertEquals(0.5, rank(firstBreak), 0.005);
+        assertEquals(0.75, rank((Double) bins[1].get(1)), 0.005);
+        assertEquals(50, result.getPercentages()[0], 1);
+        assertEquals(25, result.getPercentages()[1], 1);
+        assertTrue(visitor.getQuantile(0.5) > 1);
+    }
+
+    /** The exact rank of a value */
+    private double rank(double value) {
+        int index = Arrays.binarySearch(values, value);
+        return (index < 0 ? -index - 1 : index) / (double) values.length;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.feature.visitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.Test;
+
+public class ApproximateUniqueCountVisitorTest {
+
+    @Test
+    public void testSmallCounts() throws Exception {
+        SimpleFeatureType type = DataUtilities.createType("test", "name:String");
+        ApproximateUniqueCountVisitor visitor = new ApproximateUniqueCountVisitor("name");
+        assertSame(CalcResult.NULL_RESULT, visitor.getResult());
+        for (String name : new String[] {"a", "b", "c", "a", null, "b"}) {
+            visitor.visit(SimpleFeatureBuilder.build(type, new Object[] {name}, null));
+        }
+        // linear counting is exact for small cardinalities
+        assertEquals(3, visitor.getResult().toInt());
+        visitor.reset();
+        assertEquals(0, visitor.getCount());
+    }
+
+    @Test
+    public void testLargeCounts() throws Exception {
+        SimpleFeatureType type = DataUtilities.createType("test", "value:Long");
+        SimpleFeatureBuilder fb = new SimpleFeatureBuilder(type);
+        ApproximateUniqueCountVisitor visitor = new ApproximateUniqueCountVisitor("value");
+        MergeableFeatureCalc[] partials = {visitor.split(), visitor.split()};
+        int count = 200000;
+        for (long i = 0; i < count; i++) {
+            fb.add(i % (count / 2));
+            SimpleFeature feature = fb.buildFeature(null);
+            partials[(int) (i % 2)].visit(feature);
+        }
+        visitor.merge(partials[0]);
+        visitor.merge(partials[1]);
+        // well within 4 standard errors
+        assertEquals(count / 2, visitor.getCount(), count / 2 * 0.033);
+    }
+
+    @Test
+    public void testHash() {
+        // equal values hash the same
+        assertEquals(HyperLogLog.hash("abc"), HyperLogLog.hash(new StringBuilder("abc")));
+        assertEquals(HyperLogLog.hash(12), HyperLogLog.hash(12L));
+        HyperLogLog sketch = new HyperLogLog(4);
+        assertEquals(0, sketch.cardinality());
+    }
+}
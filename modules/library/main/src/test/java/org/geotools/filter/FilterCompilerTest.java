@@ -0,0 +1,187 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.PropertyIsGreaterThan;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.data.DataUtilities;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.filter.visitor.DefaultFilterVisitor;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FilterCompilerTest {
+
+    FilterFactory ff = CommonFactoryFinder.getFilterFactory(null);
+
+    SimpleFeatureType schema;
+
+    List<SimpleFeature> features;
+
+    @Before
+    public void setUp() throws Exception {
+        schema =
+                DataUtilities.createType(
+                        "test",
+                        "i:Integer,l:Long,d:Double,s:String,date:java.util.Date,b:Boolean,"
+                                + "o:java.lang.Object,geom:Point");
+        features = new ArrayList<>();
+        Random random = new Random(0);
+        String[] strings = {"abc", "ABC", "10", "10.5", "-3", "", "zzz"};
+        Object[] objects = {5, 5L, 5.0, "5", "five", 10.5f, new Date(5), true, Arrays.asList(5, 6)};
+        for (int i = 0; i < 500; i++) {
+            Object[] values = {
+                nullOr(random, random.nextInt(21) - 10),
+                nullOr(random, (long) random.nextInt(21) - 10),
+                nullOr(random, random.nextInt(41) / 2d - 10),
+                nullOr(random, strings[random.nextInt(strings.length)]),
+                nullOr(random, new Date(random.nextInt(10) * 1000L)),
+                nullOr(random, random.nextBoolean()),
+                nullOr(random, objects[random.nextInt(objects.length)]),
+                null
+            };
+            features.add(SimpleFeatureBuilder.build(schema, values, "test." + i));
+        }
+    }
+
+    private static Object nullOr(Random random, Object value) {
+        return random.nextInt(10) == 0 ? null : value;
+    }
+
+    /** Filters comparing the attributes with literals of the same and of other types */
+    private List<Filter> filters() {
+        List<Filter> filters = new ArrayList<>();
+        Object[] literals = {
+            0, 5, -3L, 2.5, 5.0, "5", "10", "abc", "5.0", "x", true, new Date(3000), "1970-01-01"
+        };
+        for (String name : new String[] {"i", "l", "d", "s", "date", "b", "o"}) {
+            for (Object value : literals) {
+                Expression p = ff.property(name);
+                Expression l = ff.literal(value);
+                filters.add(ff.equals(p, l));
+                filters.add(ff.equals(l, p));
+                filters.add(ff.equal(p, l, false));
+                filters.add(ff.notEqual(p, l));
+                filters.add(ff.notEqual(l, p, false));
+                filters.add(ff.less(p, l));
+                filters.add(ff.less(l, p));
+                filters.add(ff.lessOrEqual(p, l));
+                filters.add(ff.greater(p, l));
+                filters.add(ff.greaterOrEqual(p, l));
+                filters.add(ff.greaterOrEqual(l, p));
+                filters.add(ff.between(p, l, ff.literal("7")));
+                filters.add(ff.between(p, ff.literal(-5), l));
+            }
+            filters.add(ff.isNull(ff.property(name)));
+        }
+        Filter i = ff.greater(ff.property("i"), ff.literal(2));
+        Filter s = ff.equal(ff.property("s"), ff.literal("abc"), false);
+        Filter like = ff.like(ff.property("s"), "a%");
+        filters.add(ff.and(i, s));
+        filters.add(ff.or(i, s));
+        filters.add(ff.not(ff.and(i, like)));
+        filters.add(ff.or(Arrays.asList(like, ff.not(i), ff.isNull(ff.property("d")))));
+        return filters;
+    }
+
+    @Test
+    public void testSameResults() {
+        for (Filter filter : filters()) {
+            Filter compiled = FilterCompiler.compile(filter, schema);
+            assertNotSame(filter.toString(), filter, compiled);
+            for (SimpleFeature feature : features) {
+                assertEquals(
+                        filter + " on " + feature,
+                        filter.evaluate(feature),
+                        compiled.evaluate(feature));
+            }
+        }
+    }
+
+    @Test
+    public void testNotCompiled() {
+        assertSame(Filter.INCLUDE, FilterCompiler.compile(Filter.INCLUDE, schema));
+        assertSame(Filter.EXCLUDE, FilterCompiler.compile(Filter.EXCLUDE, schema));
+        List<Filter> filters =
+                Arrays.asList(
+                        ff.like(ff.property("s"), "a%"),
+                        ff.equals(ff.property("missing"), ff.literal(1)),
+                        ff.equals(ff.property("i"), ff.property("l")),
+                        ff.equals(ff.property("i"), ff.function("strLength", ff.property("s"))),
+                        ff.equals(ff.property("i"), ff.literal(null)),
+                        ff.equals(ff.property("geom/x"), ff.literal(1)),
+                        ff.and(ff.like(ff.property("s"), "a%"), ff.isNull(ff.property("x"))));
+        for (Filter filter : filters) {
+            assertSame(filter, FilterCompiler.compile(filter, schema));
+        }
+    }
+
+    @Test
+    public void testOtherObjects() throws Exception {
+        Filter filter = ff.greater(ff.property("i"), ff.literal(2));
+        Filter compiled = FilterCompiler.compile(filter, schema);
+        assertSame(filter, FilterCompiler.getOriginal(compiled));
+        assertSame(compiled, FilterCompiler.compile(compiled, schema));
+
+        // a different type, with the attribute at another index
+        SimpleFeatureType other = DataUtilities.createType("other", "s:String,i:Integer");
+        SimpleFeature feature = SimpleFeatureBuilder.build(other, new Object[] {"a", 3}, null);
+        assertTrue(compiled.evaluate(feature));
+        feature.setAttribute("i", 1);
+        assertFalse(compiled.evaluate(feature));
+
+        // an equal type, not the same instance, uses the compiled predicate
+        SimpleFeatureTypeBuilder tb = new SimpleFeatureTypeBuilder();
+        tb.init(schema);
+        SimpleFeatureType copy = tb.buildFeatureType();
+        assertNotSame(schema, copy);
+        Object[] values = {3, null, null, null, null, null, null, null};
+        assertTrue(compiled.evaluate(SimpleFeatureBuilder.build(copy, values, null)));
+        assertSame(copy, ((FilterCompiler.CompiledFilter) compiled).equalSchema);
+
+        // visitors see the original filter
+        List<Object> visited = new ArrayList<>();
+        compiled.accept(
+                new DefaultFilterVisitor() {
+                    @Override
+                    public Object visit(PropertyIsGreaterThan f, Object data) {
+                        visited.add(f);
+                        return data;
+                    }
+                },
+                null);
+        assertEquals(Arrays.asList(filter), visited);
+        assertEquals(filter.toString(), compiled.toString());
+    }
+}
@@ -32,6 +32,7 @@
 import org.geotools.feature.DefaultFeatureCollection;
 import org.geotools.feature.SchemaException;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.util.factory.Hints;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -85,6 +86,65 @@ public void testEvaluateWithExpressions() throws Exception {
         assertEquals("29..90", ranged.getTitle(1));
     }
 
+    @Test
+    public void testEvaluateApproximate() throws Exception {
+        Hints.putSystemDefault(Hints.APPROXIMATE_AGGREGATES, true);
+        try {
+            Function func =
+                    ff.function("Quantile", ff.property("foo"), ff.literal(2), ff.literal(true));
+            RangedClassifier ranged = (RangedClassifier) func.evaluate(featureCollection);
+            // same values as above, the median is estimated between 12 and 20
+            assertEquals(2, ranged.getSize());
+            assertEquals(4, ((Number) ranged.getMin(0)).doubleValue(), 0d);
+            assertEquals(16, ((Number) ranged.getMax(0)).doubleValue(), 0d);
+            assertEquals(90, ((Number) ranged.getMax(1)).doubleValue(), 0d);
+            assertEquals(50, ranged.getPercentages()[0], 1e-6);
+            assertEquals(50, ranged.getPercentages()[1], 1e-6);
+        } finally {
+            Hints.removeSystemDefault(Hints.APPROXIMATE_AGGREGATES);
+        }
+    }
+
+    @Test
+    public void testEvaluateApproximateNotNumerical() throws Exception {
+        Hints.putSystemDefault(Hints.APPROXIMATE_AGGREGATES, true);
+        try {
+            // strings cannot be estimated, the exact visitor is used instead
+            Function func = ff.function("Quantile", ff.property("group"), ff.literal(2));
+            assertTrue(func.evaluate(featureCollection) instanceof ExplicitClassifier);
+        } finally {
+            Hints.removeSystemDefault(Hints.APPROXIMATE_AGGREGATES);
+        }
+    }
+
+    @Test
+    public void testEvaluateApproximatePercentagesWithNulls() throws Exception {
+        SimpleFeatureType type = DataUtilities.createType("nulls", "id:0,v:double");
+        Double[] values = {1d, 2d, 3d, 4d, null, null};
+        SimpleFeature[] features = new SimpleFeature[values.length];
+        for (int i = 0; i < values.length; i++) {
+            features[i] =
+                    SimpleFeatureBuilder.build(
+                            type, new Object[] {i, values[i]}, "nulls." + (i + 1));
+        }
+        SimpleFeatureCollection collection = DataUtilities.collection(features);
+        Function func = ff.function("Quantile", ff.property("v"), ff.literal(2), ff.literal(true));
+
+        double[] exact = ((Classifier) func.evaluate(collection)).getPercentages();
+        Hints.putSystemDefault(Hints.APPROXIMATE_AGGREGATES, true);
+        try {
+            // both relative to the whole collection, nulls included
+            double[] approximate = ((Classifier) func.evaluate(collection)).getPercentages();
+            assertEquals(2, approximate.length);
+            for (int i = 0; i < exact.length; i++) {
+                assertEquals(100d / 3, exact[i], 1e-6);
+                assertEquals(exact[i], approximate[i], 1);
+            }
+        } finally {
+            Hints.removeSystemDefault(Hints.APPROXIMATE_AGGREGATES);
+        }
+    }
+
     /**
      * Test a feature collection where each feature will be in it's own bin.
      *
@@ -0,0 +1,114 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import org.geotools.util.factory.Hints;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+
+public class ConvertersTest {
+
+    @Before
+    public void setUp() {
+        Converters.reset();
+    }
+
+    @Test
+    public void testConversions() {
+        assertEquals(Integer.valueOf(12), Converters.convert("12", Integer.class));
+        assertEquals(Double.valueOf(1.5), Converters.convert("1.5", Double.class));
+        assertEquals(Long.valueOf(10), Converters.convert(10, Long.class));
+        assertNull(Converters.convert("abc", Integer.class));
+        assertEquals("12", Converters.convert(12, String.class));
+        Date date = Converters.convert("2011-08-02T00:00:00.000Z", Date.class);
+        assertEquals(1312243200000L, date.getTime());
+        Geometry point = Converters.convert("POINT(1 2)", Geometry.class);
+        assertTrue(point instanceof Point);
+
+        // same results once the converters are cached
+        assertEquals(Integer.valueOf(12), Converters.convert("12", Integer.class));
+        assertNull(Converters.convert("abc", Integer.class));
+        assertEquals(date, Converters.convert("2011-08-02T00:00:00.000Z", Date.class));
+    }
+
+    @Test
+    public void testConvertersCached() {
+        Converter[] converters = Converters.getConverters(String.class, Integer.class, null);
+        assertTrue(converters.length > 0);
+        assertSame(converters, Converters.getConverters(String.class, Integer.class, null));
+
+        // no converter found is cached as well
+        Converter[] none = Converters.getConverters(Integer.class, Thread.class, null);
+        assertEquals(0, none.length);
+        assertSame(none, Converters.getConverters(Integer.class, Thread.class, null));
+    }
+
+    @Test
+    public void testHintsInKey() {
+        Hints hints = new Hints(ConverterFactory.SAFE_CONVERSION, true);
+        Converter[] safe = Converters.getConverters(Double.class, Integer.class, hints);
+        Converter[] unsafe = Converters.getConverters(Double.class, Integer.class, null);
+        assertNotSame(safe, unsafe);
+        assertSame(safe, Converters.getConverters(Double.class, Integer.class, hints));
+
+        // modifying the hints after the lookup does not alter the cached entry
+        hints.put(ConverterFactory.SAFE_CONVERSION, false);
+        assertNotSame(safe, Converters.getConverters(Double.class, Integer.class, hints));
+        assertSame(
+                safe,
+                Converters.getConverters(
+                        Double.class,
+                        Integer.class,
+                        new Hints(ConverterFactory.SAFE_CONVERSION, true)));
+    }
+
+    @Test
+    public void testReset() {
+        Converters.getConverters(String.class, Integer.class, null);
+        assertEquals(1, Converters.CONVERTERS.size());
+        Converters.scanForPlugins();
+        assertTrue(Converters.CONVERTERS.isEmpty());
+
+        // a change of the default hints clears the cache too
+        Converters.getConverters(String.class, Integer.class, null);
+        assertEquals(1, Converters.CONVERTERS.size());
+        Hints.putSystemDefault(Hints.LENIENT_DATUM_SHIFT, Boolean.TRUE);
+        try {
+            assertTrue(Converters.CONVERTERS.isEmpty());
+        } finally {
+            Hints.removeSystemDefault(Hints.LENIENT_DATUM_SHIFT);
+        }
+    }
+
+    @Test
+    public void testCacheBounded() {
+        for (int i = 0; i < Converters.MAX_CACHED_CONVERTERS * 2; i++) {
+            Hints hints = new Hints(Hints.VERSION, new Version(String.valueOf(i)));
+            Converters.getConverters(String.class, Integer.class, hints);
+            assertTrue(Converters.CONVERTERS.size() <= Converters.MAX_CACHED_CONVERTERS);
+        }
+    }
+}
@@ -16,10 +16,15 @@
  */
 package org.geotools.util;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geotools.util.factory.FactoryCreator;
@@ -41,6 +46,23 @@ public final class Converters {
     /** Cached list of converter factories */
     static volatile ConverterFactory[] factories;
 
+    /**
+     * Maximum number of resolved converter lists kept in {@link #CONVERTERS}, the cache is
+     * cleared when reached, guarding against hints built on the fly for each conversion
+     */
+    static final int MAX_CACHED_CONVERTERS = 1024;
+
+    /**
+     * The converters returned by the factories for a given source class, target class and hints, in
+     * factory order. An empty array records that no factory can handle the conversion.
+     */
+    static final ConcurrentMap<ConverterKey, Converter[]> CONVERTERS = new ConcurrentHashMap<>();
+
+    static {
+        // the default hints can change the factories and the converters they return
+        GeoTools.addChangeListener(e -> reset());
+    }
+
     /** The service registry for this manager. Will be initialized only when first needed. */
     private static volatile FactoryRegistry registry;
 
@@ -143,27 +165,24 @@ public static <T> T convert(Object source, Class<T> target, Hints hints) {
             return target.cast(source);
         }
 
-        for (ConverterFactory factory : factories()) {
-            Converter converter = factory.createConverter(sourceClass, target, hints);
-            if (converter != null) {
-                try {
-                    T converted = converter.convert(source, target);
-                    if (converted != null) {
-                        return converted;
-                    }
-                } catch (Exception e) {
-                    if (LOGGER.isLoggable(Level.FINER))
-                        LOGGER.log(
-                                Level.FINER,
-                                "Error applying the converter "
-                                        + converter.getClass()
-                                        + " on ("
-                                        + source
-                                        + ","
-                                        + target
-                                        + ")",
-                                e);
+        for (Converter converter : getConverters(sourceClass, target, hints)) {
+            try {
+                T converted = converter.convert(source, target);
+                if (converted != null) {
+                    return converted;
                 }
+            } catch (Exception e) {
+                if (LOGGER.isLoggable(Level.FINER))
+                    LOGGER.log(
+                            Level.FINER,
+                            "Error applying the converter "
+                                    + converter.getClass()
+                                    + " on ("
+                                    + source
+                                    + ","
+                                    + target
+                                    + ")",
+                            e);
             }
         }
 
@@ -174,6 +193,59 @@ public static <T> T convert(Object source, Class<T> target, Hints hints) {
         return null;
     }
 
+    /**
+     * Returns the converters the factories provide for the given classes, in factory order. The
+     * result is cached, so that the factories are not queried again for each converted value.
+     */
+    static Converter[] getConverters(Class<?> source, Class<?> target, Hints hints) {
+        ConverterKey key = new ConverterKey(source, target, hints);
+        Converter[] converters = CONVERTERS.get(key);
+        if (converters == null) {
+            ConverterFactory[] factories = factories();
+            List<Converter> list = new ArrayList<>();
+            for (ConverterFactory factory : factories) {
+                Converter converter = factory.createConverter(source, target, hints);
+                if (converter != null) {
+                    list.add(converter);
+                }
+            }
+            converters = list.toArray(new Converter[list.size()]);
+            // skip caching if the factories got reset meanwhile, the result might be stale
+            if (factories == Converters.factories) {
+                if (CONVERTERS.size() >= MAX_CACHED_CONVERTERS) {
+                    CONVERTERS.clear();
+                }
+                // copy the hints, the caller might modify them later
+                CONVERTERS.putIfAbsent(
+                        hints == null ? key : new ConverterKey(source, target, new Hints(hints)),
+                        converters);
+            }
+        }
+        return converters;
+    }
+
+    /**
+     * Scans for factory plug-ins on the application class path, and clears the cached factories and
+     * converters. This method is needed because the application class path can theoretically
+     * change, or additional plug-ins may become available.
+     *
+     * @since 31
+     */
+    public static void scanForPlugins() {
+        synchronized (Converters.class) {
+            if (registry != null) {
+                registry.scanForPlugins();
+            }
+        }
+        reset();
+    }
+
+    /** Clears the cached factories and converters, they will be looked up again on next use */
+    static void reset() {
+        factories = null;
+        CONVERTERS.clear();
+    }
+
     /**
      * Processed the {@link ConverterFactory} extension point.
      *
@@ -188,4 +260,37 @@ static ConverterFactory[] factories() {
         }
         return factories;
     }
+
+    /** Key of the {@link #CONVERTERS} cache */
+    static final class ConverterKey {
+
+        final Class<?> source;
+
+        final Class<?> target;
+
+        final Hints hints;
+
+        ConverterKey(Class<?> source, Class<?> target, Hints hints) {
+            this.source = source;
+            this.target = target;
+            this.hints = hints;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ConverterKey)) {
+                return false;
+            }
+            ConverterKey other = (ConverterKey) obj;
+            return source == other.source
+                    && target == other.target
+                    && Objects.equals(hints, other.hints);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 31 * source.hashCode() + target.hashCode();
+            return hints == null ? hash : 31 * hash + hints.hashCode();
+        }
+    }
 }
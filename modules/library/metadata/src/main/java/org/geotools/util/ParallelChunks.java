@@ -0,0 +1,136 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Processes a range of items, such as tiles to decode or geometries to encode, in contiguous
+ * chunks running in parallel on the common {@link ForkJoinPool}.
+ *
+ * <p>The number of chunks is bounded by the common pool parallelism, and each chunk holds at least
+ * a minimum number of items, so that small ranges are not split in tasks whose overhead exceeds
+ * their work. Since the common pool is shared by the whole JVM, this is meant for CPU bound work
+ * only, tasks blocking on I/O should run on a dedicated executor.
+ *
+ * @since 31
+ */
+public final class ParallelChunks {
+
+    /** The work done on a chunk */
+    @FunctionalInterface
+    public interface Task {
+        /** Processes the items from {@code from}, inclusive, to {@code to}, exclusive */
+        void run(int from, int to) throws IOException;
+    }
+
+    private ParallelChunks() {}
+
+    /**
+     * Returns the number of chunks a range of items is split in
+     *
+     * @param size the number of items
+     * @param minChunkSize the minimum number of items in a chunk
+     */
+    public static int getChunkCount(int size, int minChunkSize) {
+        int chunks = Math.min(ForkJoinPool.getCommonPoolParallelism(), size / minChunkSize);
+        return Math.max(1, chunks);
+    }
+
+    /**
+     * Processes the items from 0 to {@code size} and waits for completion. A range fitting in a
+     * single chunk is processed in the calling thread.
+     *
+     * @param size the number of items
+     * @param minChunkSize the minimum number of items in a chunk
+     * @param task the work done on each chunk, which must be safe to call from several threads
+     * @throws IOException if a chunk failed with an IOException, or was interrupted
+     */
+    public static void run(int size, int minChunkSize, Task task) throws IOException {
+        if (getChunkCount(size, minChunkSize) <= 1) {
+            if (size > 0) {
+                task.run(0, size);
+            }
+            return;
+        }
+        await(submit(size, minChunkSize, task));
+    }
+
+    /**
+     * Starts processing the items from 0 to {@code size} in background, use {@link #await(List)}
+     * to wait for completion
+     *
+     * @param size the number of items
+     * @param minChunkSize the minimum number of items in a chunk
+     * @param task the work done on each chunk, which must be safe to call from several threads
+     * @return the chunks being processed
+     */
+    public static List<Future<Void>> submit(int size, int minChunkSize, Task task) {
+        if (size <= 0) {
+            return Collections.emptyList();
+        }
+        int chunks = getChunkCount(size, minChunkSize);
+        int chunkSize = (size + chunks - 1) / chunks;
+        List<Future<Void>> futures = new ArrayList<>(chunks);
+        for (int from = 0; from < size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(size, from + chunkSize);
+            futures.add(
+                    ForkJoinPool.commonPool()
+                            .submit(
+                                    () -> {
+                                        task.run(start, end);
+                                        return null;
+                                    }));
+        }
+        return futures;
+    }
+
+    /**
+     * Waits for the chunks to be processed, rethrowing the first failure. Runtime exceptions and
+     * errors are rethrown as is, other exceptions are wrapped in an IOException if needed.
+     *
+     * @param futures the chunks returned by {@link #submit(int, int, Task)}
+     * @throws IOException if a chunk failed with an IOException, or was interrupted
+     */
+    public static void await(List<Future<Void>> futures) throws IOException {
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for parallel tasks", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
@@ -573,6 +573,25 @@ public class Hints extends RenderingHints {
      */
     public static final Key MAX_MEMORY_SORT = new Key(Integer.class);
 
+    /**
+     * Key to enable the parallel variant of the fallback merge-sort: blocks of {@link
+     * #MAX_MEMORY_SORT} features are sorted and spilled to disk concurrently, one thread per
+     * available processor. Since each worker keeps its own block in memory, the number of features
+     * held in memory can grow up to the number of processors times {@link #MAX_MEMORY_SORT}.
+     *
+     * @since 31
+     */
+    public static final Key PARALLEL_MEMORY_SORT = new Key(Boolean.class);
+
+    /**
+     * Key to let aggregations and classification functions, such as {@code Quantile} and {@code
+     * EqualArea}, use approximate algorithms with bounded memory instead of keeping all the values
+     * in memory. Useful when classifying large data sets.
+     *
+     * @since 31
+     */
+    public static final Key APPROXIMATE_AGGREGATES = new Key(Boolean.class);
+
     /**
      * Asks a datastore having a vector pyramid (pre-generalized geometries) to return the geometry
      * version whose points have been generalized less than the specified distance (further
@@ -0,0 +1,112 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+
+public class ParallelChunksTest {
+
+    @Test
+    public void testChunkCount() {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        assertEquals(1, ParallelChunks.getChunkCount(0, 1));
+        assertEquals(1, ParallelChunks.getChunkCount(63, 64));
+        assertEquals(Math.min(parallelism, 2), ParallelChunks.getChunkCount(128, 64));
+        assertEquals(parallelism, ParallelChunks.getChunkCount(parallelism * 100, 1));
+    }
+
+    @Test
+    public void testRunCoversRange() throws IOException {
+        int size = 1000;
+        AtomicIntegerArray visits = new AtomicIntegerArray(size);
+        ParallelChunks.run(
+                size,
+                1,
+                (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        visits.incrementAndGet(i);
+                    }
+                });
+        for (int i = 0; i < size; i++) {
+            assertEquals(1, visits.get(i));
+        }
+    }
+
+    @Test
+    public void testSingleChunkInCallingThread() throws IOException {
+        Thread caller = Thread.currentThread();
+        AtomicInteger calls = new AtomicInteger();
+        ParallelChunks.run(
+                10,
+                64,
+                (from, to) -> {
+                    assertSame(caller, Thread.currentThread());
+                    assertEquals(0, from);
+                    assertEquals(10, to);
+                    calls.incrementAndGet();
+                });
+        assertEquals(1, calls.get());
+
+        // nothing to do
+        ParallelChunks.run(0, 1, (from, to) -> fail("No items to process"));
+        assertTrue(ParallelChunks.submit(0, 1, (from, to) -> fail()).isEmpty());
+    }
+
+    @Test
+    public void testFailures() {
+        List<Future<Void>> futures =
+                ParallelChunks.submit(
+                        100,
+                        1,
+                        (from, to) -> {
+                            throw new IOException("failed");
+                        });
+        try {
+            ParallelChunks.await(futures);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            assertEquals("failed", e.getMessage());
+        }
+
+        futures =
+                ParallelChunks.submit(
+                        100,
+                        1,
+                        (from, to) -> {
+                            throw new IllegalStateException("failed");
+                        });
+        try {
+            ParallelChunks.await(futures);
+            fail("Expected an IllegalStateException");
+        } catch (IllegalStateException e) {
+            assertEquals("failed", e.getMessage());
+        } catch (IOException e) {
+            fail("Runtime exceptions should not be wrapped");
+        }
+    }
+}
@@ -20,14 +20,19 @@
 package org.geotools.referencing.factory;
 
 import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import javax.measure.Unit;
@@ -92,12 +97,17 @@
  * factory will continue to returns them as long as they are in use somewhere else in the Java
  * virtual machine, but will be discarted (and recreated on the fly if needed) otherwise.
  *
+ * <p>Cached objects are returned without locking. Objects not in the cache are created by a single
+ * thread, the other threads asking for the same code wait for the result rather than querying the
+ * backing store again. The number of cache hits, misses and the time spent waiting are available
+ * through {@link #getCacheHits}, {@link #getCacheMisses} and {@link #getCacheWaitTime}.
+ *
  * @since 2.1
  * @version $Id$
  * @author Martin Desruisseaux (IRD)
  */
 public class BufferedAuthorityFactory extends AbstractAuthorityFactory implements BufferedFactory {
-    /** The default value for {@link #maxStrongReferences}. */
+    /** The default number of objects to keep by {@linkplain #strongReferences strong reference}. */
     static final int DEFAULT_MAX = 20;
 
     /**
@@ -111,14 +121,33 @@ public class BufferedAuthorityFactory extends AbstractAuthorityFactory implement
      */
     volatile AbstractAuthorityFactory backingStore;
 
-    /** The pool of cached objects. */
-    private final LinkedHashMap<Object, Object> pool = new LinkedHashMap<>(32, 0.75f, true);
+    /**
+     * The pool of cached objects. Values are {@linkplain PoolEntry weak references} to the created
+     * objects, or {@linkplain Pending pending entries} for the objects under creation.
+     */
+    private final ConcurrentHashMap<Object, Object> pool = new ConcurrentHashMap<>();
+
+    /** The queue of the pool entries cleared by the garbage collector. */
+    private final ReferenceQueue<Object> clearedEntries = new ReferenceQueue<>();
 
     /**
-     * The maximum number of objects to keep by strong reference. If a greater amount of objects are
-     * created, then the strong references for the oldest ones are replaced by weak references.
+     * The most recently used objects, kept by strong references. If a greater amount of objects are
+     * used, then the strong references for the oldest ones are dropped, leaving only the weak
+     * references of the pool.
      */
-    private final int maxStrongReferences;
+    private final AtomicReferenceArray<Object> strongReferences;
+
+    /** The index in {@link #strongReferences} of the next object to keep by strong reference. */
+    private final AtomicInteger strongIndex = new AtomicInteger();
+
+    /** The number of objects found in the pool, or created by an other thread while waiting. */
+    private final LongAdder hits = new LongAdder();
+
+    /** The number of objects created by the backing store. */
+    private final LongAdder misses = new LongAdder();
+
+    /** The time spent waiting for objects created by other threads, in nanoseconds. */
+    private final LongAdder waitTime = new LongAdder();
 
     /** The pool of objects identified by {@link #find}. */
     private final Map<IdentifiedObject, IdentifiedObject> findPool = new WeakHashMap<>();
@@ -157,7 +186,7 @@ protected BufferedAuthorityFactory(
             factory = ((BufferedAuthorityFactory) factory).backingStore;
         }
         this.backingStore = factory;
-        this.maxStrongReferences = maxStrongReferences;
+        this.strongReferences = new AtomicReferenceArray<>(Math.max(0, maxStrongReferences));
         completeHints();
     }
 
@@ -173,7 +202,7 @@ protected BufferedAuthorityFactory(
      */
     BufferedAuthorityFactory(final int priority, final int maxStrongReferences) {
         super(priority);
-        this.maxStrongReferences = maxStrongReferences;
+        this.strongReferences = new AtomicReferenceArray<>(Math.max(0, maxStrongReferences));
         // completeHints() will be invoked by DeferredAuthorityFactory.getBackingStore()
     }
 
@@ -360,17 +389,11 @@ public InternationalString getDescriptionText(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized IdentifiedObject createObject(final String code) throws FactoryException {
-        final IdentifiedObject object;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof IdentifiedObject) {
-            object = (IdentifiedObject) cached;
-        } else {
-            object = getBackingStore().createObject(code);
-        }
-        put(key, object);
-        return object;
+    public IdentifiedObject createObject(final String code) throws FactoryException {
+        return create(
+                IdentifiedObject.class,
+                trimAuthority(code),
+                () -> getBackingStore().createObject(code));
     }
 
     /**
@@ -379,17 +402,8 @@ public synchronized IdentifiedObject createObject(final String code) throws Fact
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized Datum createDatum(final String code) throws FactoryException {
-        final Datum datum;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof Datum) {
-            datum = (Datum) cached;
-        } else {
-            datum = getBackingStore().createDatum(code);
-        }
-        put(key, datum);
-        return datum;
+    public Datum createDatum(final String code) throws FactoryException {
+        return create(Datum.class, trimAuthority(code), () -> getBackingStore().createDatum(code));
     }
 
     /**
@@ -398,18 +412,11 @@ public synchronized Datum createDatum(final String code) throws FactoryException
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized EngineeringDatum createEngineeringDatum(final String code)
-            throws FactoryException {
-        final EngineeringDatum datum;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof EngineeringDatum) {
-            datum = (EngineeringDatum) cached;
-        } else {
-            datum = getBackingStore().createEngineeringDatum(code);
-        }
-        put(key, datum);
-        return datum;
+    public EngineeringDatum createEngineeringDatum(final String code) throws FactoryException {
+        return create(
+                EngineeringDatum.class,
+                trimAuthority(code),
+                () -> getBackingStore().createEngineeringDatum(code));
     }
 
     /**
@@ -418,17 +425,11 @@ public synchronized EngineeringDatum createEngineeringDatum(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized ImageDatum createImageDatum(final String code) throws FactoryException {
-        final ImageDatum datum;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof ImageDatum) {
-            datum = (ImageDatum) cached;
-        } else {
-            datum = getBackingStore().createImageDatum(code);
-        }
-        put(key, datum);
-        return datum;
+    public ImageDatum createImageDatum(final String code) throws FactoryException {
+        return create(
+                ImageDatum.class,
+                trimAuthority(code),
+                () -> getBackingStore().createImageDatum(code));
     }
 
     /**
@@ -437,18 +438,11 @@ public synchronized ImageDatum createImageDatum(final String code) throws Factor
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized VerticalDatum createVerticalDatum(final String code)
-            throws FactoryException {
-        final VerticalDatum datum;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof VerticalDatum) {
-            datum = (VerticalDatum) cached;
-        } else {
-            datum = getBackingStore().createVerticalDatum(code);
-        }
-        put(key, datum);
-        return datum;
+    public VerticalDatum createVerticalDatum(final String code) throws FactoryException {
+        return create(
+                VerticalDatum.class,
+                trimAuthority(code),
+                () -> getBackingStore().createVerticalDatum(code));
     }
 
     /**
@@ -457,18 +451,11 @@ public synchronized VerticalDatum createVerticalDatum(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized TemporalDatum createTemporalDatum(final String code)
-            throws FactoryException {
-        final TemporalDatum datum;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof TemporalDatum) {
-            datum = (TemporalDatum) cached;
-        } else {
-            datum = getBackingStore().createTemporalDatum(code);
-        }
-        put(key, datum);
-        return datum;
+    public TemporalDatum createTemporalDatum(final String code) throws FactoryException {
+        return create(
+                TemporalDatum.class,
+                trimAuthority(code),
+                () -> getBackingStore().createTemporalDatum(code));
     }
 
     /**
@@ -477,18 +464,11 @@ public synchronized TemporalDatum createTemporalDatum(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized GeodeticDatum createGeodeticDatum(final String code)
-            throws FactoryException {
-        final GeodeticDatum datum;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof GeodeticDatum) {
-            datum = (GeodeticDatum) cached;
-        } else {
-            datum = getBackingStore().createGeodeticDatum(code);
-        }
-        put(key, datum);
-        return datum;
+    public GeodeticDatum createGeodeticDatum(final String code) throws FactoryException {
+        return create(
+                GeodeticDatum.class,
+                trimAuthority(code),
+                () -> getBackingStore().createGeodeticDatum(code));
     }
 
     /**
@@ -497,17 +477,11 @@ public synchronized GeodeticDatum createGeodeticDatum(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized Ellipsoid createEllipsoid(final String code) throws FactoryException {
-        final Ellipsoid ellipsoid;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof Ellipsoid) {
-            ellipsoid = (Ellipsoid) cached;
-        } else {
-            ellipsoid = getBackingStore().createEllipsoid(code);
-        }
-        put(key, ellipsoid);
-        return ellipsoid;
+    public Ellipsoid createEllipsoid(final String code) throws FactoryException {
+        return create(
+                Ellipsoid.class,
+                trimAuthority(code),
+                () -> getBackingStore().createEllipsoid(code));
     }
 
     /**
@@ -516,18 +490,11 @@ public synchronized Ellipsoid createEllipsoid(final String code) throws FactoryE
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized PrimeMeridian createPrimeMeridian(final String code)
-            throws FactoryException {
-        final PrimeMeridian meridian;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof PrimeMeridian) {
-            meridian = (PrimeMeridian) cached;
-        } else {
-            meridian = getBackingStore().createPrimeMeridian(code);
-        }
-        put(key, meridian);
-        return meridian;
+    public PrimeMeridian createPrimeMeridian(final String code) throws FactoryException {
+        return create(
+                PrimeMeridian.class,
+                trimAuthority(code),
+                () -> getBackingStore().createPrimeMeridian(code));
     }
 
     /**
@@ -536,17 +503,11 @@ public synchronized PrimeMeridian createPrimeMeridian(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized Extent createExtent(final String code) throws FactoryException {
-        final Extent extent;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof Extent) {
-            extent = (Extent) cached;
-        } else {
-            extent = getBackingStore().createExtent(code);
-        }
-        put(key, extent);
-        return extent;
+    public Extent createExtent(final String code) throws FactoryException {
+        return create(
+                Extent.class,
+                trimAuthority(code),
+                () -> getBackingStore().createExtent(code));
     }
 
     /**
@@ -555,18 +516,11 @@ public synchronized Extent createExtent(final String code) throws FactoryExcepti
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CoordinateSystem createCoordinateSystem(final String code)
-            throws FactoryException {
-        final CoordinateSystem cs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CoordinateSystem) {
-            cs = (CoordinateSystem) cached;
-        } else {
-            cs = getBackingStore().createCoordinateSystem(code);
-        }
-        put(key, cs);
-        return cs;
+    public CoordinateSystem createCoordinateSystem(final String code) throws FactoryException {
+        return create(
+                CoordinateSystem.class,
+                trimAuthority(code),
+                () -> getBackingStore().createCoordinateSystem(code));
     }
 
     /**
@@ -575,17 +529,11 @@ public synchronized CoordinateSystem createCoordinateSystem(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CartesianCS createCartesianCS(final String code) throws FactoryException {
-        final CartesianCS cs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CartesianCS) {
-            cs = (CartesianCS) cached;
-        } else {
-            cs = getBackingStore().createCartesianCS(code);
-        }
-        put(key, cs);
-        return cs;
+    public CartesianCS createCartesianCS(final String code) throws FactoryException {
+        return create(
+                CartesianCS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createCartesianCS(code));
     }
 
     /**
@@ -594,17 +542,11 @@ public synchronized CartesianCS createCartesianCS(final String code) throws Fact
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized PolarCS createPolarCS(final String code) throws FactoryException {
-        final PolarCS cs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof PolarCS) {
-            cs = (PolarCS) cached;
-        } else {
-            cs = getBackingStore().createPolarCS(code);
-        }
-        put(key, cs);
-        return cs;
+    public PolarCS createPolarCS(final String code) throws FactoryException {
+        return create(
+                PolarCS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createPolarCS(code));
     }
 
     /**
@@ -613,18 +555,11 @@ public synchronized PolarCS createPolarCS(final String code) throws FactoryExcep
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CylindricalCS createCylindricalCS(final String code)
-            throws FactoryException {
-        final CylindricalCS cs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CylindricalCS) {
-            cs = (CylindricalCS) cached;
-        } else {
-            cs = getBackingStore().createCylindricalCS(code);
-        }
-        put(key, cs);
-        return cs;
+    public CylindricalCS createCylindricalCS(final String code) throws FactoryException {
+        return create(
+                CylindricalCS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createCylindricalCS(code));
     }
 
     /**
@@ -633,17 +568,11 @@ public synchronized CylindricalCS createCylindricalCS(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized SphericalCS createSphericalCS(final String code) throws FactoryException {
-        final SphericalCS cs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof SphericalCS) {
-            cs = (SphericalCS) cached;
-        } else {
-            cs = getBackingStore().createSphericalCS(code);
-        }
-        put(key, cs);
-        return cs;
+    public SphericalCS createSphericalCS(final String code) throws FactoryException {
+        return create(
+                SphericalCS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createSphericalCS(code));
     }
 
     /**
@@ -652,18 +581,11 @@ public synchronized SphericalCS createSphericalCS(final String code) throws Fact
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized EllipsoidalCS createEllipsoidalCS(final String code)
-            throws FactoryException {
-        final EllipsoidalCS cs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof EllipsoidalCS) {
-            cs = (EllipsoidalCS) cached;
-        } else {
-            cs = getBackingStore().createEllipsoidalCS(code);
-        }
-        put(key, cs);
-        return cs;
+    public EllipsoidalCS createEllipsoidalCS(final String code) throws FactoryException {
+        return create(
+                EllipsoidalCS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createEllipsoidalCS(code));
     }
 
     /**
@@ -672,17 +594,11 @@ public synchronized EllipsoidalCS createEllipsoidalCS(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized VerticalCS createVerticalCS(final String code) throws FactoryException {
-        final VerticalCS cs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof VerticalCS) {
-            cs = (VerticalCS) cached;
-        } else {
-            cs = getBackingStore().createVerticalCS(code);
-        }
-        put(key, cs);
-        return cs;
+    public VerticalCS createVerticalCS(final String code) throws FactoryException {
+        return create(
+                VerticalCS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createVerticalCS(code));
     }
 
     /**
@@ -691,17 +607,11 @@ public synchronized VerticalCS createVerticalCS(final String code) throws Factor
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized TimeCS createTimeCS(final String code) throws FactoryException {
-        final TimeCS cs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof TimeCS) {
-            cs = (TimeCS) cached;
-        } else {
-            cs = getBackingStore().createTimeCS(code);
-        }
-        put(key, cs);
-        return cs;
+    public TimeCS createTimeCS(final String code) throws FactoryException {
+        return create(
+                TimeCS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createTimeCS(code));
     }
 
     /**
@@ -710,18 +620,12 @@ public synchronized TimeCS createTimeCS(final String code) throws FactoryExcepti
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CoordinateSystemAxis createCoordinateSystemAxis(final String code)
+    public CoordinateSystemAxis createCoordinateSystemAxis(final String code)
             throws FactoryException {
-        final CoordinateSystemAxis axis;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CoordinateSystemAxis) {
-            axis = (CoordinateSystemAxis) cached;
-        } else {
-            axis = getBackingStore().createCoordinateSystemAxis(code);
-        }
-        put(key, axis);
-        return axis;
+        return create(
+                CoordinateSystemAxis.class,
+                trimAuthority(code),
+                () -> getBackingStore().createCoordinateSystemAxis(code));
     }
 
     /**
@@ -730,17 +634,8 @@ public synchronized CoordinateSystemAxis createCoordinateSystemAxis(final String
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized Unit<?> createUnit(final String code) throws FactoryException {
-        final Unit<?> unit;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof Unit) {
-            unit = (Unit) cached;
-        } else {
-            unit = getBackingStore().createUnit(code);
-        }
-        put(key, unit);
-        return unit;
+    public Unit<?> createUnit(final String code) throws FactoryException {
+        return create(Unit.class, trimAuthority(code), () -> getBackingStore().createUnit(code));
     }
 
     /**
@@ -749,18 +644,12 @@ public synchronized Unit<?> createUnit(final String code) throws FactoryExceptio
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CoordinateReferenceSystem createCoordinateReferenceSystem(final String code)
+    public CoordinateReferenceSystem createCoordinateReferenceSystem(final String code)
             throws FactoryException {
-        final CoordinateReferenceSystem crs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CoordinateReferenceSystem) {
-            crs = (CoordinateReferenceSystem) cached;
-        } else {
-            crs = getBackingStore().createCoordinateReferenceSystem(code);
-        }
-        put(key, crs);
-        return crs;
+        return create(
+                CoordinateReferenceSystem.class,
+                trimAuthority(code),
+                () -> getBackingStore().createCoordinateReferenceSystem(code));
     }
 
     /**
@@ -769,17 +658,11 @@ public synchronized CoordinateReferenceSystem createCoordinateReferenceSystem(fi
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized CompoundCRS createCompoundCRS(final String code) throws FactoryException {
-        final CompoundCRS crs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CompoundCRS) {
-            crs = (CompoundCRS) cached;
-        } else {
-            crs = getBackingStore().createCompoundCRS(code);
-        }
-        put(key, crs);
-        return crs;
+    public CompoundCRS createCompoundCRS(final String code) throws FactoryException {
+        return create(
+                CompoundCRS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createCompoundCRS(code));
     }
 
     /**
@@ -788,17 +671,11 @@ public synchronized CompoundCRS createCompoundCRS(final String code) throws Fact
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized DerivedCRS createDerivedCRS(final String code) throws FactoryException {
-        final DerivedCRS crs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof DerivedCRS) {
-            crs = (DerivedCRS) cached;
-        } else {
-            crs = getBackingStore().createDerivedCRS(code);
-        }
-        put(key, crs);
-        return crs;
+    public DerivedCRS createDerivedCRS(final String code) throws FactoryException {
+        return create(
+                DerivedCRS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createDerivedCRS(code));
     }
 
     /**
@@ -807,18 +684,11 @@ public synchronized DerivedCRS createDerivedCRS(final String code) throws Factor
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized EngineeringCRS createEngineeringCRS(final String code)
-            throws FactoryException {
-        final EngineeringCRS crs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof EngineeringCRS) {
-            crs = (EngineeringCRS) cached;
-        } else {
-            crs = getBackingStore().createEngineeringCRS(code);
-        }
-        put(key, crs);
-        return crs;
+    public EngineeringCRS createEngineeringCRS(final String code) throws FactoryException {
+        return create(
+                EngineeringCRS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createEngineeringCRS(code));
     }
 
     /**
@@ -827,18 +697,11 @@ public synchronized EngineeringCRS createEngineeringCRS(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized GeographicCRS createGeographicCRS(final String code)
-            throws FactoryException {
-        final GeographicCRS crs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof GeographicCRS) {
-            crs = (GeographicCRS) cached;
-        } else {
-            crs = getBackingStore().createGeographicCRS(code);
-        }
-        put(key, crs);
-        return crs;
+    public GeographicCRS createGeographicCRS(final String code) throws FactoryException {
+        return create(
+                GeographicCRS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createGeographicCRS(code));
     }
 
     /**
@@ -847,18 +710,11 @@ public synchronized GeographicCRS createGeographicCRS(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized GeocentricCRS createGeocentricCRS(final String code)
-            throws FactoryException {
-        final GeocentricCRS crs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof GeocentricCRS) {
-            crs = (GeocentricCRS) cached;
-        } else {
-            crs = getBackingStore().createGeocentricCRS(code);
-        }
-        put(key, crs);
-        return crs;
+    public GeocentricCRS createGeocentricCRS(final String code) throws FactoryException {
+        return create(
+                GeocentricCRS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createGeocentricCRS(code));
     }
 
     /**
@@ -867,17 +723,11 @@ public synchronized GeocentricCRS createGeocentricCRS(final String code)
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized ImageCRS createImageCRS(final String code) throws FactoryException {
-        final ImageCRS crs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof ImageCRS) {
-            crs = (ImageCRS) cached;
-        } else {
-            crs = getBackingStore().createImageCRS(code);
-        }
-        put(key, crs);
-        return crs;
+    public ImageCRS createImageCRS(final String code) throws FactoryException {
+        return create(
+                ImageCRS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createImageCRS(code));
     }
 
     /**
@@ -886,17 +736,11 @@ public synchronized ImageCRS createImageCRS(final String code) throws FactoryExc
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized ProjectedCRS createProjectedCRS(final String code) throws FactoryException {
-        final ProjectedCRS crs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof ProjectedCRS) {
-            crs = (ProjectedCRS) cached;
-        } else {
-            crs = getBackingStore().createProjectedCRS(code);
-        }
-        put(key, crs);
-        return crs;
+    public ProjectedCRS createProjectedCRS(final String code) throws FactoryException {
+        return create(
+                ProjectedCRS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createProjectedCRS(code));
     }
 
     /**
@@ -905,17 +749,11 @@ public synchronized ProjectedCRS createProjectedCRS(final String code) throws Fa
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized TemporalCRS createTemporalCRS(final String code) throws FactoryException {
-        final TemporalCRS crs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof TemporalCRS) {
-            crs = (TemporalCRS) cached;
-        } else {
-            crs = getBackingStore().createTemporalCRS(code);
-        }
-        put(key, crs);
-        return crs;
+    public TemporalCRS createTemporalCRS(final String code) throws FactoryException {
+        return create(
+                TemporalCRS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createTemporalCRS(code));
     }
 
     /**
@@ -924,17 +762,11 @@ public synchronized TemporalCRS createTemporalCRS(final String code) throws Fact
      * @throws FactoryException if the object creation failed.
      */
     @Override
-    public synchronized VerticalCRS createVerticalCRS(final String code) throws FactoryException {
-        final VerticalCRS crs;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof VerticalCRS) {
-            crs = (VerticalCRS) cached;
-        } else {
-            crs = getBackingStore().createVerticalCRS(code);
-        }
-        put(key, crs);
-        return crs;
+    public VerticalCRS createVerticalCRS(final String code) throws FactoryException {
+        return create(
+                VerticalCRS.class,
+                trimAuthority(code),
+                () -> getBackingStore().createVerticalCRS(code));
     }
 
     /**
@@ -944,18 +776,12 @@ public synchronized VerticalCRS createVerticalCRS(final String code) throws Fact
      * @since 2.2
      */
     @Override
-    public synchronized ParameterDescriptor createParameterDescriptor(final String code)
+    public ParameterDescriptor createParameterDescriptor(final String code)
             throws FactoryException {
-        final ParameterDescriptor parameter;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof ParameterDescriptor) {
-            parameter = (ParameterDescriptor) cached;
-        } else {
-            parameter = getBackingStore().createParameterDescriptor(code);
-        }
-        put(key, parameter);
-        return parameter;
+        return create(
+                ParameterDescriptor.class,
+                trimAuthority(code),
+                () -> getBackingStore().createParameterDescriptor(code));
     }
 
     /**
@@ -965,18 +791,11 @@ public synchronized ParameterDescriptor createParameterDescriptor(final String c
      * @since 2.2
      */
     @Override
-    public synchronized OperationMethod createOperationMethod(final String code)
-            throws FactoryException {
-        final OperationMethod method;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof OperationMethod) {
-            method = (OperationMethod) cached;
-        } else {
-            method = getBackingStore().createOperationMethod(code);
-        }
-        put(key, method);
-        return method;
+    public OperationMethod createOperationMethod(final String code) throws FactoryException {
+        return create(
+                OperationMethod.class,
+                trimAuthority(code),
+                () -> getBackingStore().createOperationMethod(code));
     }
 
     /**
@@ -986,18 +805,12 @@ public synchronized OperationMethod createOperationMethod(final String code)
      * @since 2.2
      */
     @Override
-    public synchronized CoordinateOperation createCoordinateOperation(final String code)
+    public CoordinateOperation createCoordinateOperation(final String code)
             throws FactoryException {
-        final CoordinateOperation operation;
-        final String key = trimAuthority(code);
-        final Object cached = get(key);
-        if (cached instanceof CoordinateOperation) {
-            operation = (CoordinateOperation) cached;
-        } else {
-            operation = getBackingStore().createCoordinateOperation(code);
-        }
-        put(key, operation);
-        return operation;
+        return create(
+                CoordinateOperation.class,
+                trimAuthority(code),
+                () -> getBackingStore().createCoordinateOperation(code));
     }
 
     /**
@@ -1007,23 +820,19 @@ public synchronized CoordinateOperation createCoordinateOperation(final String c
      * @since 2.2
      */
     @Override
-    public synchronized Set<CoordinateOperation> createFromCoordinateReferenceSystemCodes(
+    public Set<CoordinateOperation> createFromCoordinateReferenceSystemCodes(
             final String sourceCRS, final String targetCRS) throws FactoryException {
-        final Set<CoordinateOperation> operations;
         final CodePair key = new CodePair(trimAuthority(sourceCRS), trimAuthority(targetCRS));
-        final Object cached = get(key);
-        if (cached instanceof Set) {
-            @SuppressWarnings("unchecked")
-            Set<CoordinateOperation> cast = (Set<CoordinateOperation>) cached;
-            operations = cast;
-        } else {
-            operations =
-                    Collections.unmodifiableSet(
-                            getBackingStore()
-                                    .createFromCoordinateReferenceSystemCodes(
-                                            sourceCRS, targetCRS));
-        }
-        put(key, operations);
+        @SuppressWarnings("unchecked")
+        final Set<CoordinateOperation> operations =
+                create(
+                        Set.class,
+                        key,
+                        () ->
+                                Collections.unmodifiableSet(
+                                        getBackingStore()
+                                                .createFromCoordinateReferenceSystemCodes(
+                                                        sourceCRS, targetCRS)));
         return operations;
     }
 
@@ -1152,51 +961,188 @@ public synchronized void dispose() throws FactoryException {
             backingStore = null;
         }
         pool.clear();
+        for (int i = 0; i < strongReferences.length(); i++) {
+            strongReferences.set(i, null);
+        }
         findPool.clear();
         super.dispose();
     }
 
     /**
-     * Returns an object from the pool for the specified code. If the object was retained as a
-     * {@linkplain Reference weak reference}, the {@link Reference#get referent} is returned.
+     * Returns the number of objects found in the cache, including the ones created by an other
+     * thread while this one was waiting for them.
      *
-     * @todo Consider logging a message here to the finer or finest level.
+     * @since 31
      */
-    private Object get(final Object key) {
-        assert Thread.holdsLock(this);
-        Object object = pool.get(key);
-        if (object instanceof Reference) {
-            object = ((Reference<?>) object).get();
-        }
-        return object;
+    public long getCacheHits() {
+        return hits.sum();
     }
 
     /**
-     * Put an element in the pool. This method is invoked everytime a {@code createFoo(...)} method
-     * is invoked, even if an object was already in the pool for the given code, for the following
-     * reasons: 1) Replaces weak reference by strong reference (if applicable) and 2) Alters the
-     * linked hash set order, so that this object is declared as the last one used.
+     * Returns the number of objects that were not found in the cache, and have been created by the
+     * backing store.
+     *
+     * @since 31
      */
-    private void put(final Object key, final Object object) {
-        assert Thread.holdsLock(this);
-        pool.put(key, object);
-        int toReplace = pool.size() - maxStrongReferences;
-        if (toReplace > 0) {
-            for (final Iterator<Map.Entry<Object, Object>> it = pool.entrySet().iterator();
-                    it.hasNext(); ) {
-                final Map.Entry<Object, Object> entry = it.next();
-                final Object value = entry.getValue();
-                if (value instanceof Reference) {
-                    if (((Reference) value).get() == null) {
-                        it.remove();
-                    }
-                    continue;
+    public long getCacheMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the total time, in milliseconds, spent by threads waiting for objects created by an
+     * other thread, or for the backing store to be available.
+     *
+     * @since 31
+     */
+    public long getCacheWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(waitTime.sum());
+    }
+
+    /**
+     * Returns the object of the given type cached for the specified key, or creates it. Cached
+     * objects are returned without locking. At most one thread creates the object for a given key,
+     * the other threads asking for it in the meantime wait for the result instead of querying the
+     * backing store again. The backing store is invoked while holding the lock on this factory, as
+     * it may not be thread safe and is disposed by {@link DeferredAuthorityFactory} under the same
+     * lock.
+     *
+     * <p>An object found in the pool with an other type is replaced, since the same code may be
+     * used by different kinds of objects.
+     */
+    private <T> T create(final Class<T> type, final Object key, final Creator<? extends T> creator)
+            throws FactoryException {
+        while (true) {
+            final Object value = pool.get(key);
+            if (value instanceof Pending) {
+                if (Thread.holdsLock(this)) {
+                    /*
+                     * Invoked by the backing store while creating an other object, the thread
+                     * creating this one is blocked until we release the lock: don't wait for it.
+                     */
+                    misses.increment();
+                    return creator.create();
                 }
-                entry.setValue(new WeakReference<>(value));
-                if (--toReplace == 0) {
-                    break;
+                final long start = System.nanoTime();
+                final Object object = ((Pending) value).await();
+                waitTime.add(System.nanoTime() - start);
+                if (type.isInstance(object)) {
+                    hits.increment();
+                    keepStrongReference(object);
+                    return type.cast(object);
                 }
+                continue;
+            }
+            final Object cached = (value != null) ? ((PoolEntry) value).get() : null;
+            if (type.isInstance(cached)) {
+                hits.increment();
+                keepStrongReference(cached);
+                return type.cast(cached);
+            }
+            final Pending pending = new Pending();
+            if (value == null
+                    ? pool.putIfAbsent(key, pending) != null
+                    : !pool.replace(key, value, pending)) {
+                continue; // An other thread has been faster, look again.
+            }
+            misses.increment();
+            T object = null;
+            Exception failure = null;
+            try {
+                final long start = System.nanoTime();
+                synchronized (this) {
+                    waitTime.add(System.nanoTime() - start);
+                    object = creator.create();
+                }
+                pool.put(key, new PoolEntry(key, object, clearedEntries));
+                keepStrongReference(object);
+                return object;
+            } catch (FactoryException | RuntimeException e) {
+                failure = e;
+                throw e;
+            } finally {
+                if (object == null) {
+                    pool.remove(key, pending);
+                }
+                pending.complete(object, failure);
+                removeClearedEntries();
+            }
+        }
+    }
+
+    /**
+     * Keeps a strong reference to the given object, replacing the oldest one. This gives a least
+     * recently created or used policy to the objects that the garbage collector may reclaim.
+     */
+    private void keepStrongReference(final Object object) {
+        final int length = strongReferences.length();
+        if (length == 0) {
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            if (strongReferences.get(i) == object) {
+                return;
+            }
+        }
+        strongReferences.set(Math.floorMod(strongIndex.getAndIncrement(), length), object);
+    }
+
+    /** Removes from the pool the entries of the objects reclaimed by the garbage collector. */
+    private void removeClearedEntries() {
+        Reference<?> reference;
+        while ((reference = clearedEntries.poll()) != null) {
+            pool.remove(((PoolEntry) reference).key, reference);
+        }
+    }
+
+    /** Creates an object from the backing store. */
+    @FunctionalInterface
+    private interface Creator<T> {
+        T create() throws FactoryException;
+    }
+
+    /** An object in the pool, referenced weakly. */
+    private static final class PoolEntry extends WeakReference<Object> {
+        /** The key of this entry in the pool. */
+        final Object key;
+
+        PoolEntry(final Object key, final Object object, final ReferenceQueue<Object> queue) {
+            super(object, queue);
+            this.key = key;
+        }
+    }
+
+    /** An object under creation by an other thread. */
+    private static final class Pending {
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile Object object;
+
+        private volatile Exception failure;
+
+        void complete(final Object object, final Exception failure) {
+            this.object = object;
+            this.failure = failure;
+            done.countDown();
+        }
+
+        /**
+         * Waits for the object creation, returning the object or throwing the exception of the
+         * thread creating it. Returns {@code null} if the creation failed with an error.
+         */
+        Object await() throws FactoryException {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FactoryException(e);
+            }
+            if (failure instanceof FactoryException) {
+                throw (FactoryException) failure;
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
             }
+            return object;
         }
     }
 }
@@ -53,10 +53,14 @@ public class NTv2GridShiftFactory extends ReferencingFactory implements Buffered
     /** The soft cache that holds loaded grids. */
     private SoftValueHashMap<String, GridShiftFile> ntv2GridCache;
 
+    /** The soft cache that holds the memory mapped grids. */
+    private SoftValueHashMap<String, NTv2MappedGrid> mappedGridCache;
+
     /** Constructs a factory with the default priority. */
     public NTv2GridShiftFactory() {
         super();
         ntv2GridCache = new SoftValueHashMap<>(GRID_CACHE_HARD_REFERENCES);
+        mappedGridCache = new SoftValueHashMap<>(GRID_CACHE_HARD_REFERENCES);
     }
 
     /**
@@ -69,6 +73,7 @@ public NTv2GridShiftFactory() {
     public NTv2GridShiftFactory(final int priority) {
         super(priority);
         ntv2GridCache = new SoftValueHashMap<>(GRID_CACHE_HARD_REFERENCES);
+        mappedGridCache = new SoftValueHashMap<>(GRID_CACHE_HARD_REFERENCES);
     }
 
     /**
@@ -114,6 +119,38 @@ public GridShiftFile createNTv2Grid(URL gridLocation) throws FactoryException {
         }
     }
 
+    /**
+     * Opens a NTv2 grid through memory mapping, reading only its headers in memory. Only grids
+     * stored in local files can be mapped, the others have to be loaded with {@link
+     * #createNTv2Grid(URL)}.
+     *
+     * @param gridLocation The NTv2 grid file location
+     * @return the grid, or {@code null} if the grid is not a local file or cannot be mapped
+     */
+    public NTv2MappedGrid createMappedNTv2Grid(URL gridLocation) {
+        if (gridLocation == null || !"file".equals(gridLocation.getProtocol())) {
+            return null;
+        }
+
+        String key = gridLocation.toExternalForm();
+        synchronized (mappedGridCache) {
+            NTv2MappedGrid grid = mappedGridCache.get(key);
+            if (grid == null) {
+                try {
+                    grid = NTv2MappedGrid.open(URLs.urlToFile(gridLocation));
+                } catch (IOException e) {
+                    LOGGER.log(
+                            Level.FINE,
+                            "Could not map NTv2 grid " + gridLocation + ", will load it instead",
+                            e);
+                    return null;
+                }
+                mappedGridCache.put(key, grid);
+            }
+            return grid;
+        }
+    }
+
     /**
      * Checks if a given resource is a valid NTv2 file without fully loading it.
      *
@@ -0,0 +1,374 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.factory.gridshift;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A NTv2 grid shift file accessed through memory mapping.
+ *
+ * <p>Only the file and sub grid headers are read when opening the grid, the shifts are read from
+ * the mapped file while interpolating, leaving to the operating system the loading and caching of
+ * the parts of the file actually used. Large national grids are thus opened quickly, and are not
+ * kept in the heap. The shifts are computed as {@link au.com.objectix.jgridshift.GridShiftFile}
+ * does, looking up the sub grid containing each point, and interpolating bilinearly between the
+ * four nodes surrounding it.
+ *
+ * <p>Instances are immutable and can be shared among threads.
+ */
+public final class NTv2MappedGrid {
+
+    /** Length of the header records, a 8 characters keyword followed by a 8 bytes value */
+    static final int RECORD_BYTES = 16;
+
+    /** Length of the grid nodes, latitude and longitude shifts and accuracies as floats */
+    static final int NODE_BYTES = 16;
+
+    /** The number of records expected in the file header */
+    static final int OVERVIEW_RECORDS = 11;
+
+    /** The number of iterations of the reverse shift, the same as jgridshift */
+    static final int REVERSE_ITERATIONS = 4;
+
+    static final double SECONDS_PER_DEGREE = 3600;
+
+    private final String name;
+
+    private final ByteBuffer buffer;
+
+    private final SubGrid[] topLevel;
+
+    /**
+     * Maps the given NTv2 file and reads its headers
+     *
+     * @param file the grid file
+     * @return the mapped grid
+     * @throws IOException if the file cannot be read, or is not a valid NTv2 file
+     */
+    public static NTv2MappedGrid open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("NTv2 grid " + file + " is too large to be mapped");
+            }
+            // the mapping stays valid once the channel is closed
+            return new NTv2MappedGrid(
+                    file.getPath(), channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /** Reads the headers of the grid contained in the buffer */
+    NTv2MappedGrid(String name, ByteBuffer buffer) throws IOException {
+        this.name = name;
+        this.buffer = buffer;
+        if (buffer.capacity() < OVERVIEW_RECORDS * RECORD_BYTES) {
+            throw new IOException(name + " is not a NTv2 grid file, too short");
+        }
+        // the byte order is not declared, find the one making sense of the header
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(8) != OVERVIEW_RECORDS) {
+            buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+        checkKeyword(0, "NUM_OREC");
+        int overviewRecords = buffer.getInt(8);
+        if (overviewRecords != OVERVIEW_RECORDS) {
+            throw new IOException("Unexpected NTv2 header length in " + name);
+        }
+        checkKeyword(RECORD_BYTES, "NUM_SREC");
+        int subGridRecords = buffer.getInt(RECORD_BYTES + 8);
+        checkKeyword(2 * RECORD_BYTES, "NUM_FILE");
+        int subGridCount = buffer.getInt(2 * RECORD_BYTES + 8);
+        checkKeyword(3 * RECORD_BYTES, "GS_TYPE");
+        String type = text(3 * RECORD_BYTES + 8);
+        if (!"SECONDS".equals(type)) {
+            throw new IOException("Unsupported NTv2 shift type " + type + " in " + name);
+        }
+
+        List<SubGrid> topLevel = new ArrayList<>();
+        Map<String, SubGrid> grids = new HashMap<>();
+        long offset = overviewRecords * RECORD_BYTES;
+        for (int i = 0; i < subGridCount; i++) {
+            if (offset + subGridRecords * RECORD_BYTES > buffer.capacity()) {
+                throw new IOException("Truncated NTv2 grid file " + name);
+            }
+            SubGrid grid = readSubGrid((int) offset, subGridRecords);
+            offset = grid.nodeOffset + (long) grid.columns * grid.rows * NODE_BYTES;
+            if (offset > buffer.capacity()) {
+                throw new IOException("Truncated NTv2 grid file " + name);
+            }
+            if ("NONE".equalsIgnoreCase(grid.parent)) {
+                topLevel.add(grid);
+            } else {
+                SubGrid parent = grids.get(grid.parent);
+                if (parent == null) {
+                    throw new IOException(
+                            "Sub grid " + grid.name + " parent " + grid.parent + " not found");
+                }
+                parent.children.add(grid);
+            }
+            grids.put(grid.name, grid);
+        }
+        this.topLevel = topLevel.toArray(new SubGrid[topLevel.size()]);
+    }
+
+    private SubGrid readSubGrid(int offset, int records) throws IOException {
+        checkKeyword(offset, "SUB_NAME");
+        String name = text(offset + 8);
+        String parent = text(offset + RECORD_BYTES + 8);
+        // created and updated dates skipped
+        double minLat = buffer.getDouble(offset + 4 * RECORD_BYTES + 8);
+        double maxLat = buffer.getDouble(offset + 5 * RECORD_BYTES + 8);
+        double minLon = buffer.getDouble(offset + 6 * RECORD_BYTES + 8);
+        double maxLon = buffer.getDouble(offset + 7 * RECORD_BYTES + 8);
+        double latInterval = buffer.getDouble(offset + 8 * RECORD_BYTES + 8);
+        double lonInterval = buffer.getDouble(offset + 9 * RECORD_BYTES + 8);
+        int nodes = buffer.getInt(offset + 10 * RECORD_BYTES + 8);
+        int columns = 1 + (int) ((maxLon - minLon) / lonInterval);
+        int rows = 1 + (int) ((maxLat - minLat) / latInterval);
+        if (columns * rows != nodes) {
+            throw new IOException("Sub grid " + name + " has inconsistent grid dimensions");
+        }
+        return new SubGrid(
+                name,
+                parent,
+                minLat,
+                maxLat,
+                minLon,
+                maxLon,
+                latInterval,
+                lonInterval,
+                columns,
+                rows,
+                offset + records * RECORD_BYTES);
+    }
+
+    private void checkKeyword(int offset, String keyword) throws IOException {
+        String found = text(offset);
+        if (!keyword.equals(found)) {
+            throw new IOException(
+                    name + " is not a NTv2 grid file, found " + found + " instead of " + keyword);
+        }
+    }
+
+    /** Reads the 8 characters text at the given position, trimmed */
+    private String text(int offset) {
+        char[] chars = new char[8];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (buffer.get(offset + i) & 0xFF);
+        }
+        return new String(chars).trim();
+    }
+
+    /** Returns the name of the grid, the path of the file it's read from */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Shifts the points, given in decimal degrees as (longitude positive east, latitude) pairs.
+     * The points not covered by the grid are copied unchanged. Consecutive points usually fall in
+     * the same sub grid, which is checked first, avoiding the sub grid lookup.
+     *
+     * @param srcPts the source coordinates
+     * @param srcOff the offset of the first point in the source array
+     * @param dstPts the destination coordinates, may be the same as the source
+     * @param dstOff the offset of the first point in the destination array
+     * @param numPts the number of points to shift
+     * @param forward {@code true} for the forward shift, {@code false} for the reverse one
+     * @return the number of points not covered by the grid
+     */
+    public int transform(
+            double[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts, boolean forward) {
+        double[] shift = new double[2];
+        SubGrid last = null;
+        int skipped = 0;
+        while (--numPts >= 0) {
+            double lonEast = srcPts[srcOff++];
+            double latDegrees = srcPts[srcOff++];
+            // the grids are in seconds, longitudes positive west
+            double lon = -lonEast * SECONDS_PER_DEGREE;
+            double lat = latDegrees * SECONDS_PER_DEGREE;
+            SubGrid grid;
+            if (forward) {
+                grid = shift(lon, lat, shift, last);
+                lon += shift[0];
+                lat += shift[1];
+            } else {
+                // iterate looking for the point whose forward shift is the given one
+                grid = shift(lon, lat, shift, last);
+                for (int i = 1; i < REVERSE_ITERATIONS && grid != null; i++) {
+                    grid = shift(lon - shift[0], lat - shift[1], shift, grid);
+                }
+                lon -= shift[0];
+                lat -= shift[1];
+            }
+            if (grid != null) {
+                last = grid;
+                dstPts[dstOff++] = -lon / SECONDS_PER_DEGREE;
+                dstPts[dstOff++] = lat / SECONDS_PER_DEGREE;
+            } else {
+                dstPts[dstOff++] = lonEast;
+                dstPts[dstOff++] = latDegrees;
+                skipped++;
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Computes the shift of the given position, in seconds with longitudes positive west
+     *
+     * @param last the last sub grid used, checked first, may be null
+     * @return the sub grid used, or {@code null} if the position is not covered by the grid
+     */
+    private SubGrid shift(double lon, double lat, double[] shift, SubGrid last) {
+        SubGrid grid = null;
+        if (last != null && last.contains(lon, lat)) {
+            grid = last.find(lon, lat);
+        } else {
+            for (SubGrid candidate : topLevel) {
+                if (candidate.contains(lon, lat)) {
+                    grid = candidate.find(lon, lat);
+                    break;
+                }
+            }
+            if (grid == null) {
+                return null;
+            }
+        }
+        grid.interpolate(buffer, lon, lat, shift);
+        return grid;
+    }
+
+    @Override
+    public String toString() {
+        return "NTv2MappedGrid[" + name + "]";
+    }
+
+    /** A sub grid header, the nodes are read from the mapped buffer */
+    static final class SubGrid {
+
+        final String name;
+
+        final String parent;
+
+        /** The grid bounds and intervals, in seconds, longitudes positive west */
+        final double minLat;
+
+        final double maxLat;
+
+        final double minLon;
+
+        final double maxLon;
+
+        final double latInterval;
+
+        final double lonInterval;
+
+        final int columns;
+
+        final int rows;
+
+        /** The position of the first node in the buffer */
+        final int nodeOffset;
+
+        final List<SubGrid> children = new ArrayList<>();
+
+        SubGrid(
+                String name,
+                String parent,
+                double minLat,
+                double maxLat,
+                double minLon,
+                double maxLon,
+                double latInterval,
+                double lonInterval,
+                int columns,
+                int rows,
+                int nodeOffset) {
+            this.name = name;
+            this.parent = parent;
+            this.minLat = minLat;
+            this.maxLat = maxLat;
+            this.minLon = minLon;
+            this.maxLon = maxLon;
+            this.latInterval = latInterval;
+            this.lonInterval = lonInterval;
+            this.columns = columns;
+            this.rows = rows;
+            this.nodeOffset = nodeOffset;
+        }
+
+        boolean contains(double lon, double lat) {
+            return lon >= minLon && lon < maxLon && lat >= minLat && lat < maxLat;
+        }
+
+        /** Returns the most detailed grid containing the position, assumed to be in this one */
+        SubGrid find(double lon, double lat) {
+            for (SubGrid child : children) {
+                if (child.contains(lon, lat)) {
+                    return child.find(lon, lat);
+                }
+            }
+            return this;
+        }
+
+        /** Bilinear interpolation of the longitude and latitude shifts at the position */
+        void interpolate(ByteBuffer buffer, double lon, double lat, double[] shift) {
+            int lonIndex = (int) ((lon - minLon) / lonInterval);
+            int latIndex = (int) ((lat - minLat) / latInterval);
+            double x = (lon - (minLon + (lonInterval * lonIndex))) / lonInterval;
+            double y = (lat - (minLat + (latInterval * latIndex))) / latInterval;
+
+            // nodes are stored from south to north, and from east to west in each row
+            int a = nodeOffset + (lonIndex + latIndex * columns) * NODE_BYTES;
+            int b = a + NODE_BYTES;
+            int c = a + columns * NODE_BYTES;
+            int d = c + NODE_BYTES;
+            shift[0] =
+                    interpolate(
+                            buffer.getFloat(a + 4),
+                            buffer.getFloat(b + 4),
+                            buffer.getFloat(c + 4),
+                            buffer.getFloat(d + 4),
+                            x,
+                            y);
+            shift[1] =
+                    interpolate(
+                            buffer.getFloat(a),
+                            buffer.getFloat(b),
+                            buffer.getFloat(c),
+                            buffer.getFloat(d),
+                            x,
+                            y);
+        }
+
+        private static double interpolate(
+                double a, double b, double c, double d, double x, double y) {
+            return a + ((b - a) * x) + ((c - a) * y) + ((a + d - b - c) * x * y);
+        }
+    }
+}
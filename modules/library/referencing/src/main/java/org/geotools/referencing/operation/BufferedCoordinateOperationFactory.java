@@ -28,6 +28,7 @@
 import org.geotools.util.SoftValueHashMap;
 import org.geotools.util.Utilities;
 import org.geotools.util.factory.BufferedFactory;
+import org.geotools.util.factory.Factory;
 import org.geotools.util.factory.Hints;
 
 /**
@@ -195,6 +196,16 @@ private final CoordinateOperationFactory getBackingFactory() {
         return factory;
     }
 
+    /** Returns {@code true} if the backing factory is lenient about datum shifts. */
+    private boolean isLenient() {
+        final CoordinateOperationFactory factory = getBackingFactory();
+        return factory instanceof Factory
+                && Boolean.TRUE.equals(
+                        ((Factory) factory)
+                                .getImplementationHints()
+                                .get(Hints.LENIENT_DATUM_SHIFT));
+    }
+
     /**
      * Invoked by {@link #AbstractCoordinateOperationFactory} when the {@link #hints} map should be
      * initialized. The {@link Hints#COORDINATE_OPERATION_FACTORY} can not always be provided at
@@ -231,6 +242,7 @@ public CoordinateOperation createOperation(
         if (op == null) {
             op = getBackingFactory().createOperation(sourceCRS, targetCRS);
             pool.put(key, op);
+            CoordinateOperationSnapshot.record(sourceCRS, targetCRS, isLenient());
         }
         return op;
     }
@@ -0,0 +1,279 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.operation;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.api.metadata.citation.Citation;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.ReferenceIdentifier;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.ReferencingFactoryFinder;
+import org.geotools.util.Utilities;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Keeps track of the coordinate operations created by the {@link
+ * BufferedCoordinateOperationFactory} instances, so that the same operations can be created again
+ * in a new JVM before they are first needed.
+ *
+ * <p>Recording is disabled by default, it can be enabled with the {@value #RECORD_PROPERTY} system
+ * property, or with {@link #setRecording(boolean)}. Only the authority codes of the source and
+ * target CRS are kept in memory, for at most 10000 operations.
+ *
+ * <p>A snapshot is a text file listing the authority codes of the source and target CRS of each
+ * operation, together with the {@linkplain org.geotools.util.factory.Hints#LENIENT_DATUM_SHIFT
+ * lenient datum shift} flag the operation was created with. The operations themselves are not
+ * stored, they are searched again by {@link #warm} using {@link CRS#findMathTransform
+ * CRS.findMathTransform}, in parallel, filling both the CRS and the coordinate operation caches.
+ * Typical usage is:
+ *
+ * <pre><code>
+ * // at startup
+ * CoordinateOperationSnapshot.setRecording(true);
+ * CoordinateOperationSnapshot.warm(snapshot, 4);
+ * ...
+ * // at shutdown, or periodically
+ * CoordinateOperationSnapshot.save(snapshot);
+ * </code></pre>
+ *
+ * The snapshot records the edition of the EPSG database it was created with, a snapshot created
+ * against another edition is ignored.
+ */
+public final class CoordinateOperationSnapshot {
+
+    static final Logger LOGGER = Logging.getLogger(CoordinateOperationSnapshot.class);
+
+    /** System property enabling the recording of the coordinate operations at startup */
+    public static final String RECORD_PROPERTY = "org.geotools.referencing.recordOperations";
+
+    /** The maximum number of operations tracked, to bound the memory used by applications. */
+    static final int MAX_RECORDED = 10000;
+
+    /** First line of the snapshot files */
+    static final String HEADER = "# GeoTools coordinate operation snapshot";
+
+    /** Prefix of the line holding the EPSG database edition */
+    static final String EDITION = "epsg.edition=";
+
+    /**
+     * The operations created so far, as snapshot lines: source and target CRS codes and axis
+     * order, followed by the lenient datum shift flag
+     */
+    static final Set<String> RECORDED = ConcurrentHashMap.newKeySet();
+
+    private static volatile boolean recording = Boolean.getBoolean(RECORD_PROPERTY);
+
+    private CoordinateOperationSnapshot() {}
+
+    /** Enables or disables the recording of the coordinate operations being created. */
+    public static void setRecording(boolean enabled) {
+        recording = enabled;
+    }
+
+    /** Returns {@code true} if the coordinate operations being created are recorded. */
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Records an operation created between the given CRS, if recording is enabled. Invoked by the
+     * {@link BufferedCoordinateOperationFactory} when an operation is not found in its cache.
+     * Operations involving a CRS that cannot be decoded back from its identifier, with the same
+     * axis order, are skipped.
+     */
+    static void record(
+            CoordinateReferenceSystem sourceCRS,
+            CoordinateReferenceSystem targetCRS,
+            boolean lenient) {
+        if (!recording
+                || RECORDED.size() >= MAX_RECORDED
+                || sourceCRS.getIdentifiers().isEmpty()
+                || targetCRS.getIdentifiers().isEmpty()) {
+            return;
+        }
+        final String source = toCode(sourceCRS);
+        final String target = toCode(targetCRS);
+        if (source != null && target != null) {
+            RECORDED.add(source + '\t' + target + '\t' + lenient);
+        }
+    }
+
+    /** Forgets about the operations created so far. */
+    public static void clear() {
+        RECORDED.clear();
+    }
+
+    /**
+     * Writes the operations created so far to the given file.
+     *
+     * @param file The snapshot file, overwritten if existing.
+     * @return The number of operations written.
+     * @throws IOException if the file could not be written.
+     */
+    public static int save(File file) throws IOException {
+        final List<String> lines = new ArrayList<>(RECORDED);
+        try (BufferedWriter writer =
+                Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            writer.write(EDITION + getEdition());
+            writer.newLine();
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        return lines.size();
+    }
+
+    /**
+     * Returns the code the given CRS can be decoded from, followed by the axis order to decode it
+     * with, or {@code null} if the CRS cannot be decoded back.
+     */
+    private static String toCode(CoordinateReferenceSystem crs) {
+        String result = null;
+        final Iterator<ReferenceIdentifier> it = crs.getIdentifiers().iterator();
+        if (it.hasNext()) {
+            final ReferenceIdentifier id = it.next();
+            final String code =
+                    id.getCodeSpace() != null
+                            ? id.getCodeSpace() + ':' + id.getCode()
+                            : id.getCode();
+            for (boolean longitudeFirst : new boolean[] {false, true}) {
+                try {
+                    if (Utilities.equals(crs, CRS.decode(code, longitudeFirst))) {
+                        result = code + '\t' + longitudeFirst;
+                        break;
+                    }
+                } catch (FactoryException e) {
+                    LOGGER.log(Level.FINE, "Could not decode " + code, e);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates again, in parallel, the operations listed in the given snapshot. Missing files and
+     * snapshots created against another EPSG database edition are ignored, operations that cannot
+     * be created anymore are logged and skipped.
+     *
+     * @param file The snapshot file.
+     * @param threads The number of threads creating the operations.
+     * @return The number of operations created.
+     * @throws IOException if the file could not be read.
+     */
+    public static int warm(File file, int threads) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        final List<String[]> operations = new ArrayList<>();
+        try (BufferedReader reader =
+                Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                throw new IOException(file + " is not a coordinate operation snapshot");
+            }
+            final String edition = EDITION + getEdition();
+            if (!edition.equals(reader.readLine())) {
+                LOGGER.info("Ignoring " + file + ", it was created against another EPSG database");
+                return 0;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] fields = line.split("\t");
+                if (fields.length != 5) {
+                    throw new IOException("Invalid line in " + file + ": " + line);
+                }
+                operations.add(fields);
+            }
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        int created = 0;
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (String[] fields : operations) {
+                results.add(executor.submit(createOperation(fields)));
+            }
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    created++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return created;
+    }
+
+    /** The task creating the operation described by a snapshot line */
+    private static Callable<Boolean> createOperation(final String[] fields) {
+        return () -> {
+            try {
+                final CoordinateReferenceSystem sourceCRS =
+                        CRS.decode(fields[0], Boolean.parseBoolean(fields[1]));
+                final CoordinateReferenceSystem targetCRS =
+                        CRS.decode(fields[2], Boolean.parseBoolean(fields[3]));
+                CRS.findMathTransform(sourceCRS, targetCRS, Boolean.parseBoolean(fields[4]));
+                return true;
+            } catch (FactoryException | RuntimeException e) {
+                LOGGER.log(
+                        Level.FINE,
+                        "Could not create the operation from " + fields[0] + " to " + fields[2],
+                        e);
+                return false;
+            }
+        };
+    }
+
+    /** Returns the edition of the EPSG database in use, or an empty string if unknown. */
+    static String getEdition() {
+        try {
+            final Citation authority =
+                    ReferencingFactoryFinder.getCRSAuthorityFactory("EPSG", null).getAuthority();
+            if (authority != null && authority.getEdition() != null) {
+                return authority.getEdition().toString();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Could not determine the EPSG database edition", e);
+        }
+        return "";
+    }
+}
@@ -196,6 +196,42 @@ public ParameterValueGroup getParameterValues() {
     @Override
     protected Point2D transformNormalized(double x, double y, Point2D ptDst)
             throws ProjectionException {
+        final double[] xy = new double[2];
+        transformPoint(x, y, xy, 0);
+
+        if (ptDst != null) {
+            ptDst.setLocation(xy[0], xy[1]);
+            return ptDst;
+        }
+        return new Point2D.Double(xy[0], xy[1]);
+    }
+
+    /** Transforms the (<var>&lambda;</var>,<var>&phi;</var>) coordinates in place. */
+    @Override
+    protected void transformNormalized(final double[] pts, final int offset, final int numPts)
+            throws ProjectionException {
+        ProjectionException failure = null;
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            try {
+                transformPoint(pts[i], pts[i + 1], pts, i);
+            } catch (ProjectionException exception) {
+                pts[i] = pts[i + 1] = Double.NaN;
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Transforms the (<var>&lambda;</var>,<var>&phi;</var>) coordinates and stores the result in
+     * {@code dst} at the given index.
+     */
+    private void transformPoint(double x, double y, final double[] dst, final int index)
+            throws ProjectionException {
         x *= n;
         double rho;
         if (isSpherical) {
@@ -211,14 +247,8 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
             }
         }
         rho = sqrt(rho) / n;
-        y = rho0 - rho * cos(x);
-        x = rho * sin(x);
-
-        if (ptDst != null) {
-            ptDst.setLocation(x, y);
-            return ptDst;
-        }
-        return new Point2D.Double(x, y);
+        dst[index] = rho * sin(x);
+        dst[index + 1] = rho0 - rho * cos(x);
     }
 
     /**
@@ -228,6 +258,42 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
     @Override
     protected Point2D inverseTransformNormalized(double x, double y, Point2D ptDst)
             throws ProjectionException {
+        final double[] xy = new double[2];
+        inverseTransformPoint(x, y, xy, 0);
+
+        if (ptDst != null) {
+            ptDst.setLocation(xy[0], xy[1]);
+            return ptDst;
+        }
+        return new Point2D.Double(xy[0], xy[1]);
+    }
+
+    /** Transforms the (<var>x</var>,<var>y</var>) coordinates in place. */
+    @Override
+    protected void inverseTransformNormalized(
+            final double[] pts, final int offset, final int numPts) throws ProjectionException {
+        ProjectionException failure = null;
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            try {
+                inverseTransformPoint(pts[i], pts[i + 1], pts, i);
+            } catch (ProjectionException exception) {
+                pts[i] = pts[i + 1] = Double.NaN;
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Transforms the (<var>x</var>,<var>y</var>) coordinates and stores the result in {@code dst}
+     * at the given index.
+     */
+    private void inverseTransformPoint(double x, double y, final double[] dst, final int index)
+            throws ProjectionException {
         y = rho0 - y;
         double rho = hypot(x, y);
         if (rho > EPSILON) {
@@ -257,11 +323,8 @@ protected Point2D inverseTransformNormalized(double x, double y, Point2D ptDst)
             x = 0.0;
             y = n > 0.0 ? PI / 2.0 : -PI / 2.0;
         }
-        if (ptDst != null) {
-            ptDst.setLocation(x, y);
-            return ptDst;
-        }
-        return new Point2D.Double(x, y);
+        dst[index] = x;
+        dst[index + 1] = y;
     }
 
     /**
@@ -36,6 +36,7 @@
 import java.awt.geom.Point2D;
 import java.io.Serializable;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.logging.Level;
 import java.util.logging.LogRecord;
@@ -849,6 +850,77 @@ protected abstract Point2D inverseTransformNormalized(double x, double y, final
     protected abstract Point2D transformNormalized(double lambda, double phi, final Point2D ptDst)
             throws ProjectionException;
 
+    /**
+     * Transforms in place a sequence of (<var>&lambda;</var>,<var>&phi;</var>) coordinates, with
+     * the same normalization as {@link #transformNormalized(double, double, Point2D)}. This method
+     * is invoked by {@link #transform(double[], int, double[], int, int)} for the whole array,
+     * subclasses can override it with a loop working directly on the array, avoiding the per point
+     * method calls and {@link Point2D} usage. The default implementation invokes {@link
+     * #transformNormalized(double, double, Point2D)} for each point.
+     *
+     * @param pts The coordinates, in <strong>radians</strong> on input, as a linear distance on a
+     *     unit sphere or ellipse on output.
+     * @param offset The position of the first coordinate in the array.
+     * @param numPts The number of points to be transformed.
+     * @throws ProjectionException if a point can't be transformed. All the points are processed
+     *     anyway, the ones that can't be transformed are set to {@link Double#NaN}, and the first
+     *     exception is thrown at the end.
+     */
+    protected void transformNormalized(final double[] pts, final int offset, final int numPts)
+            throws ProjectionException {
+        final Point2D.Double point = new Point2D.Double();
+        ProjectionException firstException = null;
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            try {
+                final Point2D result = transformNormalized(pts[i], pts[i + 1], point);
+                pts[i] = result.getX();
+                pts[i + 1] = result.getY();
+            } catch (ProjectionException exception) {
+                pts[i] = pts[i + 1] = Double.NaN;
+                if (firstException == null) {
+                    firstException = exception;
+                }
+            }
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
+    /**
+     * Inverse transforms in place a sequence of (<var>x</var>,<var>y</var>) coordinates, with the
+     * same normalization as {@link #inverseTransformNormalized(double, double, Point2D)}. This is
+     * the bulk counterpart of that method, see {@link #transformNormalized(double[], int, int)}.
+     *
+     * @param pts The coordinates, as a linear distance on a unit sphere or ellipse on input, in
+     *     <strong>radians</strong> on output.
+     * @param offset The position of the first coordinate in the array.
+     * @param numPts The number of points to be transformed.
+     * @throws ProjectionException if a point can't be transformed. All the points are processed
+     *     anyway, the ones that can't be transformed are set to {@link Double#NaN}, and the first
+     *     exception is thrown at the end.
+     */
+    protected void inverseTransformNormalized(
+            final double[] pts, final int offset, final int numPts) throws ProjectionException {
+        final Point2D.Double point = new Point2D.Double();
+        ProjectionException firstException = null;
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            try {
+                final Point2D result = inverseTransformNormalized(pts[i], pts[i + 1], point);
+                pts[i] = result.getX();
+                pts[i + 1] = result.getY();
+            } catch (ProjectionException exception) {
+                pts[i] = pts[i + 1] = Double.NaN;
+                if (firstException == null) {
+                    firstException = exception;
+                }
+            }
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
     /**
      * Transforms the specified {@code ptSrc} and stores the result in {@code ptDst}.
      *
@@ -922,10 +994,12 @@ public final void transform(
          */
         final boolean reverse =
                 (srcPts == dstPts && srcOff < dstOff && srcOff + (2 * numPts) > dstOff);
-        if (reverse) {
-            srcOff += 2 * numPts;
-            dstOff += 2 * numPts;
+        if (!reverse) {
+            transformBulk(srcPts, srcOff, dstPts, dstOff, numPts);
+            return;
         }
+        srcOff += 2 * numPts;
+        dstOff += 2 * numPts;
         final Point2D.Double point = new Point2D.Double();
         ProjectionException firstException = null;
         while (--numPts >= 0) {
@@ -942,16 +1016,96 @@ public final void transform(
                     firstException = exception;
                 }
             }
-            if (reverse) {
-                srcOff -= 4;
-                dstOff -= 4;
-            }
+            srcOff -= 4;
+            dstOff -= 4;
         }
         if (firstException != null) {
             throw firstException;
         }
     }
 
+    /**
+     * Transforms the points array at a time: the coordinates are normalized while copied to the
+     * destination array, transformed in place by {@link #transformNormalized(double[], int, int)},
+     * then scaled and translated. The destination must not overlap the source after its start.
+     */
+    private void transformBulk(
+            final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff,
+            final int numPts)
+            throws ProjectionException {
+        double[] source = null;
+        assert (source = copyForAssertions(srcPts, srcOff, numPts)) != null;
+        boolean verify = verifyCoordinateRanges();
+        final int end = dstOff + 2 * numPts;
+        for (int i = srcOff, j = dstOff; j < end; i += 2, j += 2) {
+            final double x = srcPts[i];
+            final double y = srcPts[i + 1];
+            if (verify && verifyGeographicRanges(this, x, y)) {
+                warningLogged();
+                verify = false;
+            }
+            // see transform(Point2D, Point2D) about the longitude rolling
+            dstPts[j] =
+                    centralMeridian != 0
+                            ? rollLongitude(toRadians(x) - centralMeridian)
+                            : toRadians(x);
+            dstPts[j + 1] = toRadians(y);
+        }
+        ProjectionException failure = null;
+        try {
+            transformNormalized(dstPts, dstOff, numPts);
+        } catch (ProjectionException exception) {
+            failure = exception;
+        }
+        for (int j = dstOff; j < end; j += 2) {
+            dstPts[j] = globalScale * dstPts[j] + falseEasting;
+            dstPts[j + 1] = globalScale * dstPts[j + 1] + falseNorthing;
+        }
+        if (invertible) {
+            assert checkReciprocal(dstPts, dstOff, source, numPts, true);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Copies the source points, for the reciprocal checks in assertions */
+    private static double[] copyForAssertions(
+            final double[] srcPts, final int srcOff, final int numPts) {
+        return Arrays.copyOfRange(srcPts, srcOff, srcOff + 2 * numPts);
+    }
+
+    /**
+     * Checks the reciprocal of each transformed point, skipping the ones that could not be
+     * transformed. This is the bulk version of {@link #checkReciprocal(Point2D, Point2D, boolean)}.
+     *
+     * @param points The transformed points.
+     * @param offset The position of the first transformed point.
+     * @param targets The points before the transformation, starting at zero.
+     * @param numPts The number of points.
+     * @param inverse {@code true} for an inverse transform instead of a direct one.
+     */
+    final boolean checkReciprocal(
+            final double[] points,
+            final int offset,
+            final double[] targets,
+            final int numPts,
+            final boolean inverse)
+            throws ProjectionException {
+        final Point2D.Double point = new Point2D.Double();
+        final Point2D.Double target = new Point2D.Double();
+        for (int i = 0; i < numPts; i++) {
+            point.x = points[offset + 2 * i];
+            point.y = points[offset + 2 * i + 1];
+            if (!Double.isNaN(point.x) && !Double.isNaN(point.y)) {
+                target.x = targets[2 * i];
+                target.y = targets[2 * i + 1];
+                checkReciprocal(point, target, inverse);
+            }
+        }
+        return true;
+    }
+
     /**
      * Transforms a list of coordinate point ordinal values. Ordinates must be
      * (<var>longitude</var>,<var>latitude</var>) pairs in decimal degrees.
@@ -1089,10 +1243,12 @@ public final void transform(
              */
             final boolean reverse =
                     (src == dest && srcOffset < dstOffset && srcOffset + (2 * numPts) > dstOffset);
-            if (reverse) {
-                srcOffset += 2 * numPts;
-                dstOffset += 2 * numPts;
+            if (!reverse) {
+                transformBulk(src, srcOffset, dest, dstOffset, numPts);
+                return;
             }
+            srcOffset += 2 * numPts;
+            dstOffset += 2 * numPts;
             final Point2D.Double point = new Point2D.Double();
             ProjectionException firstException = null;
             while (--numPts >= 0) {
@@ -1109,16 +1265,61 @@ public final void transform(
                         firstException = exception;
                     }
                 }
-                if (reverse) {
-                    srcOffset -= 4;
-                    dstOffset -= 4;
-                }
+                srcOffset -= 4;
+                dstOffset -= 4;
             }
             if (firstException != null) {
                 throw firstException;
             }
         }
 
+        /**
+         * Inverse transforms the points array at a time: the coordinates are normalized while
+         * copied to the destination array, transformed in place by {@link
+         * MapProjection#inverseTransformNormalized(double[], int, int)}, then converted to
+         * degrees. The destination must not overlap the source after its start.
+         */
+        private void transformBulk(
+                final double[] src, final int srcOffset, final double[] dest, final int dstOffset,
+                final int numPts)
+                throws ProjectionException {
+            double[] source = null;
+            assert (source = copyForAssertions(src, srcOffset, numPts)) != null;
+            final int end = dstOffset + 2 * numPts;
+            for (int i = srcOffset, j = dstOffset; j < end; i += 2, j += 2) {
+                final double x = src[i];
+                final double y = src[i + 1];
+                dest[j] = (x - falseEasting) / globalScale;
+                dest[j + 1] = (y - falseNorthing) / globalScale;
+            }
+            ProjectionException failure = null;
+            try {
+                inverseTransformNormalized(dest, dstOffset, numPts);
+            } catch (ProjectionException exception) {
+                failure = exception;
+            }
+            boolean verify = verifyCoordinateRanges();
+            for (int j = dstOffset; j < end; j += 2) {
+                // see transform(Point2D, Point2D) about the longitude rolling
+                final double x =
+                        toDegrees(
+                                centralMeridian != 0
+                                        ? rollLongitude(dest[j] + centralMeridian)
+                                        : dest[j]);
+                final double y = toDegrees(dest[j + 1]);
+                dest[j] = x;
+                dest[j + 1] = y;
+                if (verify && verifyGeographicRanges(this, x, y)) {
+                    warningLogged();
+                    verify = false;
+                }
+            }
+            assert checkReciprocal(dest, dstOffset, source, numPts, false);
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
         /**
          * Inverse transforms a list of coordinate point ordinal values. Ordinates must be
          * (<var>x</var>,<var>y</var>) pairs in metres.
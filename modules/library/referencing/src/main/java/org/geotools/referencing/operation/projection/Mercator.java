@@ -144,10 +144,7 @@ public ParameterValueGroup getParameterValues() {
     @Override
     protected Point2D transformNormalized(double x, double y, final Point2D ptDst)
             throws ProjectionException {
-        if (abs(y) > (PI / 2 - EPSILON)) {
-            throw new ProjectionException(y);
-        }
-        y = -log(tsfn(y, sin(y)));
+        y = transformY(y);
 
         if (ptDst != null) {
             ptDst.setLocation(x, y);
@@ -156,6 +153,35 @@ protected Point2D transformNormalized(double x, double y, final Point2D ptDst)
         return new Point2D.Double(x, y);
     }
 
+    /** Transforms the (<var>&lambda;</var>,<var>&phi;</var>) coordinates in place. */
+    @Override
+    protected void transformNormalized(final double[] pts, final int offset, final int numPts)
+            throws ProjectionException {
+        ProjectionException failure = null;
+        // the longitude is unchanged, only the latitudes need processing
+        for (int i = offset + 1, end = offset + 2 * numPts; i < end; i += 2) {
+            try {
+                pts[i] = transformY(pts[i]);
+            } catch (ProjectionException exception) {
+                pts[i - 1] = pts[i] = Double.NaN;
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Projects the latitude, in radians, using the ellipsoidal equations. */
+    private double transformY(final double y) throws ProjectionException {
+        if (abs(y) > (PI / 2 - EPSILON)) {
+            throw new ProjectionException(y);
+        }
+        return -log(tsfn(y, sin(y)));
+    }
+
     /**
      * Transforms the specified (<var>x</var>,<var>y</var>) coordinates and stores the result in
      * {@code ptDst}.
@@ -163,8 +189,7 @@ protected Point2D transformNormalized(double x, double y, final Point2D ptDst)
     @Override
     protected Point2D inverseTransformNormalized(double x, double y, final Point2D ptDst)
             throws ProjectionException {
-        y = exp(-y);
-        y = cphi2(y);
+        y = inverseTransformY(y);
 
         if (ptDst != null) {
             ptDst.setLocation(x, y);
@@ -173,6 +198,31 @@ protected Point2D inverseTransformNormalized(double x, double y, final Point2D p
         return new Point2D.Double(x, y);
     }
 
+    /** Transforms the (<var>x</var>,<var>y</var>) coordinates in place. */
+    @Override
+    protected void inverseTransformNormalized(
+            final double[] pts, final int offset, final int numPts) throws ProjectionException {
+        ProjectionException failure = null;
+        for (int i = offset + 1, end = offset + 2 * numPts; i < end; i += 2) {
+            try {
+                pts[i] = inverseTransformY(pts[i]);
+            } catch (ProjectionException exception) {
+                pts[i - 1] = pts[i] = Double.NaN;
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /** Computes the latitude, in radians, using the ellipsoidal equations. */
+    private double inverseTransformY(final double y) throws ProjectionException {
+        return cphi2(exp(-y));
+    }
+
     /**
      * Provides the transform equations for the spherical case of the Mercator projection.
      *
@@ -203,15 +253,11 @@ protected Spherical(final ParameterValueGroup parameters)
         @Override
         protected Point2D transformNormalized(double x, double y, Point2D ptDst)
                 throws ProjectionException {
-            if (abs(y) > (PI / 2 - EPSILON)) {
-                throw new ProjectionException(y);
-            }
-            // Compute using ellipsoidal formulas, for comparaison later.
-            assert (ptDst = super.transformNormalized(x, y, ptDst)) != null;
-
-            y = log(tan(PI / 4 + 0.5 * y));
+            final double phi = y;
+            y = sphericalTransformY(phi);
 
-            assert checkTransform(x, y, ptDst);
+            // Compare with the ellipsoidal formulas.
+            assert checkTransform(x, y, super.transformNormalized(x, phi, null));
             if (ptDst != null) {
                 ptDst.setLocation(x, y);
                 return ptDst;
@@ -219,6 +265,42 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
             return new Point2D.Double(x, y);
         }
 
+        /**
+         * Transforms the (<var>&lambda;</var>,<var>&phi;</var>) coordinates in place using
+         * equations for a sphere.
+         */
+        @Override
+        protected void transformNormalized(final double[] pts, final int offset, final int numPts)
+                throws ProjectionException {
+            ProjectionException failure = null;
+            for (int i = offset + 1, end = offset + 2 * numPts; i < end; i += 2) {
+                final double phi = pts[i];
+                try {
+                    pts[i] = sphericalTransformY(phi);
+                } catch (ProjectionException exception) {
+                    pts[i - 1] = pts[i] = Double.NaN;
+                    if (failure == null) {
+                        failure = exception;
+                    }
+                    continue;
+                }
+                // Compare with the ellipsoidal formulas.
+                assert checkTransform(
+                        pts[i - 1], pts[i], super.transformNormalized(pts[i - 1], phi, null));
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /** Projects the latitude, in radians, using the equations for a sphere. */
+        private double sphericalTransformY(final double y) throws ProjectionException {
+            if (abs(y) > (PI / 2 - EPSILON)) {
+                throw new ProjectionException(y);
+            }
+            return log(tan(PI / 4 + 0.5 * y));
+        }
+
         /**
          * Transforms the specified (<var>x</var>,<var>y</var>) coordinates and stores the result in
          * {@code ptDst} using equations for a sphere.
@@ -226,18 +308,42 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
         @Override
         protected Point2D inverseTransformNormalized(double x, double y, Point2D ptDst)
                 throws ProjectionException {
-            // Computes using ellipsoidal formulas, for comparaison later.
-            assert (ptDst = super.inverseTransformNormalized(x, y, ptDst)) != null;
-
-            y = PI / 2 - 2.0 * atan(exp(-y));
+            final double projected = y;
+            y = sphericalInverseTransformY(projected);
 
-            assert checkInverseTransform(x, y, ptDst);
+            // Compare with the ellipsoidal formulas.
+            assert checkInverseTransform(
+                    x, y, super.inverseTransformNormalized(x, projected, null));
             if (ptDst != null) {
                 ptDst.setLocation(x, y);
                 return ptDst;
             }
             return new Point2D.Double(x, y);
         }
+
+        /**
+         * Transforms the (<var>x</var>,<var>y</var>) coordinates in place using equations for a
+         * sphere.
+         */
+        @Override
+        protected void inverseTransformNormalized(
+                final double[] pts, final int offset, final int numPts)
+                throws ProjectionException {
+            for (int i = offset + 1, end = offset + 2 * numPts; i < end; i += 2) {
+                final double projected = pts[i];
+                pts[i] = sphericalInverseTransformY(projected);
+                // Compare with the ellipsoidal formulas.
+                assert checkInverseTransform(
+                        pts[i - 1],
+                        pts[i],
+                        super.inverseTransformNormalized(pts[i - 1], projected, null));
+            }
+        }
+
+        /** Computes the latitude, in radians, using the equations for a sphere. */
+        private double sphericalInverseTransformY(final double y) {
+            return PI / 2 - 2.0 * atan(exp(-y));
+        }
     }
 
     /** Returns a hash value for this projection. */
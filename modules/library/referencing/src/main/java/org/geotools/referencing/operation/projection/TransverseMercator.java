@@ -159,6 +159,30 @@ public ParameterDescriptorGroup getParameterDescriptors() {
     @Override
     protected Point2D transformNormalized(double x, double y, Point2D ptDst)
             throws ProjectionException {
+        final double[] xy = new double[2];
+        ellipsoidalTransform(x, y, xy, 0);
+
+        if (ptDst != null) {
+            ptDst.setLocation(xy[0], xy[1]);
+            return ptDst;
+        }
+        return new Point2D.Double(xy[0], xy[1]);
+    }
+
+    /** Transforms the (<var>&lambda;</var>,<var>&phi;</var>) coordinates in place. */
+    @Override
+    protected void transformNormalized(final double[] pts, final int offset, final int numPts) {
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            ellipsoidalTransform(pts[i], pts[i + 1], pts, i);
+        }
+    }
+
+    /**
+     * Transforms the (<var>&lambda;</var>,<var>&phi;</var>) coordinates using the ellipsoidal
+     * equations, and stores the result in {@code dst} at the given index.
+     */
+    private void ellipsoidalTransform(
+            final double x, final double y, final double[] dst, final int index) {
         double sinphi = sin(y);
         double cosphi = cos(y);
 
@@ -173,17 +197,12 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
         final double ys1 = 1385.0 + t * (t * (543.0 - t) - 3111.0);
         final double ys2 = 61.0 + t * (t - 58.0) + n * (270.0 - 330.0 * t) + FC8 * als * ys1;
         final double ys3 = 5.0 - t + n * (9.0 + 4.0 * n) + FC6 * als * ys2;
-        y = mlfn(y, sinphi, cosphi) - ml0 + sinphi * al * x * FC2 * (1.0 + FC4 * als * ys3);
+        dst[index + 1] =
+                mlfn(y, sinphi, cosphi) - ml0 + sinphi * al * x * FC2 * (1.0 + FC4 * als * ys3);
 
         double xs1 = 61.0 + t * (t * (179.0 - t) - 479.0);
         final double xs2 = 5.0 + t * (t - 18.0) + n * (14.0 - 58.0 * t) + FC7 * als * xs1;
-        x = al * (FC1 + FC3 * als * (1.0 - t + n + FC5 * als * xs2));
-
-        if (ptDst != null) {
-            ptDst.setLocation(x, y);
-            return ptDst;
-        }
-        return new Point2D.Double(x, y);
+        dst[index] = al * (FC1 + FC3 * als * (1.0 - t + n + FC5 * als * xs2));
     }
 
     /**
@@ -193,11 +212,48 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
     @Override
     protected Point2D inverseTransformNormalized(double x, double y, Point2D ptDst)
             throws ProjectionException {
+        final double[] xy = new double[2];
+        ellipsoidalInverseTransform(x, y, xy, 0);
+
+        if (ptDst != null) {
+            ptDst.setLocation(xy[0], xy[1]);
+            return ptDst;
+        }
+        return new Point2D.Double(xy[0], xy[1]);
+    }
+
+    /** Transforms the (<var>x</var>,<var>y</var>) coordinates in place. */
+    @Override
+    protected void inverseTransformNormalized(
+            final double[] pts, final int offset, final int numPts) throws ProjectionException {
+        ProjectionException failure = null;
+        for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+            try {
+                ellipsoidalInverseTransform(pts[i], pts[i + 1], pts, i);
+            } catch (ProjectionException exception) {
+                pts[i] = pts[i + 1] = Double.NaN;
+                if (failure == null) {
+                    failure = exception;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Transforms the (<var>x</var>,<var>y</var>) coordinates using the ellipsoidal equations, and
+     * stores the result in {@code dst} at the given index.
+     */
+    private void ellipsoidalInverseTransform(
+            final double x, final double y, final double[] dst, final int index)
+            throws ProjectionException {
         double phi = inv_mlfn(ml0 + y);
 
         if (abs(phi) >= PI / 2) {
-            y = y < 0.0 ? -(PI / 2) : (PI / 2);
-            x = 0.0;
+            dst[index + 1] = y < 0.0 ? -(PI / 2) : (PI / 2);
+            dst[index] = 0.0;
         } else {
             double sinphi = sin(phi);
             double cosphi = cos(phi);
@@ -212,18 +268,13 @@ protected Point2D inverseTransformNormalized(double x, double y, Point2D ptDst)
             final double ys1 = 1385.0 + t * (3633.0 + t * (4095.0 + 1575.0 * t));
             final double ys2 = 61.0 + t * (90.0 - 252.0 * n + 45.0 * t) + 46.0 * n - ds * FC8 * ys1;
             final double ys3 = 5.0 + t * (3.0 - 9.0 * n) + n * (1.0 - 4 * n) - ds * FC6 * ys2;
-            y = phi - (con * ds / (1.0 - excentricitySquared)) * FC2 * (1.0 - ds * FC4 * ys3);
+            dst[index + 1] =
+                    phi - (con * ds / (1.0 - excentricitySquared)) * FC2 * (1.0 - ds * FC4 * ys3);
 
             double xs1 = 61.0 + t * (662.0 + t * (1320.0 + 720.0 * t));
             double xs2 = 5.0 + t * (28.0 + 24 * t + 8.0 * n) + 6.0 * n - ds * FC7 * xs1;
-            x = d * (FC1 - ds * FC3 * (1.0 + 2.0 * t + n - ds * FC5 * xs2)) / cosphi;
-        }
-
-        if (ptDst != null) {
-            ptDst.setLocation(x, y);
-            return ptDst;
+            dst[index] = d * (FC1 - ds * FC3 * (1.0 + 2.0 * t + n - ds * FC5 * xs2)) / cosphi;
         }
-        return new Point2D.Double(x, y);
     }
 
     /** {@inheritDoc} */
@@ -271,10 +322,58 @@ protected Spherical(final ParameterValueGroup parameters)
         @Override
         protected Point2D transformNormalized(double x, double y, Point2D ptDst)
                 throws ProjectionException {
-            // Compute using ellipsoidal formulas, for comparaison later.
-            final double normalizedLongitude = x;
-            assert (ptDst = super.transformNormalized(x, y, ptDst)) != null;
+            final double[] xy = new double[2];
+            sphericalTransform(x, y, xy, 0);
 
+            // Compare with the ellipsoidal formulas.
+            assert checkTransform(
+                    xy[0],
+                    xy[1],
+                    super.transformNormalized(x, y, null),
+                    getToleranceForSphereAssertions(x));
+            if (ptDst != null) {
+                ptDst.setLocation(xy[0], xy[1]);
+                return ptDst;
+            }
+            return new Point2D.Double(xy[0], xy[1]);
+        }
+
+        /** Transforms the (<var>&lambda;</var>,<var>&phi;</var>) coordinates in place. */
+        @Override
+        protected void transformNormalized(final double[] pts, final int offset, final int numPts)
+                throws ProjectionException {
+            ProjectionException failure = null;
+            for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+                final double x = pts[i];
+                final double y = pts[i + 1];
+                try {
+                    sphericalTransform(x, y, pts, i);
+                } catch (ProjectionException exception) {
+                    pts[i] = pts[i + 1] = Double.NaN;
+                    if (failure == null) {
+                        failure = exception;
+                    }
+                    continue;
+                }
+                // Compare with the ellipsoidal formulas.
+                assert checkTransform(
+                        pts[i],
+                        pts[i + 1],
+                        super.transformNormalized(x, y, null),
+                        getToleranceForSphereAssertions(x));
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /**
+         * Transforms the (<var>&lambda;</var>,<var>&phi;</var>) coordinates using the equations
+         * for a sphere, and stores the result in {@code dst} at the given index.
+         */
+        private void sphericalTransform(
+                final double x, final double y, final double[] dst, final int index)
+                throws ProjectionException {
             double cosphi = cos(y);
             double b = cosphi * sin(x);
             if (abs(abs(b) - 1.0) <= EPSILON) {
@@ -283,38 +382,60 @@ protected Point2D transformNormalized(double x, double y, Point2D ptDst)
 
             // Using Snyder's equation for calculating y, instead of the one used in Proj4
             // poential problems when y and x = 90 degrees, but behaves ok in tests
-            y = atan2(tan(y), cos(x)) - latitudeOfOrigin; /* Snyder 8-3 */
-            x = 0.5 * log((1.0 + b) / (1.0 - b)); /* Snyder 8-1 */
+            dst[index + 1] = atan2(tan(y), cos(x)) - latitudeOfOrigin; /* Snyder 8-3 */
+            dst[index] = 0.5 * log((1.0 + b) / (1.0 - b)); /* Snyder 8-1 */
+        }
 
-            assert checkTransform(
-                    x, y, ptDst, getToleranceForSphereAssertions(normalizedLongitude));
+        /** {@inheritDoc} */
+        @Override
+        protected Point2D inverseTransformNormalized(double x, double y, Point2D ptDst)
+                throws ProjectionException {
+            final double[] xy = new double[2];
+            sphericalInverseTransform(x, y, xy, 0);
+
+            // Compare with the ellipsoidal formulas.
+            assert checkInverseTransform(
+                    xy[0],
+                    xy[1],
+                    super.inverseTransformNormalized(x, y, null),
+                    getToleranceForSphereAssertions(xy[0]));
             if (ptDst != null) {
-                ptDst.setLocation(x, y);
+                ptDst.setLocation(xy[0], xy[1]);
                 return ptDst;
             }
-            return new Point2D.Double(x, y);
+            return new Point2D.Double(xy[0], xy[1]);
         }
 
-        /** {@inheritDoc} */
+        /** Transforms the (<var>x</var>,<var>y</var>) coordinates in place. */
         @Override
-        protected Point2D inverseTransformNormalized(double x, double y, Point2D ptDst)
+        protected void inverseTransformNormalized(
+                final double[] pts, final int offset, final int numPts)
                 throws ProjectionException {
-            // Compute using ellipsoidal formulas, for comparaison later.
-            assert (ptDst = super.inverseTransformNormalized(x, y, ptDst)) != null;
+            for (int i = offset, end = offset + 2 * numPts; i < end; i += 2) {
+                final double x = pts[i];
+                final double y = pts[i + 1];
+                sphericalInverseTransform(x, y, pts, i);
+                // Compare with the ellipsoidal formulas.
+                assert checkInverseTransform(
+                        pts[i],
+                        pts[i + 1],
+                        super.inverseTransformNormalized(x, y, null),
+                        getToleranceForSphereAssertions(pts[i]));
+            }
+        }
 
+        /**
+         * Transforms the (<var>x</var>,<var>y</var>) coordinates using the equations for a
+         * sphere, and stores the result in {@code dst} at the given index.
+         */
+        private void sphericalInverseTransform(
+                final double x, final double y, final double[] dst, final int index) {
             double sinhX = sinh(x);
             double cosD = cos(latitudeOfOrigin + y);
             double phi = asin(sqrt((1.0 - cosD * cosD) / (1.0 + sinhX * sinhX)));
             // correct for the fact that we made everything positive using sqrt(x*x)
-            y = ((y + latitudeOfOrigin) < 0.0) ? -phi : phi;
-            x = (abs(sinhX) <= EPSILON && abs(cosD) <= EPSILON) ? 0.0 : atan2(sinhX, cosD);
-
-            assert checkInverseTransform(x, y, ptDst, getToleranceForSphereAssertions(x));
-            if (ptDst != null) {
-                ptDst.setLocation(x, y);
-                return ptDst;
-            }
-            return new Point2D.Double(x, y);
+            dst[index + 1] = ((y + latitudeOfOrigin) < 0.0) ? -phi : phi;
+            dst[index] = (abs(sinhX) <= EPSILON && abs(cosD) <= EPSILON) ? 0.0 : atan2(sinhX, cosD);
         }
 
         /**
@@ -263,52 +263,55 @@ public int getTargetDimensions() {
     public void transform(
             final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
             throws TransformException {
-        int step = 0;
-
-        if ((srcPts == dstPts)
-                && (srcOff < dstOff)
-                && ((srcOff + (numPts * getSourceDimensions())) > dstOff)) {
-            step = -getSourceDimensions();
-            srcOff -= ((numPts - 1) * step);
-            dstOff -= ((numPts - 1) * step);
-        }
-
-        while (--numPts >= 0) {
-            double x = srcPts[srcOff++];
-            double y = srcPts[srcOff++];
+        // copy the points, so that overlapping source and destination are not an issue
+        final double[] points = new double[numPts * 2];
+        System.arraycopy(srcPts, srcOff, points, 0, points.length);
+
+        // compute the position of the points in the grid, up to the first one outside of it
+        final double[] gridPts = new double[points.length];
+        TransformException failure = null;
+        int count = 0;
+        for (; count < numPts; count++) {
+            final double x = points[2 * count];
+            final double y = points[2 * count + 1];
 
             // check bounding box
             if (((x < grid.getMinX()) || (x > grid.getMaxX()))
                     || ((y < grid.getMinY()) || (y > grid.getMaxY()))) {
-                throw new TransformException(
-                        "Point ("
-                                + x
-                                + " "
-                                + y
-                                + ") is not outside of (("
-                                + grid.getMinX()
-                                + " "
-                                + grid.getMinY()
-                                + ")("
-                                + grid.getMaxX()
-                                + " "
-                                + grid.getMaxY()
-                                + "))");
+                failure =
+                        new TransformException(
+                                "Point ("
+                                        + x
+                                        + " "
+                                        + y
+                                        + ") is not outside of (("
+                                        + grid.getMinX()
+                                        + " "
+                                        + grid.getMinY()
+                                        + ")("
+                                        + grid.getMaxX()
+                                        + " "
+                                        + grid.getMaxY()
+                                        + "))");
+                break;
             }
 
             // find the grid the point is in (index is 0 based)
-            final double xgrid = (x - grid.getMinX()) / grid.getDx();
-            final double ygrid = (y - grid.getMinY()) / grid.getDy();
-            double[] array = {xgrid, ygrid};
+            gridPts[2 * count] = (x - grid.getMinX()) / grid.getDx();
+            gridPts[2 * count + 1] = (y - grid.getMinY()) / grid.getDy();
+        }
 
-            // use the LocalizationGridTransform2D transform method (bilineal interpolation)
-            // returned shift values are in seconds, longitude shift values are + west
-            gridShiftTransform.transform(array, 0, array, 0, 1);
+        // use the LocalizationGridTransform2D transform method (bilineal interpolation)
+        // on all the points at once. Returned shift values are in seconds, longitude shift
+        // values are + west
+        gridShiftTransform.transform(gridPts, 0, gridPts, 0, count);
 
-            dstPts[dstOff++] = x - (array[0] / SEC_2_DEG);
-            dstPts[dstOff++] = y + (array[1] / SEC_2_DEG);
-            srcOff += step;
-            dstOff += step;
+        for (int i = 0; i < 2 * count; i += 2) {
+            dstPts[dstOff++] = points[i] - (gridPts[i] / SEC_2_DEG);
+            dstPts[dstOff++] = points[i + 1] + (gridPts[i + 1] / SEC_2_DEG);
+        }
+        if (failure != null) {
+            throw failure;
         }
     }
 
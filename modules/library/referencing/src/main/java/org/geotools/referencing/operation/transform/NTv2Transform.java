@@ -45,6 +45,7 @@
 import org.geotools.referencing.ReferencingFactoryFinder;
 import org.geotools.referencing.factory.gridshift.GridShiftLocator;
 import org.geotools.referencing.factory.gridshift.NTv2GridShiftFactory;
+import org.geotools.referencing.factory.gridshift.NTv2MappedGrid;
 import org.geotools.referencing.operation.MathTransformProvider;
 import org.geotools.util.Utilities;
 import org.geotools.util.logging.Logging;
@@ -77,6 +78,9 @@ public class NTv2Transform extends AbstractMathTransform implements MathTransfor
     /** The grid shift to be used */
     private GridShiftFile gridShift;
 
+    /** The memory mapped grid, used instead of {@link #gridShift} when the grid is a local file */
+    private transient NTv2MappedGrid mappedGrid;
+
     /** The factory that loads the grid shift files */
     private static NTv2GridShiftFactory FACTORY = new NTv2GridShiftFactory();
 
@@ -220,6 +224,23 @@ private void bidirectionalTransform(
 
         boolean shifted;
 
+        if (mappedGrid == null && gridShift == null) {
+            // map the grid when possible, it's opened faster and does not use heap
+            mappedGrid = FACTORY.createMappedNTv2Grid(gridLocation);
+        }
+        if (mappedGrid != null) {
+            int skipped = mappedGrid.transform(srcPts, srcOff, dstPts, dstOff, numPts, forward);
+            if (skipped > 0 && LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(
+                        Level.FINE,
+                        skipped
+                                + " points are not covered by '"
+                                + this.grid
+                                + "' NTv2 grid, they will not be shifted.");
+            }
+            return;
+        }
+
         if (gridShift == null) { // Create grid when first needed.
             try {
                 gridShift = FACTORY.createNTv2Grid(gridLocation);
@@ -0,0 +1,184 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.factory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotools.api.metadata.citation.Citation;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.IdentifiedObject;
+import org.geotools.api.referencing.NoSuchAuthorityCodeException;
+import org.geotools.api.referencing.crs.CRSAuthorityFactory;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.api.util.InternationalString;
+import org.geotools.metadata.iso.citation.Citations;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.referencing.cs.DefaultEllipsoidalCS;
+import org.geotools.referencing.datum.DefaultGeodeticDatum;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BufferedAuthorityFactoryTest {
+
+    /** A backing store creating geographic CRS slowly, counting the creations */
+    static class SlowFactory extends AbstractAuthorityFactory implements CRSAuthorityFactory {
+
+        final AtomicInteger created = new AtomicInteger();
+
+        SlowFactory() {
+            super(NORMAL_PRIORITY);
+        }
+
+        @Override
+        public Citation getAuthority() {
+            return Citations.fromName("TEST");
+        }
+
+        @Override
+        public Set<String> getAuthorityCodes(Class<? extends IdentifiedObject> type) {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public InternationalString getDescriptionText(String code) {
+            return null;
+        }
+
+        @Override
+        public IdentifiedObject createObject(String code) throws FactoryException {
+            created.incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                throw new FactoryException(e);
+            }
+            if (code.equals("unknown")) {
+                throw new NoSuchAuthorityCodeException("Unknown code", "TEST", code);
+            }
+            return new DefaultGeographicCRS(
+                    code, DefaultGeodeticDatum.WGS84, DefaultEllipsoidalCS.GEODETIC_2D);
+        }
+    }
+
+    static class Buffered extends BufferedAuthorityFactory implements CRSAuthorityFactory {
+        Buffered(AbstractAuthorityFactory factory, int maxStrongReferences) {
+            super(factory, maxStrongReferences);
+        }
+    }
+
+    SlowFactory backingStore;
+
+    Buffered factory;
+
+    @Before
+    public void setUp() {
+        backingStore = new SlowFactory();
+        factory = new Buffered(backingStore, 2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        factory.dispose();
+    }
+
+    @Test
+    public void testCached() throws Exception {
+        CoordinateReferenceSystem crs = factory.createCoordinateReferenceSystem("1");
+        assertSame(crs, factory.createCoordinateReferenceSystem("1"));
+        assertSame(crs, factory.createObject("1"));
+        assertEquals(1, backingStore.created.get());
+        assertEquals(1, factory.getCacheMisses());
+        assertEquals(2, factory.getCacheHits());
+
+        // more objects than the strong references, all still reachable from here
+        List<CoordinateReferenceSystem> others = new ArrayList<>();
+        for (int i = 2; i < 10; i++) {
+            others.add(factory.createCoordinateReferenceSystem(String.valueOf(i)));
+        }
+        for (int i = 2; i < 10; i++) {
+            assertSame(
+                    others.get(i - 2), factory.createCoordinateReferenceSystem(String.valueOf(i)));
+        }
+        assertSame(crs, factory.createCoordinateReferenceSystem("1"));
+        assertEquals(9, backingStore.created.get());
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<CoordinateReferenceSystem>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(
+                        executor.submit(
+                                () -> {
+                                    start.await();
+                                    return factory.createCoordinateReferenceSystem("1");
+                                }));
+            }
+            start.countDown();
+            CoordinateReferenceSystem crs = results.get(0).get();
+            for (Future<CoordinateReferenceSystem> result : results) {
+                assertSame(crs, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, backingStore.created.get());
+        assertEquals(1, factory.getCacheMisses());
+        assertEquals(threads - 1, factory.getCacheHits());
+    }
+
+    @Test
+    public void testFailuresNotCached() throws Exception {
+        for (int i = 1; i <= 2; i++) {
+            try {
+                factory.createCoordinateReferenceSystem("unknown");
+                fail("Should have failed creating an unknown code");
+            } catch (NoSuchAuthorityCodeException e) {
+                assertEquals(i, backingStore.created.get());
+            }
+        }
+        assertEquals(0, factory.getCacheHits());
+    }
+
+    @Test
+    public void testDispose() throws Exception {
+        factory.createCoordinateReferenceSystem("1");
+        factory.dispose();
+        try {
+            factory.createCoordinateReferenceSystem("1");
+            fail("The backing store has been disposed");
+        } catch (FactoryException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.factory.gridshift;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import au.com.objectix.jgridshift.GridShift;
+import au.com.objectix.jgridshift.GridShiftFile;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import org.geotools.util.URLs;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Checks the {@link NTv2MappedGrid} shifts match the ones of the jgridshift in memory grids */
+public class NTv2MappedGridTest {
+
+    private static final URL TEST_GRID = NTv2MappedGridTest.class.getResource("BALR2009.gsb");
+
+    private static final URL MALFORMED_GRID =
+            NTv2MappedGridTest.class.getResource("malformedNTv2grid.gsb");
+
+    private GridShiftFile reference;
+
+    private NTv2MappedGrid grid;
+
+    @Before
+    public void setUp() throws Exception {
+        reference = new GridShiftFile();
+        try (InputStream in = TEST_GRID.openStream()) {
+            reference.loadGridShiftFile(in, false);
+        }
+        grid = NTv2MappedGrid.open(URLs.urlToFile(TEST_GRID));
+    }
+
+    /** A grid of points around the Balearic islands, partly outside of the grid coverage */
+    private static double[] points() {
+        int size = 30;
+        double[] points = new double[2 * size * size];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                points[k++] = 0.5 + 4.5 * i / (size - 1);
+                points[k++] = 38 + 2.5 * j / (size - 1);
+            }
+        }
+        return points;
+    }
+
+    private void assertMatches(boolean forward) throws Exception {
+        double[] points = points();
+        double[] shifted = new double[points.length + 2];
+        int skipped = grid.transform(points, 0, shifted, 2, points.length / 2, forward);
+
+        int expectedSkipped = 0;
+        GridShift shift = new GridShift();
+        for (int i = 0; i < points.length; i += 2) {
+            shift.setLonPositiveEastDegrees(points[i]);
+            shift.setLatDegrees(points[i + 1]);
+            boolean covered =
+                    forward ? reference.gridShiftForward(shift) : reference.gridShiftReverse(shift);
+            double x = points[i];
+            double y = points[i + 1];
+            if (covered) {
+                x = shift.getShiftedLonPositiveEastDegrees();
+                y = shift.getShiftedLatDegrees();
+            } else {
+                expectedSkipped++;
+            }
+            assertEquals("Longitude at " + i, x, shifted[i + 2], 1e-7);
+            assertEquals("Latitude at " + i, y, shifted[i + 3], 1e-7);
+        }
+        assertEquals(expectedSkipped, skipped);
+        assertTrue(skipped > 0 && skipped < points.length / 2);
+    }
+
+    @Test
+    public void testForward() throws Exception {
+        assertMatches(true);
+    }
+
+    @Test
+    public void testReverse() throws Exception {
+        assertMatches(false);
+    }
+
+    @Test
+    public void testInPlace() throws Exception {
+        double[] points = points();
+        double[] expected = new double[points.length];
+        grid.transform(points, 0, expected, 0, points.length / 2, true);
+        grid.transform(points, 0, points, 0, points.length / 2, true);
+        for (int i = 0; i < points.length; i++) {
+            assertEquals(expected[i], points[i], 0);
+        }
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        try {
+            NTv2MappedGrid.open(URLs.urlToFile(MALFORMED_GRID));
+            fail("Should have failed reading a malformed grid");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFactoryCache() throws Exception {
+        NTv2GridShiftFactory factory = new NTv2GridShiftFactory();
+        NTv2MappedGrid mapped = factory.createMappedNTv2Grid(TEST_GRID);
+        assertNotNull(mapped);
+        assertSame(mapped, factory.createMappedNTv2Grid(TEST_GRID));
+
+        // only local files are mapped
+        assertNull(factory.createMappedNTv2Grid(null));
+        URL jar = new URL("jar:" + new File("grids.jar").toURI() + "!/BALR2009.gsb");
+        assertNull(factory.createMappedNTv2Grid(jar));
+        assertNull(factory.createMappedNTv2Grid(MALFORMED_GRID));
+    }
+}
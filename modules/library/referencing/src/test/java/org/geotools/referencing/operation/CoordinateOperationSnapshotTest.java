@@ -0,0 +1,131 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.operation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CoordinateOperationSnapshotTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        CRS.reset("all");
+        CoordinateOperationSnapshot.clear();
+        CoordinateOperationSnapshot.setRecording(true);
+    }
+
+    @After
+    public void tearDown() {
+        CoordinateOperationSnapshot.setRecording(false);
+        CoordinateOperationSnapshot.clear();
+    }
+
+    @Test
+    public void testRecordingDisabled() throws Exception {
+        CoordinateOperationSnapshot.setRecording(false);
+        CRS.findMathTransform(CRS.decode("EPSG:42101"), CRS.decode("EPSG:5684"), true);
+        assertTrue(CoordinateOperationSnapshot.RECORDED.isEmpty());
+    }
+
+    @Test
+    public void testSaveAndWarm() throws Exception {
+        CoordinateReferenceSystem wgs84 = CRS.decode("EPSG:42101");
+        CoordinateReferenceSystem dbRef = CRS.decode("EPSG:5684");
+        CRS.findMathTransform(wgs84, dbRef, true);
+        CRS.findMathTransform(dbRef, wgs84, true);
+        // the cached operations are recorded once
+        CRS.findMathTransform(wgs84, dbRef, true);
+        // operations involving a CRS without identifiers are not recorded
+        CRS.findMathTransform(wgs84, DefaultGeographicCRS.WGS84, true);
+        assertEquals(2, CoordinateOperationSnapshot.RECORDED.size());
+        assertTrue(
+                CoordinateOperationSnapshot.RECORDED.contains(
+                        "EPSG:42101\tfalse\tEPSG:5684\tfalse\ttrue"));
+
+        File file = folder.newFile("operations.txt");
+        assertEquals(2, CoordinateOperationSnapshot.save(file));
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        assertEquals(4, lines.size());
+        assertEquals(CoordinateOperationSnapshot.HEADER, lines.get(0));
+        assertTrue(lines.contains("EPSG:42101\tfalse\tEPSG:5684\tfalse\ttrue"));
+
+        // a new JVM, the operations are created again while warming up
+        CRS.reset("all");
+        CoordinateOperationSnapshot.clear();
+        assertEquals(2, CoordinateOperationSnapshot.warm(file, 2));
+        assertEquals(2, CoordinateOperationSnapshot.RECORDED.size());
+    }
+
+    @Test
+    public void testWarmSkipsInvalidOperations() throws Exception {
+        File file = folder.newFile("operations.txt");
+        write(
+                file,
+                CoordinateOperationSnapshot.HEADER,
+                CoordinateOperationSnapshot.EDITION + CoordinateOperationSnapshot.getEdition(),
+                "EPSG:42101\tfalse\tEPSG:5684\tfalse\ttrue",
+                "EPSG:42101\tfalse\tEPSG:5684\tfalse\tfalse",
+                "EPSG:42101\tfalse\tEPSG:-1\tfalse\ttrue");
+        assertEquals(1, CoordinateOperationSnapshot.warm(file, 2));
+    }
+
+    @Test
+    public void testOtherEdition() throws Exception {
+        File file = folder.newFile("operations.txt");
+        write(
+                file,
+                CoordinateOperationSnapshot.HEADER,
+                CoordinateOperationSnapshot.EDITION + "0.0-other",
+                "EPSG:42101\tfalse\tEPSG:5684\tfalse\ttrue");
+        assertEquals(0, CoordinateOperationSnapshot.warm(file, 2));
+        assertEquals(0, CoordinateOperationSnapshot.warm(new File(folder.getRoot(), "none"), 2));
+    }
+
+    @Test
+    public void testInvalidFile() throws Exception {
+        File file = folder.newFile("operations.txt");
+        write(file, "something else");
+        try {
+            CoordinateOperationSnapshot.warm(file, 2);
+            fail("Should have failed reading an invalid snapshot");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static void write(File file, String... lines) throws IOException {
+        Files.write(file.toPath(), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+}
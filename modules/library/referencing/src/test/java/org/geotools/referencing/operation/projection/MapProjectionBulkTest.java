@@ -0,0 +1,219 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.referencing.operation.projection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.awt.geom.Point2D;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.geotools.api.parameter.ParameterValueGroup;
+import org.geotools.api.referencing.operation.MathTransform;
+import org.geotools.api.referencing.operation.MathTransform2D;
+import org.geotools.api.referencing.operation.MathTransformFactory;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.referencing.ReferencingFactoryFinder;
+import org.junit.Test;
+
+/**
+ * Checks the array based transforms of the {@link MapProjection} subclasses having a bulk
+ * implementation give the same results as the point based ones.
+ */
+public class MapProjectionBulkTest {
+
+    static final double WGS84_A = 6378137.0;
+
+    static final double WGS84_B = 6356752.314245179;
+
+    MathTransformFactory mtFactory = ReferencingFactoryFinder.getMathTransformFactory(null);
+
+    private MathTransform2D create(String name, boolean spherical, Object... params)
+            throws Exception {
+        ParameterValueGroup parameters = mtFactory.getDefaultParameters(name);
+        parameters.parameter("semi_major").setValue(WGS84_A);
+        parameters.parameter("semi_minor").setValue(spherical ? WGS84_A : WGS84_B);
+        for (int i = 0; i < params.length; i += 2) {
+            parameters.parameter((String) params[i]).setValue((Double) params[i + 1]);
+        }
+        MathTransform transform = mtFactory.createParameterizedTransform(parameters);
+        assertTrue(transform instanceof MapProjection);
+        return (MathTransform2D) transform;
+    }
+
+    /** The projections under test, with a geographic area where they are valid */
+    private Map<MathTransform2D, double[]> projections() throws Exception {
+        Map<MathTransform2D, double[]> projections = new LinkedHashMap<>();
+        double[] utm = {-3, 45, 15, 60};
+        for (boolean spherical : new boolean[] {false, true}) {
+            projections.put(
+                    create(
+                            "Transverse_Mercator",
+                            spherical,
+                            "central_meridian",
+                            3.0,
+                            "scale_factor",
+                            0.9996,
+                            "false_easting",
+                            500000.0),
+                    utm);
+            projections.put(
+                    create("Mercator_1SP", spherical, "central_meridian", 10.0),
+                    new double[] {-170, -80, 170, 80});
+            projections.put(
+                    create(
+                            "Lambert_Conformal_Conic_2SP",
+                            spherical,
+                            "standard_parallel_1",
+                            44.0,
+                            "standard_parallel_2",
+                            49.0,
+                            "latitude_of_origin",
+                            46.5,
+                            "central_meridian",
+                            3.0,
+                            "false_easting",
+                            700000.0,
+                            "false_northing",
+                            6600000.0),
+                    new double[] {-5, 40, 10, 52});
+            projections.put(
+                    create(
+                            "Albers_Conic_Equal_Area",
+                            spherical,
+                            "standard_parallel_1",
+                            29.5,
+                            "standard_parallel_2",
+                            45.5,
+                            "latitude_of_origin",
+                            23.0,
+                            "central_meridian",
+                            -96.0),
+                    new double[] {-125, 25, -65, 50});
+        }
+        return projections;
+    }
+
+    /** A grid of points covering the area, as (longitude, latitude) pairs */
+    private static double[] grid(double[] area, int size) {
+        double[] points = new double[2 * size * size];
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                points[k++] = area[0] + (area[2] - area[0]) * i / (size - 1);
+                points[k++] = area[1] + (area[3] - area[1]) * j / (size - 1);
+            }
+        }
+        return points;
+    }
+
+    /** Transforms the points one by one, the reference for the bulk results */
+    private static double[] transformPoints(MathTransform2D transform, double[] points)
+            throws TransformException {
+        double[] result = new double[points.length];
+        Point2D.Double point = new Point2D.Double();
+        for (int i = 0; i < points.length; i += 2) {
+            point.setLocation(points[i], points[i + 1]);
+            transform.transform(point, point);
+            result[i] = point.x;
+            result[i + 1] = point.y;
+        }
+        return result;
+    }
+
+    private static void assertArrayEquals(
+            String message, double[] expected, int offset, double[] actual, double tolerance) {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(message + " at " + i, expected[i], actual[offset + i], tolerance);
+        }
+    }
+
+    @Test
+    public void testBulkMatchesPoints() throws Exception {
+        for (Map.Entry<MathTransform2D, double[]> entry : projections().entrySet()) {
+            MathTransform2D transform = entry.getKey();
+            String name = transform.getClass().getName();
+            double[] geographic = grid(entry.getValue(), 20);
+
+            double[] expected = transformPoints(transform, geographic);
+            double[] projected = new double[geographic.length];
+            transform.transform(geographic, 0, projected, 0, geographic.length / 2);
+            assertArrayEquals(name, expected, 0, projected, 1e-6);
+
+            MathTransform2D inverse = transform.inverse();
+            double[] expectedInverse = transformPoints(inverse, projected);
+            double[] inverted = new double[projected.length];
+            inverse.transform(projected, 0, inverted, 0, projected.length / 2);
+            assertArrayEquals(name, expectedInverse, 0, inverted, 1e-9);
+            assertArrayEquals(name, geographic, 0, inverted, 1e-7);
+        }
+    }
+
+    @Test
+    public void testOffsetsAndOverlaps() throws Exception {
+        MathTransform2D transform = create("Transverse_Mercator", false, "central_meridian", 3.0);
+        double[] geographic = grid(new double[] {-3, 45, 9, 55}, 5);
+        double[] expected = transformPoints(transform, geographic);
+        int n = geographic.length / 2;
+
+        // with offsets in a different array
+        double[] target = new double[geographic.length + 6];
+        transform.transform(geographic, 0, target, 6, n);
+        assertArrayEquals("offset", expected, 6, target, 1e-6);
+
+        // in place
+        double[] points = geographic.clone();
+        transform.transform(points, 0, points, 0, n);
+        assertArrayEquals("in place", expected, 0, points, 1e-6);
+
+        // overlapping, target before the source
+        points = new double[geographic.length + 4];
+        System.arraycopy(geographic, 0, points, 4, geographic.length);
+        transform.transform(points, 4, points, 0, n);
+        assertArrayEquals("backward overlap", expected, 0, points, 1e-6);
+
+        // overlapping, target after the source
+        points = new double[geographic.length + 4];
+        System.arraycopy(geographic, 0, points, 0, geographic.length);
+        transform.transform(points, 0, points, 4, n);
+        assertArrayEquals("forward overlap", expected, 4, points, 1e-6);
+
+        // the inverse, in place
+        transform.inverse().transform(points, 4, points, 4, n);
+        assertArrayEquals("inverse", geographic, 4, points, 1e-7);
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        MathTransform2D transform = create("Mercator_1SP", false);
+        double[] points = {10, 20, 30, 90, 40, 50, 60, -90};
+        double[] expected = transformPoints(transform, new double[] {10, 20, 40, 50});
+        try {
+            transform.transform(points, 0, points, 0, 4);
+            fail("Should have failed projecting the poles");
+        } catch (ProjectionException e) {
+            // expected, the other points are projected anyway
+        }
+        assertEquals(expected[0], points[0], 1e-6);
+        assertEquals(expected[1], points[1], 1e-6);
+        assertTrue(Double.isNaN(points[2]) && Double.isNaN(points[3]));
+        assertEquals(expected[2], points[4], 1e-6);
+        assertEquals(expected[3], points[5], 1e-6);
+        assertTrue(Double.isNaN(points[6]) && Double.isNaN(points[7]));
+    }
+}
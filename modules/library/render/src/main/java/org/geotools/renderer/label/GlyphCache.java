@@ -0,0 +1,177 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.label;
+
+import java.awt.Font;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Rectangle2D;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, least recently used cache of laid out glyphs, keyed by font, text and font render
+ * context. Dense layers tend to repeat the same texts (street names, POI categories) over and
+ * over, the cache allows to lay them out once and to share the per glyph outlines and bounds used
+ * during conflict resolution among all the labels.
+ */
+class GlyphCache {
+
+    /** Default number of cached texts */
+    static final int DEFAULT_SIZE = 4096;
+
+    /**
+     * A glyph vector along with its lazily computed glyph outlines and bounds. The glyph vector
+     * and the shapes are shared, and must not be modified.
+     */
+    static class Glyphs {
+
+        final GlyphVector gv;
+
+        Shape[] outlines;
+
+        Shape[] logicalBounds;
+
+        Rectangle2D visualBounds;
+
+        Glyphs(GlyphVector gv) {
+            this.gv = gv;
+        }
+
+        /** The outline of the specified glyph */
+        synchronized Shape getGlyphOutline(int g) {
+            if (outlines == null) {
+                outlines = new Shape[gv.getNumGlyphs()];
+            }
+            Shape outline = outlines[g];
+            if (outline == null) {
+                outline = outlines[g] = gv.getGlyphOutline(g);
+            }
+            return outline;
+        }
+
+        /** The logical bounds of the specified glyph */
+        synchronized Shape getGlyphLogicalBounds(int g) {
+            if (logicalBounds == null) {
+                logicalBounds = new Shape[gv.getNumGlyphs()];
+            }
+            Shape bounds = logicalBounds[g];
+            if (bounds == null) {
+                bounds = logicalBounds[g] = gv.getGlyphLogicalBounds(g);
+            }
+            return bounds;
+        }
+
+        /** The visual bounds of the whole glyph vector */
+        synchronized Rectangle2D getVisualBounds() {
+            if (visualBounds == null) {
+                visualBounds = gv.getVisualBounds();
+            }
+            return visualBounds;
+        }
+    }
+
+    static class Key {
+        final Font font;
+
+        final String text;
+
+        final FontRenderContext frc;
+
+        Key(Font font, String text, FontRenderContext frc) {
+            this.font = font;
+            this.text = text;
+            this.frc = frc;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return text.equals(other.text)
+                    && Objects.equals(font, other.font)
+                    && Objects.equals(frc, other.frc);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(font, text, frc);
+        }
+    }
+
+    private final Map<Key, Glyphs> cache;
+
+    private long hits;
+
+    private long misses;
+
+    GlyphCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    GlyphCache(int maxSize) {
+        this.cache =
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Key, Glyphs> eldest) {
+                        return size() > maxSize;
+                    }
+                };
+    }
+
+    /**
+     * Returns the cached glyphs for the given font, text and font render context, using the
+     * layout function to build them if missing. The layout happens outside of the lock, so that
+     * labels can be laid out in parallel, in case of a race the first glyphs cached win.
+     */
+    Glyphs get(Font font, String text, FontRenderContext frc, Supplier<GlyphVector> layout) {
+        Key key = new Key(font, text, frc);
+        synchronized (this) {
+            Glyphs glyphs = cache.get(key);
+            if (glyphs != null) {
+                hits++;
+                return glyphs;
+            }
+            misses++;
+        }
+        Glyphs glyphs = new Glyphs(layout.get());
+        synchronized (this) {
+            Glyphs previous = cache.putIfAbsent(key, glyphs);
+            return previous != null ? previous : glyphs;
+        }
+    }
+
+    synchronized int size() {
+        return cache.size();
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized void clear() {
+        cache.clear();
+    }
+}
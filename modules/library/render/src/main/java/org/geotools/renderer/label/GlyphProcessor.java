@@ -17,6 +17,7 @@
 package org.geotools.renderer.label;
 
 import java.awt.Rectangle;
+import java.awt.Shape;
 import java.awt.font.GlyphVector;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
@@ -43,6 +44,15 @@ public GlyphProcessor(LabelPainter painter) {
      */
     public abstract boolean process(GlyphVector glyphVector, int g, AffineTransform tx, char c);
 
+    /**
+     * Process a glyph of a line component. Delegates to {@link #process(GlyphVector, int,
+     * AffineTransform, char)} by default, processors can override it to use the glyph shapes
+     * cached by the component instead.
+     */
+    boolean process(LineInfo.LineComponent component, int g, AffineTransform tx, char c) {
+        return process(component.getGlyphVector(), g, tx, c);
+    }
+
     /** Processor used to paint the bounds a glyph */
     public static class BoundsPainter extends GlyphProcessor {
 
@@ -52,9 +62,17 @@ public BoundsPainter(LabelPainter painter) {
 
         @Override
         public boolean process(GlyphVector glyphVector, int g, AffineTransform tx, char c) {
+            return paintBounds(glyphVector.getGlyphOutline(g), tx, c);
+        }
+
+        @Override
+        boolean process(LineInfo.LineComponent component, int g, AffineTransform tx, char c) {
+            return paintBounds(component.getGlyphOutline(g), tx, c);
+        }
+
+        private boolean paintBounds(Shape outline, AffineTransform tx, char c) {
             if (Character.isWhitespace(c)) return false;
-            painter.graphics.draw(
-                    tx.createTransformedShape(glyphVector.getGlyphOutline(g)).getBounds2D());
+            painter.graphics.draw(tx.createTransformedShape(outline).getBounds2D());
             return true;
         }
     }
@@ -89,12 +107,22 @@ public ConflictDetector(
 
         @Override
         public boolean process(GlyphVector glyphVector, int g, AffineTransform tx, char c) {
-            Rectangle2D labelEnvelope =
-                    tx.createTransformedShape(glyphVector.getGlyphLogicalBounds(g)).getBounds2D();
-            // try to paint the label, the condition under which this happens are complex
             // white space character does not conflict with other labels
             if (Character.isWhitespace(c)) return false;
-            else if ((displayArea.contains(labelEnvelope) || labelItem.isPartialsEnabled())
+            return conflicts(glyphVector.getGlyphLogicalBounds(g), tx);
+        }
+
+        @Override
+        boolean process(LineInfo.LineComponent component, int g, AffineTransform tx, char c) {
+            // white space character does not conflict with other labels
+            if (Character.isWhitespace(c)) return false;
+            return conflicts(component.getGlyphLogicalBounds(g), tx);
+        }
+
+        private boolean conflicts(Shape logicalBounds, AffineTransform tx) {
+            Rectangle2D labelEnvelope = tx.createTransformedShape(logicalBounds).getBounds2D();
+            // try to paint the label, the condition under which this happens are complex
+            if ((displayArea.contains(labelEnvelope) || labelItem.isPartialsEnabled())
                     && !(labelItem.isConflictResolutionEnabled()
                             && paintedBounds.labelsWithinDistance(labelEnvelope, extraSpace))
                     && !groupLabels.labelsWithinDistance(labelEnvelope, minDistance)) return false;
@@ -114,9 +142,17 @@ public IndexAdder(LabelPainter painter, LabelIndex index) {
 
         @Override
         public boolean process(GlyphVector glyphVector, int g, AffineTransform tx, char c) {
+            return addBounds(glyphVector.getGlyphOutline(g), tx, c);
+        }
+
+        @Override
+        boolean process(LineInfo.LineComponent component, int g, AffineTransform tx, char c) {
+            return addBounds(component.getGlyphOutline(g), tx, c);
+        }
+
+        private boolean addBounds(Shape outline, AffineTransform tx, char c) {
             if (Character.isWhitespace(c)) return false;
-            Rectangle2D labelEnvelope =
-                    tx.createTransformedShape(glyphVector.getGlyphOutline(g)).getBounds2D();
+            Rectangle2D labelEnvelope = tx.createTransformedShape(outline).getBounds2D();
             index.addLabel(labelItem, labelEnvelope);
             return true;
         }
@@ -47,7 +47,7 @@ public boolean process(GlyphProcessor processor, boolean stopIfTrue) {
                 for (int g = 0; g < glyphVector.getNumGlyphs(); g++, glyphCount++) {
                     char c = getChar(lineComponent, glyphVector, g);
                     // warning : do "process || ret", not "ret || process"
-                    ret = processor.process(glyphVector, g, transforms.get(glyphCount), c) || ret;
+                    ret = processor.process(lineComponent, g, transforms.get(glyphCount), c) || ret;
                     if (ret && stopIfTrue) return true;
                 }
             }
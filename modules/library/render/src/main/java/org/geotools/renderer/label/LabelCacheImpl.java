@@ -22,6 +22,7 @@
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
 import java.awt.font.GlyphVector;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
@@ -36,6 +37,8 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiFunction;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -105,6 +108,9 @@ public class LabelCacheImpl implements LabelCache {
     public static boolean DISABLE_LETTER_LEVEL_CONFLICT =
             Boolean.getBoolean("org.geotools.labelcache.disableLetterLevelConflict");
 
+    /** Minimum number of labels prepared by a single parallel task */
+    static final int MIN_PREPARE_TASK_SIZE = 64;
+
     public enum LabelRenderingMode {
         /**
          * Always uses {@link Graphics2D#drawGlyphVector(java.awt.font.GlyphVector, float, float)}
@@ -185,6 +191,12 @@ public enum LabelRenderingMode {
     private BiFunction<Graphics2D, LabelRenderingMode, LabelPainter> constructPainter =
             LabelPainter::new;
 
+    /** Laid out glyphs, shared among labels with the same text and font */
+    GlyphCache glyphCache = new GlyphCache();
+
+    private boolean parallelPreparation =
+            Boolean.getBoolean("org.geotools.labelcache.parallelPreparation");
+
     @Override
     public void enableLayer(String layerId) {
         needsOrdering = true;
@@ -200,6 +212,27 @@ public void setLabelRenderingMode(LabelRenderingMode mode) {
         this.labelRenderingMode = mode;
     }
 
+    /**
+     * When enabled, the labels are laid out and their candidate locations computed in parallel,
+     * before the conflict resolution pass. Conflict resolution and painting stay sequential and in
+     * priority order, so the output is the same as with a sequential preparation. Defaults to the
+     * value of the <code>org.geotools.labelcache.parallelPreparation</code> system variable.
+     *
+     * @since 31
+     */
+    public void setParallelPreparation(boolean parallelPreparation) {
+        this.parallelPreparation = parallelPreparation;
+    }
+
+    /**
+     * Returns true if labels are prepared in parallel before the conflict resolution pass
+     *
+     * @since 31
+     */
+    public boolean isParallelPreparation() {
+        return parallelPreparation;
+    }
+
     /**
      * Change the method used to construct LabelPainters. Defaults to {@link
      * LabelPainter#LabelPainter}.
@@ -581,9 +614,15 @@ void paintLabels(Graphics2D graphics, Rectangle displayArea) {
             items = getActiveLabels();
         }
         LabelPainter painter = constructPainter.apply(graphics, labelRenderingMode);
+        painter.setGlyphCache(glyphCache);
+        long start = System.nanoTime();
+        if (parallelPreparation && items.size() > MIN_PREPARE_TASK_SIZE) {
+            prepareLabels(items, displayArea, graphics.getFontRenderContext());
+        }
         for (LabelCacheItem labelItem : items) {
             if (stop) return;
 
+            labelItem.placementAttempts = 0;
             paintedLineLabels =
                     paintLabel(
                             graphics, displayArea, glyphs, paintedLineLabels, painter, labelItem);
@@ -592,6 +631,107 @@ void paintLabels(Graphics2D graphics, Rectangle displayArea) {
         LOGGER.log(Level.FINE, "TOTAL LINE LABELS : {0}", items.size());
         LOGGER.log(Level.FINE, "PAINTED LINE LABELS : {0}", paintedLineLabels);
         LOGGER.log(Level.FINE, "REMAINING LINE LABELS : {0}", items.size() - paintedLineLabels);
+        if (LOGGER.isLoggable(Level.FINE)) {
+            logPlacementStatistics(items, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Lays out the labels and computes their candidate locations using the fork join common pool.
+     * The results are stored in the label items and picked up by the sequential, priority ordered,
+     * conflict resolution pass. A label failing preparation is simply left alone, it will be
+     * prepared again while painting, where errors are reported to the listeners.
+     */
+    void prepareLabels(List<LabelCacheItem> items, Rectangle displayArea, FontRenderContext frc) {
+        int parallelism = ForkJoinPool.commonPool().getParallelism();
+        int taskSize = Math.max(MIN_PREPARE_TASK_SIZE, items.size() / (parallelism * 4) + 1);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += taskSize) {
+            List<LabelCacheItem> batch = items.subList(i, Math.min(items.size(), i + taskSize));
+            tasks.add(
+                    ForkJoinTask.adapt(
+                            () -> {
+                                // splitters are not thread safe, the glyph cache is
+                                LabelSplitter splitter = new LabelSplitter();
+                                splitter.glyphCache = glyphCache;
+                                for (LabelCacheItem item : batch) {
+                                    if (stop) return;
+                                    prepareLabel(item, displayArea, frc, splitter);
+                                }
+                            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+
+    private void prepareLabel(
+            LabelCacheItem item,
+            Rectangle displayArea,
+            FontRenderContext frc,
+            LabelSplitter splitter) {
+        try {
+            item.preparedLines = splitter.layout(item, frc);
+            Geometry geom = item.getGeometry();
+            if (((geom instanceof LineString) && !(geom instanceof LinearRing))
+                    || (geom instanceof MultiLineString)) {
+                item.preparedLineLocations =
+                        getLineSetRepresentativeLocation(
+                                item.getGeoms(),
+                                displayArea,
+                                item.removeGroupOverlaps(),
+                                item.isPartialsEnabled());
+                item.lineLocationsPrepared = true;
+            } else if ((geom instanceof Polygon || geom instanceof MultiPolygon)
+                    && item.getTextStyle().isPointPlacement()
+                    && !item.isFollowLineEnabled()) {
+                item.preparedPolygon =
+                        getPolySetRepresentativeLocation(
+                                item.getGeoms(), displayArea, item.isPartialsEnabled());
+                item.polygonPrepared = true;
+            }
+        } catch (RuntimeException e) {
+            item.clearPrepared();
+        }
+    }
+
+    /** Returns the candidate line locations of the label, prepared in advance if possible */
+    private List<LineString> getLineLocations(LabelCacheItem labelItem, Rectangle displayArea) {
+        if (labelItem.lineLocationsPrepared) {
+            List<LineString> lines = labelItem.preparedLineLocations;
+            labelItem.preparedLineLocations = null;
+            labelItem.lineLocationsPrepared = false;
+            return lines;
+        }
+        return getLineSetRepresentativeLocation(
+                labelItem.getGeoms(),
+                displayArea,
+                labelItem.removeGroupOverlaps(),
+                labelItem.isPartialsEnabled());
+    }
+
+    /** Logs the placement attempts and the time it took to paint the labels */
+    private void logPlacementStatistics(List<LabelCacheItem> items, long elapsed) {
+        long attempts = 0;
+        LabelCacheItem worst = null;
+        for (LabelCacheItem item : items) {
+            attempts += item.placementAttempts;
+            if (worst == null || item.placementAttempts > worst.placementAttempts) {
+                worst = item;
+            }
+        }
+        LOGGER.log(
+                Level.FINE,
+                "Painted {0} labels in {1} ms, {2} placement attempts",
+                new Object[] {items.size(), elapsed / 1000000, attempts});
+        if (worst != null) {
+            LOGGER.log(
+                    Level.FINE,
+                    "Most placement attempts: {0} for label \"{1}\"",
+                    new Object[] {worst.placementAttempts, worst.getLabel()});
+        }
+        LOGGER.log(
+                Level.FINE,
+                "Glyph cache: {0} texts, {1} hits, {2} misses",
+                new Object[] {glyphCache.size(), glyphCache.getHits(), glyphCache.getMisses()});
     }
 
     int paintLabel(
@@ -653,6 +793,9 @@ else if (((geom instanceof LineString) && !(geom instanceof LinearRing))
             for (RenderListener listener : renderListeners) {
                 listener.errorOccurred(e);
             }
+        } finally {
+            // in case a custom painter did not use the prepared layout
+            labelItem.clearPrepared();
         }
         return paintedLineLabels;
     }
@@ -742,12 +885,7 @@ private boolean paintLineLabelsWithLetterConflict(
             LabelIndex paintedBounds)
             throws Exception {
         final LabelCacheItem labelItem = painter.getLabel();
-        List<LineString> lines =
-                getLineSetRepresentativeLocation(
-                        labelItem.getGeoms(),
-                        displayArea,
-                        labelItem.removeGroupOverlaps(),
-                        labelItem.isPartialsEnabled());
+        List<LineString> lines = getLineLocations(labelItem, displayArea);
 
         if (lines == null || lines.isEmpty()) return false;
 
@@ -855,6 +993,7 @@ private boolean paintLineLabelsWithLetterConflict(
                     }
 
                     // We check each letters for collision
+                    labelItem.placementAttempts++;
                     boolean collision =
                             glyphVectorProcessor.process(
                                     new GlyphProcessor.ConflictDetector(
@@ -963,12 +1102,7 @@ private boolean paintLineLabels(
             LabelIndex paintedBounds)
             throws Exception {
         final LabelCacheItem labelItem = painter.getLabel();
-        List<LineString> lines =
-                getLineSetRepresentativeLocation(
-                        labelItem.getGeoms(),
-                        displayArea,
-                        labelItem.removeGroupOverlaps(),
-                        labelItem.isPartialsEnabled());
+        List<LineString> lines = getLineLocations(labelItem, displayArea);
 
         if (lines == null || lines.isEmpty()) return false;
 
@@ -1087,6 +1221,7 @@ private boolean paintLineLabels(
 
                     // try to paint the label, the condition under which this
                     // happens are complex
+                    labelItem.placementAttempts++;
                     if ((displayArea.contains(labelEnvelope) || labelItem.isPartialsEnabled())
                             && !(labelItem.isConflictResolutionEnabled()
                                     && paintedBounds.labelsWithinDistance(
@@ -1506,6 +1641,7 @@ private boolean paintPointLabelInternal(
         // check for overlaps and paint
         Rectangle2D transformed =
                 tempTransform.createTransformedShape(painter.getFullLabelBounds()).getBounds2D();
+        labelItem.placementAttempts++;
         if (!(displayArea.contains(transformed) || labelItem.isPartialsEnabled())
                 || (labelItem.isConflictResolutionEnabled()
                         && glyphs.labelsWithinDistance(transformed, labelItem.getSpaceAround()))) {
@@ -1579,9 +1715,16 @@ private boolean paintPolygonLabel(
             LabelIndex glyphs)
             throws Exception {
         LabelCacheItem labelItem = painter.getLabel();
-        Polygon geom =
-                getPolySetRepresentativeLocation(
-                        labelItem.getGeoms(), displayArea, labelItem.isPartialsEnabled());
+        Polygon geom;
+        if (labelItem.polygonPrepared) {
+            geom = labelItem.preparedPolygon;
+            labelItem.preparedPolygon = null;
+            labelItem.polygonPrepared = false;
+        } else {
+            geom =
+                    getPolySetRepresentativeLocation(
+                            labelItem.getGeoms(), displayArea, labelItem.isPartialsEnabled());
+        }
         if (geom == null) {
             return false;
         }
@@ -1708,6 +1851,7 @@ private boolean paintPolygonLabelInternal(
 
         Rectangle2D transformed =
                 tempTransform.createTransformedShape(painter.getFullLabelBounds()).getBounds2D();
+        labelItem.placementAttempts++;
         if (!(displayArea.contains(transformed) || labelItem.isPartialsEnabled())
                 || (labelItem.isConflictResolutionEnabled()
                         && glyphs.labelsWithinDistance(transformed, labelItem.getSpaceAround()))
@@ -1722,6 +1866,7 @@ private boolean paintPolygonLabelInternal(
                         tempTransform
                                 .createTransformedShape(painter.getFullLabelBounds())
                                 .getBounds2D();
+                labelItem.placementAttempts++;
                 if (!(displayArea.contains(transformed) || labelItem.isPartialsEnabled())
                         || (labelItem.isConflictResolutionEnabled()
                                 && glyphs.labelsWithinDistance(
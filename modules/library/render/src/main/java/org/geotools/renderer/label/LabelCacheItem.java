@@ -25,6 +25,8 @@
 import org.geotools.geometry.jts.LiteShape2;
 import org.geotools.renderer.style.TextStyle2D;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
 
 /**
  * The Labelling information that is put in the label cache.
@@ -105,6 +107,22 @@ public double getGoodnessOfFit() {
 
     TextSymbolizer.GraphicPlacement graphicPlacement;
 
+    /** Number of candidate placements checked against the label index while painting */
+    int placementAttempts;
+
+    /** Text layout computed ahead of painting, consumed by the first {@link LabelPainter} use */
+    List<LineInfo> preparedLines;
+
+    /** Candidate line locations computed ahead of painting, valid if lineLocationsPrepared */
+    List<LineString> preparedLineLocations;
+
+    boolean lineLocationsPrepared;
+
+    /** Candidate polygon computed ahead of painting, valid if polygonPrepared */
+    Polygon preparedPolygon;
+
+    boolean polygonPrepared;
+
     /**
      * A value between 0 and 1 representing the portion of the label that overlaps with the geometry
      * (atm used only for polygons)
@@ -184,6 +202,15 @@ public LabelCacheItem(
         this.fontShrinkSizeMin = other.fontShrinkSizeMin;
     }
 
+    /** Drops the results of the label preparation, if any */
+    void clearPrepared() {
+        preparedLines = null;
+        preparedLineLocations = null;
+        lineLocationsPrepared = false;
+        preparedPolygon = null;
+        polygonPrepared = false;
+    }
+
     /** Return a modifiable set of ids */
     public Set<String> getLayerIds() {
         return Collections.synchronizedSet(layerIds);
@@ -419,6 +446,16 @@ public void setGraphicPlacement(TextSymbolizer.GraphicPlacement graphicPlacement
         this.graphicPlacement = graphicPlacement;
     }
 
+    /**
+     * Returns the number of candidate placements that have been checked for conflicts while
+     * painting the label, useful to find out which labels are expensive to place
+     *
+     * @since 31
+     */
+    public int getPlacementAttempts() {
+        return placementAttempts;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
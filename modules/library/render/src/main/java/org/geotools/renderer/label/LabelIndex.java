@@ -17,7 +17,10 @@
 package org.geotools.renderer.label;
 
 import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.index.quadtree.Quadtree;
@@ -26,12 +29,44 @@
  * Stores label items and helps in finding the interferering ones, either by pure overlap or within
  * a certain distance from the specified bounds
  *
+ * <p>The workload is dominated by many small rectangles (glyphs and labels, a few pixels to a few
+ * hundred pixels wide) inserted and queried in a tight loop, so small items are bucketed in a
+ * uniform grid of cells, a lookup being a handful of hash accesses and a short linear scan. Items
+ * spanning many cells (reserved areas, big labels) are kept in a quadtree instead, to avoid
+ * duplicating them in a large number of cells.
+ *
  * @author Andrea Aime
  */
 public class LabelIndex {
 
+    /** The default size of the grid cells, in pixels */
+    static final double DEFAULT_CELL_SIZE = 64;
+
+    /** Items spanning more than this number of cells, on either axis, go in the quadtree */
+    static final int MAX_CELL_SPAN = 4;
+
+    final double cellSize;
+
+    /** The small items, by cell. An item is registered in all the cells it overlaps */
+    final Map<Long, List<InterferenceItem>> cells = new HashMap<>();
+
+    /** The large items */
     Quadtree index = new Quadtree();
 
+    int size;
+
+    public LabelIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /** Builds an index with the specified grid cell size, in pixels */
+    LabelIndex(double cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("Cell size must be positive, got " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
     /**
      * Returns true if there is any label in the index within the specified distance from the
      * bounds. For speed reasons the bounds will be simply expanded by the distance, no curved
@@ -42,6 +77,47 @@ public boolean labelsWithinDistance(Rectangle2D bounds, double distance) {
 
         Envelope e = toEnvelope(bounds);
         e.expandBy(distance);
+        return gridIntersects(e) || treeIntersects(e);
+    }
+
+    private boolean gridIntersects(Envelope e) {
+        if (cells.isEmpty()) return false;
+
+        int minX = 0, maxX = -1, minY = 0, maxY = -1;
+        if (isGridded(e)) {
+            minX = cell(e.getMinX());
+            maxX = cell(e.getMaxX());
+            minY = cell(e.getMinY());
+            maxY = cell(e.getMaxY());
+        }
+        long queryCells = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (queryCells <= 0 || queryCells > cells.size()) {
+            // a big query, cheaper to scan all the cells
+            for (List<InterferenceItem> items : cells.values()) {
+                if (intersects(items, e)) return true;
+            }
+            return false;
+        }
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                List<InterferenceItem> items = cells.get(key(x, y));
+                if (items != null && intersects(items, e)) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean intersects(List<InterferenceItem> items, Envelope e) {
+        for (InterferenceItem item : items) {
+            if (item.env.intersects(e)) return true;
+        }
+        return false;
+    }
+
+    private boolean treeIntersects(Envelope e) {
+        if (index.size() == 0) return false;
+
         AtomicBoolean intersectionFound = new AtomicBoolean(false);
         index.query(
                 e,
@@ -58,7 +134,53 @@ public boolean labelsWithinDistance(Rectangle2D bounds, double distance) {
     /** Adds a label into the index */
     public void addLabel(LabelCacheItem item, Rectangle2D bounds) {
         Envelope e = toEnvelope(bounds);
-        index.insert(e, new InterferenceItem(e, item));
+        insert(new InterferenceItem(e, item));
+    }
+
+    private void insert(InterferenceItem item) {
+        Envelope e = item.env;
+        size++;
+        if (!isGridded(e)
+                || cell(e.getMaxX()) - cell(e.getMinX()) >= MAX_CELL_SPAN
+                || cell(e.getMaxY()) - cell(e.getMinY()) >= MAX_CELL_SPAN) {
+            index.insert(e, item);
+            return;
+        }
+
+        int minX = cell(e.getMinX());
+        int maxX = cell(e.getMaxX());
+        int minY = cell(e.getMinY());
+        int maxY = cell(e.getMaxY());
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                cells.computeIfAbsent(key(x, y), k -> new ArrayList<>(4)).add(item);
+            }
+        }
+    }
+
+    /**
+     * Checks the envelope can be mapped to a reasonable range of cells (it's not empty, infinite
+     * or too big for the grid coordinates)
+     */
+    private boolean isGridded(Envelope e) {
+        if (e.isNull()) return false;
+        double span = Math.max(e.getWidth(), e.getHeight()) / cellSize;
+        double max = Math.max(Math.abs(e.getMinX()), Math.abs(e.getMaxX()));
+        max = Math.max(max, Math.max(Math.abs(e.getMinY()), Math.abs(e.getMaxY()))) / cellSize;
+        return span < 1024 && max < Integer.MAX_VALUE / 2;
+    }
+
+    private int cell(double ordinate) {
+        return (int) Math.floor(ordinate / cellSize);
+    }
+
+    private static Long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /** Returns the number of items in the index */
+    int size() {
+        return size;
     }
 
     /** Turns the specified Java2D rectangle into a JTS envelope */
@@ -67,7 +189,7 @@ private Envelope toEnvelope(Rectangle2D bounds) {
     }
 
     /**
-     * Simple structure stored into the quadtree (keeping the item around helps in debugging)
+     * Simple structure stored into the index (keeping the item around helps in debugging)
      *
      * @author Andrea Aime
      */
@@ -89,7 +211,7 @@ public void reserveArea(List<Rectangle2D> reserved) {
             Envelope env = toEnvelope(area);
 
             InterferenceItem item = new InterferenceItem(env, null);
-            index.insert(env, item);
+            insert(item);
         }
     }
 }
@@ -99,6 +99,11 @@ public LabelPainter(Graphics2D graphics, LabelRenderingMode labelRenderingMode)
         this.labelRenderingMode = labelRenderingMode;
     }
 
+    /** Sets the cache used to share the laid out glyphs among labels, can be null */
+    void setGlyphCache(GlyphCache glyphCache) {
+        splitter.glyphCache = glyphCache;
+    }
+
     /**
      * Sets the current label. The label will be laid out according to the label item settings
      * (curved lines, auto wrapping, curved line usage) and the painter will be ready to draw it.
@@ -112,8 +117,13 @@ public void setLabel(LabelCacheItem labelItem) {
         labelBounds = null;
         lines = null;
 
-        // layout the label elements
-        lines = splitter.layout(labelItem, graphics);
+        // layout the label elements, unless already done in advance
+        if (labelItem.preparedLines != null) {
+            lines = labelItem.preparedLines;
+            labelItem.preparedLines = null;
+        } else {
+            lines = splitter.layout(labelItem, graphics);
+        }
 
         // compute the max line length
         double maxWidth = 0;
@@ -673,7 +683,7 @@ public void paintCurvedLabel(LineStringCursor cursor) {
                 final Font font = component.getGlyphVector().getFont();
                 Number tracking = (Number) font.getAttributes().get(TextAttribute.TRACKING);
                 for (int i = 0; i < numGlyphs; i++) {
-                    outlines[i] = glyphVector.getGlyphOutline(i);
+                    outlines[i] = component.getGlyphOutline(i);
                     Point2D p = glyphVector.getGlyphPosition(i);
                     float advance = nextAdvance;
                     if (tracking != null) {
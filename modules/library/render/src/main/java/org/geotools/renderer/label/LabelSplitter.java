@@ -53,7 +53,18 @@ class LabelSplitter {
 
     private static final Pattern NEWLINE_SPLITTER = Pattern.compile("\\n");
 
+    /** Optional cache of laid out glyphs, shared among labels */
+    GlyphCache glyphCache;
+
     public List<LineInfo> layout(LabelCacheItem labelItem, Graphics2D graphics) {
+        return layout(labelItem, graphics.getFontRenderContext());
+    }
+
+    /**
+     * Lays out the label against the given font render context. Does not touch any graphics, so it
+     * can be called from multiple threads as long as each one uses its own splitter
+     */
+    List<LineInfo> layout(LabelCacheItem labelItem, FontRenderContext frc) {
         String text = labelItem.getLabel();
         Font[] fonts = labelItem.getTextStyle().getFonts();
 
@@ -63,11 +74,10 @@ public List<LineInfo> layout(LabelCacheItem labelItem, Graphics2D graphics) {
                 fonts.length == 1
                         || textLength == fonts[0].canDisplayUpTo(text.toCharArray(), 0, textLength);
         if (!(text.contains("\n") || labelItem.getAutoWrap() > 0) && singleFont) {
-            FontRenderContext frc = graphics.getFontRenderContext();
             TextLayout layout = new TextLayout(text, fonts[0], frc);
             LineInfo lineInfo = new LineInfo();
             List<LineComponent> components =
-                    buildLineComponents(text, fonts[0], labelItem, graphics, layout);
+                    buildLineComponents(text, fonts[0], labelItem, frc, layout);
             components.forEach(c -> lineInfo.add(c));
             return Collections.singletonList(lineInfo);
         }
@@ -84,12 +94,9 @@ public List<LineInfo> layout(LabelCacheItem labelItem, Graphics2D graphics) {
                 LineInfo lineInfo = new LineInfo();
                 List<FontRange> ranges = buildFontRanges(line, fonts);
                 for (FontRange range : ranges) {
-                    graphics.setFont(range.font);
-                    FontRenderContext frc = graphics.getFontRenderContext();
                     TextLayout layout = new TextLayout(range.text, range.font, frc);
                     List<LineComponent> components =
-                            buildLineComponents(
-                                    range.text, range.font, labelItem, graphics, layout);
+                            buildLineComponents(range.text, range.font, labelItem, frc, layout);
                     components.forEach(c -> lineInfo.add(c));
                 }
                 lines.add(lineInfo);
@@ -113,10 +120,7 @@ public List<LineInfo> layout(LabelCacheItem labelItem, Graphics2D graphics) {
                 AttributedString attributed = buildAttributedLine(lineText, ranges);
                 AttributedCharacterIterator iter = attributed.getIterator();
                 LineBreakMeasurer lineMeasurer =
-                        new LineBreakMeasurer(
-                                iter,
-                                BreakIterator.getLineInstance(),
-                                graphics.getFontRenderContext());
+                        new LineBreakMeasurer(iter, BreakIterator.getLineInstance(), frc);
                 BreakIterator breaks = BreakIterator.getLineInstance();
                 breaks.setText(lineText);
 
@@ -140,7 +144,7 @@ public List<LineInfo> layout(LabelCacheItem labelItem, Graphics2D graphics) {
                         }
                         AttributedCharacterIterator subIter =
                                 attributed.getIterator(null, prevPosition, newPosition);
-                        layout = new TextLayout(subIter, graphics.getFontRenderContext());
+                        layout = new TextLayout(subIter, frc);
                         lineMeasurer.setPosition(newPosition);
                     }
 
@@ -171,11 +175,9 @@ public List<LineInfo> layout(LabelCacheItem labelItem, Graphics2D graphics) {
                         currentLineRange++;
                         AttributedCharacterIterator subIter =
                                 attributed.getIterator(null, start, end);
-                        graphics.setFont(range.font);
-                        layout = new TextLayout(subIter, graphics.getFontRenderContext());
+                        layout = new TextLayout(subIter, frc);
                         List<LineComponent> components =
-                                buildLineComponents(
-                                        extracted, range.font, labelItem, graphics, layout);
+                                buildLineComponents(extracted, range.font, labelItem, frc, layout);
                         components.forEach(c -> lineInfo.add(c));
                     }
                     lines.add(lineInfo);
@@ -191,14 +193,13 @@ private List<LineComponent> buildLineComponents(
             String text,
             Font font,
             LabelCacheItem labelItem,
-            Graphics2D graphics,
+            FontRenderContext frc,
             TextLayout layout) {
         final double wordSpacing = labelItem.getWordSpacing();
         if (text.trim().indexOf(' ') == -1 || wordSpacing <= 0) {
             // no word spacing
             LineComponent component =
-                    new LineComponent(
-                            text, layoutSentence(text, labelItem, graphics, font), layout);
+                    new LineComponent(text, glyphs(text, labelItem, frc, font), layout);
             return Arrays.asList(component);
         } else {
             // java does not support word spacing, we need to fake it. Since the machinery
@@ -209,8 +210,7 @@ private List<LineComponent> buildLineComponents(
             for (int i = 0; i < parts.length; i++) {
                 String part = parts[i];
                 LineComponent component =
-                        new LineComponent(
-                                part, layoutSentence(part, labelItem, graphics, font), layout);
+                        new LineComponent(part, glyphs(part, labelItem, frc, font), layout);
                 result.add(component);
                 if (i < parts.length - 1) {
                     // add a fake space with a tracking adjusting its size to the
@@ -219,16 +219,11 @@ private List<LineComponent> buildLineComponents(
                     Font spacerFont =
                             font.deriveFont(
                                     Collections.singletonMap(TextAttribute.TRACKING, tracking));
-                    TextLayout spacerLayout =
-                            new TextLayout(
-                                    SINGLE_CHAR_STRING,
-                                    spacerFont,
-                                    graphics.getFontRenderContext());
+                    TextLayout spacerLayout = new TextLayout(SINGLE_CHAR_STRING, spacerFont, frc);
                     LineComponent spacer =
                             new LineComponent(
                                     SINGLE_CHAR_STRING,
-                                    layoutSentence(
-                                            SINGLE_CHAR_STRING, labelItem, graphics, spacerFont),
+                                    glyphs(SINGLE_CHAR_STRING, labelItem, frc, spacerFont),
                                     spacerLayout);
                     result.add(spacer);
                 }
@@ -287,19 +282,26 @@ private String checkForEmptyLine(String line) {
         return line;
     }
 
+    /**
+     * Returns the glyphs for the given string, from the glyph cache if available, laying them out
+     * otherwise
+     */
+    GlyphCache.Glyphs glyphs(String label, LabelCacheItem item, FontRenderContext frc, Font font) {
+        if (glyphCache == null) {
+            return new GlyphCache.Glyphs(layoutSentence(label, item, frc, font));
+        }
+        return glyphCache.get(font, label, frc, () -> layoutSentence(label, item, frc, font));
+    }
+
     /** Turns a string into the corresponding {@link GlyphVector} */
-    GlyphVector layoutSentence(String label, LabelCacheItem item, Graphics2D graphics, Font font) {
+    GlyphVector layoutSentence(
+            String label, LabelCacheItem item, FontRenderContext frc, Font font) {
         final char[] chars = label.toCharArray();
         final int length = label.length();
         if (Bidi.requiresBidi(chars, 0, length)) {
             Bidi bidi = new Bidi(label, Bidi.DIRECTION_DEFAULT_LEFT_TO_RIGHT);
             if (bidi.isRightToLeft()) {
-                return font.layoutGlyphVector(
-                        graphics.getFontRenderContext(),
-                        chars,
-                        0,
-                        length,
-                        Font.LAYOUT_RIGHT_TO_LEFT);
+                return font.layoutGlyphVector(frc, chars, 0, length, Font.LAYOUT_RIGHT_TO_LEFT);
             } else if (bidi.isMixed()) {
                 String r = "";
                 for (int i = 0; i < bidi.getRunCount(); i++) {
@@ -310,15 +312,10 @@ GlyphVector layoutSentence(String label, LabelCacheItem item, Graphics2D graphic
                     r = r + s1;
                 }
                 char[] chars2 = r.toCharArray();
-                return font.layoutGlyphVector(
-                        graphics.getFontRenderContext(),
-                        chars2,
-                        0,
-                        length,
-                        Font.LAYOUT_RIGHT_TO_LEFT);
+                return font.layoutGlyphVector(frc, chars2, 0, length, Font.LAYOUT_RIGHT_TO_LEFT);
             }
         }
-        return font.layoutGlyphVector(graphics.getFontRenderContext(), chars, 0, chars.length, 0);
+        return font.layoutGlyphVector(frc, chars, 0, chars.length, 0);
     }
 
     List<FontRange> buildFontRanges(String text, Font[] fonts) {
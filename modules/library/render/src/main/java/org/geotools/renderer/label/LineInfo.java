@@ -17,6 +17,7 @@
 
 package org.geotools.renderer.label;
 
+import java.awt.Shape;
 import java.awt.font.FontRenderContext;
 import java.awt.font.GlyphVector;
 import java.awt.font.LineMetrics;
@@ -45,22 +46,35 @@ static class LineComponent {
         // the text represented as a glyph vector
         private GlyphVector gv;
 
+        // the glyph vector along with its cached outlines and bounds
+        private GlyphCache.Glyphs glyphs;
+
         // the text layout
         private TextLayout layout;
 
-        Rectangle2D visualBounds;
-
         LineComponent(String text, GlyphVector gv, TextLayout layout) {
+            this(text, new GlyphCache.Glyphs(gv), layout);
+        }
+
+        LineComponent(String text, GlyphCache.Glyphs glyphs, TextLayout layout) {
             this.text = text;
-            this.gv = gv;
+            this.gv = glyphs.gv;
+            this.glyphs = glyphs;
             this.layout = layout;
         }
 
         Rectangle2D getVisualBounds() {
-            if (visualBounds == null) {
-                visualBounds = gv.getVisualBounds();
-            }
-            return visualBounds;
+            return glyphs.getVisualBounds();
+        }
+
+        /** The outline of the specified glyph, computed once and shared, must not be modified */
+        Shape getGlyphOutline(int g) {
+            return glyphs.getGlyphOutline(g);
+        }
+
+        /** The logical bounds of the specified glyph, computed once and shared */
+        Shape getGlyphLogicalBounds(int g) {
+            return glyphs.getGlyphLogicalBounds(g);
         }
 
         double getX() {
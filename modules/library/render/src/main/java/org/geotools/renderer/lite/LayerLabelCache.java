@@ -0,0 +1,115 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import org.geotools.api.feature.Feature;
+import org.geotools.api.style.TextSymbolizer;
+import org.geotools.geometry.jts.LiteShape2;
+import org.geotools.util.NumberRange;
+
+/**
+ * A label cache used by the renderers painting a single layer on behalf of a parent {@link
+ * StreamingRenderer} in parallel layer rendering mode. Labels are forwarded to the parent cache
+ * using the layer id assigned by the parent, while the life-cycle calls (start, end, stop, clear)
+ * are ignored, as they are managed by the parent renderer.
+ */
+final class LayerLabelCache implements LabelCache {
+
+    private final LabelCache delegate;
+
+    private final String layerId;
+
+    /**
+     * Builds a new layer label cache
+     *
+     * @param delegate The parent label cache, must be thread safe
+     * @param layerId The layer id the parent renderer assigned to the layer
+     */
+    LayerLabelCache(LabelCache delegate, String layerId) {
+        this.delegate = delegate;
+        this.layerId = layerId;
+    }
+
+    @Override
+    public void start() {
+        // managed by the parent renderer
+    }
+
+    @Override
+    public void startLayer(String layerId) {
+        // managed by the parent renderer
+    }
+
+    @Override
+    public void put(
+            String layerId,
+            TextSymbolizer symbolizer,
+            Feature feature,
+            LiteShape2 shape,
+            NumberRange<Double> scaleRange) {
+        delegate.put(this.layerId, symbolizer, feature, shape, scaleRange);
+    }
+
+    @Override
+    public void put(Rectangle2D geometry) {
+        delegate.put(geometry);
+    }
+
+    @Override
+    public void endLayer(String layerId, Graphics2D graphics, Rectangle displayArea) {
+        // managed by the parent renderer
+    }
+
+    @Override
+    public void end(Graphics2D graphics, Rectangle displayArea) {
+        // managed by the parent renderer
+    }
+
+    @Override
+    public void stop() {
+        // managed by the parent renderer
+    }
+
+    @Override
+    public void clear() {
+        // managed by the parent renderer
+    }
+
+    @Override
+    public void clear(String layerId) {
+        delegate.clear(this.layerId);
+    }
+
+    @Override
+    public void disableLayer(String layerId) {
+        delegate.disableLayer(this.layerId);
+    }
+
+    @Override
+    public void enableLayer(String layerId) {
+        delegate.enableLayer(this.layerId);
+    }
+
+    @Override
+    public List orderedLabels() {
+        return delegate.orderedLabels();
+    }
+}
@@ -58,6 +58,7 @@
 import org.geotools.api.filter.spatial.Overlaps;
 import org.geotools.api.filter.spatial.Touches;
 import org.geotools.api.filter.spatial.Within;
+import org.geotools.filter.FilterCompiler;
 import org.geotools.filter.function.InFunction;
 import org.geotools.filter.visitor.DuplicatingFilterVisitor;
 import org.geotools.util.Converters;
@@ -66,7 +67,7 @@
 /**
  * Optimizes filter trees by replacing expressions/filters with memoized equivalents, also replaces
  * the generic property access machinery with straight index access when the target feature type is
- * a {@link SimpleFeatureType}.
+ * a {@link SimpleFeatureType}, and compiles the comparisons against it with {@link FilterCompiler}.
  */
 class MemoryFilterOptimizer extends DuplicatingFilterVisitor {
 
@@ -76,26 +77,38 @@ class MemoryFilterOptimizer extends DuplicatingFilterVisitor {
     Map<Expression, Expression> expressionReplacements = new HashMap<>();
     Map<Filter, Filter> filterReplacements = new HashMap<>();
     SimpleFeatureType simpleFeatureType;
+    boolean compile;
 
     /**
      * Prepares to duplicate a filter for a given target schema. Only filters included in the
      * memoizeCandidates set will be wrapped within a caching proxy
      */
     public MemoryFilterOptimizer(FeatureType schema, Set<Object> memoizeCandidates) {
+        this(schema, memoizeCandidates, false);
+    }
+
+    /**
+     * Prepares to duplicate a filter for a given target schema. Only filters included in the
+     * memoizeCandidates set will be wrapped within a caching proxy, when compile is true the other
+     * comparisons get compiled against the schema, if simple, losing their original type
+     */
+    public MemoryFilterOptimizer(
+            FeatureType schema, Set<Object> memoizeCandidates, boolean compile) {
         if (schema instanceof SimpleFeatureType) {
             this.simpleFeatureType = (SimpleFeatureType) schema;
         }
         this.memoizeCandidates = memoizeCandidates;
+        this.compile = compile;
     }
 
     @Override
     public Object visit(PropertyIsEqualTo filter, Object extraData) {
-        return memoize(filter, extraData, super::visit);
+        return compile(filter, extraData, super::visit);
     }
 
     @Override
     public Object visit(PropertyIsNotEqualTo filter, Object extraData) {
-        return memoize(filter, extraData, super::visit);
+        return compile(filter, extraData, super::visit);
     }
 
     @Override
@@ -171,27 +184,27 @@ private Pair<Expression, Literal> getEqualsParameters(PropertyIsEqualTo equals)
 
     @Override
     public Object visit(PropertyIsBetween filter, Object extraData) {
-        return memoize(filter, extraData, super::visit);
+        return compile(filter, extraData, super::visit);
     }
 
     @Override
     public Object visit(PropertyIsGreaterThan filter, Object extraData) {
-        return memoize(filter, extraData, super::visit);
+        return compile(filter, extraData, super::visit);
     }
 
     @Override
     public Object visit(PropertyIsGreaterThanOrEqualTo filter, Object extraData) {
-        return memoize(filter, extraData, super::visit);
+        return compile(filter, extraData, super::visit);
     }
 
     @Override
     public Object visit(PropertyIsLessThan filter, Object extraData) {
-        return memoize(filter, extraData, super::visit);
+        return compile(filter, extraData, super::visit);
     }
 
     @Override
     public Object visit(PropertyIsLessThanOrEqualTo filter, Object extraData) {
-        return memoize(filter, extraData, super::visit);
+        return compile(filter, extraData, super::visit);
     }
 
     @Override
@@ -201,7 +214,7 @@ public Object visit(PropertyIsLike filter, Object extraData) {
 
     @Override
     public Object visit(PropertyIsNull filter, Object extraData) {
-        return memoize(filter, extraData, super::visit);
+        return compile(filter, extraData, super::visit);
     }
 
     @Override
@@ -264,6 +277,21 @@ public Object visit(Within filter, Object extraData) {
         return memoize(filter, extraData, super::visit);
     }
 
+    /**
+     * Compiles the comparison against the simple feature type, if possible and not to be memoized,
+     * memoizes or duplicates it otherwise
+     */
+    private <T extends Filter> Object compile(
+            T filter, Object extraData, BiFunction<T, Object, Object> duplicator) {
+        if (compile && simpleFeatureType != null && !memoizeCandidates.contains(filter)) {
+            Filter compiled = FilterCompiler.compile(filter, simpleFeatureType);
+            if (compiled != filter) {
+                return compiled;
+            }
+        }
+        return memoize(filter, extraData, duplicator);
+    }
+
     public <T extends Filter> T memoize(
             T filter, Object extraData, BiFunction<T, Object, Object> duplicator) {
         // do we want to memoize this filter?
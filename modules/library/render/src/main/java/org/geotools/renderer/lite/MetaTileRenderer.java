@@ -0,0 +1,286 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.geotools.renderer.GTRenderer;
+
+/**
+ * Renders a block of N×M tiles (a meta tile) in a single pass, and then slices the result into the
+ * single tiles.
+ *
+ * <p>Compared to painting each tile on its own, the data is queried once, the screen map
+ * decimation is performed once, and the label conflict resolution is performed once over the
+ * whole meta tile, so that labels crossing the boundaries between tiles are consistent. A gutter
+ * can be specified to paint an extra border around the meta tile, allowing symbols and labels
+ * close to the meta tile edges to be painted as well (the gutter is then discarded).
+ *
+ * <p>The renderer should be configured with the {@link org.geotools.map.MapContent} to be painted,
+ * and with the desired hints, before being passed to this class.
+ */
+public class MetaTileRenderer {
+
+    private final GTRenderer renderer;
+
+    private int gutter = 0;
+
+    private Color background;
+
+    private int imageType = BufferedImage.TYPE_INT_ARGB;
+
+    /**
+     * Builds a new meta tile renderer
+     *
+     * @param renderer The renderer used to paint the meta tile
+     */
+    public MetaTileRenderer(GTRenderer renderer) {
+        if (renderer == null) {
+            throw new NullPointerException("renderer cannot be null");
+        }
+        this.renderer = renderer;
+    }
+
+    /** The renderer used to paint the meta tiles */
+    public GTRenderer getRenderer() {
+        return renderer;
+    }
+
+    /** Returns the size, in pixels, of the border painted around the meta tile */
+    public int getGutter() {
+        return gutter;
+    }
+
+    /** Sets the size, in pixels, of the border painted around the meta tile */
+    public void setGutter(int gutter) {
+        if (gutter < 0) {
+            throw new IllegalArgumentException("The gutter must be positive or zero");
+        }
+        this.gutter = gutter;
+    }
+
+    /** Returns the background color, or null if the meta tile background is transparent */
+    public Color getBackground() {
+        return background;
+    }
+
+    /** Sets the background color, use null for a transparent background (the default) */
+    public void setBackground(Color background) {
+        this.background = background;
+    }
+
+    /** Returns the {@link BufferedImage} type used for the meta tile canvas */
+    public int getImageType() {
+        return imageType;
+    }
+
+    /**
+     * Sets the {@link BufferedImage} type used for the meta tile canvas, defaults to {@link
+     * BufferedImage#TYPE_INT_ARGB}
+     */
+    public void setImageType(int imageType) {
+        this.imageType = imageType;
+    }
+
+    /**
+     * Paints a meta tile and returns it.
+     *
+     * @param area The area covered by the tiles (gutter excluded)
+     * @param tileWidth The width of a single tile, in pixels
+     * @param tileHeight The height of a single tile, in pixels
+     * @param tilesX The number of tiles along the horizontal direction
+     * @param tilesY The number of tiles along the vertical direction
+     * @return The painted meta tile
+     */
+    public MetaTile paint(
+            ReferencedEnvelope area, int tileWidth, int tileHeight, int tilesX, int tilesY) {
+        if (tileWidth <= 0 || tileHeight <= 0 || tilesX <= 0 || tilesY <= 0) {
+            throw new IllegalArgumentException(
+                    "Tile sizes and number of tiles must be positive, got tile size "
+                            + tileWidth
+                            + "x"
+                            + tileHeight
+                            + " and tiles "
+                            + tilesX
+                            + "x"
+                            + tilesY);
+        }
+
+        int width = tileWidth * tilesX;
+        int height = tileHeight * tilesY;
+        ReferencedEnvelope canvasArea = expandByGutter(area, width, height);
+        BufferedImage canvas =
+                new BufferedImage(width + gutter * 2, height + gutter * 2, imageType);
+        Graphics2D graphics = canvas.createGraphics();
+        try {
+            Rectangle paintArea = new Rectangle(canvas.getWidth(), canvas.getHeight());
+            if (background != null) {
+                graphics.setColor(background);
+                graphics.fill(paintArea);
+            }
+            renderer.paint(graphics, paintArea, canvasArea);
+        } finally {
+            graphics.dispose();
+        }
+
+        return new MetaTile(canvas, area, gutter, tileWidth, tileHeight, tilesX, tilesY);
+    }
+
+    /** Expands the area by the gutter, taking into account the axis order */
+    private ReferencedEnvelope expandByGutter(ReferencedEnvelope area, int width, int height) {
+        if (gutter == 0) {
+            return area;
+        }
+        CoordinateReferenceSystem crs = area.getCoordinateReferenceSystem();
+        boolean northEast = crs != null && CRS.getAxisOrder(crs) == CRS.AxisOrder.NORTH_EAST;
+        double spanX = northEast ? area.getHeight() : area.getWidth();
+        double spanY = northEast ? area.getWidth() : area.getHeight();
+        double dx = spanX / width * gutter;
+        double dy = spanY / height * gutter;
+        ReferencedEnvelope result = new ReferencedEnvelope(area);
+        if (northEast) {
+            result.expandBy(dy, dx);
+        } else {
+            result.expandBy(dx, dy);
+        }
+        return result;
+    }
+
+    /**
+     * A rendered meta tile, allows access to the single tiles. Tiles are indexed by column and row,
+     * with the row zero at the top of the image.
+     */
+    public static class MetaTile {
+
+        private final BufferedImage canvas;
+
+        private final ReferencedEnvelope area;
+
+        private final int gutter;
+
+        private final int tileWidth;
+
+        private final int tileHeight;
+
+        private final int tilesX;
+
+        private final int tilesY;
+
+        MetaTile(
+                BufferedImage canvas,
+                ReferencedEnvelope area,
+                int gutter,
+                int tileWidth,
+                int tileHeight,
+                int tilesX,
+                int tilesY) {
+            this.canvas = canvas;
+            this.area = area;
+            this.gutter = gutter;
+            this.tileWidth = tileWidth;
+            this.tileHeight = tileHeight;
+            this.tilesX = tilesX;
+            this.tilesY = tilesY;
+        }
+
+        /** The whole meta tile image, gutter included */
+        public BufferedImage getCanvas() {
+            return canvas;
+        }
+
+        /** The area covered by the tiles, gutter excluded */
+        public ReferencedEnvelope getArea() {
+            return area;
+        }
+
+        /** The number of tiles along the horizontal direction */
+        public int getTilesX() {
+            return tilesX;
+        }
+
+        /** The number of tiles along the vertical direction */
+        public int getTilesY() {
+            return tilesY;
+        }
+
+        /**
+         * Returns the image of a single tile. The image shares the raster of the meta tile, use
+         * {@link #copyTile(int, int)} to get an independent copy.
+         *
+         * @param col The tile column, starting from the left
+         * @param row The tile row, starting from the top
+         */
+        public BufferedImage getTile(int col, int row) {
+            checkTileIndex(col, row);
+            return canvas.getSubimage(
+                    gutter + col * tileWidth, gutter + row * tileHeight, tileWidth, tileHeight);
+        }
+
+        /**
+         * Returns a copy of a single tile, not sharing the raster with the meta tile
+         *
+         * @param col The tile column, starting from the left
+         * @param row The tile row, starting from the top
+         */
+        public BufferedImage copyTile(int col, int row) {
+            BufferedImage tile = getTile(col, row);
+            WritableRaster target =
+                    canvas.getRaster().createCompatibleWritableRaster(tileWidth, tileHeight);
+            WritableRaster raster = tile.copyData(target);
+            return new BufferedImage(
+                    canvas.getColorModel(), raster, canvas.isAlphaPremultiplied(), null);
+        }
+
+        /**
+         * Returns the area covered by a single tile
+         *
+         * @param col The tile column, starting from the left
+         * @param row The tile row, starting from the top
+         */
+        public ReferencedEnvelope getTileEnvelope(int col, int row) {
+            checkTileIndex(col, row);
+            CoordinateReferenceSystem crs = area.getCoordinateReferenceSystem();
+            boolean northEast = crs != null && CRS.getAxisOrder(crs) == CRS.AxisOrder.NORTH_EAST;
+            double minX = northEast ? area.getMinY() : area.getMinX();
+            double maxY = northEast ? area.getMaxX() : area.getMaxY();
+            double tileSpanX = (northEast ? area.getHeight() : area.getWidth()) / tilesX;
+            double tileSpanY = (northEast ? area.getWidth() : area.getHeight()) / tilesY;
+            double x1 = minX + tileSpanX * col;
+            double x2 = x1 + tileSpanX;
+            double y2 = maxY - tileSpanY * row;
+            double y1 = y2 - tileSpanY;
+            if (northEast) {
+                return new ReferencedEnvelope(y1, y2, x1, x2, crs);
+            } else {
+                return new ReferencedEnvelope(x1, x2, y1, y2, crs);
+            }
+        }
+
+        private void checkTileIndex(int col, int row) {
+            if (col < 0 || col >= tilesX || row < 0 || row >= tilesY) {
+                throw new IndexOutOfBoundsException(
+                        "Tile " + col + "," + row + " is outside of the meta tile");
+            }
+        }
+    }
+}
@@ -29,6 +29,7 @@
 import java.awt.RenderingHints;
 import java.awt.RenderingHints.Key;
 import java.awt.Shape;
+import java.awt.Transparency;
 import java.awt.font.GlyphVector;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.NoninvertibleTransformException;
@@ -51,10 +52,14 @@
 import java.util.Spliterator;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -107,6 +112,7 @@
 import org.geotools.coverage.util.FeatureUtilities;
 import org.geotools.data.DataUtilities;
 import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.util.OffHeapScreenMap;
 import org.geotools.data.util.ScreenMap;
 import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.feature.FeatureCollection;
@@ -228,7 +234,33 @@ public class StreamingRenderer implements GTRenderer {
     private static final Logger LOGGER =
             org.geotools.util.logging.Logging.getLogger(StreamingRenderer.class);
 
-    int error = 0;
+    /**
+     * The threads rendering layers in parallel, shared by all the renderers so that concurrent
+     * requests do not multiply them, at most one per available processor. The threads are daemons
+     * and are released when idle.
+     */
+    private static final ThreadPoolExecutor LAYER_THREAD_POOL;
+
+    static {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        LAYER_THREAD_POOL =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        r -> {
+                            String name = "StreamingRenderer-layer-" + count.incrementAndGet();
+                            Thread t = new Thread(r, name);
+                            t.setDaemon(true);
+                            return t;
+                        });
+        LAYER_THREAD_POOL.allowCoreThreadTimeOut(true);
+    }
+
+    final AtomicInteger error = new AtomicInteger();
 
     /** Filter factory for creating bounding box filters */
     protected static final FilterFactory filterFactory = CommonFactoryFinder.getFilterFactory(null);
@@ -398,6 +430,23 @@ public class StreamingRenderer implements GTRenderer {
 
     private static boolean DATELINE_WRAPPING_HEURISTIC_DEFAULT = true;
 
+    /**
+     * Boolean flag enabling parallel rendering of independent layers (disabled by default).
+     *
+     * <p>When enabled, runs of consecutive layers that do not need to blend with what is painted
+     * below them (no background, no compositing, no z-ordering) are queried and rasterized
+     * concurrently, each one in its own back buffer, and then merged on the target graphics in
+     * z-order. The layers are rendered by a set of threads shared by all the renderers, at most one
+     * per available processor, separate from the {@link #setThreadPool(ExecutorService) thread
+     * pool} running the painter. Labels are still collected in the renderer label cache, and
+     * painted at the end of the rendering as usual.
+     *
+     * <p>This trades memory (one back buffer as big as the image being rendered per layer being
+     * painted concurrently, no more layers than threads being in flight at any time) for speed, and
+     * requires the registered {@link RenderListener}s to be thread safe.
+     */
+    public static final String PARALLEL_LAYER_RENDERING_KEY = "parallelLayerRendering";
+
     public static final String LABEL_CACHE_KEY = "labelCache";
     public static final String FORCE_EPSG_AXIS_ORDER_KEY = "ForceEPSGAxisOrder";
     public static final String DPI_KEY = "dpi";
@@ -436,9 +485,25 @@ public class StreamingRenderer implements GTRenderer {
 
     private PainterThread painterThread;
 
+    /** The renderers painting layers in parallel, if any, used to stop them */
+    private List<StreamingRenderer> layerRenderers = new CopyOnWriteArrayList<>();
+
     private static int MAX_PIXELS_DENSIFY =
             Integer.valueOf(System.getProperty("ADVANCED_PROJECTION_DENSIFY_MAX_PIXELS", "5"));
 
+    /**
+     * Screen maps with at least this number of pixels are kept off-heap, in pooled buffers, see
+     * {@link OffHeapScreenMap}
+     */
+    private static long OFF_HEAP_SCREENMAP_PIXELS =
+            Long.valueOf(
+                    System.getProperty(
+                            "org.geotools.renderer.offHeapScreenMapPixels",
+                            String.valueOf(4096 * 4096)));
+
+    /** The off-heap screen maps allocated during the rendering, to be disposed */
+    private List<ScreenMap> offHeapScreenMaps = new ArrayList<>();
+
     /**
      * Creates a new instance of LiteRenderer without a context. Use it only to gain access to
      * utility methods of this class or if you want to render random feature collections instead of
@@ -537,6 +602,14 @@ private void fireErrorEvent(Throwable t) {
     @Override
     public void stopRendering() {
         renderingStopRequested = true;
+        // stop the layers being rendered in parallel, if any
+        for (StreamingRenderer layerRenderer : layerRenderers) {
+            layerRenderer.stopRendering();
+        }
+        // rendering might not have started yet
+        if (requests == null) {
+            return;
+        }
         // un-block the queue in case it was filled with requests and the main
         // thread got blocked on it
         requests.clear();
@@ -777,7 +850,7 @@ public void paint(
         mapExtent = new ReferencedEnvelope(mapArea);
         this.screenSize = paintArea;
         this.worldToScreenTransform = worldToScreen;
-        error = 0;
+        error.set(0);
         if (java2dHints != null) graphics.setRenderingHints(java2dHints);
         // add the anchor for graphic fills
         Point2D textureAnchor =
@@ -852,6 +925,7 @@ public void paint(
                             graphics, paintArea, zGroupedMapContent);
 
             int layerCounter = 0;
+            boolean parallelLayers = isParallelLayerRenderingEnabled();
 
             for (CompositingGroup compositingGroup : compositingGroups) {
                 MapContent currentMapContent = compositingGroup.mapContent;
@@ -871,7 +945,32 @@ public void paint(
                                     LabelRenderingMode.valueOf(getTextRenderingMethod()));
                 }
 
-                for (Layer layer : currentMapContent.layers()) {
+                List<Layer> layers = currentMapContent.layers();
+                for (int i = 0; i < layers.size(); i++) {
+                    Layer layer = layers.get(i);
+                    if (parallelLayers && isParallelRenderable(layer)) {
+                        // collect the run of layers that can be painted independently
+                        List<Layer> parallelRun = new ArrayList<>();
+                        for (int j = i; j < layers.size(); j++) {
+                            Layer candidate = layers.get(j);
+                            if (!isParallelRenderable(candidate)) break;
+                            parallelRun.add(candidate);
+                        }
+                        if (parallelRun.size() > 1) {
+                            layerCounter =
+                                    renderLayersInParallel(
+                                            graphics,
+                                            compositingGraphic,
+                                            parallelRun,
+                                            layerCounter);
+                            if (renderingStopRequested) {
+                                return;
+                            }
+                            i += parallelRun.size() - 1;
+                            continue;
+                        }
+                    }
+
                     try {
                         renderListeners.forEach(l -> l.layerStart(layer));
                     } catch (Exception e) {
@@ -941,6 +1040,8 @@ public void paint(
                 }
             }
         } finally {
+            // release the screen maps not disposed yet (e.g., by z-group layers)
+            disposeScreenMaps();
             try {
                 // clean up generated map contents (in finally block to ensure it's done regardless
                 // of how we got here
@@ -986,15 +1087,205 @@ public void paint(
                             .append(", requests ")
                             .append(styleFactory.getRequests())
                             .toString());
-        if (error > 0) {
+        if (error.get() > 0) {
             LOGGER.warning(
                     new StringBuffer(
                                     "Number of Errors during paint(Graphics2D, AffineTransform) = ")
-                            .append(error)
+                            .append(error.get())
                             .toString());
         }
     }
 
+    /**
+     * Renders the provided layers concurrently, each one in its own back buffer, using a separate
+     * renderer, and then queues the merge of the back buffers on the compositing graphics in
+     * z-order.
+     *
+     * @param graphics The graphics the renderer was asked to paint on
+     * @param compositingGraphic The graphics of the current compositing group
+     * @param layers The layers to be rendered
+     * @param layerCounter The number of layers processed so far
+     * @return The number of layers processed, including the ones rendered by this call
+     */
+    private int renderLayersInParallel(
+            Graphics2D graphics,
+            Graphics2D compositingGraphic,
+            List<Layer> layers,
+            int layerCounter) {
+        // the layer renderers share the label cache, make sure access is serialized
+        LabelCache sharedLabelCache = new SynchronizedLabelCache(labelCache);
+        List<String> layerIds = new ArrayList<>();
+        for (Layer layer : layers) {
+            try {
+                renderListeners.forEach(l -> l.layerStart(layer));
+            } catch (Exception e) {
+                fireErrorEvent(e);
+            }
+            layerCounter++;
+            String layerId = String.valueOf(layerCounter);
+            layerIds.add(layerId);
+            sharedLabelCache.startLayer(layerId);
+        }
+
+        // the layers run in the shared layer threads rather than in the thread pool running the
+        // painter, waiting on tasks queued there would deadlock as soon as the pool is bounded
+        // and busy. Only as many layers as threads are in flight, each one holding a back buffer
+        int inFlight = Math.min(layers.size(), LAYER_THREAD_POOL.getMaximumPoolSize());
+        List<Future<BufferedImage>> futures = new ArrayList<>(layers.size());
+        try {
+            for (int i = 0; i < inFlight; i++) {
+                futures.add(
+                        submitLayer(graphics, sharedLabelCache, layers.get(i), layerIds.get(i)));
+            }
+
+            // merge in z-order, the painter thread will pick up the back buffers as they get ready
+            for (int i = 0; i < layers.size(); i++) {
+                Layer layer = layers.get(i);
+                try {
+                    if (renderingStopRequested) {
+                        continue;
+                    }
+                    try {
+                        BufferedImage image = futures.get(i).get();
+                        requests.put(
+                                new MergeLayerImageRequest(
+                                        compositingGraphic, image, screenSize.x, screenSize.y));
+                    } catch (ExecutionException e) {
+                        fireErrorEvent(e.getCause());
+                    } catch (InterruptedException e) {
+                        fireErrorEvent(e);
+                    }
+                } finally {
+                    // the layer back buffer is released, start the next one
+                    int next = i + inFlight;
+                    if (next < layers.size() && !renderingStopRequested) {
+                        futures.add(
+                                submitLayer(
+                                        graphics,
+                                        sharedLabelCache,
+                                        layers.get(next),
+                                        layerIds.get(next)));
+                    }
+                    sharedLabelCache.endLayer(layerIds.get(i), graphics, screenSize);
+                }
+
+                try {
+                    requests.put(new RenderTimeStatisticsRequest(renderListeners, layer));
+                } catch (InterruptedException ex) {
+                    fireErrorEvent(ex);
+                }
+            }
+        } finally {
+            // no-op for the completed layers, stops the ones still running if the rendering
+            // has been stopped or failed
+            futures.forEach(f -> f.cancel(true));
+        }
+
+        return layerCounter;
+    }
+
+    /** Starts rendering the layer in the shared layer threads, in its own back buffer */
+    private Future<BufferedImage> submitLayer(
+            Graphics2D graphics, LabelCache sharedLabelCache, Layer layer, String layerId) {
+        StreamingRenderer renderer = createLayerRenderer(sharedLabelCache, layerId);
+        return LAYER_THREAD_POOL.submit(() -> renderLayer(renderer, graphics, layer));
+    }
+
+    /**
+     * Builds a renderer painting a single layer on behalf of this one, sharing its configuration
+     * and label cache
+     */
+    private StreamingRenderer createLayerRenderer(LabelCache sharedLabelCache, String layerId) {
+        StreamingRenderer renderer = new StreamingRenderer();
+        Map<Object, Object> hints = new HashMap<>();
+        if (rendererHints != null) {
+            hints.putAll(rendererHints);
+        }
+        hints.remove(PARALLEL_LAYER_RENDERING_KEY);
+        hints.put(LABEL_CACHE_KEY, new LayerLabelCache(sharedLabelCache, layerId));
+        renderer.setRendererHints(hints);
+        renderer.setJava2DHints(java2dHints);
+        renderer.setGeneralizationDistance(generalizationDistance);
+        renderer.setInteractive(interactive);
+        // only forward feature and error events, the layer events are issued by this renderer
+        renderer.addRenderListener(
+                new RenderListener() {
+
+                    @Override
+                    public void featureRenderer(SimpleFeature feature) {
+                        fireFeatureRenderedEvent(feature);
+                    }
+
+                    @Override
+                    public void errorOccurred(Exception e) {
+                        error.incrementAndGet();
+                        renderListeners.forEach(l -> l.errorOccurred(e));
+                    }
+                });
+        return renderer;
+    }
+
+    /**
+     * Paints the layer with the given renderer, returning the back buffer it has been drawn on. The
+     * back buffer covers the paint area, its origin being the paint area top left corner
+     */
+    private BufferedImage renderLayer(
+            StreamingRenderer renderer, Graphics2D graphics, Layer layer) {
+        BufferedImage image =
+                graphics.getDeviceConfiguration()
+                        .createCompatibleImage(
+                                screenSize.width, screenSize.height, Transparency.TRANSLUCENT);
+        Graphics2D layerGraphics = image.createGraphics();
+        layerGraphics.setRenderingHints(graphics.getRenderingHints());
+        layerGraphics.translate(-screenSize.x, -screenSize.y);
+        MapContent layerContent = new MapContent();
+        layerContent.addLayer(layer);
+        layerRenderers.add(renderer);
+        try {
+            renderer.setMapContent(layerContent);
+            renderer.paint(layerGraphics, screenSize, originalMapExtent, worldToScreenTransform);
+        } finally {
+            layerRenderers.remove(renderer);
+            layerGraphics.dispose();
+            // the layer is still owned by the caller, do not dispose it
+            layerContent.removeLayer(layer);
+            layerContent.dispose();
+        }
+
+        return image;
+    }
+
+    /**
+     * Returns true if the layer can be painted on its own back buffer, without depending on what
+     * has been painted below it
+     */
+    private boolean isParallelRenderable(Layer layer) {
+        if (!layer.isVisible() || layer instanceof DirectLayer || layer instanceof ZGroupLayer) {
+            return false;
+        }
+        Style style = layer.getStyle();
+        if (style == null || style.getBackground() != null) {
+            return false;
+        }
+        for (FeatureTypeStyle fts : style.featureTypeStyles()) {
+            if (hasComposite(fts.getOptions())) {
+                return false;
+            }
+            for (Rule rule : fts.rules()) {
+                for (Symbolizer symbolizer : rule.symbolizers()) {
+                    if (hasComposite(symbolizer.getOptions())) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean hasComposite(Map<String, String> options) {
+        return options != null && SLDStyleFactory.getComposite(options) != null;
+    }
+
     protected void fillBackground(Graphics2D graphics, Rectangle paintArea, Style style) {
         // get the paint, could be a repeated image too (TexturePaint)
         Paint background = styleFactory.getPaint(style.getBackground(), null, null);
@@ -1104,7 +1395,12 @@ Query getStyleQuery(
                 // that sit outside of the map, but whose symbolizer may contribute to it
                 for (LiteFeatureTypeStyle lfts : styleList) {
                     if (lfts.screenMap != null) {
-                        lfts.screenMap = new ScreenMap(lfts.screenMap, metaBuffer);
+                        lfts.screenMap =
+                                createScreenMap(
+                                        screenSize.x - metaBuffer,
+                                        screenSize.y - metaBuffer,
+                                        screenSize.width + metaBuffer * 2,
+                                        screenSize.height + metaBuffer * 2);
                     }
                 }
             }
@@ -1712,6 +2008,17 @@ private boolean isOptimizedFTSRenderingEnabled() {
         return Boolean.TRUE.equals(result);
     }
 
+    /**
+     * Checks if parallel layer rendering is enabled, and can be used. See {@link
+     * #PARALLEL_LAYER_RENDERING_KEY} description for a full explanation.
+     */
+    private boolean isParallelLayerRenderingEnabled() {
+        if (rendererHints == null || concatTransforms) return false;
+        Object result = rendererHints.get(PARALLEL_LAYER_RENDERING_KEY);
+        if (result == null) return false;
+        return Boolean.TRUE.equals(result);
+    }
+
     /** Checks if the advanced projection handling is enabled */
     private boolean isAdvancedProjectionHandlingEnabled() {
         if (rendererHints == null) return false;
@@ -2058,7 +2365,7 @@ ArrayList<LiteFeatureTypeStyle> createLiteFeatureTypeStyles(
                 if (screenMapEnabled(lfts)) {
                     int renderingBuffer = getRenderingBuffer();
                     lfts.screenMap =
-                            new ScreenMap(
+                            createScreenMap(
                                     screenSize.x - renderingBuffer,
                                     screenSize.y - renderingBuffer,
                                     screenSize.width + renderingBuffer * 2,
@@ -2080,6 +2387,27 @@ ArrayList<LiteFeatureTypeStyle> createLiteFeatureTypeStyles(
         return result;
     }
 
+    /**
+     * Builds a screen map, keeping it off-heap if the area is large. The off-heap screen maps are
+     * tracked to be disposed when the layer rendering is done.
+     */
+    private ScreenMap createScreenMap(int x, int y, int width, int height) {
+        if ((long) width * height >= OFF_HEAP_SCREENMAP_PIXELS) {
+            ScreenMap screenMap = new OffHeapScreenMap(x, y, width, height);
+            offHeapScreenMaps.add(screenMap);
+            return screenMap;
+        }
+        return new ScreenMap(x, y, width, height);
+    }
+
+    /** Disposes the off-heap screen maps allocated so far, returning their buffers to the pool */
+    private void disposeScreenMaps() {
+        for (ScreenMap screenMap : offHeapScreenMaps) {
+            screenMap.dispose();
+        }
+        offHeapScreenMaps.clear();
+    }
+
     /**
      * Returns true if the ScreenMap optimization can be applied given the current renderer and
      * configuration and the style to be applied
@@ -2252,6 +2580,20 @@ private void processStylers(final Graphics2D graphics, final Layer layer, String
             }
         }
 
+        try {
+            processLiteFeatureTypeStyles(graphics, layerId, layer, schema, lfts);
+        } finally {
+            disposeScreenMaps();
+        }
+    }
+
+    private void processLiteFeatureTypeStyles(
+            final Graphics2D graphics,
+            String layerId,
+            final Layer layer,
+            final FeatureType schema,
+            final ArrayList<LiteFeatureTypeStyle> lfts)
+            throws Exception {
         // classify by sortby and transformation (aka how we produce the features to
         // be rendered)
         List<List<LiteFeatureTypeStyle>> txClassified = classifyByFeatureProduction(lfts);
@@ -2271,10 +2613,11 @@ private void processStylers(final Graphics2D graphics, final Layer layer, String
                     .filter(r -> !r.isElseFilter() && r.getFilter() != null)
                     .forEach(r -> r.getFilter().accept(repeatedVisitor, null));
             Set<Object> repeatedObjects = repeatedVisitor.getRepeatedObjects();
-            // step two, memoize the repeated ones and convert simple features access to indexed
+            // step two, memoize the repeated ones and convert simple features access to indexed,
+            // compiling the comparisons
             if (schema instanceof SimpleFeatureType || !repeatedObjects.isEmpty()) {
                 MemoryFilterOptimizer filterOptimizer =
-                        new MemoryFilterOptimizer(features.getSchema(), repeatedObjects);
+                        new MemoryFilterOptimizer(features.getSchema(), repeatedObjects, true);
                 for (LiteFeatureTypeStyle fts : uniformLfts) {
                     for (int i = 0; i < fts.ruleList.length; i++) {
                         Rule rule = fts.ruleList[i];
@@ -3799,6 +4142,33 @@ void execute() {
         }
     }
 
+    /** A request to merge the back buffer of a layer rendered in parallel to the main graphics */
+    protected class MergeLayerImageRequest extends RenderingRequest {
+        Graphics2D graphics;
+
+        BufferedImage image;
+
+        int x;
+
+        int y;
+
+        public MergeLayerImageRequest(Graphics2D graphics, BufferedImage image, int x, int y) {
+            this.graphics = graphics;
+            this.image = image;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        void execute() {
+            if (graphics instanceof DelayedBackbufferGraphic) {
+                ((DelayedBackbufferGraphic) graphics).init();
+            }
+            graphics.setComposite(AlphaComposite.SrcOver);
+            graphics.drawImage(image, x, y, null);
+        }
+    }
+
     protected class MargeCompositingGroupRequest extends RenderingRequest {
         Graphics2D graphics;
 
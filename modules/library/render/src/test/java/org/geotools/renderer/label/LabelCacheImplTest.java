@@ -1,5 +1,6 @@
 package org.geotools.renderer.label;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -329,6 +330,50 @@ public void testFollowLineAutoWrap() throws Exception {
         assertEquals(0, item.getAutoWrap());
     }
 
+    @Test
+    public void testParallelPreparation() throws Exception {
+        BufferedImage sequential = paintDenseLabels(false);
+        BufferedImage parallel = paintDenseLabels(true);
+        int[] expected = sequential.getRGB(0, 0, 256, 256, null, 0, 256);
+        int[] actual = parallel.getRGB(0, 0, 256, 256, null, 0, 256);
+        assertTrue(Arrays.stream(expected).anyMatch(rgb -> rgb != 0));
+        assertArrayEquals(expected, actual);
+    }
+
+    private BufferedImage paintDenseLabels(boolean parallel) throws Exception {
+        LabelCacheImpl labelCache = new LabelCacheImpl();
+        labelCache.setParallelPreparation(parallel);
+        labelCache.startLayer(LAYER_ID);
+        Font font = sb.createFont("Bitstream Vera Sans", 10);
+        TextSymbolizer lineSymbolizer = sb.createTextSymbolizer(Color.BLACK, font, "name");
+        lineSymbolizer.getOptions().put(TextSymbolizer.FOLLOW_LINE_KEY, "true");
+        TextSymbolizer pointSymbolizer = sb.createTextSymbolizer(Color.BLUE, font, "name");
+        for (int i = 0; i < 200; i++) {
+            int x = (i * 37) % 256;
+            int y = (i * 61) % 256;
+            Geometry geom;
+            if (i % 2 == 0) {
+                String wkt = "LINESTRING(%d %d, %d %d, %d %d)";
+                geom = geometry(String.format(wkt, x, y, x + 60, y + 20, x + 120, y));
+            } else {
+                geom = geometry(String.format("POINT(%d %d)", x, y));
+            }
+            SimpleFeature feature = createFeature("label" + (i % 10), geom);
+            labelCache.put(
+                    LAYER_ID,
+                    i % 2 == 0 ? lineSymbolizer : pointSymbolizer,
+                    feature,
+                    new LiteShape2(geom, null, null, false),
+                    ALL_SCALES);
+        }
+        labelCache.endLayer(LAYER_ID, null, null);
+        BufferedImage image = new BufferedImage(256, 256, BufferedImage.TYPE_4BYTE_ABGR);
+        Graphics2D graphics = image.createGraphics();
+        labelCache.end(graphics, new Rectangle(0, 0, 256, 256));
+        graphics.dispose();
+        return image;
+    }
+
     private SimpleFeature createFeature(String label, Geometry geom) {
         fb.add(label);
         fb.add(geom);
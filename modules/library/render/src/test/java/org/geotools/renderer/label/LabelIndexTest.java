@@ -0,0 +1,110 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.label;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class LabelIndexTest {
+
+    @Test
+    public void testOverlapAndDistance() {
+        LabelIndex index = new LabelIndex();
+        index.addLabel(null, new Rectangle2D.Double(10, 10, 20, 5));
+
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(25, 12, 10, 10), 0));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(40, 10, 10, 5), 0));
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(40, 10, 10, 5), 10));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(25, 12, 10, 10), -1));
+    }
+
+    @Test
+    public void testCrossingCells() {
+        LabelIndex index = new LabelIndex(10);
+        // spans several cells, including negative ones
+        index.addLabel(null, new Rectangle2D.Double(-15, -5, 30, 8));
+        assertEquals(0, index.index.size());
+
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(-14, -4, 1, 1), 0));
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(14, 2, 1, 1), 0));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(16, 2, 1, 1), 0));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(-14, 4, 1, 1), 0));
+    }
+
+    @Test
+    public void testLargeItems() {
+        LabelIndex index = new LabelIndex(10);
+        index.reserveArea(Arrays.asList(new Rectangle2D.Double(0, 0, 500, 20)));
+        index.addLabel(null, new Rectangle2D.Double(1000, 1000, 5, 5));
+        assertEquals(2, index.size());
+        assertEquals(1, index.index.size());
+
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(250, 10, 5, 5), 0));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(250, 30, 5, 5), 0));
+        // a query bigger than the whole grid
+        assertTrue(index.labelsWithinDistance(new Rectangle2D.Double(600, 600, 1000, 1000), 0));
+        assertFalse(index.labelsWithinDistance(new Rectangle2D.Double(600, 600, 300, 300), 0));
+    }
+
+    @Test
+    public void testRandomRectangles() {
+        Random random = new Random(0);
+        LabelIndex index = new LabelIndex();
+        List<Rectangle2D> added = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Rectangle2D query = randomRectangle(random);
+            double distance = random.nextInt(4);
+            boolean expected = false;
+            for (Rectangle2D r : added) {
+                Rectangle2D expanded =
+                        new Rectangle2D.Double(
+                                query.getMinX() - distance,
+                                query.getMinY() - distance,
+                                query.getWidth() + distance * 2,
+                                query.getHeight() + distance * 2);
+                if (expanded.getMaxX() >= r.getMinX()
+                        && expanded.getMinX() <= r.getMaxX()
+                        && expanded.getMaxY() >= r.getMinY()
+                        && expanded.getMinY() <= r.getMaxY()) {
+                    expected = true;
+                    break;
+                }
+            }
+            assertEquals(expected, index.labelsWithinDistance(query, distance));
+            if (!expected) {
+                index.addLabel(null, query);
+                added.add(query);
+            }
+        }
+        assertEquals(added.size(), index.size());
+    }
+
+    private Rectangle2D randomRectangle(Random random) {
+        double width = random.nextInt(10) == 0 ? 300 : 5 + random.nextInt(80);
+        double x = random.nextInt(1024) - 100;
+        double y = random.nextInt(1024) - 100;
+        return new Rectangle2D.Double(x, y, width, 5 + random.nextInt(12));
+    }
+}
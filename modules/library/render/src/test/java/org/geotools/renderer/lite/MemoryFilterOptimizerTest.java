@@ -41,6 +41,7 @@
 import org.geotools.data.DataTestCase;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.filter.FilterCompiler;
 import org.geotools.filter.function.FilterFunction_strConcat;
 import org.geotools.filter.function.InFunction;
 import org.geotools.renderer.lite.MemoryFilterOptimizer.IndexPropertyName;
@@ -260,4 +261,22 @@ public void testInFunctionOptimizerExpression() throws Exception {
         assertTrue(inLiterals.contains("r2"));
         assertTrue(inLiterals.contains("r3"));
     }
+
+    @Test
+    public void testCompile() {
+        MemoryFilterOptimizer optimizer =
+                new MemoryFilterOptimizer(roadType, Collections.singleton(equalId), true);
+
+        final And copy = (And) and.accept(optimizer, null);
+
+        // the comparison got compiled, the memoization candidate is still memoized
+        List<Filter> children = copy.getChildren();
+        assertSame(equalName, FilterCompiler.getOriginal(children.get(0)));
+        assertFalse(children.get(0) instanceof PropertyIsEqualTo);
+        assertTrue(Proxy.isProxyClass(children.get(1).getClass()));
+        for (SimpleFeature feature : roadFeatures) {
+            assertEquals(and.evaluate(feature), copy.evaluate(feature));
+            assertEquals(equalName.evaluate(feature), children.get(0).evaluate(feature));
+        }
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import org.geotools.api.style.Style;
+import org.geotools.data.property.PropertyDataStore;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.image.test.ImageAssert;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.MapContent;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.styling.StyleBuilder;
+import org.geotools.test.TestData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetaTileRendererTest {
+
+    private static final ReferencedEnvelope BOUNDS =
+            new ReferencedEnvelope(0, 10, 0, 10, DefaultGeographicCRS.WGS84);
+
+    private PropertyDataStore ds;
+
+    private MapContent mc;
+
+    @Before
+    public void setup() throws Exception {
+        File property = new File(TestData.getResource(this, "square.properties").toURI());
+        ds = new PropertyDataStore(property.getParentFile());
+        StyleBuilder sb = new StyleBuilder();
+        Style blue = sb.createStyle(sb.createPolygonSymbolizer(Color.BLUE));
+        Style red = sb.createStyle(sb.createPolygonSymbolizer(Color.RED));
+        mc = new MapContent();
+        mc.addLayer(new FeatureLayer(ds.getFeatureSource("bigsquare"), blue));
+        mc.addLayer(new FeatureLayer(ds.getFeatureSource("square"), red));
+    }
+
+    @After
+    public void teardown() {
+        mc.dispose();
+        ds.dispose();
+    }
+
+    private StreamingRenderer buildRenderer() {
+        StreamingRenderer renderer = new StreamingRenderer();
+        renderer.setMapContent(mc);
+        return renderer;
+    }
+
+    @Test
+    public void testTiles() throws Exception {
+        MetaTileRenderer renderer = new MetaTileRenderer(buildRenderer());
+        renderer.setGutter(10);
+        MetaTileRenderer.MetaTile metaTile = renderer.paint(BOUNDS, 100, 100, 2, 2);
+
+        BufferedImage canvas = metaTile.getCanvas();
+        assertEquals(220, canvas.getWidth());
+        assertEquals(220, canvas.getHeight());
+
+        for (int col = 0; col < 2; col++) {
+            for (int row = 0; row < 2; row++) {
+                BufferedImage tile = metaTile.getTile(col, row);
+                assertEquals(100, tile.getWidth());
+                assertEquals(100, tile.getHeight());
+            }
+        }
+
+        // top left tile, fully covered by the red square but the top left corner
+        BufferedImage topLeft = metaTile.getTile(0, 0);
+        RendererBaseTest.assertPixel(topLeft, 50, 50, Color.RED);
+        RendererBaseTest.assertPixel(topLeft, 20, 20, Color.BLUE);
+        // bottom left tile, has the small red square in its bottom left corner
+        BufferedImage bottomLeft = metaTile.getTile(0, 1);
+        RendererBaseTest.assertPixel(bottomLeft, 20, 80, Color.RED);
+        RendererBaseTest.assertPixel(bottomLeft, 20, 20, Color.BLUE);
+    }
+
+    @Test
+    public void testSameAsSingleTile() throws Exception {
+        MetaTileRenderer renderer = new MetaTileRenderer(buildRenderer());
+        renderer.setGutter(10);
+        MetaTileRenderer.MetaTile metaTile = renderer.paint(BOUNDS, 100, 100, 2, 2);
+
+        for (int col = 0; col < 2; col++) {
+            for (int row = 0; row < 2; row++) {
+                ReferencedEnvelope tileEnvelope = metaTile.getTileEnvelope(col, row);
+                BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D graphics = expected.createGraphics();
+                buildRenderer().paint(graphics, new Rectangle(100, 100), tileEnvelope);
+                graphics.dispose();
+
+                ImageAssert.assertEquals(expected, metaTile.copyTile(col, row), 10);
+            }
+        }
+    }
+
+    @Test
+    public void testTileEnvelope() throws Exception {
+        MetaTileRenderer renderer = new MetaTileRenderer(buildRenderer());
+        MetaTileRenderer.MetaTile metaTile = renderer.paint(BOUNDS, 100, 100, 2, 2);
+
+        ReferencedEnvelope topLeft = metaTile.getTileEnvelope(0, 0);
+        assertEquals(new ReferencedEnvelope(0, 5, 5, 10, DefaultGeographicCRS.WGS84), topLeft);
+        ReferencedEnvelope bottomRight = metaTile.getTileEnvelope(1, 1);
+        assertEquals(new ReferencedEnvelope(5, 10, 0, 5, DefaultGeographicCRS.WGS84), bottomRight);
+    }
+
+    @Test
+    public void testCopyTile() throws Exception {
+        MetaTileRenderer renderer = new MetaTileRenderer(buildRenderer());
+        MetaTileRenderer.MetaTile metaTile = renderer.paint(BOUNDS, 100, 100, 2, 2);
+
+        BufferedImage copy = metaTile.copyTile(1, 0);
+        assertNotSame(
+                metaTile.getCanvas().getRaster().getDataBuffer(),
+                copy.getRaster().getDataBuffer());
+        ImageAssert.assertEquals(metaTile.getTile(1, 0), copy, 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidTile() throws Exception {
+        MetaTileRenderer renderer = new MetaTileRenderer(buildRenderer());
+        MetaTileRenderer.MetaTile metaTile = renderer.paint(BOUNDS, 100, 100, 2, 2);
+        metaTile.getTile(2, 0);
+    }
+}
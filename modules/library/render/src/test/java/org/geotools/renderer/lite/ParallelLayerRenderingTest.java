@@ -0,0 +1,258 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.renderer.lite;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.style.Style;
+import org.geotools.data.property.PropertyDataStore;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.image.test.ImageAssert;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.Layer;
+import org.geotools.map.MapContent;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.renderer.RenderListener;
+import org.geotools.renderer.label.LabelCacheImpl;
+import org.geotools.styling.StyleBuilder;
+import org.geotools.test.TestData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelLayerRenderingTest {
+
+    private static final ReferencedEnvelope BOUNDS =
+            new ReferencedEnvelope(0, 10, 0, 10, DefaultGeographicCRS.WGS84);
+
+    private ExecutorService executor;
+
+    private PropertyDataStore ds;
+
+    @Before
+    public void setup() throws Exception {
+        executor = Executors.newFixedThreadPool(4);
+        File property = new File(TestData.getResource(this, "square.properties").toURI());
+        ds = new PropertyDataStore(property.getParentFile());
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdown();
+        ds.dispose();
+    }
+
+    private MapContent buildMapContent() throws Exception {
+        StyleBuilder sb = new StyleBuilder();
+        SimpleFeatureSource bigSquare = ds.getFeatureSource("bigsquare");
+        Style blue = sb.createStyle(sb.createPolygonSymbolizer(Color.BLUE));
+        SimpleFeatureSource square = ds.getFeatureSource("square");
+        Style red = sb.createStyle(sb.createPolygonSymbolizer(Color.RED));
+        SimpleFeatureSource buildings = ds.getFeatureSource("buildings");
+        Style gray =
+                sb.createStyle(sb.createPolygonSymbolizer(null, sb.createFill(Color.GRAY, 0.5)));
+
+        MapContent mc = new MapContent();
+        mc.addLayer(new FeatureLayer(bigSquare, blue));
+        mc.addLayer(new FeatureLayer(square, red));
+        mc.addLayer(new FeatureLayer(buildings, gray));
+        return mc;
+    }
+
+    private BufferedImage render(boolean parallel) throws Exception {
+        return render(parallel, executor, new Rectangle(300, 300));
+    }
+
+    private BufferedImage render(boolean parallel, ExecutorService pool, Rectangle paintArea)
+            throws Exception {
+        MapContent mc = buildMapContent();
+        try {
+            StreamingRenderer renderer = new StreamingRenderer();
+            renderer.setMapContent(mc);
+            renderer.setThreadPool(pool);
+            Map<Object, Object> hints = new HashMap<>();
+            hints.put(StreamingRenderer.PARALLEL_LAYER_RENDERING_KEY, parallel);
+            renderer.setRendererHints(hints);
+            BufferedImage image = new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, 300, 300);
+            renderer.paint(graphics, paintArea, BOUNDS);
+            graphics.dispose();
+            return image;
+        } finally {
+            mc.dispose();
+        }
+    }
+
+    @Test
+    public void testSameOutputAsSequential() throws Exception {
+        BufferedImage sequential = render(false);
+        BufferedImage parallel = render(true);
+        ImageAssert.assertEquals(sequential, parallel, 0);
+    }
+
+    @Test
+    public void testZOrder() throws Exception {
+        BufferedImage image = render(true);
+        // the red square is painted on top of the blue one
+        RendererBaseTest.assertPixel(image, 150, 150, Color.RED);
+        // the blue square is visible outside of the red one
+        RendererBaseTest.assertPixel(image, 30, 30, Color.BLUE);
+    }
+
+    @Test(timeout = 60000)
+    public void testSingleThreadPool() throws Exception {
+        // the painter takes the only thread of the pool, the layers must not queue behind it
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            BufferedImage parallel = render(true, single, new Rectangle(300, 300));
+            ImageAssert.assertEquals(render(false), parallel, 0);
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    public void testPaintAreaOffset() throws Exception {
+        Rectangle paintArea = new Rectangle(50, 100, 200, 150);
+        BufferedImage sequential = render(false, executor, paintArea);
+        BufferedImage parallel = render(true, executor, paintArea);
+        ImageAssert.assertEquals(sequential, parallel, 0);
+        // the layers are painted in the paint area, and only there
+        RendererBaseTest.assertPixel(parallel, 10, 10, Color.WHITE);
+        assertNotEquals(Color.WHITE.getRGB(), parallel.getRGB(150, 175));
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+        MapContent mc = buildMapContent();
+        try {
+            StreamingRenderer renderer = new StreamingRenderer();
+            renderer.setMapContent(mc);
+            renderer.setThreadPool(executor);
+            Map<Object, Object> hints = new HashMap<>();
+            hints.put(StreamingRenderer.PARALLEL_LAYER_RENDERING_KEY, true);
+            renderer.setRendererHints(hints);
+            AtomicInteger features = new AtomicInteger();
+            AtomicInteger errors = new AtomicInteger();
+            List<Layer> started = new CopyOnWriteArrayList<>();
+            List<Layer> ended = new CopyOnWriteArrayList<>();
+            RenderListener listener =
+                    new RenderListener() {
+
+                        @Override
+                        public void featureRenderer(SimpleFeature feature) {
+                            features.incrementAndGet();
+                        }
+
+                        @Override
+                        public void errorOccurred(Exception e) {
+                            errors.incrementAndGet();
+                        }
+
+                        @Override
+                        public void layerStart(Layer layer) {
+                            started.add(layer);
+                        }
+
+                        @Override
+                        public void layerEnd(Layer layer) {
+                            ended.add(layer);
+                        }
+                    };
+            RendererBaseTest.renderImage(renderer, BOUNDS, listener);
+            assertEquals(0, errors.get());
+            int expected =
+                    ds.getFeatureSource("bigsquare").getCount(Query.ALL)
+                            + ds.getFeatureSource("square").getCount(Query.ALL)
+                            + ds.getFeatureSource("buildings").getCount(Query.ALL);
+            assertEquals(expected, features.get());
+            assertEquals(mc.layers(), started);
+            assertEquals(mc.layers(), ended);
+        } finally {
+            mc.dispose();
+        }
+    }
+
+    @Test
+    public void testStopEndsLabelLayers() throws Exception {
+        MapContent mc = buildMapContent();
+        try {
+            List<String> started = new CopyOnWriteArrayList<>();
+            List<String> ended = new CopyOnWriteArrayList<>();
+            LabelCacheImpl labelCache =
+                    new LabelCacheImpl() {
+                        @Override
+                        public void startLayer(String layerId) {
+                            started.add(layerId);
+                            super.startLayer(layerId);
+                        }
+
+                        @Override
+                        public void endLayer(
+                                String layerId, Graphics2D graphics, Rectangle displayArea) {
+                            ended.add(layerId);
+                            super.endLayer(layerId, graphics, displayArea);
+                        }
+                    };
+            StreamingRenderer renderer = new StreamingRenderer();
+            renderer.setMapContent(mc);
+            renderer.setThreadPool(executor);
+            Map<Object, Object> hints = new HashMap<>();
+            hints.put(StreamingRenderer.PARALLEL_LAYER_RENDERING_KEY, true);
+            hints.put(StreamingRenderer.LABEL_CACHE_KEY, labelCache);
+            renderer.setRendererHints(hints);
+            // stop as soon as the layers are started, before any of them is merged
+            RenderListener listener =
+                    new RenderListener() {
+
+                        @Override
+                        public void featureRenderer(SimpleFeature feature) {}
+
+                        @Override
+                        public void errorOccurred(Exception e) {}
+
+                        @Override
+                        public void layerStart(Layer layer) {
+                            renderer.stopRendering();
+                        }
+                    };
+            RendererBaseTest.renderImage(renderer, BOUNDS, listener);
+            assertEquals(3, started.size());
+            assertEquals(started, ended);
+        } finally {
+            mc.dispose();
+        }
+    }
+}
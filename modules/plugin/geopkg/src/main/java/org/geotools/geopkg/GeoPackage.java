@@ -122,6 +122,8 @@ public class GeoPackage implements Closeable {
 
     public static final String SPATIAL_INDEX = "gpkg_spatial_index";
 
+    static final String SPATIAL_INDEX_TRIGGERS = "gpkg_spatial_index_triggers";
+
     public static final String SCHEMA = "gpkg_schema";
 
     /**
@@ -907,6 +909,40 @@ public void add(FeatureEntry entry, SimpleFeatureCollection collection) throws I
         entry.init(e);
     }
 
+    /**
+     * Adds a new, potentially very large, feature dataset to the geopackage. Compared to {@link
+     * #add(FeatureEntry, SimpleFeatureCollection)} the rows are inserted with batched statements
+     * over a series of large transactions, geometries are encoded in parallel, and the spatial
+     * index, if requested, is built in a single pass once all rows are in, rather than being
+     * updated by triggers on each insert.
+     *
+     * <p>Since the data is committed in several transactions, a failure may leave the new table
+     * partially populated.
+     *
+     * @param entry Contains metadata about the feature entry.
+     * @param collection The simple feature collection to add to the geopackage.
+     * @param spatialIndex Whether to build the spatial index of the new table.
+     * @throws IOException Any errors occurring while adding the new feature dataset.
+     * @since 31
+     */
+    public void addBulk(
+            FeatureEntry entry, SimpleFeatureCollection collection, boolean spatialIndex)
+            throws IOException {
+        FeatureEntry e = new FeatureEntry();
+        e.init(entry);
+
+        collection = forceXY(collection);
+
+        if (e.getBounds() == null) {
+            e.setBounds(collection.getBounds());
+        }
+
+        create(e, collection.getSchema());
+
+        new GeoPkgBulkLoader(this, e).load(collection, spatialIndex);
+        entry.init(e);
+    }
+
     /**
      * Adds a new feature dataset to the geopackage.
      *
@@ -1192,6 +1228,7 @@ public void createSpatialIndex(FeatureEntry e) throws IOException {
 
         try (Connection cx = connPool.getConnection()) {
             runScript(SPATIAL_INDEX + ".sql", cx, properties);
+            runScript(SPATIAL_INDEX_TRIGGERS + ".sql", cx, properties);
         } catch (SQLException ex) {
             throw new IOException(ex);
         }
@@ -1492,10 +1529,12 @@ public TileReader reader(
             Integer highRow)
             throws IOException {
 
+        // use placeholders, so that the statement can be reused when the pool caches them
         List<String> q = new ArrayList<>();
-        addRange("zoom_level", lowZoom, highZoom, q);
-        addRange("tile_column", lowCol, highCol, q);
-        addRange("tile_row", lowRow, highRow, q);
+        List<Integer> values = new ArrayList<>();
+        addRange("zoom_level", lowZoom, highZoom, q, values);
+        addRange("tile_column", lowCol, highCol, q, values);
+        addRange("tile_row", lowRow, highRow, q, values);
 
         StringBuffer sql =
                 new StringBuffer("SELECT * FROM \"").append(entry.getTableName()).append("\"");
@@ -1506,16 +1545,44 @@ public TileReader reader(
             }
             sql.setLength(sql.length() - 5);
         }
+        Connection cx = null;
         try {
-            Connection cx = connPool.getConnection();
-            Statement st = cx.createStatement();
-            ResultSet rs = st.executeQuery(sql.toString());
-            return new TileReader(rs, st, cx);
+            cx = connPool.getConnection();
+            PreparedStatement ps = cx.prepareStatement(sql.toString());
+            for (int i = 0; i < values.size(); i++) {
+                ps.setInt(i + 1, values.get(i));
+            }
+            ResultSet rs = ps.executeQuery();
+            return new TileReader(rs, ps, cx);
         } catch (SQLException e) {
+            if (cx != null) {
+                try {
+                    cx.close();
+                } catch (SQLException ce) {
+                    e.addSuppressed(ce);
+                }
+            }
             throw new IOException(e);
         }
     }
 
+    private void addRange(
+            String attribute, Integer low, Integer high, List<String> q, List<Integer> values) {
+        if (low != null && high != null && low.equals(high)) {
+            q.add(attribute + " = ?");
+            values.add(low);
+        } else {
+            if (low != null) {
+                q.add(attribute + " >= ?");
+                values.add(low);
+            }
+            if (high != null) {
+                q.add(attribute + " <= ?");
+                values.add(high);
+            }
+        }
+    }
+
     public void addRange(String attribute, Integer low, Integer high, List<String> q) {
         if (low != null && high != null && low.equals(high)) {
             q.add(attribute + " = " + low);
@@ -0,0 +1,360 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.geopkg;
+
+import static org.geotools.jdbc.util.SqlUtil.prepare;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.geopkg.geom.GeoPkgGeomWriter;
+import org.geotools.jdbc.EnumMapper;
+import org.geotools.jdbc.JDBCDataStore;
+import org.geotools.jdbc.JDBCFeatureStore;
+import org.geotools.jdbc.PrimaryKey;
+import org.geotools.jdbc.PrimaryKeyColumn;
+import org.geotools.util.ParallelChunks;
+import org.geotools.util.factory.Hints;
+import org.geotools.util.logging.Logging;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Loads large collections into a newly created feature table, bypassing the feature writer
+ * machinery. Rows are inserted with batched prepared statements, committing every {@link
+ * #transactionSize} rows, while the geometries of the next batch are encoded on the common fork
+ * join pool. The table has no spatial index triggers while loading, the RTree is built at the end
+ * in a single pass, inserting the entries sorted by position so that the tree nodes are compact.
+ */
+class GeoPkgBulkLoader {
+
+    static final Logger LOGGER = Logging.getLogger(GeoPkgBulkLoader.class);
+
+    /** Default number of features inserted with a single statement batch */
+    static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /** Default number of features inserted in a single transaction */
+    static final int DEFAULT_TRANSACTION_SIZE = 100000;
+
+    /** Minimum number of geometries encoded by a single task */
+    static final int MIN_TASK_SIZE = 64;
+
+    /** Approximate number of entries in a SQLite RTree node, used to size the sort slices */
+    static final int RTREE_NODE_SIZE = 50;
+
+    /** A batch of features, along with their geometries being encoded */
+    static class Batch {
+        final List<SimpleFeature> features;
+
+        final byte[][][] geometries;
+
+        List<Future<Void>> encoding = Collections.emptyList();
+
+        Batch(List<SimpleFeature> features, int geometryColumns) {
+            this.features = features;
+            this.geometries = new byte[features.size()][geometryColumns][];
+        }
+    }
+
+    final GeoPackage geopkg;
+
+    final FeatureEntry entry;
+
+    int batchSize = DEFAULT_BATCH_SIZE;
+
+    int transactionSize = DEFAULT_TRANSACTION_SIZE;
+
+    SimpleFeatureType schema;
+
+    GeoPkgDialect dialect;
+
+    String pkName;
+
+    List<AttributeDescriptor> columns;
+
+    List<AttributeDescriptor> geometryColumns;
+
+    GeoPkgBulkLoader(GeoPackage geopkg, FeatureEntry entry) {
+        this.geopkg = geopkg;
+        this.entry = entry;
+    }
+
+    /**
+     * Loads the collection in the entry table, which must already exist and be empty, and
+     * eventually builds its spatial index
+     */
+    void load(SimpleFeatureCollection collection, boolean spatialIndex) throws IOException {
+        JDBCDataStore dataStore = geopkg.dataStore();
+        dialect = (GeoPkgDialect) dataStore.getSQLDialect();
+        String tableName = entry.getTableName();
+        PrimaryKey pk = ((JDBCFeatureStore) dataStore.getFeatureSource(tableName)).getPrimaryKey();
+        if (pk.getColumns().size() != 1) {
+            throw new IOException("Bulk loading only supported for primary key of single column.");
+        }
+        pkName = pk.getColumns().get(0).getName();
+        schema = dataStore.getSchema(tableName);
+        columns = new ArrayList<>();
+        geometryColumns = new ArrayList<>();
+        for (AttributeDescriptor ad : schema.getAttributeDescriptors()) {
+            if (isKey(pk, ad.getLocalName())) continue;
+            columns.add(ad);
+            if (Geometry.class.isAssignableFrom(ad.getType().getBinding())) {
+                geometryColumns.add(ad);
+            }
+        }
+
+        try (Connection cx = geopkg.connPool.getConnection()) {
+            boolean autoCommit = cx.getAutoCommit();
+            cx.setAutoCommit(false);
+            try {
+                long count = insert(collection, cx);
+                if (spatialIndex && entry.getGeometryColumn() != null) {
+                    buildSpatialIndex(count, cx);
+                }
+                cx.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                cx.rollback();
+                throw e;
+            } finally {
+                cx.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private boolean isKey(PrimaryKey pk, String name) {
+        for (PrimaryKeyColumn column : pk.getColumns()) {
+            if (column.getName().equals(name)) return true;
+        }
+        return false;
+    }
+
+    /** Inserts all the features, returns the number of rows inserted */
+    private long insert(SimpleFeatureCollection collection, Connection cx)
+            throws IOException, SQLException {
+        StringBuffer sql = new StringBuffer("INSERT INTO ");
+        dialect.encodeTableName(entry.getTableName(), sql);
+        sql.append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sql.append(", ");
+            dialect.encodeColumnName(null, columns.get(i).getLocalName(), sql);
+        }
+        sql.append(") VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+        }
+        sql.append(")");
+        LOGGER.log(Level.FINE, "Bulk loading features with ps: {0}", sql);
+
+        long count = 0;
+        long uncommitted = 0;
+        try (PreparedStatement ps = cx.prepareStatement(sql.toString());
+                SimpleFeatureIterator it = collection.features()) {
+            // encode the next batch while the current one is being inserted
+            Batch batch = encode(read(it));
+            while (!batch.features.isEmpty()) {
+                Batch next = encode(read(it));
+                ParallelChunks.await(batch.encoding);
+                insert(batch, ps, cx);
+                count += batch.features.size();
+                uncommitted += batch.features.size();
+                if (uncommitted >= transactionSize) {
+                    cx.commit();
+                    uncommitted = 0;
+                }
+                batch = next;
+            }
+        }
+        return count;
+    }
+
+    private List<SimpleFeature> read(SimpleFeatureIterator it) {
+        List<SimpleFeature> features = new ArrayList<>(batchSize);
+        while (features.size() < batchSize && it.hasNext()) {
+            features.add(it.next());
+        }
+        return features;
+    }
+
+    /** Starts encoding the geometries of the batch in background */
+    private Batch encode(List<SimpleFeature> features) {
+        Batch batch = new Batch(features, geometryColumns.size());
+        if (!geometryColumns.isEmpty()) {
+            batch.encoding =
+                    ParallelChunks.submit(
+                            features.size(), MIN_TASK_SIZE, (from, to) -> encode(batch, from, to));
+        }
+        return batch;
+    }
+
+    private void encode(Batch batch, int from, int to) throws IOException {
+        GeoPkgGeomWriter.Configuration config = geopkg.getWriterConfiguration();
+        for (int i = from; i < to; i++) {
+            SimpleFeature feature = batch.features.get(i);
+            for (int j = 0; j < geometryColumns.size(); j++) {
+                AttributeDescriptor ad = geometryColumns.get(j);
+                Geometry g = (Geometry) feature.getAttribute(ad.getLocalName());
+                if (g == null || g.isEmpty()) {
+                    continue;
+                }
+                // the geometries belong to the caller, the SRID is only set in the encoding
+                GeoPkgGeomWriter writer = new GeoPkgGeomWriter(getDimension(g, ad), config);
+                batch.geometries[i][j] = writer.write(g, getSRID(g, ad));
+            }
+        }
+    }
+
+    private int getSRID(Geometry g, AttributeDescriptor ad) {
+        Object srid = ad.getUserData().get(JDBCDataStore.JDBC_NATIVE_SRID);
+        if (srid instanceof Integer) {
+            return (Integer) srid;
+        }
+        return g.getSRID() > 0 ? g.getSRID() : entry.getSrid();
+    }
+
+    private int getDimension(Geometry g, AttributeDescriptor ad) {
+        Object dimension = ad.getUserData().get(Hints.COORDINATE_DIMENSION);
+        if (dimension instanceof Integer && (Integer) dimension > 0) {
+            return (Integer) dimension;
+        }
+        Coordinate c = g.getCoordinate();
+        return c != null && !Double.isNaN(c.getZ()) ? 3 : 2;
+    }
+
+    private void insert(Batch batch, PreparedStatement ps, Connection cx)
+            throws IOException, SQLException {
+        for (int i = 0; i < batch.features.size(); i++) {
+            SimpleFeature feature = batch.features.get(i);
+            int g = 0;
+            for (int j = 0; j < columns.size(); j++) {
+                AttributeDescriptor ad = columns.get(j);
+                String name = ad.getLocalName();
+                Object value = feature.getAttribute(name);
+                if (value == null && !ad.isNillable()) {
+                    throw new IOException("Cannot set a NULL value on the not null column " + name);
+                }
+
+                Class<?> binding = ad.getType().getBinding();
+                if (Geometry.class.isAssignableFrom(binding)) {
+                    byte[] bytes = batch.geometries[i][g++];
+                    if (bytes != null) {
+                        ps.setBytes(j + 1, bytes);
+                    } else {
+                        ps.setNull(j + 1, Types.BLOB);
+                    }
+                } else if (dialect.isArray(ad)) {
+                    dialect.setArrayValue(value, ad, ps, j + 1, cx);
+                } else {
+                    EnumMapper mapper =
+                            (EnumMapper) ad.getUserData().get(JDBCDataStore.JDBC_ENUM_MAP);
+                    if (mapper != null) {
+                        value = mapper.fromString((String) value);
+                        binding = Integer.class;
+                    } else if (value instanceof Boolean) {
+                        // geopkg spec requires booleans to be stored as SQLite integers
+                        value = (Boolean) value ? 1 : 0;
+                    }
+                    dialect.setValue(value, binding, ps, j + 1, cx);
+                }
+            }
+            ps.addBatch();
+        }
+        ps.executeBatch();
+    }
+
+    /**
+     * Creates and fills the RTree, then adds the triggers keeping it in synch. The entries are
+     * sorted in vertical slices, and by y within each slice, an approximation of the
+     * Sort-Tile-Recursive packing that results in compact, mostly non overlapping nodes
+     */
+    private void buildSpatialIndex(long count, Connection cx) throws IOException, SQLException {
+        String table = entry.getTableName();
+        String column = entry.getGeometryColumn();
+        String index = "rtree_" + table + "_" + column;
+        StringBuffer sb = new StringBuffer();
+        dialect.encodeTableName(index, sb);
+        String rtree = sb.toString();
+        sb.setLength(0);
+        dialect.encodeTableName(table, sb);
+        String encodedTable = sb.toString();
+        sb.setLength(0);
+        dialect.encodeColumnName(null, column, sb);
+        String c = sb.toString();
+        sb.setLength(0);
+        dialect.encodeColumnName(null, pkName, sb);
+        String id = sb.toString();
+
+        GeoPackage.runSQL(
+                "CREATE VIRTUAL TABLE " + rtree + " USING rtree(id, minx, maxx, miny, maxy)", cx);
+
+        double minX = 0;
+        double sliceWidth = 1;
+        ReferencedEnvelope bounds = entry.getBounds();
+        int slices = (int) Math.ceil(Math.sqrt((double) count / RTREE_NODE_SIZE));
+        if (bounds != null && !bounds.isNull() && bounds.getWidth() > 0 && slices > 0) {
+            minX = bounds.getMinX();
+            sliceWidth = bounds.getWidth() / slices;
+        }
+        String sql =
+                "INSERT INTO "
+                        + rtree
+                        + " SELECT id, minx, maxx, miny, maxy FROM (SELECT "
+                        + id
+                        + " AS id, ST_MinX("
+                        + c
+                        + ") AS minx, ST_MaxX("
+                        + c
+                        + ") AS maxx, ST_MinY("
+                        + c
+                        + ") AS miny, ST_MaxY("
+                        + c
+                        + ") AS maxy FROM "
+                        + encodedTable
+                        + " WHERE "
+                        + c
+                        + " NOT NULL AND NOT ST_IsEmpty("
+                        + c
+                        + ")) ORDER BY CAST((minx + maxx - ?) / ? AS INTEGER), miny + maxy";
+        try (PreparedStatement ps =
+                prepare(cx, sql).set(2 * minX).set(2 * sliceWidth).log(Level.FINE).statement()) {
+            ps.execute();
+        }
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("t", table);
+        properties.put("c", column);
+        properties.put("i", pkName);
+        geopkg.runScript(GeoPackage.SPATIAL_INDEX_TRIGGERS + ".sql", cx, properties);
+    }
+}
@@ -23,11 +23,13 @@
 import javax.sql.DataSource;
 import org.apache.commons.dbcp.BasicDataSource;
 import org.geotools.api.data.Parameter;
+import org.geotools.data.jdbc.datasource.DBCPDataSource;
 import org.geotools.geopkg.geom.GeoPkgGeomWriter;
 import org.geotools.jdbc.JDBCDataStore;
 import org.geotools.jdbc.JDBCDataStoreFactory;
 import org.geotools.jdbc.SQLDialect;
 import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteOpenMode;
 import org.sqlite.javax.SQLiteConnectionPoolDataSource;
 
 /**
@@ -72,6 +74,35 @@ public class GeoPkgDataStoreFactory extends JDBCDataStoreFactory {
                     false,
                     null);
 
+    /**
+     * Number of read only connections kept open and shared among concurrent readers, each caching
+     * its prepared statements (see {@link #MAX_OPEN_PREPARED_STATEMENTS}). Only used in read only
+     * mode, by default connections are opened on demand and statements prepared on each request.
+     */
+    public static final Param READ_POOL_SIZE =
+            new Param(
+                    "read pool size",
+                    Integer.class,
+                    "Number of read only connections kept open and reused by concurrent readers,"
+                            + " each caching its prepared statements. Used only in read only mode",
+                    false,
+                    null,
+                    Collections.singletonMap(Parameter.LEVEL, "advanced"));
+
+    /**
+     * Opens the database as immutable, skipping all file locking and change detection. Only used
+     * in read only mode, and only safe if the file is not modified while open.
+     */
+    public static final Param IMMUTABLE =
+            new Param(
+                    "immutable",
+                    Boolean.class,
+                    "Open the database as immutable, skipping file locking. Used only in read only"
+                            + " mode, the file must not be modified while open",
+                    false,
+                    Boolean.FALSE,
+                    Collections.singletonMap(Parameter.LEVEL, "advanced"));
+
     /** base location to store database files */
     File baseDirectory = null;
 
@@ -147,9 +178,27 @@ protected String getJDBCUrl(Map<String, ?> params) throws IOException {
                 db = new File(baseDirectory, db.getPath());
             }
         }
+        if (isImmutable(params)) {
+            // immutable can only be set as a URI parameter
+            return "jdbc:sqlite:" + db.toURI() + "?immutable=1";
+        }
         return "jdbc:sqlite:" + db;
     }
 
+    private static boolean isReadOnly(Map<String, ?> params) throws IOException {
+        return Boolean.TRUE.equals(READ_ONLY.lookUp(params));
+    }
+
+    private static boolean isImmutable(Map<String, ?> params) throws IOException {
+        return isReadOnly(params) && Boolean.TRUE.equals(IMMUTABLE.lookUp(params));
+    }
+
+    /** Returns the size of the read only connection pool, or 0 if not enabled */
+    private static int getReadPoolSize(Map<String, ?> params) throws IOException {
+        Integer size = (Integer) READ_POOL_SIZE.lookUp(params);
+        return isReadOnly(params) && size != null && size > 0 ? size : 0;
+    }
+
     @Override
     protected void setupParameters(Map<String, Object> parameters) {
         super.setupParameters(parameters);
@@ -176,6 +225,9 @@ protected void setupParameters(Map<String, Object> parameters) {
         parameters.put(READ_ONLY.key, READ_ONLY);
         // memory mapping
         parameters.put(MEMORY_MAP_SIZE.key, MEMORY_MAP_SIZE);
+        // read optimized mode
+        parameters.put(READ_POOL_SIZE.key, READ_POOL_SIZE);
+        parameters.put(IMMUTABLE.key, IMMUTABLE);
     }
 
     /**
@@ -200,12 +252,33 @@ public BasicDataSource createDataSource(Map<String, ?> params) throws IOExceptio
 
         dataSource.setAccessToUnderlyingConnectionAllowed(true);
 
+        int readPoolSize = getReadPoolSize(params);
+        if (readPoolSize > 0) {
+            // keep the connections open, along with their prepared statements
+            dataSource.setMaxActive(readPoolSize);
+            dataSource.setMaxIdle(readPoolSize);
+            Integer maxStatements = (Integer) MAX_OPEN_PREPARED_STATEMENTS.lookUp(params);
+            if (maxStatements == null) {
+                maxStatements = (Integer) MAX_OPEN_PREPARED_STATEMENTS.sample;
+            }
+            if (maxStatements >= 0) {
+                dataSource.setPoolPreparedStatements(true);
+                if (maxStatements > 0) {
+                    dataSource.setMaxOpenPreparedStatements(maxStatements);
+                }
+            }
+        }
+
         return dataSource;
     }
 
     @Override
     protected DataSource createDataSource(Map<String, ?> params, SQLDialect dialect)
             throws IOException {
+        if (getReadPoolSize(params) > 0) {
+            return new DBCPDataSource(createDataSource(params));
+        }
+
         SQLiteConfig config = setupSQLiteConfig(params);
 
         // use native "pool", which is actually not pooling anything (that's fast and
@@ -224,6 +297,9 @@ private static SQLiteConfig setupSQLiteConfig(Map<String, ?> params) throws IOEx
         if (Boolean.TRUE.equals(readOnly)) {
             config.setPragma(SQLiteConfig.Pragma.SYNCHRONOUS, "OFF");
             config.setReadOnly(true);
+            if (isImmutable(params)) {
+                config.setOpenMode(SQLiteOpenMode.OPEN_URI);
+            }
         }
         Object map = MEMORY_MAP_SIZE.lookUp(params);
         if (map instanceof Integer && ((Integer) map) >= 0) {
@@ -160,8 +160,16 @@ public void encodeGeometryEnvelope(String tableName, String geometryColumn, Stri
     @Override
     public Envelope decodeGeometryEnvelope(ResultSet rs, int column, Connection cx)
             throws SQLException, IOException {
-        Geometry g = geometry(rs.getBytes(column));
-        return g != null ? g.getEnvelopeInternal() : null;
+        byte[] bytes = rs.getBytes(column);
+        if (bytes == null) {
+            return null;
+        }
+        // the envelope is usually found in the blob header, no need to parse the geometry
+        GeoPkgGeomReader reader = new GeoPkgGeomReader(bytes);
+        if (reader.getHeader().getFlags().isEmpty()) {
+            return new Envelope();
+        }
+        return reader.getEnvelope();
     }
 
     @Override
@@ -215,10 +223,6 @@ private Geometry geometry(
         return bytes != null ? geoPkgGeomReader.get() : null;
     }
 
-    Geometry geometry(byte[] b) throws IOException {
-        return geometry(null, b, null, null);
-    }
-
     @Override
     public String getGeometryTypeName(Integer type) {
         return Geometries.getForSQLType(type).getName();
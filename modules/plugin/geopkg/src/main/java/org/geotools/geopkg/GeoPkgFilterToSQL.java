@@ -207,10 +207,14 @@ protected Object visitBinarySpatialOperator(
                 String spatial_index = sb.toString();
 
                 out.write(" IN (SELECT id FROM " + spatial_index + " r WHERE");
-                out.write(" r.maxx >= " + envelope.getMinX());
-                out.write(" AND r.minx <= " + envelope.getMaxX());
-                out.write(" AND r.maxy >= " + envelope.getMinY());
-                out.write(" AND r.miny <= " + envelope.getMaxY());
+                out.write(" r.maxx >= ");
+                writeOrdinate(envelope.getMinX());
+                out.write(" AND r.minx <= ");
+                writeOrdinate(envelope.getMaxX());
+                out.write(" AND r.maxy >= ");
+                writeOrdinate(envelope.getMinY());
+                out.write(" AND r.miny <= ");
+                writeOrdinate(envelope.getMaxY());
                 out.write(")");
             } else {
                 // fall back on direct BBOX tests, it's still faster than loading the whole geometry
@@ -218,17 +222,15 @@ protected Object visitBinarySpatialOperator(
                 StringBuffer sb = new StringBuffer();
                 dialect.encodeColumnName(null, attribute.getLocalName(), sb);
                 String encodedPropertyName = sb.toString();
-                out.write(
-                        "(ST_MaxX("
-                                + encodedPropertyName
-                                + ") >= "
-                                + envelope.getMinX()
-                                + " AND\n");
-                out.write(
-                        "ST_MinX(" + encodedPropertyName + ") <= " + envelope.getMaxX() + " AND\n");
-                out.write(
-                        "ST_MaxY(" + encodedPropertyName + ") >= " + envelope.getMinY() + " AND\n");
-                out.write("ST_MinY(" + encodedPropertyName + ") <= " + envelope.getMaxY() + ")\n");
+                out.write("(ST_MaxX(" + encodedPropertyName + ") >= ");
+                writeOrdinate(envelope.getMinX());
+                out.write(" AND\nST_MinX(" + encodedPropertyName + ") <= ");
+                writeOrdinate(envelope.getMaxX());
+                out.write(" AND\nST_MaxY(" + encodedPropertyName + ") >= ");
+                writeOrdinate(envelope.getMinY());
+                out.write(" AND\nST_MinY(" + encodedPropertyName + ") <= ");
+                writeOrdinate(envelope.getMaxY());
+                out.write(")\n");
             }
         } catch (IOException e) {
             throw new RuntimeException(
@@ -237,4 +239,12 @@ protected Object visitBinarySpatialOperator(
 
         return extraData;
     }
+
+    /**
+     * Writes a BBOX ordinate. When preparing statements the ordinate becomes a parameter, so that
+     * the SQL is the same for all the BBOX queries, and the prepared statement can be reused
+     */
+    private void writeOrdinate(double ordinate) {
+        filterFactory.literal(ordinate).accept(this, Double.class);
+    }
 }
@@ -68,12 +68,22 @@ public GeoPkgGeomWriter(int dim, Configuration config) {
     }
 
     public byte[] write(Geometry g) throws IOException {
+        return write(g, g.getSRID());
+    }
+
+    /**
+     * Encodes the geometry with the provided SRID in its header, leaving the geometry SRID
+     * untouched
+     *
+     * @since 31
+     */
+    public byte[] write(Geometry g, int srid) throws IOException {
         // rough guess at the size... each geom has 5 bytes header, uses 64bit doubles for points
         int numGeometries = g.getNumGeometries();
         int wkbSize = g.getNumPoints() * 3 * 8 + numGeometries * 5;
         int headerSize = 8 + (config.writeEnvelope ? 32 : 0);
         ByteArrayOutputStream bout = new ByteArrayOutputStream(headerSize + wkbSize);
-        write(g, bout);
+        write(g, srid, new OutputStreamOutStream(bout));
         return bout.toByteArray();
     }
 
@@ -86,7 +96,10 @@ void write(Geometry g, OutStream out) throws IOException {
         if (g == null) {
             return;
         }
+        write(g, g.getSRID(), out);
+    }
 
+    private void write(Geometry g, int srid, OutStream out) throws IOException {
         GeometryHeaderFlags flags = new GeometryHeaderFlags((byte) 0);
 
         flags.setBinaryType(GeopackageBinaryType.StandardGeoPackageBinary);
@@ -97,7 +110,7 @@ void write(Geometry g, OutStream out) throws IOException {
         GeometryHeader h = new GeometryHeader();
         h.setVersion((byte) 0);
         h.setFlags(flags);
-        h.setSrid(g.getSRID());
+        h.setSrid(srid);
         if (config.isWriteEnvelope()) {
             h.setEnvelope(g.getEnvelopeInternal());
         }
@@ -111,7 +124,7 @@ void write(Geometry g, OutStream out) throws IOException {
         out.write(buf, 4);
 
         int order = flags.getEndianess();
-        ByteOrderValues.putInt(g.getSRID(), buf, order);
+        ByteOrderValues.putInt(srid, buf, order);
         out.write(buf, 4);
 
         if (flags.getEnvelopeIndicator() != EnvelopeType.NONE) {
@@ -61,6 +61,7 @@
 import org.geotools.coverage.grid.GridGeometry2D;
 import org.geotools.coverage.grid.io.AbstractGridCoverage2DReader;
 import org.geotools.coverage.grid.io.AbstractGridFormat;
+import org.geotools.coverage.util.TileImageCache;
 import org.geotools.geometry.GeneralBounds;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.geopkg.GeoPackage;
@@ -70,6 +71,7 @@
 import org.geotools.geopkg.TileReader;
 import org.geotools.image.ImageWorker;
 import org.geotools.referencing.CRS;
+import org.geotools.util.ParallelChunks;
 import org.geotools.util.Utilities;
 import org.geotools.util.factory.GeoTools;
 import org.geotools.util.factory.Hints;
@@ -97,6 +99,9 @@ public class GeoPackageReader extends AbstractGridCoverage2DReader {
 
     GeoPackage file;
 
+    /** Cache of decoded tile images, shared among readers */
+    TileImageCache tileCache = TileImageCache.getDefault();
+
     public GeoPackageReader(Object source, Hints hints) throws IOException {
         coverageFactory = CoverageFactoryFinder.getGridCoverageFactory(this.hints);
 
@@ -323,11 +328,10 @@ public GridCoverage2D read(String coverageName, GeneralParameterValue[] paramete
              * RGBA. GDAL in particular defaults to generate a mix of PNG and JPEG to generate the
              * slow and large PNG format only when transparency is actually needed
              */
-            List<ImageInTile> sources = new ArrayList<>();
-            TileImageReader tileReader = new TileImageReader();
-
+            List<Tile> tiles = new ArrayList<>();
             while (it.hasNext()) {
                 Tile tile = it.next();
+                tiles.add(tile);
                 // recalculate the envelope we are actually returning (remember y axis is flipped)
                 ReferencedEnvelope tileEnvelope =
                         new ReferencedEnvelope( //
@@ -341,21 +345,24 @@ public GridCoverage2D read(String coverageName, GeneralParameterValue[] paramete
                 } else {
                     resultEnvelope.expandToInclude(tileEnvelope);
                 }
+            }
+            it.close();
 
-                BufferedImage tileImage = tileReader.read(tile.getData());
-
+            List<ImageInTile> sources = new ArrayList<>();
+            BufferedImage[] tileImages = readImages(entry, tiles);
+            for (int i = 0; i < tiles.size(); i++) {
+                Tile tile = tiles.get(i);
                 int posx = (tile.getColumn() - leftTile) * DEFAULT_TILE_SIZE;
                 int posy = (tile.getRow() - topTile) * DEFAULT_TILE_SIZE;
-                sources.add(new ImageInTile(tileImage, posx, posy));
+                sources.add(new ImageInTile(tileImages[i], posx, posy));
             }
-            it.close();
 
             if (sources.isEmpty()) {
                 // no tiles
                 return null;
             } else if (sources.size() == 1) {
-                // one tile
-                image = sources.get(0).image;
+                // one tile, cached images are shared and must not end up in the coverage
+                image = copy(sources.get(0).image);
             } else {
                 image = mosaicImages(sources);
             }
@@ -363,6 +370,64 @@ public GridCoverage2D read(String coverageName, GeneralParameterValue[] paramete
         return coverageFactory.create(entry.getTableName(), image, resultEnvelope);
     }
 
+    /**
+     * Decodes the tile images, looking them up in the tile cache first, and decoding the missing
+     * ones in parallel
+     */
+    private BufferedImage[] readImages(TileEntry entry, List<Tile> tiles) throws IOException {
+        BufferedImage[] images = new BufferedImage[tiles.size()];
+        // the modification time avoids serving stale tiles after the file has been rewritten
+        Object source =
+                tileCache.isEnabled()
+                        ? Arrays.asList(
+                                sourceFile.getAbsolutePath(),
+                                sourceFile.lastModified(),
+                                entry.getTableName())
+                        : null;
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            Tile tile = tiles.get(i);
+            if (source != null) {
+                images[i] = tileCache.get(source, tile.getZoom(), tile.getColumn(), tile.getRow());
+            }
+            if (images[i] == null) {
+                missing.add(i);
+            }
+        }
+
+        ParallelChunks.run(
+                missing.size(),
+                1,
+                // tile readers are not thread safe, one per chunk
+                (from, to) ->
+                        decode(new TileImageReader(), tiles, missing.subList(from, to), images));
+
+        if (source != null) {
+            for (int i : missing) {
+                Tile tile = tiles.get(i);
+                tileCache.put(source, tile.getZoom(), tile.getColumn(), tile.getRow(), images[i]);
+            }
+        }
+        return images;
+    }
+
+    /** Copies the image data, unless the tile cache is disabled */
+    private BufferedImage copy(BufferedImage image) {
+        if (!tileCache.isEnabled()) {
+            return image;
+        }
+        ColorModel cm = image.getColorModel();
+        return new BufferedImage(cm, image.copyData(null), cm.isAlphaPremultiplied(), null);
+    }
+
+    private void decode(
+            TileImageReader reader, List<Tile> tiles, List<Integer> indexes, BufferedImage[] images)
+            throws IOException {
+        for (int i : indexes) {
+            images[i] = reader.read(tiles.get(i).getData());
+        }
+    }
+
     private RenderedImage mosaicImages(List<ImageInTile> sources) {
         if (uniformImages(sources.stream().map(it -> it.image).collect(Collectors.toList()))) {
             return mosaicUniformImages(sources);
@@ -49,6 +49,7 @@
 import javax.media.jai.PlanarImage;
 import org.apache.commons.io.FileUtils;
 import org.geotools.TestData;
+import org.geotools.api.data.Query;
 import org.geotools.api.data.SimpleFeatureReader;
 import org.geotools.api.data.SimpleFeatureStore;
 import org.geotools.api.data.SimpleFeatureWriter;
@@ -628,6 +629,102 @@ public void testSpatialIndexWriting() throws Exception {
         }
     }
 
+    @Test
+    public void testAddBulk() throws Exception {
+        ShapefileDataStore shp = new ShapefileDataStore(setUpShapefile());
+        SimpleFeatureCollection coll = shp.getFeatureSource().getFeatures();
+
+        FeatureEntry entry = new FeatureEntry();
+        geopkg.addBulk(entry, coll, true);
+
+        assertFeatureEntry(entry);
+        assertTrue(geopkg.hasSpatialIndex(entry));
+        assertBulkLoaded(entry, shp);
+    }
+
+    @Test
+    public void testAddBulkSmallBatches() throws Exception {
+        ShapefileDataStore shp = new ShapefileDataStore(setUpShapefile());
+        SimpleFeatureCollection coll = shp.getFeatureSource().getFeatures();
+
+        FeatureEntry entry = new FeatureEntry();
+        entry.setBounds(coll.getBounds());
+        geopkg.create(entry, shp.getSchema());
+        // several batches and transactions, with a partial one at the end
+        GeoPkgBulkLoader loader = new GeoPkgBulkLoader(geopkg, entry);
+        loader.batchSize = 7;
+        loader.transactionSize = 20;
+        loader.load(coll, true);
+
+        assertBulkLoaded(entry, shp);
+
+        // the triggers keep the index up to date after the load
+        try (Transaction tx = new DefaultTransaction();
+                SimpleFeatureWriter w = geopkg.writer(entry, true, null, tx);
+                SimpleFeatureIterator it = coll.features()) {
+            SimpleFeature f = it.next();
+            SimpleFeature g = w.next();
+            for (PropertyDescriptor pd : coll.getSchema().getDescriptors()) {
+                String name = pd.getName().getLocalPart();
+                g.setAttribute(name, f.getAttribute(name));
+            }
+            w.write();
+            tx.commit();
+        }
+        try (Connection cx = geopkg.getDataSource().getConnection();
+                Statement st = cx.createStatement();
+                ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM rtree_bugsites_the_geom")) {
+            assertTrue(rs.next());
+            assertEquals(coll.size() + 1, rs.getInt(1));
+        }
+    }
+
+    @Test
+    public void testAddBulkKeepsSourceGeometries() throws Exception {
+        ShapefileDataStore shp = new ShapefileDataStore(setUpShapefile());
+        // in memory, the bulk loader sees the same geometry instances
+        SimpleFeatureCollection coll =
+                DataUtilities.collection(shp.getFeatureSource().getFeatures());
+
+        FeatureEntry entry = new FeatureEntry();
+        geopkg.addBulk(entry, coll, true);
+
+        assertTrue(entry.getSrid() > 0);
+        try (SimpleFeatureIterator it = coll.features()) {
+            while (it.hasNext()) {
+                assertEquals(0, ((Geometry) it.next().getDefaultGeometry()).getSRID());
+            }
+        }
+        assertBulkLoaded(entry, shp);
+    }
+
+    void assertBulkLoaded(FeatureEntry entry, ShapefileDataStore shp) throws Exception {
+        try (SimpleFeatureReader re = Features.simple(shp.getFeatureReader());
+                SimpleFeatureReader ra = geopkg.reader(entry, null, null)) {
+            while (re.hasNext()) {
+                assertTrue(ra.hasNext());
+                assertSimilar(re.next(), ra.next());
+            }
+            assertFalse(ra.hasNext());
+        }
+
+        try (Connection cx = geopkg.getDataSource().getConnection();
+                Statement st = cx.createStatement();
+                ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM rtree_bugsites_the_geom")) {
+            assertTrue(rs.next());
+            assertEquals(shp.getFeatureSource().getCount(Query.ALL), rs.getInt(1));
+        }
+
+        Set<Identifier> ids =
+                geopkg.searchSpatialIndex(entry, 590230.0, 4915038.0, 590234.0, 4915040.0);
+        FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+        try (SimpleFeatureReader sfr = geopkg.reader(entry, ff.id(ids), null)) {
+            assertTrue(sfr.hasNext());
+            assertEquals("bugsites.1", sfr.next().getID().toString());
+            assertFalse(sfr.hasNext());
+        }
+    }
+
     @Test
     public void testSpatialIndexReading() throws Exception {
         FilterFactory ff = CommonFactoryFinder.getFilterFactory();
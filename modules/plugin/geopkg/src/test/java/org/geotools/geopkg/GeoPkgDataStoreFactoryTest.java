@@ -16,6 +16,7 @@
  */
 package org.geotools.geopkg;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -27,16 +28,35 @@
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import org.geotools.api.data.DataStore;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.data.SimpleFeatureStore;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.data.DataUtilities;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 
 public class GeoPkgDataStoreFactoryTest {
@@ -115,6 +135,55 @@ public void testConnectTimeout() throws Exception {
         assertTrue(time.get() <= 10000);
     }
 
+    @Test
+    public void testReadPool() throws Exception {
+        createGeoPackage("pool.gpkg", null, "points");
+        Map<String, Serializable> map = new HashMap<>();
+        map.put(GeoPkgDataStoreFactory.DBTYPE.key, "geopkg");
+        map.put(GeoPkgDataStoreFactory.DATABASE.key, "pool.gpkg");
+        GeoPkgDataStoreFactory factory = new GeoPkgDataStoreFactory();
+        factory.setBaseDirectory(tmp.getRoot());
+        DataStore store = factory.createDataStore(map);
+        List<SimpleFeature> features = new ArrayList<>();
+        SimpleFeatureType schema = store.getSchema("points");
+        GeometryFactory gf = new GeometryFactory();
+        for (int i = 0; i < 100; i++) {
+            Point p = gf.createPoint(new Coordinate(i % 10, i / 10));
+            features.add(SimpleFeatureBuilder.build(schema, new Object[] {p, "p" + i}, null));
+        }
+        ((SimpleFeatureStore) store.getFeatureSource("points"))
+                .addFeatures(DataUtilities.collection(features));
+        store.dispose();
+
+        map.put(GeoPkgDataStoreFactory.READ_ONLY.key, true);
+        map.put(GeoPkgDataStoreFactory.READ_POOL_SIZE.key, 4);
+        map.put(GeoPkgDataStoreFactory.IMMUTABLE.key, true);
+        DataStore pooled = factory.createDataStore(map);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            SimpleFeatureSource source = pooled.getFeatureSource("points");
+            FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+            List<Future<Integer>> counts = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                int x = i % 10;
+                Filter bbox = ff.bbox("geom", x - 0.5, 0, x + 1.5, 4.5, "EPSG:4326");
+                Callable<Integer> count = () -> DataUtilities.list(source.getFeatures(bbox)).size();
+                counts.add(executor.submit(count));
+            }
+            for (int i = 0; i < counts.size(); i++) {
+                // two columns, five rows, except at the right border
+                assertEquals(i % 10 == 9 ? 5 : 10, (int) counts.get(i).get());
+            }
+            assertEquals(100, source.getCount(Filter.INCLUDE));
+            // computed from the geometry headers
+            Filter bbox = ff.bbox("geom", -0.5, 0, 1.5, 4.5, "EPSG:4326");
+            assertEquals(new Envelope(0, 1, 0, 4), source.getBounds(new Query("points", bbox)));
+        } finally {
+            executor.shutdown();
+            pooled.dispose();
+        }
+    }
+
     private void createGeoPackage(String geoPackageName, Integer connectTimeout, String tableName)
             throws IOException {
         Map<String, Serializable> map = new HashMap<>();
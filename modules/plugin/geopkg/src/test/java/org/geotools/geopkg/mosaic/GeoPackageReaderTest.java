@@ -38,6 +38,7 @@
 import org.geotools.coverage.grid.GridGeometry2D;
 import org.geotools.coverage.grid.io.AbstractGridFormat;
 import org.geotools.coverage.grid.io.OverviewPolicy;
+import org.geotools.coverage.util.TileImageCache;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.geopkg.GeoPackageTest;
 import org.geotools.image.ImageWorker;
@@ -268,6 +269,28 @@ public void testZoomLevel0Empty() throws IOException {
         reader.dispose();
     }
 
+    @Test
+    public void testTileCache() throws IOException {
+        GeoPackageReader reader =
+                new GeoPackageReader(GeoPackageTest.class.getResource("giantPoly.gpkg"), null);
+        TileImageCache cache = new TileImageCache(TileImageCache.DEFAULT_MAX_SIZE);
+        reader.tileCache = cache;
+
+        // first read decodes all the tiles
+        File referenceFull = new File("./src/test/resources/org/geotools/geopkg/giantPolyFull.png");
+        ImageAssert.assertEquals(referenceFull, reader.read(null).getRenderedImage(), 1000);
+        long misses = cache.getMisses();
+        assertTrue(misses > 0);
+        assertEquals(0, cache.getHits());
+        assertEquals(misses, cache.getCount());
+
+        // the second one is served from the cache, with the same output
+        ImageAssert.assertEquals(referenceFull, reader.read(null).getRenderedImage(), 1000);
+        assertEquals(misses, cache.getHits());
+        assertEquals(misses, cache.getMisses());
+        reader.dispose();
+    }
+
     @Test
     public void testNumberOverviews() throws IOException {
         GeoPackageReader reader =
@@ -0,0 +1,284 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.postgis;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.geotools.util.Converters;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.io.WKBWriter;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Loads rows in a table with the <code>COPY ... FROM STDIN</code> command. The rows are encoded in
+ * the COPY text format, streamed to the server in chunks, with the geometries encoded as hex EWKB,
+ * which PostGIS parses without going through WKT. The text format, rather than the binary one,
+ * leaves the conversion of the other values to the server, using the actual column types (e.g., a
+ * java Integer can be loaded in a smallint, integer or numeric column alike).
+ */
+class CopyBulkLoader {
+
+    /** Size of the chunks sent to the server */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /** EWKB flag marking the presence of the SRID after the geometry type */
+    static final int EWKB_SRID_FLAG = 0x20000000;
+
+    static final String NULL = "\\N";
+
+    final Class<?>[] bindings;
+
+    final int[] srids;
+
+    final int[] dimensions;
+
+    final WKBWriter[] writers = new WKBWriter[5];
+
+    /**
+     * Returns true if values of the given type can be encoded
+     *
+     * @param binding the column java type
+     */
+    static boolean isSupported(Class<?> binding) {
+        return Geometry.class.isAssignableFrom(binding)
+                || CharSequence.class.isAssignableFrom(binding)
+                || Number.class.isAssignableFrom(binding)
+                || Date.class.isAssignableFrom(binding)
+                || binding == Boolean.class
+                || binding == Character.class
+                || binding == UUID.class
+                || binding == byte[].class;
+    }
+
+    /**
+     * Builds a loader for rows with the given columns
+     *
+     * @param bindings the columns java types
+     * @param srids the srid of the geometry columns, -1 if unknown
+     * @param dimensions the dimension of the geometry columns, -1 if unknown
+     */
+    CopyBulkLoader(Class<?>[] bindings, int[] srids, int[] dimensions) {
+        this.bindings = bindings;
+        this.srids = srids;
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * Runs the COPY command and streams the rows
+     *
+     * @param copyManager the connection copy API
+     * @param sql the <code>COPY ... FROM STDIN</code> command
+     * @param rows the values to load
+     * @return the number of rows loaded
+     */
+    long load(CopyManager copyManager, String sql, List<Object[]> rows)
+            throws SQLException, IOException {
+        CopyIn copyIn = copyManager.copyIn(sql);
+        try {
+            StringBuilder sb = new StringBuilder(CHUNK_SIZE + 1024);
+            for (Object[] row : rows) {
+                encodeRow(row, sb);
+                if (sb.length() >= CHUNK_SIZE) {
+                    write(copyIn, sb);
+                }
+            }
+            write(copyIn, sb);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void write(CopyIn copyIn, StringBuilder sb) throws SQLException {
+        if (sb.length() > 0) {
+            byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            sb.setLength(0);
+        }
+    }
+
+    /** Encodes a row as a tab separated line */
+    void encodeRow(Object[] row, StringBuilder sb) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                sb.append('\t');
+            }
+            encodeValue(row[i], i, sb);
+        }
+        sb.append('\n');
+    }
+
+    private void encodeValue(Object value, int column, StringBuilder sb) throws IOException {
+        Class<?> binding = bindings[column];
+        if (value != null && !binding.isInstance(value)) {
+            value = convert(value, binding);
+        }
+        if (value == null) {
+            sb.append(NULL);
+        } else if (value instanceof Geometry) {
+            encodeGeometry((Geometry) value, srids[column], dimensions[column], sb);
+        } else if (value instanceof byte[]) {
+            // bytea hex format, with the backslash escaped for the COPY format
+            sb.append("\\\\x");
+            appendHex((byte[]) value, 0, ((byte[]) value).length, sb);
+        } else if (value instanceof Boolean) {
+            sb.append((Boolean) value ? 't' : 'f');
+        } else if (value instanceof BigDecimal) {
+            sb.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof java.sql.Date || value instanceof Time) {
+            sb.append(value);
+        } else if (value instanceof Date) {
+            // with the offset, so that the value is right for both timestamp and timestamptz
+            Date date = (Date) value;
+            OffsetDateTime dateTime =
+                    OffsetDateTime.ofInstant(
+                            date instanceof Timestamp
+                                    ? ((Timestamp) date).toInstant()
+                                    : date.toInstant(),
+                            ZoneId.systemDefault());
+            sb.append(DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime));
+        } else if (value instanceof Number || value instanceof UUID) {
+            sb.append(value);
+        } else {
+            escape(value.toString(), sb);
+        }
+    }
+
+    private Object convert(Object value, Class<?> binding) throws IOException {
+        Object converted = Converters.convert(value, binding);
+        if (converted == null) {
+            throw new IOException(
+                    "Cannot convert " + value + " to " + binding.getSimpleName() + " for loading");
+        }
+        return converted;
+    }
+
+    /** Escapes the characters having a special meaning in the COPY text format */
+    static void escape(String value, StringBuilder sb) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+
+    /** Encodes the geometry as hex EWKB, adding the srid if known */
+    void encodeGeometry(Geometry g, int srid, int dimension, StringBuilder sb) {
+        if (g instanceof LinearRing) {
+            // postgis does not handle linear rings, convert to just a line string
+            g = g.getFactory().createLineString(((LinearRing) g).getCoordinateSequence());
+        }
+        if (dimension <= 0) {
+            dimension = getDimension(g);
+        }
+        if (srid <= 0) {
+            srid = g.getSRID();
+        }
+        dimension = Math.max(2, Math.min(4, dimension));
+        WKBWriter writer = writers[dimension];
+        if (writer == null) {
+            writer = new WKBWriter(dimension, WKBWriter.BIG_ENDIAN);
+            writers[dimension] = writer;
+        }
+        byte[] wkb = writer.write(g);
+        if (srid > 0) {
+            // byte order, geometry type with the srid flag, srid, then the rest of the wkb
+            byte[] header = new byte[9];
+            header[0] = wkb[0];
+            int type =
+                    ((wkb[1] & 0xFF) << 24)
+                            | ((wkb[2] & 0xFF) << 16)
+                            | ((wkb[3] & 0xFF) << 8)
+                            | (wkb[4] & 0xFF);
+            putInt(type | EWKB_SRID_FLAG, header, 1);
+            putInt(srid, header, 5);
+            appendHex(header, 0, header.length, sb);
+            appendHex(wkb, 5, wkb.length - 5, sb);
+        } else {
+            appendHex(wkb, 0, wkb.length, sb);
+        }
+    }
+
+    private static void putInt(int value, byte[] bytes, int offset) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static void appendHex(byte[] bytes, int offset, int length, StringBuilder sb) {
+        for (int i = offset; i < offset + length; i++) {
+            sb.append(HEX[(bytes[i] >> 4) & 0xF]);
+            sb.append(HEX[bytes[i] & 0xF]);
+        }
+    }
+
+    /** The coordinate dimension of the geometry, when the column one is not known */
+    private static int getDimension(Geometry g) {
+        int[] dimension = {2};
+        g.apply(
+                new CoordinateSequenceFilter() {
+                    @Override
+                    public void filter(CoordinateSequence seq, int i) {
+                        dimension[0] = Math.max(dimension[0], seq.getDimension());
+                    }
+
+                    @Override
+                    public boolean isDone() {
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isGeometryChanged() {
+                        return false;
+                    }
+                });
+        return dimension[0];
+    }
+}
@@ -201,6 +201,8 @@ public PostGISDialect(JDBCDataStore dataStore) {
 
     boolean topologyPreserved = false;
 
+    boolean bulkInsertEnabled = false;
+
     // checkStandardConformingStrings will set this based on database configuration
     boolean escapeBackslash = true;
 
@@ -275,6 +277,19 @@ public void setTopologyPreserved(boolean topologyPreserved) {
         this.topologyPreserved = topologyPreserved;
     }
 
+    public boolean isBulkInsertEnabled() {
+        return bulkInsertEnabled;
+    }
+
+    /**
+     * Enables/disables loading new features with the COPY command instead of INSERT statements
+     *
+     * @see PostgisNGDataStoreFactory#BULK_INSERT
+     */
+    public void setBulkInsertEnabled(boolean bulkInsertEnabled) {
+        this.bulkInsertEnabled = bulkInsertEnabled;
+    }
+
     @Override
     public void initializeConnection(Connection cx) throws SQLException {
         super.initializeConnection(cx);
@@ -1036,6 +1051,79 @@ public String encodeNextSequenceValue(String schemaName, String sequenceName) {
         return "nextval('" + sequenceName + "')";
     }
 
+    @Override
+    public List<Object> getNextSequenceValues(
+            String schemaName, String sequenceName, int count, Connection cx)
+            throws SQLException {
+        List<Object> result = new ArrayList<>(count);
+        try (Statement st = cx.createStatement()) {
+            String sql =
+                    "SELECT "
+                            + encodeNextSequenceValue(schemaName, sequenceName)
+                            + " FROM generate_series(1, "
+                            + count
+                            + ")";
+
+            dataStore.getLogger().fine(sql);
+            try (ResultSet rs = st.executeQuery(sql)) {
+                while (rs.next()) {
+                    result.add(rs.getLong(1));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean canBulkInsert(Class<?>[] bindings) {
+        if (!bulkInsertEnabled) {
+            return false;
+        }
+        for (Class<?> binding : bindings) {
+            if (!CopyBulkLoader.isSupported(binding)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("PMD.CloseResource") // the connection is managed by the caller
+    public void bulkInsert(
+            String schemaName,
+            String tableName,
+            String[] columns,
+            Class<?>[] bindings,
+            int[] srids,
+            int[] dimensions,
+            List<Object[]> rows,
+            Connection cx)
+            throws SQLException, IOException {
+        StringBuffer sql = new StringBuffer("COPY ");
+        if (schemaName != null && !schemaName.isEmpty()) {
+            encodeSchemaName(schemaName, sql);
+            sql.append(".");
+        }
+        encodeTableName(tableName, sql);
+        sql.append(" (");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            encodeColumnName(null, columns[i], sql);
+        }
+        sql.append(") FROM STDIN");
+        dataStore.getLogger().fine(sql.toString());
+
+        PgConnection pgConnection = unwrapConnection(cx, PgConnection.class);
+        CopyBulkLoader loader = new CopyBulkLoader(bindings, srids, dimensions);
+        long loaded = loader.load(pgConnection.getCopyAPI(), sql.toString(), rows);
+        if (loaded != rows.size()) {
+            throw new IOException(
+                    "Failed to insert some features, loaded " + loaded + " of " + rows.size());
+        }
+    }
+
     @Override
     public boolean lookupGeneratedValuesPostInsert() {
         return true;
@@ -22,6 +22,7 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.geotools.api.feature.simple.SimpleFeatureType;
@@ -164,6 +165,32 @@ public String encodeNextSequenceValue(String schemaName, String sequenceName) {
         return delegate.encodeNextSequenceValue(schemaName, sequenceName);
     }
 
+    @Override
+    public List<Object> getNextSequenceValues(
+            String schemaName, String sequenceName, int count, Connection cx)
+            throws SQLException {
+        return delegate.getNextSequenceValues(schemaName, sequenceName, count, cx);
+    }
+
+    @Override
+    public boolean canBulkInsert(Class<?>[] bindings) {
+        return delegate.canBulkInsert(bindings);
+    }
+
+    @Override
+    public void bulkInsert(
+            String schemaName,
+            String tableName,
+            String[] columns,
+            Class<?>[] bindings,
+            int[] srids,
+            int[] dimensions,
+            List<Object[]> rows,
+            Connection cx)
+            throws SQLException, IOException {
+        delegate.bulkInsert(schemaName, tableName, columns, bindings, srids, dimensions, rows, cx);
+    }
+
     @Override
     public String getSequenceForColumn(
             String schemaName, String tableName, String columnName, Connection cx)
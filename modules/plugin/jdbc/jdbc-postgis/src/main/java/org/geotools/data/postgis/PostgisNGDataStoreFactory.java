@@ -142,6 +142,18 @@ public class PostgisNGDataStoreFactory extends JDBCDataStoreFactory {
                     SimplificationMethod.FAST,
                     new KVP(Param.OPTIONS, Arrays.asList(SimplificationMethod.values())));
 
+    /** Enables loading new features with the COPY command, instead of INSERT statements */
+    public static final Param BULK_INSERT =
+            new Param(
+                    "Bulk insert",
+                    Boolean.class,
+                    "Load new features with the COPY command instead of INSERT statements, "
+                            + "much faster for large imports. Each batch of inserts becomes a "
+                            + "COPY, best used with a large batch insert size",
+                    false,
+                    Boolean.FALSE,
+                    new KVP(Param.LEVEL, "advanced"));
+
     public static final Param SSL_MODE =
             new Param(
                     "SSL mode",
@@ -251,6 +263,10 @@ protected JDBCDataStore createDataStoreInternal(JDBCDataStore dataStore, Map<Str
         dialect.setTopologyPreserved(
                 SimplificationMethod.PRESERVETOPOLOGY.equals(simplificationMethod));
 
+        // check bulk inserts (off by default)
+        Boolean bulkInsert = (Boolean) BULK_INSERT.lookUp(params);
+        dialect.setBulkInsertEnabled(Boolean.TRUE.equals(bulkInsert));
+
         // encode BBOX filter with wrapping ST_Envelope (GEOT-5167)
         Boolean encodeBBOXAsEnvelope = false;
         String largeGeometriesOptimized =
@@ -288,6 +304,7 @@ protected void setupParameters(Map<String, Object> parameters) {
         parameters.put(ENCODE_FUNCTIONS.key, ENCODE_FUNCTIONS);
         parameters.put(SIMPLIFY.key, SIMPLIFY);
         parameters.put(SIMPLIFICATION_METHOD.key, SIMPLIFICATION_METHOD);
+        parameters.put(BULK_INSERT.key, BULK_INSERT);
         parameters.put(CREATE_DB_IF_MISSING.key, CREATE_DB_IF_MISSING);
         parameters.put(CREATE_PARAMS.key, CREATE_PARAMS);
     }
@@ -0,0 +1,98 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.postgis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.io.WKBWriter;
+
+public class CopyBulkLoaderTest {
+
+    GeometryFactory gf = new GeometryFactory();
+
+    @Test
+    public void testSupported() {
+        assertTrue(CopyBulkLoader.isSupported(Point.class));
+        assertTrue(CopyBulkLoader.isSupported(String.class));
+        assertTrue(CopyBulkLoader.isSupported(BigDecimal.class));
+        assertTrue(CopyBulkLoader.isSupported(java.sql.Timestamp.class));
+        assertTrue(CopyBulkLoader.isSupported(byte[].class));
+        assertFalse(CopyBulkLoader.isSupported(Map.class));
+        assertFalse(CopyBulkLoader.isSupported(String[].class));
+    }
+
+    @Test
+    public void testEncodeRow() throws IOException {
+        Class<?>[] bindings = {
+            String.class, Integer.class, Boolean.class, byte[].class, BigDecimal.class
+        };
+        int[] unknown = {-1, -1, -1, -1, -1};
+        CopyBulkLoader loader = new CopyBulkLoader(bindings, unknown, unknown);
+        StringBuilder sb = new StringBuilder();
+        Object[] row = {"a\tb\nc\\d", 12, true, new byte[] {0, 10, -1}, new BigDecimal("1E+3")};
+        loader.encodeRow(row, sb);
+        loader.encodeRow(new Object[] {null, "13", false, null, null}, sb);
+        assertEquals(
+                "a\\tb\\nc\\\\d\t12\tt\t\\\\x000AFF\t1000\n\\N\t13\tf\t\\N\t\\N\n", sb.toString());
+    }
+
+    @Test
+    public void testEncodeGeometry() {
+        CopyBulkLoader loader =
+                new CopyBulkLoader(new Class<?>[] {Point.class}, new int[] {4326}, new int[] {2});
+        Point point = gf.createPoint(new Coordinate(1, 2));
+
+        // the srid is added as in EWKB
+        StringBuilder sb = new StringBuilder();
+        loader.encodeGeometry(point, 4326, 2, sb);
+        Point withSrid = (Point) point.copy();
+        withSrid.setSRID(4326);
+        assertEquals(ewkb(withSrid, 2), sb.toString());
+
+        // no srid, plain WKB
+        sb.setLength(0);
+        loader.encodeGeometry(point, -1, 2, sb);
+        assertEquals(wkb(point, 2), sb.toString());
+
+        // dimension taken from the geometry when not known
+        LineString line =
+                gf.createLineString(
+                        new Coordinate[] {new Coordinate(0, 0, 1), new Coordinate(1, 1, 2)});
+        sb.setLength(0);
+        loader.encodeGeometry(line, -1, -1, sb);
+        assertEquals(wkb(line, 3), sb.toString());
+    }
+
+    private String wkb(Geometry g, int dimension) {
+        return WKBWriter.toHex(new WKBWriter(dimension, WKBWriter.BIG_ENDIAN).write(g));
+    }
+
+    private String ewkb(Geometry g, int dimension) {
+        return WKBWriter.toHex(new WKBWriter(dimension, WKBWriter.BIG_ENDIAN, true).write(g));
+    }
+}
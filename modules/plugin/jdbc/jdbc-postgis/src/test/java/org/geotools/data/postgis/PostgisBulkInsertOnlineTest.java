@@ -0,0 +1,120 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.postgis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.geotools.api.data.SimpleFeatureStore;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.identity.FeatureId;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.DefaultFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.jdbc.JDBCDataStoreFactory;
+import org.geotools.jdbc.JDBCFeatureStoreOnlineTest;
+import org.geotools.jdbc.JDBCTestSetup;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+
+/** Runs the feature store tests with the COPY based bulk inserts enabled. */
+public class PostgisBulkInsertOnlineTest extends JDBCFeatureStoreOnlineTest {
+
+    @Override
+    protected JDBCTestSetup createTestSetup() {
+        return new PostGISTestSetup();
+    }
+
+    @Override
+    protected Map<String, Object> createDataStoreFactoryParams() throws Exception {
+        Map<String, Object> params = super.createDataStoreFactoryParams();
+        params.put(PostgisNGDataStoreFactory.BULK_INSERT.key, true);
+        params.put(JDBCDataStoreFactory.BATCH_INSERT_SIZE.key, 100);
+        return params;
+    }
+
+    private PostGISDialect getPostGISDialect() {
+        if (dialect instanceof PostGISPSDialect) {
+            return ((PostGISPSDialect) dialect).getDelegate();
+        }
+        return (PostGISDialect) dialect;
+    }
+
+    private SimpleFeatureStore getStore() throws IOException {
+        return (SimpleFeatureStore) dataStore.getFeatureSource(tname("ft1"));
+    }
+
+    private SimpleFeatureCollection buildFeatures(SimpleFeatureType schema, int offset, int count) {
+        SimpleFeatureBuilder b = new SimpleFeatureBuilder(schema);
+        DefaultFeatureCollection collection = new DefaultFeatureCollection(null, schema);
+        GeometryFactory gf = new GeometryFactory();
+        for (int i = offset; i < offset + count; i++) {
+            b.set(aname("intProperty"), i);
+            b.set(aname("doubleProperty"), i + 0.5);
+            b.set(aname("stringProperty"), text(i));
+            b.set(aname("geometry"), gf.createPoint(new Coordinate(i, i)));
+            collection.add(b.buildFeature(null));
+        }
+        return collection;
+    }
+
+    /** A string with the characters the COPY text format needs to escape */
+    private String text(int i) {
+        return "tab\tnewline\nbackslash\\ " + i;
+    }
+
+    @Test
+    public void testBulkInsertEnabled() {
+        assertTrue(getPostGISDialect().isBulkInsertEnabled());
+    }
+
+    @Test
+    public void testBulkAddFeatures() throws IOException {
+        SimpleFeatureStore store = getStore();
+        int count = 1050;
+        List<FeatureId> fids = store.addFeatures(buildFeatures(store.getSchema(), 10, count));
+        assertEquals(count, fids.size());
+        Set<FeatureId> ids = new HashSet<>(fids);
+        assertEquals(count, ids.size());
+
+        // the values made it to the database unchanged, with the reported ids
+        FilterFactory ff = dataStore.getFilterFactory();
+        int read = 0;
+        try (SimpleFeatureIterator it = store.getFeatures(ff.id(ids)).features()) {
+            while (it.hasNext()) {
+                SimpleFeature f = it.next();
+                int i = ((Number) f.getAttribute(aname("intProperty"))).intValue();
+                Number d = (Number) f.getAttribute(aname("doubleProperty"));
+                assertEquals(i + 0.5, d.doubleValue(), 0d);
+                assertEquals(text(i), f.getAttribute(aname("stringProperty")));
+                assertEquals(i, ((Point) f.getDefaultGeometry()).getX(), 0d);
+                read++;
+            }
+        }
+        assertEquals(count, read);
+    }
+}
@@ -17,6 +17,7 @@
 package org.geotools.data.shapefile;
 
 import static org.geotools.data.shapefile.files.ShpFileType.FIX;
+import static org.geotools.data.shapefile.files.ShpFileType.PRX;
 import static org.geotools.data.shapefile.files.ShpFileType.QIX;
 import static org.geotools.data.shapefile.files.ShpFileType.SHP;
 import static org.geotools.data.shapefile.files.ShpFileType.SHX;
@@ -24,6 +25,8 @@
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.List;
@@ -46,8 +49,10 @@
 import org.geotools.data.shapefile.index.quadtree.QuadTree;
 import org.geotools.data.shapefile.index.quadtree.StoreException;
 import org.geotools.data.shapefile.index.quadtree.fs.FileSystemIndexStore;
+import org.geotools.data.shapefile.index.rtree.PackedRTree;
 import org.geotools.data.shapefile.shp.IndexFile;
 import org.geotools.data.util.NullProgressListener;
+import org.geotools.util.NIOUtilities;
 import org.geotools.util.URLs;
 import org.geotools.util.logging.Logging;
 import org.locationtech.jts.geom.Envelope;
@@ -63,10 +68,19 @@ class IndexManager {
 
     static final int DEFAULT_MAX_QIX_CACHE_SIZE;
 
+    /**
+     * When true, the automatically created spatial index is a packed Hilbert R-tree ({@code .prx})
+     * rather than a quadtree ({@code .qix})
+     */
+    static final boolean DEFAULT_PACKED_RTREE =
+            Boolean.getBoolean("org.geotools.shapefile.packedRTree");
+
     ShpFiles shpFiles;
 
     int maxQixCacheSize = DEFAULT_MAX_QIX_CACHE_SIZE;
 
+    boolean packedRTree = DEFAULT_PACKED_RTREE;
+
     CachedQuadTree cachedTree;
 
     ShapefileDataStore store;
@@ -106,18 +120,19 @@ public IndexManager(ShpFiles shpFiles, ShapefileDataStore store) {
      * @return true if the spatial index has been created/updated
      * @implNote this method will avoid building spatial indexes for the same shapefile
      *     concurrently, waiting for a running build before proceeding. If {@code force} is {@code
-     *     true}, it will proceed to build the index once the write lock on the QIX file is
-     *     acquired, otherwise, it will do so only if the index is stale.
+     *     true}, it will proceed to build the index once the write lock on the QIX (or PRX) file
+     *     is acquired, otherwise, it will do so only if the index is stale.
      */
     public boolean createSpatialIndex(boolean force) {
         // create index as needed
         if (!shpFiles.isLocal()) {
             return false;
         }
+        final ShpFileType indexType = getSpatialIndexType();
         try {
-            if (isIndexStale(QIX) || force) {
-                // get a write lock on the .qix, waiting for other index builds
-                final URL treeURL = shpFiles.acquireWrite(QIX, writer);
+            if (isIndexStale(indexType) || force) {
+                // get a write lock on the index, waiting for other index builds
+                final URL treeURL = shpFiles.acquireWrite(indexType, writer);
                 try {
                     // check again, may force be false and another thread just have created it
                     if (isIndexStale(treeURL) || force) {
@@ -139,9 +154,15 @@ protected void doCreateSpatialIndex() throws Exception {
 
         ShapeFileIndexer indexer = new ShapeFileIndexer();
         indexer.setShapeFileName(shpFiles);
+        indexer.setIndexType(getSpatialIndexType());
         indexer.index(false, new NullProgressListener());
     }
 
+    /** The type of spatial index built by {@link #createSpatialIndex(boolean)} */
+    ShpFileType getSpatialIndexType() {
+        return packedRTree ? PRX : QIX;
+    }
+
     /** If the fid index can be used and it is missing this method will try to create it */
     boolean hasFidIndex(boolean createIfMissing) {
         if (isIndexUseable(FIX)) {
@@ -196,7 +217,7 @@ boolean isIndexUseable(ShpFileType indexType) {
 
     /** Returns true if the index file is available */
     boolean isSpatialIndexAvailable() {
-        return shpFiles.isLocal() && shpFiles.exists(QIX);
+        return shpFiles.isLocal() && (shpFiles.exists(QIX) || shpFiles.exists(PRX));
     }
 
     /**
@@ -309,8 +330,16 @@ protected CloseableIterator<Data> querySpatialIndex(Envelope bbox)
             throws DataSourceException, IOException, TreeException {
         CloseableIterator<Data> tmp = null;
 
+        // an up to date packed R-tree takes precedence over the quadtree
+        if (shpFiles.isLocal() && isIndexUseable(PRX)) {
+            return queryPackedRTree(bbox);
+        }
+
         // check if the spatial index needs recreating
         createSpatialIndex(false);
+        if (packedRTree && shpFiles.isLocal() && isIndexUseable(PRX)) {
+            return queryPackedRTree(bbox);
+        }
 
         if (cachedTree == null) {
             boolean canCache = false;
@@ -363,6 +392,64 @@ protected CloseableIterator<Data> querySpatialIndex(Envelope bbox)
         return tmp;
     }
 
+    private CloseableIterator<Data> queryPackedRTree(Envelope bbox) throws DataSourceException {
+        // the search results are collected eagerly, the tree can be closed right away
+        try (PackedRTree tree = openPackedRTree()) {
+            if (tree == null || bbox.contains(tree.getBounds())) {
+                return null;
+            }
+            return tree.search(bbox);
+        } catch (IOException e) {
+            throw new DataSourceException("Error querying packed R-tree", e);
+        }
+    }
+
+    /**
+     * Opens the packed R-tree index, memory mapping it. The read lock on the file is kept until the
+     * tree is closed.
+     *
+     * @return the tree, or null if the index file is missing or empty
+     */
+    @SuppressWarnings("PMD.CloseResource") // channel is managed in the returned value
+    protected PackedRTree openPackedRTree() throws IOException {
+        if (!shpFiles.isLocal()) {
+            return null;
+        }
+        // the PRX file must be a local file for this class to be used so cast is safe
+        FileChannel channel = (FileChannel) shpFiles.getReadChannel(PRX, writer);
+        boolean initialized = false;
+        try {
+            long size = channel.size();
+            if (size == 0) {
+                return null;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Packed R-tree index is too large to be memory mapped");
+            }
+            // shared mappings are managed by the memory map cache, cannot be cleaned here
+            final boolean cached = shpFiles.isMemoryMapCacheEnabled();
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            PackedRTree tree =
+                    new PackedRTree(
+                            buffer,
+                            () -> {
+                                try {
+                                    if (!cached) {
+                                        NIOUtilities.clean(buffer, true);
+                                    }
+                                } finally {
+                                    channel.close();
+                                }
+                            });
+            initialized = true;
+            return tree;
+        } finally {
+            if (!initialized) {
+                channel.close();
+            }
+        }
+    }
+
     /**
      * Convenience method for opening a QuadTree index.
      *
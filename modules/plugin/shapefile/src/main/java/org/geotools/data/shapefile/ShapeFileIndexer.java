@@ -41,7 +41,9 @@
 import org.geotools.data.shapefile.index.quadtree.StoreException;
 import org.geotools.data.shapefile.index.quadtree.fs.FileSystemIndexStore;
 import org.geotools.data.shapefile.index.quadtree.fs.IndexHeader;
+import org.geotools.data.shapefile.index.rtree.PackedRTreeWriter;
 import org.geotools.data.shapefile.shp.IndexFile;
+import org.geotools.data.shapefile.shp.ShapeType;
 import org.geotools.data.shapefile.shp.ShapefileHeader;
 import org.geotools.data.shapefile.shp.ShapefileReader;
 import org.geotools.data.shapefile.shp.ShapefileReader.Record;
@@ -64,6 +66,7 @@ class ShapeFileIndexer implements FileWriter {
 
     private String byteOrder;
     private ShpFiles shpFiles;
+    private ShpFileType indexType = ShpFileType.QIX;
 
     public static void main(String[] args) throws IOException {
         if ((args.length < 1) || (((args.length - 1) % 2) != 0)) {
@@ -76,9 +79,10 @@ public static void main(String[] args) throws IOException {
 
         for (int i = 0; i < args.length; i++) {
             if (args[i].equals("-t")) {
-                // idx.setIdxType(IndexType.valueOf(args[++i]));
-                // just skip it for backwards compatibility
-                i++;
+                // for backwards compatibility anything but PRX builds the quadtree
+                if ("PRX".equalsIgnoreCase(args[++i])) {
+                    idx.setIndexType(ShpFileType.PRX);
+                }
             } else if (args[i].equals("-M")) {
                 idx.setMax(Integer.parseInt(args[++i]));
             } else if (args[i].equals("-s")) {
@@ -113,7 +117,7 @@ public static void main(String[] args) throws IOException {
     private static void usage() {
         System.out.println(
                 "Usage: ShapeFileIndexer "
-                        + "-t <QIX> "
+                        + "[-t <QIX | PRX>] "
                         + "[-M <max tree depth>] "
                         + "[-b <byte order NL | NM>] "
                         + "<shape file>"
@@ -122,7 +126,9 @@ private static void usage() {
         System.out.println();
 
         System.out.println("Options:");
-        System.out.println("\t-t Index type: RTREE or QUADTREE");
+        System.out.println(
+                "\t-t Index type: QIX (quadtree, default) or PRX (packed Hilbert R-tree)");
+        System.out.println("\t-s max number of items in a leaf, or node size for PRX");
         System.out.println();
         System.out.println("Following options apllies only to QUADTREE:");
         System.out.println("\t-b byte order to use: NL = LSB; " + "NM = MSB (default)");
@@ -147,16 +153,23 @@ public int index(boolean verbose, /*unused*/ ProgressListener listener)
         int cnt = 0;
 
         // Temporary file for building...
-        StorageFile storage = shpFiles.getStorageFile(ShpFileType.QIX);
+        StorageFile storage = shpFiles.getStorageFile(indexType);
         File treeFile = storage.getFile();
-        if (maxDepth == -1) {
-            maxDepth = computeMaxDepth();
-        }
+        if (indexType == ShpFileType.PRX) {
+            try (ShapefileReader reader =
+                    new ShapefileReader(shpFiles, true, false, new GeometryFactory())) {
+                cnt = this.buildPackedRTree(reader, treeFile, verbose);
+            }
+        } else {
+            if (maxDepth == -1) {
+                maxDepth = computeMaxDepth();
+            }
 
-        try (ShapefileReader reader =
-                new ShapefileReader(shpFiles, true, false, new GeometryFactory())) {
+            try (ShapefileReader reader =
+                    new ShapefileReader(shpFiles, true, false, new GeometryFactory())) {
 
-            cnt = this.buildQuadTree(reader, treeFile, verbose);
+                cnt = this.buildQuadTree(reader, treeFile, verbose);
+            }
         }
 
         // Final index file
@@ -241,6 +254,42 @@ private int buildQuadTree(ShapefileReader reader, File file, boolean verbose)
         return cnt;
     }
 
+    private int buildPackedRTree(ShapefileReader reader, File file, boolean verbose)
+            throws IOException {
+        LOGGER.fine(
+                "Building packed R-tree spatial index with node size "
+                        + leafSize
+                        + " for file "
+                        + file.getAbsolutePath());
+
+        int cnt = 0;
+        try (IndexFile shpIndex = new IndexFile(shpFiles, false)) {
+            PackedRTreeWriter writer =
+                    new PackedRTreeWriter(
+                            shpIndex.getRecordCount(), getBounds(reader), Math.max(2, leafSize));
+            Envelope env = new Envelope();
+            while (reader.hasNext()) {
+                Record rec = reader.nextRecord();
+                if (rec.type == ShapeType.NULL) {
+                    // null shapes do not have bounds, they are never returned by searches
+                    env.setToNull();
+                } else {
+                    env.init(rec.minX, rec.maxX, rec.minY, rec.maxY);
+                }
+                writer.add(env, shpIndex.getOffsetInBytes(cnt++));
+
+                if (verbose && ((cnt % 1_000) == 0)) {
+                    System.out.print('.');
+                }
+                if (verbose && cnt % 100_000 == 0) System.out.print('\n');
+            }
+            if (verbose) System.out.println("Sorting and storing the tree...");
+            writer.write(file);
+            if (verbose) System.out.println("done");
+        }
+        return cnt;
+    }
+
     private Envelope getBounds(ShapefileReader reader) {
         ShapefileHeader header = reader.getHeader();
         Envelope bounds = new Envelope(header.minX(), header.maxX(), header.minY(), header.maxY());
@@ -392,6 +441,21 @@ public void setShapeFileName(ShpFiles shpFiles) {
         this.shpFiles = shpFiles;
     }
 
+    /**
+     * Sets the type of index to build, either {@link ShpFileType#QIX} for the quadtree (the
+     * default) or {@link ShpFileType#PRX} for the packed Hilbert R-tree
+     */
+    public void setIndexType(ShpFileType indexType) {
+        if (indexType != ShpFileType.QIX && indexType != ShpFileType.PRX) {
+            throw new IllegalArgumentException("Unsupported spatial index type " + indexType);
+        }
+        this.indexType = indexType;
+    }
+
+    public ShpFileType getIndexType() {
+        return indexType;
+    }
+
     /** @param byteOrder The byteOrder to set. */
     public void setByteOrder(String byteOrder) {
         this.byteOrder = byteOrder;
@@ -33,6 +33,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import org.geotools.api.data.DataSourceException;
 import org.geotools.api.data.FeatureReader;
@@ -53,11 +54,13 @@
 import org.geotools.data.shapefile.files.StorageFile;
 import org.geotools.data.shapefile.shp.ShapeType;
 import org.geotools.data.shapefile.shp.ShapefileWriter;
+import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.data.store.ContentDataStore;
 import org.geotools.data.store.ContentEntry;
 import org.geotools.data.store.ContentFeatureSource;
 import org.geotools.feature.FeatureTypes;
 import org.geotools.feature.NameImpl;
+import org.geotools.feature.collection.ParallelFeatureCollection;
 import org.geotools.referencing.wkt.Formattable;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
@@ -253,6 +256,47 @@ public long getCount(Query query) throws IOException {
         return getFeatureSource().getCount(query);
     }
 
+    /**
+     * Splits the shapefile in contiguous ranges of records, located via the .shx file, and returns
+     * an independent reader for each range. The readers can be consumed concurrently, each one in
+     * its own thread, making full scans scale with the available cores (enabling memory mapping is
+     * recommended, each reader will then use its own view of the shared mapping).
+     *
+     * <p>Queries that cannot be split (sorting, paging, reprojection) or shapefiles that cannot be
+     * accessed randomly (remote, gzipped, missing the .shx file) result in a single reader. The
+     * {@link org.geotools.util.factory.Hints#SCREENMAP} hint is ignored when splitting.
+     *
+     * @param query The query to be run, its filter is evaluated by each reader
+     * @param splits The desired number of readers, fewer might be returned for small shapefiles
+     * @return The list of readers, in record order. All of them must be closed by the caller
+     */
+    public List<FeatureReader<SimpleFeatureType, SimpleFeature>> getSplitFeatureReaders(
+            Query query, int splits) throws IOException {
+        ContentEntry entry = ensureEntry(getTypeName());
+        return new ShapefileFeatureSource(entry, shpFiles).getSplitReaders(query, splits);
+    }
+
+    /**
+     * Splits the shapefile in contiguous ranges of records, like {@link
+     * #getSplitFeatureReaders(Query, int)}, and returns them as the partitions of a collection. The
+     * mergeable visitors (count, sum, group by, ...) accepted by the collection are computed on the
+     * executor, each partition being read by its own range reader, see {@link
+     * ParallelFeatureCollection}.
+     *
+     * @param query The query to be run, its filter is evaluated by each partition
+     * @param partitions The desired number of partitions, fewer might be returned for small
+     *     shapefiles
+     * @param executor The executor visiting the partitions, owned by the caller
+     * @since 31
+     */
+    public ParallelFeatureCollection getPartitionedFeatures(
+            Query query, int partitions, ExecutorService executor) throws IOException {
+        ContentEntry entry = ensureEntry(getTypeName());
+        List<SimpleFeatureCollection> collections =
+                new ShapefileFeatureSource(entry, shpFiles).getSplitCollections(query, partitions);
+        return new ParallelFeatureCollection(collections.get(0).getSchema(), collections, executor);
+    }
+
     /**
      * Set the FeatureType of this DataStore. This method will delete any existing local resources
      * or throw an IOException if the DataStore is remote.
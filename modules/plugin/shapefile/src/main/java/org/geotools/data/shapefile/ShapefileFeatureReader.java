@@ -20,6 +20,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geotools.api.data.FeatureReader;
@@ -38,6 +39,7 @@
 import org.geotools.data.shapefile.shp.ShapefileReader.Record;
 import org.geotools.data.util.ScreenMap;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.filter.FilterAttributeExtractor;
 import org.geotools.geometry.jts.LiteCoordinateSequence;
 import org.geotools.util.logging.Logging;
 import org.locationtech.jts.geom.Envelope;
@@ -85,6 +87,12 @@ public String toString() {
 
     Filter filter;
 
+    /**
+     * Attributes not needed to evaluate the filter, read from the dbf only for the features
+     * matching it, or null if all attributes are read upfront
+     */
+    boolean[] deferred;
+
     public ShapefileFeatureReader(
             SimpleFeatureType schema,
             ShapefileReader shp,
@@ -249,11 +257,12 @@ protected Geometry getGeometry(Record record) {
     SimpleFeature buildFeature(int number, Geometry geometry, Row row, Envelope envelope)
             throws IOException {
         if (dbfindexes != null) {
-            for (int dbfindex : dbfindexes) {
+            for (int i = 0; i < dbfindexes.length; i++) {
+                int dbfindex = dbfindexes[i];
                 if (dbfindex == -1) {
-                    builder.add(geometry);
-                } else {
-                    builder.add(row.read(dbfindex));
+                    builder.set(i, geometry);
+                } else if (deferred == null || !deferred[i]) {
+                    builder.set(i, row.read(dbfindex));
                 }
             }
         } else if (geometry != null) {
@@ -268,6 +277,14 @@ SimpleFeature buildFeature(int number, Geometry geometry, Row row, Envelope enve
                 return null;
             }
         }
+        // the feature is going to be returned, decode the attributes the filter did not need
+        if (deferred != null) {
+            for (int i = 0; i < dbfindexes.length; i++) {
+                if (deferred[i]) {
+                    feature.setAttribute(i, row.read(dbfindexes[i]));
+                }
+            }
+        }
 
         // update screenmap if present, now that we have the certainty
         // that the record is to be returned and will be displayed
@@ -364,5 +381,31 @@ public Filter getFilter() {
 
     public void setFilter(Filter filter) {
         this.filter = filter;
+        this.deferred = computeDeferred(filter);
+    }
+
+    /**
+     * Finds the dbf attributes the filter does not need, their decoding can be skipped for the
+     * records the filter rejects
+     */
+    private boolean[] computeDeferred(Filter filter) {
+        if (filter == null || filter == Filter.INCLUDE || dbfindexes == null) {
+            return null;
+        }
+        FilterAttributeExtractor extractor = new FilterAttributeExtractor(schema);
+        filter.accept(extractor, null);
+        if (extractor.isUsingDynamincProperties()) {
+            return null;
+        }
+        Set<String> names = extractor.getAttributeNameSet();
+        boolean[] result = new boolean[dbfindexes.length];
+        boolean found = false;
+        for (int i = 0; i < dbfindexes.length; i++) {
+            if (dbfindexes[i] != -1 && !names.contains(schema.getDescriptor(i).getLocalName())) {
+                result[i] = true;
+                found = true;
+            }
+        }
+        return found ? result : null;
     }
 }
@@ -36,6 +36,7 @@
 import org.geotools.api.data.FeatureReader;
 import org.geotools.api.data.FeatureSource;
 import org.geotools.api.data.Query;
+import org.geotools.api.data.Transaction;
 import org.geotools.api.feature.FeatureVisitor;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
@@ -61,6 +62,7 @@
 import org.geotools.data.ReTypeFeatureReader;
 import org.geotools.data.shapefile.dbf.DbaseFileHeader;
 import org.geotools.data.shapefile.dbf.DbaseFileReader;
+import org.geotools.data.shapefile.dbf.IndexedDbaseFileReader;
 import org.geotools.data.shapefile.fid.IndexedFidReader;
 import org.geotools.data.shapefile.files.FileReader;
 import org.geotools.data.shapefile.files.ShpFileType;
@@ -71,11 +73,15 @@
 import org.geotools.data.shapefile.shp.JTSUtilities;
 import org.geotools.data.shapefile.shp.ShapefileHeader;
 import org.geotools.data.shapefile.shp.ShapefileReader;
+import org.geotools.data.simple.SimpleFeatureCollection;
+import org.geotools.data.simple.SimpleFeatureIterator;
 import org.geotools.data.store.ContentEntry;
+import org.geotools.data.store.ContentFeatureCollection.WrappingFeatureIterator;
 import org.geotools.data.store.ContentFeatureSource;
 import org.geotools.data.util.ScreenMap;
 import org.geotools.feature.AttributeTypeBuilder;
 import org.geotools.feature.FeatureTypes;
+import org.geotools.feature.collection.BaseSimpleFeatureCollection;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
 import org.geotools.feature.type.BasicFeatureTypes;
 import org.geotools.filter.FilterAttributeExtractor;
@@ -288,13 +294,7 @@ protected FeatureReader<SimpleFeatureType, SimpleFeature> getReaderInternal(Quer
         GeometryFactory geometryFactory = getGeometryFactory(q);
 
         // grab the target bbox, if any
-        Envelope bbox = new ReferencedEnvelope();
-        if (q != null && q.getFilter() != null) {
-            bbox = (Envelope) q.getFilter().accept(ExtractBoundsFilterVisitor.BOUNDS_VISITOR, bbox);
-            if (bbox == null) {
-                bbox = new ReferencedEnvelope();
-            }
-        }
+        Envelope bbox = getTargetBBox(q);
 
         // see if we can use indexing to speedup the data access
         Filter filter = q != null ? q.getFilter() : null;
@@ -411,6 +411,211 @@ protected FeatureReader<SimpleFeatureType, SimpleFeature> getReaderInternal(Quer
         }
     }
 
+    /** Extracts the bounds of the query filter, returns an empty envelope if there are none */
+    Envelope getTargetBBox(Query q) {
+        Envelope bbox = new ReferencedEnvelope();
+        if (q != null && q.getFilter() != null) {
+            bbox = (Envelope) q.getFilter().accept(ExtractBoundsFilterVisitor.BOUNDS_VISITOR, bbox);
+            if (bbox == null) {
+                bbox = new ReferencedEnvelope();
+            }
+        }
+        return bbox;
+    }
+
+    /**
+     * Splits the shapefile in contiguous ranges of records, using the .shx file to locate them, and
+     * returns an independent reader for each range. The readers do not share any file channel or
+     * buffer, when the store is memory mapped they use their own view of the cached mapping, and
+     * can thus be consumed concurrently, each one in its own thread.
+     *
+     * <p>Queries that cannot be split (sorting, paging, reprojection, non auto-commit transactions)
+     * or shapefiles that cannot be accessed randomly (remote, gzipped, or missing the .shx file)
+     * will result in a single reader, returned by {@link #getReader(Query)}. The screen map hint
+     * is not used by the split readers, as the screen map is not thread safe.
+     *
+     * @param query The query, the filter will be evaluated by each reader
+     * @param splits The desired number of readers, fewer might be returned for small shapefiles
+     */
+    List<FeatureReader<SimpleFeatureType, SimpleFeature>> getSplitReaders(
+            Query query, int splits) throws IOException {
+        if (splits < 1) {
+            throw new IllegalArgumentException("The number of splits must be positive");
+        }
+        Query q = resolvePropertyNames(joinQuery(query));
+        int records = canSplit(q) ? getSplitRecordCount() : -1;
+        if (splits == 1 || records <= 0) {
+            return Collections.singletonList(getReader(query));
+        }
+
+        int size = (records + splits - 1) / splits;
+        List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers = new ArrayList<>();
+        boolean success = false;
+        try {
+            for (int start = 0; start < records; start += size) {
+                readers.add(getRangeReader(q, start, Math.min(start + size, records)));
+            }
+            success = true;
+        } finally {
+            if (!success) {
+                for (FeatureReader<SimpleFeatureType, SimpleFeature> reader : readers) {
+                    reader.close();
+                }
+            }
+        }
+
+        return readers;
+    }
+
+    /**
+     * Splits the shapefile in contiguous ranges of records, like {@link #getSplitReaders(Query,
+     * int)}, and returns a collection for each range. Each collection opens its own range reader
+     * when accessed, the collections can thus be visited concurrently.
+     *
+     * @param query The query, the filter will be evaluated by each collection
+     * @param splits The desired number of collections, fewer might be returned for small
+     *     shapefiles
+     */
+    List<SimpleFeatureCollection> getSplitCollections(Query query, int splits) throws IOException {
+        if (splits < 1) {
+            throw new IllegalArgumentException("The number of splits must be positive");
+        }
+        Query q = resolvePropertyNames(joinQuery(query));
+        int records = canSplit(q) ? getSplitRecordCount() : -1;
+        if (splits == 1 || records <= 0) {
+            return Collections.singletonList(getFeatures(query));
+        }
+
+        SimpleFeatureType resultSchema = getResultSchema(q);
+        int size = (records + splits - 1) / splits;
+        List<SimpleFeatureCollection> collections = new ArrayList<>();
+        for (int from = 0; from < records; from += size) {
+            int start = from;
+            int end = Math.min(from + size, records);
+            collections.add(
+                    new BaseSimpleFeatureCollection(resultSchema) {
+                        @Override
+                        public SimpleFeatureIterator features() {
+                            try {
+                                return new WrappingFeatureIterator(getRangeReader(q, start, end));
+                            } catch (IOException e) {
+                                throw new RuntimeException(e.getMessage(), e);
+                            }
+                        }
+                    });
+        }
+        return collections;
+    }
+
+    /** Builds a reader for the records in the [start, end) range matching the query */
+    private FeatureReader<SimpleFeatureType, SimpleFeature> getRangeReader(
+            Query q, int start, int end) throws IOException {
+        SimpleFeatureType resultSchema = getResultSchema(q);
+        SimpleFeatureType readSchema = getReadSchema(q);
+        GeometryFactory geometryFactory = getGeometryFactory(q);
+        Envelope bbox = getTargetBBox(q);
+        ShapefileFeatureReader reader = getSplitReader(readSchema, geometryFactory, start, end);
+        if (q.getFilter() != null && !Filter.INCLUDE.equals(q.getFilter())) {
+            reader.setFilter(q.getFilter());
+        }
+        if (!bbox.isNull()) {
+            reader.setTargetBBox(bbox);
+        }
+        Hints hints = q.getHints();
+        if (hints != null) {
+            Number simplificationDistance = (Number) hints.get(Hints.GEOMETRY_DISTANCE);
+            if (simplificationDistance != null) {
+                reader.setSimplificationDistance(simplificationDistance.doubleValue());
+            }
+            if (Boolean.TRUE.equals(hints.get(Hints.FEATURE_2D))) {
+                reader.shp.setFlatGeometry(true);
+            }
+        }
+
+        if (!FeatureTypes.equals(readSchema, resultSchema)) {
+            return new ReTypeFeatureReader(reader, resultSchema);
+        }
+        return reader;
+    }
+
+    /** Checks if the query can be answered by independent readers over ranges of records */
+    private boolean canSplit(Query q) {
+        return (q.getSortBy() == null || q.getSortBy().length == 0)
+                && q.getStartIndex() == null
+                && q.getMaxFeatures() == Query.DEFAULT_MAX
+                && q.getCoordinateSystem() == null
+                && q.getCoordinateSystemReproject() == null
+                && q.getJoins().isEmpty()
+                && (getTransaction() == null || getTransaction() == Transaction.AUTO_COMMIT)
+                && shpFiles.isLocal()
+                && !shpFiles.isGz()
+                && shpFiles.exists(SHP);
+    }
+
+    /** Returns the number of records in the .shx file, or -1 if the file is not available */
+    private int getSplitRecordCount() throws IOException {
+        try (IndexFile shx = getDataStore().shpManager.openIndexFile()) {
+            return shx != null ? shx.getRecordCount() : -1;
+        }
+    }
+
+    /** Builds a reader for the records in the [start, end) range */
+    @SuppressWarnings("PMD.CloseResource") // managed as fields of the returned reader
+    private ShapefileFeatureReader getSplitReader(
+            SimpleFeatureType readSchema, GeometryFactory geometryFactory, int start, int end)
+            throws IOException {
+        ShapefileSetManager shpManager = getDataStore().shpManager;
+        IndexManager indexManager = getDataStore().indexManager;
+        IndexedFidReader fidReader = null;
+        ShapefileReader shapeReader = null;
+        DbaseFileReader dbfReader = null;
+        IndexFile shx = null;
+        boolean success = false;
+        try {
+            if (getDataStore().isFidIndexed() && indexManager.hasFidIndex(false)) {
+                fidReader = new IndexedFidReader(shpFiles);
+            }
+            shx = shpManager.openIndexFile();
+            if (shx == null) {
+                throw new IOException("Could not open the .shx file to read a range of records");
+            }
+            shapeReader = shpManager.openShapeReader(geometryFactory, true);
+            List<AttributeDescriptor> attributes = readSchema.getAttributeDescriptors();
+            if (!attributes.isEmpty()
+                    && (attributes.size() > 1 || readSchema.getGeometryDescriptor() == null)) {
+                dbfReader = shpManager.openDbfReader(true);
+            }
+            ShapefileFeatureReader reader =
+                    new SplitShapefileFeatureReader(
+                            readSchema,
+                            shapeReader,
+                            (IndexedDbaseFileReader) dbfReader,
+                            fidReader,
+                            shx,
+                            start,
+                            end);
+            success = true;
+            return reader;
+        } finally {
+            if (!success) {
+                closeSafe(shx);
+                closeSafe(shapeReader);
+                closeSafe(dbfReader);
+                closeSafe(fidReader);
+            }
+        }
+    }
+
+    private void closeSafe(AutoCloseable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Failed to close resource", e);
+            }
+        }
+    }
+
     SimpleFeatureType getResultSchema(Query q) {
         if (q.getPropertyNames() == null) {
             return getSchema();
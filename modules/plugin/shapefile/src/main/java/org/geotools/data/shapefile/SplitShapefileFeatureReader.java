@@ -0,0 +1,107 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile;
+
+import java.io.IOException;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.shapefile.dbf.DbaseFileReader.Row;
+import org.geotools.data.shapefile.dbf.IndexedDbaseFileReader;
+import org.geotools.data.shapefile.fid.IndexedFidReader;
+import org.geotools.data.shapefile.shp.IndexFile;
+import org.geotools.data.shapefile.shp.ShapefileReader;
+import org.geotools.data.shapefile.shp.ShapefileReader.Record;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A feature reader scanning a contiguous range of records, located using the .shx file. Readers
+ * on different ranges use their own files and buffers, and can thus be consumed concurrently.
+ */
+class SplitShapefileFeatureReader extends ShapefileFeatureReader {
+
+    IndexFile shx;
+
+    int current;
+
+    int end;
+
+    /**
+     * Create the range reader
+     *
+     * @param schema - the schema that we are going to read.
+     * @param shp - the shape reader, required, opened for random access
+     * @param dbf - the indexed dbf file reader. May be null, in this case no attributes will be
+     *     read from the dbf file
+     * @param shx - the shx file, used to locate the records
+     * @param start - the first record to read, zero based
+     * @param end - the record after the last one to read, zero based
+     */
+    public SplitShapefileFeatureReader(
+            SimpleFeatureType schema,
+            ShapefileReader shp,
+            IndexedDbaseFileReader dbf,
+            IndexedFidReader fidReader,
+            IndexFile shx,
+            int start,
+            int end)
+            throws IOException {
+        super(schema, shp, dbf, fidReader);
+        this.shx = shx;
+        this.current = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        while (nextFeature == null && current < end) {
+            shp.goTo(shx.getOffsetInBytes(current++));
+            Record record = shp.nextRecord();
+
+            // read the geometry, so that we can decide if this row is to be skipped or not
+            Geometry geometry = getGeometry(record);
+            if (geometry == SKIP) {
+                continue;
+            }
+
+            // read the dbf only if the geometry was not skipped
+            Row row = null;
+            if (dbf != null) {
+                ((IndexedDbaseFileReader) dbf).goTo(record.number);
+                row = dbf.readRow();
+                if (row.isDeleted()) {
+                    continue;
+                }
+            }
+
+            nextFeature = buildFeature(record.number, geometry, row, record.envelope());
+        }
+
+        return nextFeature != null;
+    }
+
+    @Override
+    @SuppressWarnings("PMD.UseTryWithResources") // not declared here
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (shx != null) {
+                shx.close();
+            }
+            shx = null;
+        }
+    }
+}
@@ -19,12 +19,10 @@
  */
 package org.geotools.data.shapefile.dbf;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.Closeable;
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
@@ -65,6 +63,10 @@
  *
  * </PRE></CODE>
  *
+ * <p>Fields are decoded on demand, straight from the (eventually memory mapped) buffer, so reading
+ * only a few columns of a wide file costs only the decoding of the columns actually read. Numbers
+ * and dates are parsed directly from the bytes, without going through an intermediate String.
+ *
  * @author Ian Schneider, Andrea Aaime
  */
 @SuppressWarnings("PMD.CloseResource") // closeables managed as fields
@@ -105,8 +107,12 @@ public boolean isDeleted() {
 
     ReadableByteChannel channel;
 
+    /** Scratch area used to decode strings */
     byte[] bytes;
 
+    /** Position in the buffer of the first field of the current record */
+    int recordStart;
+
     char[] fieldTypes;
 
     int[] fieldLengths;
@@ -128,6 +134,9 @@ public boolean isDeleted() {
 
     private boolean oneBytePerChar;
 
+    /** True if the charset encodes spaces and control chars as single ASCII bytes */
+    private boolean asciiCompatible;
+
     private Calendar calendar;
 
     private final long MILLISECS_PER_DAY = 24 * 60 * 60 * 1000;
@@ -253,6 +262,7 @@ private void doInit(boolean useMemoryMappedBuffer, Charset charset, TimeZone tim
         // check if we working with a latin-1 char Charset
         final String cname = stringCharset.name();
         oneBytePerChar = "ISO-8859-1".equals(cname) || "US-ASCII".equals(cname);
+        asciiCompatible = oneBytePerChar || "UTF-8".equals(cname);
 
         row = new Row();
     }
@@ -442,21 +452,19 @@ public void transferTo(final DbaseFileWriter writer) throws IOException {
      * of the fields using {@link #readField(int)}.
      */
     public void read() throws IOException {
-        boolean foundRecord = false;
-        while (!foundRecord) {
-
-            bufferCheck();
-
-            // read the deleted flag
-            final char deleted = (char) buffer.get();
-            row.deleted = deleted == '*';
+        bufferCheck();
 
-            ((Buffer) buffer).limit(buffer.position() + header.getRecordLength() - 1);
-            buffer.get(bytes); // SK: There is a side-effect here!!!
-            ((Buffer) buffer).limit(buffer.capacity());
+        // read the deleted flag
+        final char deleted = (char) buffer.get();
+        row.deleted = deleted == '*';
 
-            foundRecord = true;
+        // the fields will be decoded on demand from the buffer, just skip over them
+        final int fieldsLength = header.getRecordLength() - 1;
+        if (buffer.remaining() < fieldsLength) {
+            throw new BufferUnderflowException();
         }
+        recordStart = buffer.position();
+        ((Buffer) buffer).position(recordStart + fieldsLength);
 
         cnt++;
     }
@@ -475,13 +483,14 @@ public Object[] readEntry(final Object[] entry) throws IOException {
     private Object readObject(final int fieldOffset, final int fieldNum) throws IOException {
         final char type = fieldTypes[fieldNum];
         final int fieldLen = fieldLengths[fieldNum];
+        final int start = recordStart + fieldOffset;
         Object object = null;
         if (fieldLen > 0) {
             switch (type) {
                     // (L)logical (T,t,F,f,Y,y,N,n)
                 case 'l':
                 case 'L':
-                    final char c = (char) bytes[fieldOffset];
+                    final char c = (char) buffer.get(start);
                     switch (c) {
                         case 't':
                         case 'T':
@@ -505,15 +514,8 @@ private Object readObject(final int fieldOffset, final int fieldNum) throws IOEx
                 case 'c':
                 case 'C':
                     // if the string begins with a null terminator, the value is null
-                    if (bytes[fieldOffset] != '\0') {
-                        // remember we need to skip trailing and leading spaces
-                        if (oneBytePerChar) {
-                            object = fastParse(bytes, fieldOffset, fieldLen).trim();
-                        } else {
-                            object =
-                                    new String(bytes, fieldOffset, fieldLen, stringCharset.name())
-                                            .trim();
-                        }
+                    if (buffer.get(start) != '\0') {
+                        object = readString(start, fieldLen);
                     }
                     break;
                     // (D)date (Date)
@@ -521,21 +523,17 @@ private Object readObject(final int fieldOffset, final int fieldNum) throws IOEx
                 case 'D':
                     // If the first 8 characters are '0', this is a null date
                     for (int i = 0; i < 8; i++) {
-                        if (bytes[fieldOffset + i] != '0') {
-                            try {
-                                String tempString = fastParse(bytes, fieldOffset, 4);
-                                final int tempYear = Integer.parseInt(tempString);
-                                tempString = fastParse(bytes, fieldOffset + 4, 2);
-                                final int tempMonth = Integer.parseInt(tempString) - 1;
-                                tempString = fastParse(bytes, fieldOffset + 6, 2);
-                                final int tempDay = Integer.parseInt(tempString);
+                        if (buffer.get(start + i) != '0') {
+                            final int tempYear = parseInt(start, 4);
+                            final int tempMonth = parseInt(start + 4, 2);
+                            final int tempDay = parseInt(start + 6, 2);
+                            // todo: use progresslistener, an invalid date isn't a grave error.
+                            if (tempYear >= 0 && tempMonth >= 0 && tempDay >= 0) {
                                 calendar.clear();
                                 calendar.set(Calendar.YEAR, tempYear);
-                                calendar.set(Calendar.MONTH, tempMonth);
+                                calendar.set(Calendar.MONTH, tempMonth - 1);
                                 calendar.set(Calendar.DAY_OF_MONTH, tempDay);
                                 object = calendar.getTime();
-                            } catch (final NumberFormatException nfe) {
-                                // todo: use progresslistener, this isn't a grave error.
                             }
                             break;
                         }
@@ -543,61 +541,35 @@ private Object readObject(final int fieldOffset, final int fieldNum) throws IOEx
                     break;
                     // (@) Timestamp (Date)
                 case '@':
-                    try {
-                        // TODO: Find a smarter way to do this.
-                        // timestampBytes = bytes[fieldOffset:fieldOffset+7]
-                        byte[] timestampBytes = {
-                            // Time in millis, after reverse.
-                            bytes[fieldOffset + 7], bytes[fieldOffset + 6], bytes[fieldOffset + 5],
-                                    bytes[fieldOffset + 4],
-                            // Days, after reverse.
-                            bytes[fieldOffset + 3], bytes[fieldOffset + 2], bytes[fieldOffset + 1],
-                                    bytes[fieldOffset]
-                        };
-
-                        ByteArrayInputStream i_bytes = new ByteArrayInputStream(timestampBytes);
-                        DataInputStream i_stream =
-                                new DataInputStream(new BufferedInputStream(i_bytes));
-
-                        int time = i_stream.readInt();
-                        int days = i_stream.readInt();
-
-                        calendar.setTimeInMillis(
-                                days * MILLISECS_PER_DAY
-                                        + DbaseFileHeader.MILLIS_SINCE_4713
-                                        + time);
-
-                        object = calendar.getTime();
-
-                    } catch (final NumberFormatException nfe) {
-                        // todo: use progresslistener, this isn't a grave error.
-                    }
+                    // days and time in millis, little endian like the rest of the file
+                    int days = buffer.getInt(start);
+                    int time = buffer.getInt(start + 4);
+
+                    calendar.setTimeInMillis(
+                            days * MILLISECS_PER_DAY + DbaseFileHeader.MILLIS_SINCE_4713 + time);
+
+                    object = calendar.getTime();
                     break;
                     // (N)umeric (Integer, Long or Fallthrough to Double)
                 case 'n':
                 case 'N':
                     // numbers that begin with '*' are considered null
-                    if (bytes[fieldOffset] == '*') {
+                    if (buffer.get(start) == '*') {
                         break;
                     } else {
-                        final String string = fastParse(bytes, fieldOffset, fieldLen).trim();
                         Class<?> clazz = header.getFieldClass(fieldNum);
-                        if (clazz == Integer.class) {
-                            try {
-                                object = Integer.parseInt(string);
+                        if (clazz == Integer.class || clazz == Long.class) {
+                            if (parseLong(start, fieldLen)) {
+                                if (clazz == Integer.class
+                                        && parsedLong >= Integer.MIN_VALUE
+                                        && parsedLong <= Integer.MAX_VALUE) {
+                                    object = Integer.valueOf((int) parsedLong);
+                                } else {
+                                    object = Long.valueOf(parsedLong);
+                                }
                                 break;
-                            } catch (NumberFormatException e) {
-                                // try to parse as long...
-                                clazz = Long.class;
-                            }
-                        }
-                        if (clazz == Long.class) {
-                            try {
-                                object = Long.parseLong(string);
-                                break;
-                            } catch (final NumberFormatException e2) {
-                                // fall through to the floating point number
                             }
+                            // fall through to the floating point number
                         }
                     }
                     // do not break, fall through to the 'f' case
@@ -605,13 +577,8 @@ private Object readObject(final int fieldOffset, final int fieldNum) throws IOEx
                     // (F)loating point number
                 case 'f':
                 case 'F':
-                    if (bytes[fieldOffset] != '*') {
-                        try {
-                            object = Double.parseDouble(fastParse(bytes, fieldOffset, fieldLen));
-                        } catch (final NumberFormatException e) {
-                            // okay, now whatever we got was truly indigestible.
-                            object = null;
-                        }
+                    if (buffer.get(start) != '*') {
+                        object = parseDouble(start, fieldLen);
                     }
                     break;
                 default:
@@ -621,6 +588,175 @@ private Object readObject(final int fieldOffset, final int fieldNum) throws IOEx
         return object;
     }
 
+    /** Decodes a string field, skipping leading and trailing spaces */
+    private String readString(int start, int fieldLen) throws IOException {
+        int end = start + fieldLen;
+        if (asciiCompatible) {
+            // same as String.trim(), but avoids decoding the spaces
+            while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+                start++;
+            }
+            while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+                end--;
+            }
+        }
+        int length = end - start;
+        ((Buffer) buffer).mark();
+        ((Buffer) buffer).position(start);
+        buffer.get(bytes, 0, length);
+        ((Buffer) buffer).reset();
+        if (oneBytePerChar) {
+            // same as fastParse, with no intermediate char array
+            return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+        } else if (asciiCompatible) {
+            return new String(bytes, 0, length, stringCharset);
+        } else {
+            return new String(bytes, 0, length, stringCharset).trim();
+        }
+    }
+
+    /** The value parsed by the last successful call to {@link #parseLong(int, int)} */
+    private long parsedLong;
+
+    /**
+     * Parses an integral number, with the same rules as {@link Long#parseLong(String)} applied to
+     * the trimmed field, storing the value in {@link #parsedLong}
+     *
+     * @return true if the field contained a valid long
+     */
+    private boolean parseLong(int start, int fieldLen) {
+        int end = start + fieldLen;
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return false;
+        }
+        boolean negative = false;
+        byte first = buffer.get(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+            if (start == end) {
+                return false;
+            }
+        }
+        // accumulate negatively, to handle Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multmin = limit / 10;
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < multmin) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        parsedLong = negative ? result : -result;
+        return true;
+    }
+
+    /**
+     * Parses a fixed size unsigned integer, as used in dates
+     *
+     * @return the value, or -1 if the field does not contain a number
+     */
+    private int parseInt(int start, int length) {
+        int result = 0;
+        for (int i = start; i < start + length; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /** Powers of ten that can be exactly represented as a double */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+        1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** Largest integer such that all smaller ones can be exactly represented as a double */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * Parses a floating point number. Plain decimal numbers with up to 15-16 significant digits,
+     * the vast majority in DBF files, are parsed directly from the bytes: both the mantissa and the
+     * power of ten are exact doubles, so their division is correctly rounded, returning the same
+     * value as {@link Double#parseDouble(String)}. Anything else falls back on the JDK parser.
+     *
+     * @return the value, or null if the field does not contain a valid number
+     */
+    private Double parseDouble(int start, int fieldLen) {
+        int end = start + fieldLen;
+        int i = start;
+        while (i < end && (buffer.get(i) & 0xFF) <= ' ') {
+            i++;
+        }
+        while (end > i && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int significant = 0;
+        int decimals = -1;
+        boolean fast = true;
+        for (; i < end && fast; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                digits++;
+                // leading zeroes do not add to the precision
+                if (mantissa > 0 || b != '0') {
+                    significant++;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (decimals >= 0) {
+                    decimals++;
+                }
+                fast = significant <= 16 && decimals < POWERS_OF_TEN.length;
+            } else if (b == '.' && decimals < 0) {
+                decimals = 0;
+            } else {
+                fast = false;
+            }
+        }
+        if (fast && digits > 0 && mantissa <= MAX_EXACT_MANTISSA) {
+            double value = decimals > 0 ? mantissa / POWERS_OF_TEN[decimals] : mantissa;
+            return negative ? -value : value;
+        }
+
+        try {
+            return Double.parseDouble(fastParse(start, fieldLen));
+        } catch (final NumberFormatException e) {
+            // okay, now whatever we got was truly indigestible.
+            return null;
+        }
+    }
+
+    /** Reads the field as a String, one byte per char */
+    private String fastParse(int start, int fieldLen) {
+        ((Buffer) buffer).mark();
+        ((Buffer) buffer).position(start);
+        buffer.get(bytes, 0, fieldLen);
+        ((Buffer) buffer).reset();
+        return fastParse(bytes, 0, fieldLen);
+    }
+
     /**
      * Performs a faster byte[] to String conversion under the assumption the content is represented
      * with one byte per char
@@ -47,7 +47,12 @@ public enum ShpFileType {
     /** the .shp.xml file, it contains the metadata about the shapefile */
     SHP_XML("shp.xml"),
     /** the .cpg file is used to specify the code page */
-    CPG("cpg");
+    CPG("cpg"),
+    /**
+     * the .prx file, a packed R-tree spatial index of the shapefile, with the records sorted along
+     * a Hilbert curve. Used in place of the .qix file when available
+     */
+    PRX("prx");
 
     public final String extension;
     public final String extensionWithPeriod;
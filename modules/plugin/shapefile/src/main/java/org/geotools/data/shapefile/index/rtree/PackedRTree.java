@@ -0,0 +1,257 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile.index.rtree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import org.geotools.api.data.CloseableIterator;
+import org.geotools.data.shapefile.index.Data;
+import org.geotools.data.shapefile.index.DataDefinition;
+import org.geotools.data.shapefile.index.TreeException;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * A static R-tree whose nodes are packed in a single buffer, usually memory mapped from a {@code
+ * .prx} file. The records are sorted along a Hilbert curve and grouped in full nodes, the tree is
+ * stored breadth first starting from the root, so a search only requires a few reads from
+ * contiguous areas of the buffer and no object allocation besides the results.
+ *
+ * <p>The file layout, little endian, is:
+ *
+ * <ul>
+ *   <li>a 16 bytes header: the {@code GTPR} magic, a version byte, three reserved bytes, the node
+ *       size and the number of records as integers
+ *   <li>the node entries, each made of the bounds as four floats (minx, miny, maxx, maxy, rounded
+ *       outwards) and a long value. For the upper levels the value is the position of the first
+ *       child entry, for the leaves it contains the record number in the upper 32 bits and the
+ *       record offset in the shp file, in 16 bit words, in the lower ones
+ * </ul>
+ */
+public class PackedRTree implements Closeable {
+
+    static final byte[] MAGIC = {'G', 'T', 'P', 'R'};
+
+    static final byte VERSION = 1;
+
+    static final int HEADER_SIZE = 16;
+
+    static final int ENTRY_SIZE = 24;
+
+    static final DataDefinition DATA_DEFINITION = new DataDefinition("US-ASCII");
+
+    static {
+        DATA_DEFINITION.addField(Integer.class);
+        DATA_DEFINITION.addField(Long.class);
+    }
+
+    ByteBuffer buffer;
+
+    Closeable resources;
+
+    int nodeSize;
+
+    int numItems;
+
+    int[] levelCounts;
+
+    int[] levelStarts;
+
+    /**
+     * Opens the tree
+     *
+     * @param buffer the buffer containing the tree
+     * @param resources resources released when the tree is closed, may be null
+     * @throws IOException if the buffer does not contain a valid tree
+     */
+    public PackedRTree(ByteBuffer buffer, Closeable resources) throws IOException {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        this.resources = resources;
+        if (this.buffer.limit() < HEADER_SIZE) {
+            throw new IOException("Packed R-tree index is truncated");
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (this.buffer.get(i) != MAGIC[i]) {
+                throw new IOException("Not a packed R-tree index");
+            }
+        }
+        if (this.buffer.get(4) != VERSION) {
+            throw new IOException("Unsupported packed R-tree version " + this.buffer.get(4));
+        }
+        this.nodeSize = this.buffer.getInt(8);
+        this.numItems = this.buffer.getInt(12);
+        if (nodeSize < 2 || numItems < 0) {
+            throw new IOException("Invalid packed R-tree header");
+        }
+        this.levelCounts = PackedRTreeWriter.levelCounts(numItems, nodeSize);
+        this.levelStarts = PackedRTreeWriter.levelStarts(levelCounts);
+        long expected =
+                HEADER_SIZE + PackedRTreeWriter.numNodes(numItems, nodeSize) * ENTRY_SIZE;
+        if (this.buffer.limit() < expected) {
+            throw new IOException("Packed R-tree index is truncated");
+        }
+    }
+
+    /** The number of records in the tree */
+    public int getNumItems() {
+        return numItems;
+    }
+
+    /** The number of entries in each node */
+    public int getNodeSize() {
+        return nodeSize;
+    }
+
+    /** The bounds of the whole tree, or an empty envelope if the tree has no records */
+    public Envelope getBounds() {
+        if (numItems == 0) {
+            return new Envelope();
+        }
+        // the root entry is the first one
+        return new Envelope(minX(0), maxX(0), minY(0), maxY(0));
+    }
+
+    /**
+     * Returns the records intersecting the bounds, sorted by record number, with the same layout
+     * as the quadtree results: the record number, one based, and its offset in the shp file. The
+     * results are collected eagerly, the tree can be closed before consuming them.
+     */
+    public CloseableIterator<Data> search(Envelope bounds) {
+        long[] hits = new long[16];
+        int size = 0;
+        if (numItems > 0) {
+            float qMinX = PackedRTreeWriter.floor(bounds.getMinX());
+            float qMinY = PackedRTreeWriter.floor(bounds.getMinY());
+            float qMaxX = PackedRTreeWriter.ceil(bounds.getMaxX());
+            float qMaxY = PackedRTreeWriter.ceil(bounds.getMaxY());
+
+            // stack of nodes to visit, as first entry and level
+            int top = levelCounts.length - 1;
+            int[] starts = new int[top * (nodeSize - 1) + 1];
+            int[] levels = new int[starts.length];
+            int stack = 0;
+            starts[stack] = levelStarts[top];
+            levels[stack++] = top;
+            while (stack > 0) {
+                stack--;
+                int start = starts[stack];
+                int level = levels[stack];
+                int end = Math.min(start + nodeSize, levelStarts[level] + levelCounts[level]);
+                for (int e = start; e < end; e++) {
+                    // NaN bounds fail all comparisons, thus never intersect
+                    if (minX(e) <= qMaxX
+                            && minY(e) <= qMaxY
+                            && maxX(e) >= qMinX
+                            && maxY(e) >= qMinY) {
+                        long value = value(e);
+                        if (level == 0) {
+                            if (size == hits.length) {
+                                hits = Arrays.copyOf(hits, size * 2);
+                            }
+                            hits[size++] = value;
+                        } else {
+                            starts[stack] = (int) value;
+                            levels[stack++] = level - 1;
+                        }
+                    }
+                }
+            }
+            // the record number is in the upper bits, read the shp sequentially
+            Arrays.sort(hits, 0, size);
+        }
+
+        return new HitsIterator(hits, size);
+    }
+
+    private float minX(int entry) {
+        return buffer.getFloat(HEADER_SIZE + entry * ENTRY_SIZE);
+    }
+
+    private float minY(int entry) {
+        return buffer.getFloat(HEADER_SIZE + entry * ENTRY_SIZE + 4);
+    }
+
+    private float maxX(int entry) {
+        return buffer.getFloat(HEADER_SIZE + entry * ENTRY_SIZE + 8);
+    }
+
+    private float maxY(int entry) {
+        return buffer.getFloat(HEADER_SIZE + entry * ENTRY_SIZE + 12);
+    }
+
+    private long value(int entry) {
+        return buffer.getLong(HEADER_SIZE + entry * ENTRY_SIZE + 16);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        if (resources != null) {
+            try {
+                resources.close();
+            } finally {
+                resources = null;
+            }
+        }
+    }
+
+    /** Iterates over the search results */
+    static class HitsIterator implements CloseableIterator<Data> {
+
+        long[] hits;
+
+        int size;
+
+        int idx = 0;
+
+        Data data = new Data(DATA_DEFINITION);
+
+        HitsIterator(long[] hits, int size) {
+            this.hits = hits;
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return idx < size;
+        }
+
+        @Override
+        public Data next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long hit = hits[idx++];
+            try {
+                data.clear();
+                data.addValue((int) (hit >>> 32) + 1);
+                data.addValue((hit & 0xFFFFFFFFL) * 2);
+            } catch (TreeException e) {
+                throw new RuntimeException(e);
+            }
+            return data;
+        }
+
+        @Override
+        public void close() {
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile.index.rtree;
+
+import static org.geotools.data.shapefile.index.rtree.PackedRTree.ENTRY_SIZE;
+import static org.geotools.data.shapefile.index.rtree.PackedRTree.HEADER_SIZE;
+import static org.geotools.data.shapefile.index.rtree.PackedRTree.MAGIC;
+import static org.geotools.data.shapefile.index.rtree.PackedRTree.VERSION;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Builds a {@link PackedRTree} file. The record envelopes are collected in memory, sorted along
+ * a Hilbert curve built on their centers, and then packed bottom up in full nodes, leaving no
+ * empty space in the tree.
+ *
+ * <p>Records are expected to be added in shapefile order, the record number being the insertion
+ * order.
+ */
+public class PackedRTreeWriter {
+
+    /** The default number of entries in each node */
+    public static final int DEFAULT_NODE_SIZE = 16;
+
+    /** Max value of the Hilbert curve coordinates */
+    static final int HILBERT_MAX = (1 << 16) - 1;
+
+    static final int BUFFER_SIZE = ENTRY_SIZE * 4096;
+
+    int nodeSize;
+
+    Envelope extent;
+
+    /** Record bounds, as minx, miny, maxx, maxy, rounded outwards */
+    float[] bounds;
+
+    /** Record offsets in the shp file, in 16 bit words */
+    int[] offsets;
+
+    /** Hilbert value in the high bits, record number in the low ones */
+    long[] keys;
+
+    int count;
+
+    /**
+     * Creates a new writer
+     *
+     * @param numItems the number of records that will be added
+     * @param extent the extent of the shapefile, used to compute the Hilbert values
+     * @param nodeSize the number of entries in each node, at least 2
+     */
+    public PackedRTreeWriter(int numItems, Envelope extent, int nodeSize) {
+        if (nodeSize < 2) {
+            throw new IllegalArgumentException("Node size must be at least 2, was " + nodeSize);
+        }
+        long size = HEADER_SIZE + numNodes(numItems, nodeSize) * ENTRY_SIZE;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Too many records for a packed R-tree index: " + numItems);
+        }
+        this.nodeSize = nodeSize;
+        this.extent = extent;
+        this.bounds = new float[numItems * 4];
+        this.offsets = new int[numItems];
+        this.keys = new long[numItems];
+    }
+
+    /**
+     * Adds the next record to the index
+     *
+     * @param env the record bounds
+     * @param offset the record offset in the shp file, in bytes
+     */
+    public void add(Envelope env, long offset) {
+        if (count == keys.length) {
+            throw new IllegalStateException("Expected only " + keys.length + " records");
+        }
+        int recno = count++;
+        long hilbert = 0;
+        if (env == null || env.isNull()) {
+            // NaN bounds never intersect anything
+            Arrays.fill(bounds, recno * 4, recno * 4 + 4, Float.NaN);
+        } else {
+            bounds[recno * 4] = floor(env.getMinX());
+            bounds[recno * 4 + 1] = floor(env.getMinY());
+            bounds[recno * 4 + 2] = ceil(env.getMaxX());
+            bounds[recno * 4 + 3] = ceil(env.getMaxY());
+            Coordinate center = env.centre();
+            int x = scale(center.x, extent.getMinX(), extent.getWidth());
+            int y = scale(center.y, extent.getMinY(), extent.getHeight());
+            hilbert = hilbert(x, y);
+        }
+        // the shp offsets are stored in the shx as 16 bit words, fits in an unsigned int
+        offsets[recno] = (int) (offset >>> 1);
+        // flip the sign bit so that the signed sort follows the unsigned Hilbert values
+        keys[recno] = ((hilbert << 32) ^ Long.MIN_VALUE) | recno;
+    }
+
+    /** Sorts the records and writes out the tree */
+    public void write(File file) throws IOException {
+        if (count != keys.length) {
+            throw new IllegalStateException(
+                    "Expected " + keys.length + " records, but got " + count);
+        }
+        Arrays.parallelSort(keys);
+
+        // level sizes, bottom up
+        int[] levelCounts = levelCounts(count, nodeSize);
+        int[] levelStarts = levelStarts(levelCounts);
+
+        try (FileChannel channel =
+                FileChannel.open(
+                        file.toPath(),
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.put(MAGIC);
+            buffer.put(VERSION);
+            buffer.put(new byte[3]);
+            buffer.putInt(nodeSize);
+            buffer.putInt(count);
+            flush(channel, buffer);
+            if (count == 0) {
+                return;
+            }
+
+            // leaves, in Hilbert order, collecting the parent bounds along the way
+            float[] parents = newLevelBounds(levelCounts.length > 1 ? levelCounts[1] : 0);
+            channel.position(position(levelStarts[0]));
+            for (int i = 0; i < count; i++) {
+                int recno = (int) keys[i];
+                int b = recno * 4;
+                long value = ((long) recno << 32) | (offsets[recno] & 0xFFFFFFFFL);
+                writeEntry(channel, buffer, bounds, b, value);
+                expand(parents, i / nodeSize, bounds, b);
+            }
+            flush(channel, buffer);
+            // free memory before building the upper levels
+            bounds = null;
+            offsets = null;
+            keys = null;
+
+            // upper levels, each entry points to the first of its children
+            for (int level = 1; level < levelCounts.length; level++) {
+                float[] current = parents;
+                int levelCount = levelCounts[level];
+                parents =
+                        newLevelBounds(
+                                level + 1 < levelCounts.length ? levelCounts[level + 1] : 0);
+                channel.position(position(levelStarts[level]));
+                for (int i = 0; i < levelCount; i++) {
+                    long value = levelStarts[level - 1] + (long) i * nodeSize;
+                    writeEntry(channel, buffer, current, i * 4, value);
+                    expand(parents, i / nodeSize, current, i * 4);
+                }
+                flush(channel, buffer);
+            }
+        }
+    }
+
+    private void writeEntry(
+            FileChannel channel, ByteBuffer buffer, float[] bounds, int offset, long value)
+            throws IOException {
+        if (buffer.remaining() < ENTRY_SIZE) {
+            flush(channel, buffer);
+        }
+        buffer.putFloat(bounds[offset]);
+        buffer.putFloat(bounds[offset + 1]);
+        buffer.putFloat(bounds[offset + 2]);
+        buffer.putFloat(bounds[offset + 3]);
+        buffer.putLong(value);
+    }
+
+    private void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static float[] newLevelBounds(int count) {
+        float[] result = new float[count * 4];
+        for (int i = 0; i < count; i++) {
+            result[i * 4] = Float.POSITIVE_INFINITY;
+            result[i * 4 + 1] = Float.POSITIVE_INFINITY;
+            result[i * 4 + 2] = Float.NEGATIVE_INFINITY;
+            result[i * 4 + 3] = Float.NEGATIVE_INFINITY;
+        }
+        return result;
+    }
+
+    /** Expands the parent bounds, the comparisons skip over NaN child bounds */
+    private static void expand(float[] parents, int parent, float[] children, int child) {
+        if (parents.length == 0) {
+            return;
+        }
+        int p = parent * 4;
+        if (children[child] < parents[p]) parents[p] = children[child];
+        if (children[child + 1] < parents[p + 1]) parents[p + 1] = children[child + 1];
+        if (children[child + 2] > parents[p + 2]) parents[p + 2] = children[child + 2];
+        if (children[child + 3] > parents[p + 3]) parents[p + 3] = children[child + 3];
+    }
+
+    private static long position(int entry) {
+        return HEADER_SIZE + (long) entry * ENTRY_SIZE;
+    }
+
+    /** Total number of nodes in a tree with the given number of items */
+    static long numNodes(int numItems, int nodeSize) {
+        long result = 0;
+        for (int c : levelCounts(numItems, nodeSize)) {
+            result += c;
+        }
+        return result;
+    }
+
+    /** The number of entries in each level, starting from the leaves */
+    static int[] levelCounts(int numItems, int nodeSize) {
+        if (numItems == 0) {
+            return new int[0];
+        }
+        int levels = 1;
+        for (int n = numItems; n > 1; n = (n + nodeSize - 1) / nodeSize) {
+            levels++;
+        }
+        int[] result = new int[levels];
+        int n = numItems;
+        for (int i = 0; i < levels; i++) {
+            result[i] = n;
+            n = (n + nodeSize - 1) / nodeSize;
+        }
+        return result;
+    }
+
+    /** The first entry of each level, the root is stored first and the leaves last */
+    static int[] levelStarts(int[] levelCounts) {
+        int[] result = new int[levelCounts.length];
+        for (int i = levelCounts.length - 2; i >= 0; i--) {
+            result[i] = result[i + 1] + levelCounts[i + 1];
+        }
+        return result;
+    }
+
+    private static int scale(double value, double min, double span) {
+        if (!(span > 0)) {
+            return 0;
+        }
+        int scaled = (int) (HILBERT_MAX * ((value - min) / span));
+        return Math.max(0, Math.min(HILBERT_MAX, scaled));
+    }
+
+    /** Largest float smaller or equal to the value */
+    static float floor(double value) {
+        float f = (float) value;
+        return f > value ? Math.nextDown(f) : f;
+    }
+
+    /** Smallest float larger or equal to the value */
+    static float ceil(double value) {
+        float f = (float) value;
+        return f < value ? Math.nextUp(f) : f;
+    }
+
+    /**
+     * Returns the position of the cell along a Hilbert curve of order 16, using the branch-free
+     * bit interleaving approach popularized by FlatGeobuf.
+     *
+     * @param x the cell column, between 0 and 65535
+     * @param y the cell row, between 0 and 65535
+     * @return the position along the curve, as an unsigned 32 bit value
+     */
+    static long hilbert(int x, int y) {
+        int a = x ^ y;
+        int b = 0xFFFF ^ a;
+        int c = 0xFFFF ^ (x | y);
+        int d = x & (y ^ 0xFFFF);
+
+        int A = a | (b >> 1);
+        int B = (a >> 1) ^ a;
+        int C = ((c >> 1) ^ (b & (d >> 1))) ^ c;
+        int D = ((a & (c >> 1)) ^ (d >> 1)) ^ d;
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        A = ((a & (a >> 2)) ^ (b & (b >> 2)));
+        B = ((a & (b >> 2)) ^ (b & ((a ^ b) >> 2)));
+        C ^= ((a & (c >> 2)) ^ (b & (d >> 2)));
+        D ^= ((b & (c >> 2)) ^ ((a ^ b) & (d >> 2)));
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        A = ((a & (a >> 4)) ^ (b & (b >> 4)));
+        B = ((a & (b >> 4)) ^ (b & ((a ^ b) >> 4)));
+        C ^= ((a & (c >> 4)) ^ (b & (d >> 4)));
+        D ^= ((b & (c >> 4)) ^ ((a ^ b) & (d >> 4)));
+
+        a = A;
+        b = B;
+        c = C;
+        d = D;
+        C ^= ((a & (c >> 8)) ^ (b & (d >> 8)));
+        D ^= ((b & (c >> 8)) ^ ((a ^ b) & (d >> 8)));
+
+        a = C ^ (C >> 1);
+        b = D ^ (D >> 1);
+
+        int i0 = x ^ y;
+        int i1 = b | (0xFFFF ^ (i0 | a));
+
+        return ((long) interleave(i1) << 1 | interleave(i0)) & 0xFFFFFFFFL;
+    }
+
+    /** Spreads the lower 16 bits of the value on the even bits */
+    private static long interleave(int value) {
+        long v = value & 0xFFFF;
+        v = (v | (v << 8)) & 0x00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0FL;
+        v = (v | (v << 2)) & 0x33333333L;
+        v = (v | (v << 1)) & 0x55555555L;
+        return v;
+    }
+}
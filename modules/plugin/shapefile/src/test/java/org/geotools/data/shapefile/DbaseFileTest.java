@@ -14,14 +14,18 @@
 package org.geotools.data.shapefile;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.TimeZone;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -101,6 +105,90 @@ public void testRowVsEntry() throws Exception {
         }
     }
 
+    @Test
+    public void testMemoryMappedVsChannel() throws Exception {
+        try (DbaseFileReader mapped =
+                new DbaseFileReader(shpFiles, true, ShapefileDataStore.DEFAULT_STRING_CHARSET)) {
+            int numFields = dbf.getHeader().getNumFields();
+            while (dbf.hasNext()) {
+                dbf.read();
+                mapped.read();
+                // fields are decoded on demand, in any order
+                for (int i = numFields - 1; i >= 0; i--) {
+                    assertEquals(dbf.readField(i), mapped.readField(i));
+                }
+                assertEquals(dbf.readField(0), mapped.readField(0));
+            }
+            assertFalse(mapped.hasNext());
+        }
+    }
+
+    @Test
+    public void testDecodedValues() throws Exception {
+        DbaseFileHeader header = new DbaseFileHeader();
+        header.addColumn("string", 'C', 20, 0);
+        header.addColumn("int", 'N', 9, 0);
+        header.addColumn("long", 'N', 20, 0);
+        header.addColumn("double", 'N', 20, 5);
+        header.addColumn("float", 'F', 20, 5);
+        header.addColumn("logical", 'L', 1, 0);
+        header.addColumn("date", 'D', 8, 0);
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2024, Calendar.FEBRUARY, 29);
+        Date date = calendar.getTime();
+        Object[][] records = {
+            {"  leading spaces", 123, 12345678901234L, 3.25, -0.5, true, date},
+            {"\u00e8\u00e9", -123456789, -922337203685477580L, -1234.56789, 0d, false, null},
+            {null, null, null, null, null, null, null}
+        };
+        header.setNumRecords(records.length);
+        File f = File.createTempFile("decoded", ".dbf");
+        try {
+            try (FileOutputStream fout = new FileOutputStream(f);
+                    DbaseFileWriter writer =
+                            new DbaseFileWriter(
+                                    header, fout.getChannel(), StandardCharsets.ISO_8859_1)) {
+                for (Object[] record : records) {
+                    writer.write(record);
+                }
+            }
+            ShpFiles tempShpFiles = new ShpFiles(f);
+            for (boolean mapped : new boolean[] {false, true}) {
+                try (DbaseFileReader r =
+                        new DbaseFileReader(tempShpFiles, mapped, StandardCharsets.ISO_8859_1)) {
+                    Object[] entry = r.readEntry();
+                    assertEquals("leading spaces", entry[0]);
+                    assertEquals(123, entry[1]);
+                    assertEquals(12345678901234L, entry[2]);
+                    assertEquals(3.25, entry[3]);
+                    assertEquals(-0.5, entry[4]);
+                    assertEquals(Boolean.TRUE, entry[5]);
+                    assertEquals(date, entry[6]);
+
+                    entry = r.readEntry();
+                    assertEquals("\u00e8\u00e9", entry[0]);
+                    assertEquals(-123456789, entry[1]);
+                    assertEquals(-922337203685477580L, entry[2]);
+                    assertEquals(-1234.56789, entry[3]);
+                    assertEquals(0d, entry[4]);
+                    assertEquals(Boolean.FALSE, entry[5]);
+                    assertNull(entry[6]);
+
+                    // the writer fills null values with '\0', '*', '?' and '0'
+                    entry = r.readEntry();
+                    for (Object value : entry) {
+                        assertNull(value);
+                    }
+                    assertFalse(r.hasNext());
+                }
+            }
+            tempShpFiles.dispose();
+        } finally {
+            f.delete();
+        }
+    }
+
     @Test
     public void testHeader() throws Exception {
         DbaseFileHeader header = new DbaseFileHeader();
@@ -0,0 +1,204 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile;
+
+import static org.geotools.data.shapefile.files.ShpFileType.PRX;
+import static org.geotools.data.shapefile.files.ShpFileType.QIX;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.TreeSet;
+import org.geotools.api.data.CloseableIterator;
+import org.geotools.api.data.FeatureWriter;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.Transaction;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.data.shapefile.files.ShpFileType;
+import org.geotools.data.shapefile.files.ShpFiles;
+import org.geotools.data.shapefile.index.Data;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.data.util.NullProgressListener;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.util.URLs;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+
+public class PackedRTreeIndexTest extends TestCaseSupport {
+
+    static final FilterFactory ff = CommonFactoryFinder.getFilterFactory(null);
+
+    private File shpFile;
+
+    private ShpFiles shpFiles;
+
+    @Before
+    public void setUp() throws IOException {
+        shpFile = copyShapefiles(STATE_POP);
+        shpFiles = new ShpFiles(shpFile);
+        deleteIndex(QIX);
+        deleteIndex(PRX);
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        shpFiles.dispose();
+        super.tearDown();
+    }
+
+    private void deleteIndex(ShpFileType type) {
+        File file = sibling(shpFile, type.extension);
+        if (file.exists()) {
+            assertTrue(file.delete());
+        }
+    }
+
+    private int buildPackedIndex() throws Exception {
+        ShapeFileIndexer indexer = new ShapeFileIndexer();
+        indexer.setShapeFileName(shpFiles);
+        indexer.setIndexType(PRX);
+        return indexer.index(false, new NullProgressListener());
+    }
+
+    private Set<String> query(ShapefileDataStore store, Envelope envelope) throws IOException {
+        SimpleFeatureType schema = store.getSchema();
+        Filter filter =
+                ff.bbox(
+                        ff.property(schema.getGeometryDescriptor().getLocalName()),
+                        new ReferencedEnvelope(envelope, schema.getCoordinateReferenceSystem()));
+        Query query = new Query(schema.getTypeName(), filter);
+        Set<String> ids = new TreeSet<>();
+        try (SimpleFeatureIterator it = store.getFeatureSource().getFeatures(query).features()) {
+            while (it.hasNext()) {
+                ids.add(it.next().getID());
+            }
+        }
+        return ids;
+    }
+
+    @Test
+    public void testIndexerCreatesPackedIndex() throws Exception {
+        assertEquals(49, buildPackedIndex());
+        assertTrue(shpFiles.exists(PRX));
+        assertFalse(shpFiles.exists(QIX));
+    }
+
+    @Test
+    public void testQueryMatchesScan() throws Exception {
+        buildPackedIndex();
+
+        ShapefileDataStore indexed = new ShapefileDataStore(URLs.fileToUrl(shpFile));
+        ShapefileDataStore scan = new ShapefileDataStore(URLs.fileToUrl(shpFile));
+        scan.setIndexed(false);
+        try {
+            ReferencedEnvelope bounds = scan.getFeatureSource().getBounds();
+            double dx = bounds.getWidth() / 5;
+            double dy = bounds.getHeight() / 5;
+            for (int i = 0; i < 5; i++) {
+                for (int j = 0; j < 5; j++) {
+                    double x = bounds.getMinX() + dx * i;
+                    double y = bounds.getMinY() + dy * j;
+                    Envelope envelope = new Envelope(x, x + dx * 1.5, y, y + dy * 1.5);
+                    assertEquals(query(scan, envelope), query(indexed, envelope));
+                }
+            }
+        } finally {
+            indexed.dispose();
+            scan.dispose();
+        }
+        // the packed index was used, no quadtree got created along the way
+        assertFalse(shpFiles.exists(QIX));
+    }
+
+    @Test
+    public void testIndexManagerUsesPackedIndex() throws Exception {
+        buildPackedIndex();
+        ShapefileDataStore store = new ShapefileDataStore(URLs.fileToUrl(shpFile));
+        try {
+            IndexManager manager = store.indexManager;
+            assertTrue(manager.isSpatialIndexAvailable());
+
+            // a bbox covering the whole file does not need the index
+            Envelope bounds = store.getFeatureSource().getBounds();
+            Envelope larger = new Envelope(bounds);
+            larger.expandBy(1);
+            assertNull(manager.querySpatialIndex(larger));
+
+            Envelope small = new Envelope(bounds.centre());
+            small.expandBy(bounds.getWidth() / 10);
+            int previous = 0;
+            int count = 0;
+            try (CloseableIterator<Data> it = manager.querySpatialIndex(small)) {
+                assertNotNull(it);
+                while (it.hasNext()) {
+                    Data data = it.next();
+                    int recno = (Integer) data.getValue(0);
+                    assertTrue(recno > previous);
+                    previous = recno;
+                    count++;
+                }
+            }
+            assertTrue(count > 0 && count < 49);
+            assertFalse(shpFiles.exists(QIX));
+        } finally {
+            store.dispose();
+        }
+    }
+
+    @Test
+    public void testAutomaticCreation() throws Exception {
+        ShapefileDataStore store = new ShapefileDataStore(URLs.fileToUrl(shpFile));
+        try {
+            IndexManager manager = store.indexManager;
+            manager.packedRTree = true;
+            assertTrue(manager.createSpatialIndex(false));
+            assertTrue(shpFiles.exists(PRX));
+            assertFalse(shpFiles.exists(QIX));
+            assertFalse(manager.createSpatialIndex(false));
+        } finally {
+            store.dispose();
+        }
+    }
+
+    @Test
+    public void testWriterRemovesPackedIndex() throws Exception {
+        buildPackedIndex();
+        ShapefileDataStore store = new ShapefileDataStore(URLs.fileToUrl(shpFile));
+        try {
+            try (FeatureWriter<SimpleFeatureType, SimpleFeature> writer =
+                    store.getFeatureWriter(Filter.INCLUDE, Transaction.AUTO_COMMIT)) {
+                writer.next();
+                writer.remove();
+            }
+            assertFalse(shpFiles.exists(PRX));
+        } finally {
+            store.dispose();
+        }
+    }
+}
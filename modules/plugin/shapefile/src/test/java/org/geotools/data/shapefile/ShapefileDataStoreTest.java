@@ -529,6 +529,36 @@ public void testQueryBboxNonGeomAttributes() throws Exception {
         ds.dispose();
     }
 
+    @Test
+    public void testAttributeFilterReadsAllAttributes() throws Exception {
+        File shpFile = copyShapefiles(STATE_POP);
+        ShapefileDataStore ds = new ShapefileDataStore(shpFile.toURI().toURL());
+        SimpleFeatureSource fs = ds.getFeatureSource();
+        FilterFactory ff = CommonFactoryFinder.getFilterFactory(null);
+        Filter filter = ff.greater(ff.property("PERSONS"), ff.literal(3000000));
+
+        // the attributes not used by the filter are decoded only for the matching records
+        Map<String, List<Object>> expected = new HashMap<>();
+        try (SimpleFeatureIterator it = fs.getFeatures().features()) {
+            while (it.hasNext()) {
+                SimpleFeature f = it.next();
+                if (filter.evaluate(f)) {
+                    expected.put(f.getID(), f.getAttributes());
+                }
+            }
+        }
+        Map<String, List<Object>> actual = new HashMap<>();
+        try (SimpleFeatureIterator it = fs.getFeatures(filter).features()) {
+            while (it.hasNext()) {
+                SimpleFeature f = it.next();
+                actual.put(f.getID(), f.getAttributes());
+            }
+        }
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+        ds.dispose();
+    }
+
     @Test
     public void testFidFilter() throws Exception {
         File shpFile = copyShapefiles(STATE_POP);
@@ -0,0 +1,178 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.Transaction;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.api.filter.sort.SortBy;
+import org.geotools.api.filter.sort.SortOrder;
+import org.geotools.factory.CommonFactoryFinder;
+import org.geotools.feature.collection.ParallelFeatureCollection;
+import org.geotools.feature.visitor.SumVisitor;
+import org.geotools.util.URLs;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SplitShapefileFeatureReaderTest extends TestCaseSupport {
+
+    static final String STATE_POP = "shapes/statepop.shp";
+
+    static final FilterFactory ff = CommonFactoryFinder.getFilterFactory(null);
+
+    private ShapefileDataStore store;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() throws Exception {
+        File shp = copyShapefiles(STATE_POP);
+        store = new ShapefileDataStore(URLs.fileToUrl(shp));
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @Override
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdown();
+        store.dispose();
+        super.tearDown();
+    }
+
+    private List<String> readSequential(Query query) throws IOException {
+        List<String> result = new ArrayList<>();
+        try (FeatureReader<SimpleFeatureType, SimpleFeature> reader =
+                store.getFeatureReader(query, Transaction.AUTO_COMMIT)) {
+            while (reader.hasNext()) {
+                result.add(reader.next().getID());
+            }
+        }
+        return result;
+    }
+
+    /** Reads the split readers concurrently, returns the ids in record order */
+    private List<String> readParallel(List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers)
+            throws Exception {
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (FeatureReader<SimpleFeatureType, SimpleFeature> reader : readers) {
+            futures.add(
+                    executor.submit(
+                            () -> {
+                                List<String> ids = new ArrayList<>();
+                                try (FeatureReader<SimpleFeatureType, SimpleFeature> r = reader) {
+                                    while (r.hasNext()) {
+                                        ids.add(r.next().getID());
+                                    }
+                                }
+                                return ids;
+                            }));
+        }
+        List<String> result = new ArrayList<>();
+        for (Future<List<String>> future : futures) {
+            result.addAll(future.get());
+        }
+        return result;
+    }
+
+    @Test
+    public void testSplitAll() throws Exception {
+        Query query = new Query(store.getTypeNames()[0]);
+        List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers =
+                store.getSplitFeatureReaders(query, 4);
+        assertEquals(4, readers.size());
+        assertTrue(readers.get(0) instanceof SplitShapefileFeatureReader);
+        assertEquals(readSequential(query), readParallel(readers));
+    }
+
+    @Test
+    public void testSplitMemoryMapped() throws Exception {
+        store.setMemoryMapped(true);
+        Query query = new Query(store.getTypeNames()[0]);
+        List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers =
+                store.getSplitFeatureReaders(query, 3);
+        assertEquals(3, readers.size());
+        assertEquals(readSequential(query), readParallel(readers));
+    }
+
+    @Test
+    public void testSplitFilterAndRetype() throws Exception {
+        Filter filter = ff.greater(ff.property("PERSONS"), ff.literal(3000000));
+        Query query = new Query(store.getTypeNames()[0], filter, "STATE_NAME");
+        List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers =
+                store.getSplitFeatureReaders(query, 4);
+        assertEquals(4, readers.size());
+        assertEquals(1, readers.get(0).getFeatureType().getAttributeCount());
+        List<String> expected = readSequential(query);
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, readParallel(readers));
+    }
+
+    @Test
+    public void testMoreSplitsThanRecords() throws Exception {
+        Query query = new Query(store.getTypeNames()[0]);
+        int count = store.getFeatureSource().getCount(query);
+        List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers =
+                store.getSplitFeatureReaders(query, count * 2);
+        assertEquals(count, readers.size());
+        assertEquals(readSequential(query), readParallel(readers));
+    }
+
+    @Test
+    public void testSortedQueryNotSplit() throws Exception {
+        Query query = new Query(store.getTypeNames()[0]);
+        query.setSortBy(ff.sort("STATE_NAME", SortOrder.DESCENDING));
+        List<FeatureReader<SimpleFeatureType, SimpleFeature>> readers =
+                store.getSplitFeatureReaders(query, 4);
+        assertEquals(1, readers.size());
+        assertEquals(readSequential(query), readParallel(readers));
+
+        query.setSortBy(SortBy.UNSORTED);
+        query.setMaxFeatures(10);
+        readers = store.getSplitFeatureReaders(query, 4);
+        assertEquals(1, readers.size());
+        assertEquals(10, readParallel(readers).size());
+    }
+
+    @Test
+    public void testPartitionedFeatures() throws Exception {
+        Filter filter = ff.greater(ff.property("PERSONS"), ff.literal(3000000));
+        Query query = new Query(store.getTypeNames()[0], filter);
+        ParallelFeatureCollection partitioned = store.getPartitionedFeatures(query, 4, executor);
+        assertEquals(4, partitioned.getPartitions().size());
+        SumVisitor parallel = new SumVisitor("PERSONS", partitioned.getSchema());
+        partitioned.accepts(parallel, null);
+        SumVisitor sequential = new SumVisitor("PERSONS", partitioned.getSchema());
+        store.getFeatureSource().getFeatures(query).accepts(sequential, null);
+        assertEquals(sequential.getResult().toDouble(), parallel.getResult().toDouble(), 0d);
+        assertEquals(readSequential(query).size(), partitioned.size());
+    }
+}
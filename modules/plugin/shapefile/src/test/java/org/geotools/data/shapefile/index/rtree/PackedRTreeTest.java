@@ -0,0 +1,153 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.shapefile.index.rtree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.geotools.api.data.CloseableIterator;
+import org.geotools.data.shapefile.index.Data;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+
+public class PackedRTreeTest {
+
+    @Test
+    public void testHilbertCurve() {
+        // the first 4^8 positions of the curve cover a 256x256 square, one step at a time
+        int size = 256;
+        int[] cells = new int[size * size];
+        Arrays.fill(cells, -1);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                long h = PackedRTreeWriter.hilbert(x, y);
+                assertTrue(h < cells.length);
+                assertEquals(-1, cells[(int) h]);
+                cells[(int) h] = x * size + y;
+            }
+        }
+        for (int i = 1; i < cells.length; i++) {
+            int dx = Math.abs(cells[i] / size - cells[i - 1] / size);
+            int dy = Math.abs(cells[i] % size - cells[i - 1] % size);
+            assertEquals(1, dx + dy);
+        }
+        // full range
+        assertTrue(PackedRTreeWriter.hilbert(65535, 0) > 0xFFFFFFFFL / 2);
+    }
+
+    @Test
+    public void testRandomSearches() throws IOException {
+        Random random = new Random(0);
+        for (int count : new int[] {0, 1, 2, 15, 16, 17, 256, 1000, 4099}) {
+            for (int nodeSize : new int[] {2, 4, 16}) {
+                Envelope extent = new Envelope(-180, 180, -90, 90);
+                List<Envelope> envelopes = new ArrayList<>();
+                PackedRTreeWriter writer = new PackedRTreeWriter(count, extent, nodeSize);
+                for (int i = 0; i < count; i++) {
+                    Envelope env;
+                    if (i % 50 == 7) {
+                        // null shapes
+                        env = new Envelope();
+                    } else {
+                        double x = -180 + random.nextDouble() * 355;
+                        double y = -90 + random.nextDouble() * 175;
+                        env = new Envelope(x, x + random.nextDouble() * 5, y, y + 1e-7);
+                    }
+                    envelopes.add(env);
+                    writer.add(env, 100 + i * 20L);
+                }
+
+                File file = File.createTempFile("test", ".prx");
+                try {
+                    writer.write(file);
+                    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+                    try (PackedRTree tree = new PackedRTree(buffer, null)) {
+                        assertEquals(count, tree.getNumItems());
+                        assertEquals(nodeSize, tree.getNodeSize());
+                        for (int q = 0; q < 50; q++) {
+                            double x = -200 + random.nextDouble() * 400;
+                            double y = -100 + random.nextDouble() * 200;
+                            Envelope query =
+                                    new Envelope(
+                                            x,
+                                            x + random.nextDouble() * 60,
+                                            y,
+                                            y + random.nextDouble() * 30);
+                            assertSearch(tree, envelopes, query);
+                        }
+                        assertSearch(tree, envelopes, extent);
+                    }
+                } finally {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    private void assertSearch(PackedRTree tree, List<Envelope> envelopes, Envelope query)
+            throws IOException {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < envelopes.size(); i++) {
+            if (envelopes.get(i).intersects(query)) {
+                expected.add(i + 1);
+            }
+        }
+        List<Integer> actual = new ArrayList<>();
+        try (CloseableIterator<Data> it = tree.search(query)) {
+            while (it.hasNext()) {
+                Data data = it.next();
+                int recno = (Integer) data.getValue(0);
+                actual.add(recno);
+                assertEquals(Long.valueOf(100 + (recno - 1) * 20L), data.getValue(1));
+            }
+        }
+        // the float bounds are rounded outwards, the tree may return a few more items
+        assertTrue(actual.containsAll(expected));
+        for (Integer recno : actual) {
+            Envelope env = envelopes.get(recno - 1);
+            assertFalse(env.isNull());
+            Envelope expanded = new Envelope(env);
+            expanded.expandBy(1e-4);
+            assertTrue(expanded.intersects(query));
+        }
+        // sorted by record number
+        for (int i = 1; i < actual.size(); i++) {
+            assertTrue(actual.get(i - 1) < actual.get(i));
+        }
+    }
+
+    @Test
+    public void testInvalidFile() {
+        ByteBuffer buffer = ByteBuffer.wrap("not an index at all".getBytes());
+        try {
+            new PackedRTree(buffer, null).close();
+            fail("Should have failed");
+        } catch (IOException e) {
+            // fine
+        }
+    }
+}
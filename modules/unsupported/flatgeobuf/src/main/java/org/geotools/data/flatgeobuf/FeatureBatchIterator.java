@@ -0,0 +1,423 @@
+/*
+ *    GeoTools - The Open Source Java GIS Toolkit
+ *    http://geotools.org
+ *
+ *    (C) 2024, Open Source Geospatial Foundation (OSGeo)
+ *
+ *    This library is free software; you can redistribute it and/or
+ *    modify it under the terms of the GNU Lesser General Public
+ *    License as published by the Free Software Foundation;
+ *    version 2.1 of the License.
+ *
+ *    This library is distributed in the hope that it will be useful,
+ *    but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ *    Lesser General Public License for more details.
+ */
+package org.geotools.data.flatgeobuf;
+
+import com.google.common.io.LittleEndianDataInputStream;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.util.NIOUtilities;
+import org.geotools.util.ParallelChunks;
+import org.locationtech.jts.geom.Envelope;
+import org.wololo.flatgeobuf.HeaderMeta;
+import org.wololo.flatgeobuf.PackedRTree;
+import org.wololo.flatgeobuf.PackedRTree.SearchHit;
+import org.wololo.flatgeobuf.PackedRTree.SearchResult;
+import org.wololo.flatgeobuf.generated.Feature;
+
+/**
+ * Iterates over the features of a FlatGeobuf file by batches, optionally decoding each batch in
+ * parallel, while preserving the order of the features.
+ *
+ * <p>The encoded features are either sliced out of a memory mapped file, or read from a stream
+ * with a large buffer, so that neighbouring index hits are served by the same read.
+ */
+final class FeatureBatchIterator implements Iterator<SimpleFeature>, Closeable {
+
+    /** Number of features read and decoded at once */
+    static final int BATCH_SIZE = 1024;
+
+    /** Minimum number of features decoded by a parallel task */
+    static final int MIN_TASK_SIZE = 64;
+
+    /** Size of the read buffer when the file is not memory mapped */
+    static final int STREAM_BUFFER_SIZE = 1024 * 1024;
+
+    /** Source of encoded features */
+    private interface EncodedFeatures extends Closeable {
+        /** Fills the arrays with the next features and their ids, returns 0 once exhausted */
+        int read(ByteBuffer[] buffers, long[] fids) throws IOException;
+    }
+
+    /** Slices the features out of a memory mapped file */
+    private static final class MappedFeatures implements EncodedFeatures {
+        final ByteBuffer buffer;
+
+        /** Absolute positions of the features to read, or null to read all of them */
+        final long[] positions;
+
+        final long[] ids;
+
+        final long featuresCount;
+
+        int next = 0;
+
+        long position;
+
+        MappedFeatures(
+                ByteBuffer buffer,
+                long featuresOffset,
+                long featuresCount,
+                long[] positions,
+                long[] ids) {
+            this.buffer = buffer;
+            this.position = featuresOffset;
+            this.featuresCount = featuresCount;
+            this.positions = positions;
+            this.ids = ids;
+        }
+
+        @Override
+        public int read(ByteBuffer[] buffers, long[] fids) {
+            int count = 0;
+            while (count < buffers.length) {
+                if (positions != null) {
+                    if (next == positions.length) break;
+                    position = positions[next];
+                    fids[count] = ids[next];
+                } else {
+                    if (featuresCount > 0 && next == featuresCount) break;
+                    fids[count] = next;
+                }
+                if (position + 4 > buffer.limit()) break;
+                int start = (int) position + 4;
+                int size = buffer.getInt((int) position);
+                ByteBuffer feature = buffer.duplicate();
+                feature.position(start);
+                feature.limit(start + size);
+                buffers[count++] = feature.slice();
+                position = start + size;
+                next++;
+            }
+            return count;
+        }
+
+        @Override
+        public void close() {
+            NIOUtilities.clean(buffer, true);
+        }
+    }
+
+    /** Reads the features from a buffered stream, positioned at the start of the features */
+    private static final class StreamFeatures implements EncodedFeatures {
+        final LittleEndianDataInputStream data;
+
+        /** Offsets of the features to read, relative to the first one, or null to read all */
+        final long[] offsets;
+
+        final long[] ids;
+
+        int next = 0;
+
+        long position = 0;
+
+        StreamFeatures(LittleEndianDataInputStream data, long[] offsets, long[] ids) {
+            this.data = data;
+            this.offsets = offsets;
+            this.ids = ids;
+        }
+
+        @Override
+        public int read(ByteBuffer[] buffers, long[] fids) throws IOException {
+            int count = 0;
+            while (count < buffers.length) {
+                int size;
+                if (offsets != null) {
+                    if (next == offsets.length) break;
+                    FlatGeobufFeatureReader.skipNBytes(data, offsets[next] - position);
+                    position = offsets[next];
+                    fids[count] = ids[next];
+                    size = data.readInt();
+                } else {
+                    try {
+                        size = data.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    fids[count] = next;
+                }
+                byte[] bytes = new byte[size];
+                data.readFully(bytes);
+                buffers[count++] = ByteBuffer.wrap(bytes);
+                position += 4 + size;
+                next++;
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            data.close();
+        }
+    }
+
+    /** Reads the bytes of a buffer, used to parse the header and index of a mapped file */
+    private static final class ByteBufferInputStream extends InputStream {
+        final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) return -1;
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+    }
+
+    private final EncodedFeatures source;
+
+    private final HeaderMeta headerMeta;
+
+    private final SimpleFeatureType featureType;
+
+    private final boolean parallel;
+
+    private final SimpleFeatureBuilder builder;
+
+    private final ByteBuffer[] buffers = new ByteBuffer[BATCH_SIZE];
+
+    private final long[] fids = new long[BATCH_SIZE];
+
+    private final SimpleFeature[] batch = new SimpleFeature[BATCH_SIZE];
+
+    private int batchSize = 0;
+
+    private int index = 0;
+
+    private boolean done = false;
+
+    private FeatureBatchIterator(
+            EncodedFeatures source,
+            HeaderMeta headerMeta,
+            SimpleFeatureType featureType,
+            boolean parallel) {
+        this.source = source;
+        this.headerMeta = headerMeta;
+        this.featureType = featureType;
+        this.parallel = parallel;
+        this.builder = new SimpleFeatureBuilder(featureType);
+    }
+
+    /**
+     * Opens the features of the store matching the bbox or fids, or all of them if both are null.
+     *
+     * @param headerMeta the header, or null to read it from the file
+     * @param bbox the envelope to search in the index, or null
+     * @param featureIds the sorted feature ids, or null
+     */
+    static FeatureBatchIterator open(
+            FlatGeobufDataStore store,
+            HeaderMeta headerMeta,
+            SimpleFeatureType featureType,
+            Envelope bbox,
+            long[] featureIds)
+            throws IOException {
+        File file = store.getFile();
+        EncodedFeatures source;
+        if (store.isMemoryMapped() && file != null && file.length() <= Integer.MAX_VALUE) {
+            ByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            try {
+                if (headerMeta == null) {
+                    headerMeta = HeaderMeta.read(new ByteBufferInputStream(buffer.duplicate()));
+                }
+                source = openMapped(buffer, headerMeta, bbox, featureIds);
+            } catch (IOException | RuntimeException e) {
+                NIOUtilities.clean(buffer, true);
+                throw e;
+            }
+        } else {
+            InputStream stream =
+                    new BufferedInputStream(store.getURL().openStream(), STREAM_BUFFER_SIZE);
+            try {
+                if (headerMeta == null) {
+                    headerMeta = HeaderMeta.read(stream);
+                } else {
+                    FlatGeobufFeatureReader.skipNBytes(stream, headerMeta.offset);
+                }
+                source = openStream(stream, headerMeta, bbox, featureIds);
+            } catch (IOException | RuntimeException e) {
+                stream.close();
+                throw e;
+            }
+        }
+        return new FeatureBatchIterator(
+                source, headerMeta, featureType, store.isParallelDecoding());
+    }
+
+    private static EncodedFeatures openMapped(
+            ByteBuffer buffer, HeaderMeta headerMeta, Envelope bbox, long[] featureIds)
+            throws IOException {
+        long treeSize = treeSize(headerMeta);
+        long featuresOffset = headerMeta.offset + treeSize;
+        ByteBuffer index = buffer.duplicate();
+        index.position(headerMeta.offset);
+        if (bbox != null && headerMeta.indexNodeSize > 1) {
+            SearchResult result =
+                    PackedRTree.search(
+                            new LittleEndianDataInputStream(new ByteBufferInputStream(index)),
+                            headerMeta.offset,
+                            (int) headerMeta.featuresCount,
+                            headerMeta.indexNodeSize,
+                            bbox);
+            long[] positions = new long[result.hits.size()];
+            long[] ids = new long[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                SearchHit hit = result.hits.get(i);
+                positions[i] = featuresOffset + hit.offset;
+                ids[i] = hit.index;
+            }
+            return new MappedFeatures(buffer, featuresOffset, 0, positions, ids);
+        } else if (featureIds != null) {
+            long[] positions =
+                    PackedRTree.readFeatureOffsets(
+                            new LittleEndianDataInputStream(new ByteBufferInputStream(index)),
+                            featureIds,
+                            headerMeta);
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] += featuresOffset;
+            }
+            return new MappedFeatures(buffer, featuresOffset, 0, positions, featureIds);
+        }
+        return new MappedFeatures(buffer, featuresOffset, headerMeta.featuresCount, null, null);
+    }
+
+    private static EncodedFeatures openStream(
+            InputStream stream, HeaderMeta headerMeta, Envelope bbox, long[] featureIds)
+            throws IOException {
+        long treeSize = treeSize(headerMeta);
+        LittleEndianDataInputStream data = new LittleEndianDataInputStream(stream);
+        if (bbox != null && headerMeta.indexNodeSize > 1) {
+            SearchResult result =
+                    PackedRTree.search(
+                            data,
+                            headerMeta.offset,
+                            (int) headerMeta.featuresCount,
+                            headerMeta.indexNodeSize,
+                            bbox);
+            FlatGeobufFeatureReader.skipNBytes(data, Math.max(0, treeSize - result.pos));
+            long[] offsets = new long[result.hits.size()];
+            long[] ids = new long[offsets.length];
+            for (int i = 0; i < offsets.length; i++) {
+                SearchHit hit = result.hits.get(i);
+                offsets[i] = hit.offset;
+                ids[i] = hit.index;
+            }
+            return new StreamFeatures(data, offsets, ids);
+        } else if (featureIds != null) {
+            long[] offsets = PackedRTree.readFeatureOffsets(data, featureIds, headerMeta);
+            return new StreamFeatures(data, offsets, featureIds);
+        }
+        FlatGeobufFeatureReader.skipNBytes(data, treeSize);
+        return new StreamFeatures(data, null, null);
+    }
+
+    private static long treeSize(HeaderMeta headerMeta) {
+        return headerMeta.featuresCount > 0 && headerMeta.indexNodeSize > 0
+                ? PackedRTree.calcSize((int) headerMeta.featuresCount, headerMeta.indexNodeSize)
+                : 0;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (index < batchSize) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        try {
+            readBatch();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return index < batchSize;
+    }
+
+    @Override
+    public SimpleFeature next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        SimpleFeature feature = batch[index];
+        batch[index++] = null;
+        return feature;
+    }
+
+    private void readBatch() throws IOException {
+        index = 0;
+        batchSize = source.read(buffers, fids);
+        if (batchSize < BATCH_SIZE) {
+            done = true;
+        }
+        if (!parallel || ParallelChunks.getChunkCount(batchSize, MIN_TASK_SIZE) <= 1) {
+            decode(builder, 0, batchSize);
+        } else {
+            // builders are not thread safe, one per chunk
+            ParallelChunks.run(
+                    batchSize,
+                    MIN_TASK_SIZE,
+                    (from, to) -> decode(new SimpleFeatureBuilder(featureType), from, to));
+        }
+        for (int i = 0; i < batchSize; i++) {
+            buffers[i] = null;
+        }
+    }
+
+    private void decode(SimpleFeatureBuilder fb, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Feature feature = Feature.getRootAsFeature(buffers[i]);
+            batch[i] = FeatureConversions.deserialize(feature, fb, headerMeta, fids[i]);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        done = true;
+        batchSize = 0;
+        source.close();
+    }
+}
@@ -46,6 +46,9 @@ public class FlatGeobufDataStore extends ContentDataStore {
     HeaderMeta headerMeta;
     SimpleFeatureType phantomFeatureType;
 
+    boolean memoryMapped = false;
+    boolean parallelDecoding = false;
+
     public FlatGeobufDataStore(URL url) {
         this.url = url;
         this.file = getFile(url);
@@ -93,6 +96,36 @@ protected File getFile() {
         return file;
     }
 
+    /** True if local files are memory mapped while reading */
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * Enables memory mapping of local files, features are then read by batches sliced out of the
+     * mapped file instead of being copied from a stream.
+     *
+     * @since 31
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /** True if batches of features are decoded in parallel */
+    public boolean isParallelDecoding() {
+        return parallelDecoding;
+    }
+
+    /**
+     * Enables reading the features by batches, each batch being decoded in parallel using the
+     * common fork join pool. The order of the features is preserved.
+     *
+     * @since 31
+     */
+    public void setParallelDecoding(boolean parallelDecoding) {
+        this.parallelDecoding = parallelDecoding;
+    }
+
     protected SimpleFeatureType getFeatureType(Name name) throws IOException {
         getHeaderMeta();
         if (headerMeta != null) {
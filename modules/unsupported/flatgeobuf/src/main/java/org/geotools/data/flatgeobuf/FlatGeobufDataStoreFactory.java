@@ -47,19 +47,45 @@ public class FlatGeobufDataStoreFactory implements DataStoreFactorySpi {
                     null, // not required
                     new KVP(Param.LEVEL, "advanced"));
 
+    public static final Param MEMORY_MAPPED_PARAM =
+            new Param(
+                    "memory mapped buffer",
+                    Boolean.class,
+                    "enable/disable the use of memory-mapped io for local files",
+                    false,
+                    false,
+                    new KVP(Param.LEVEL, "advanced"));
+
+    public static final Param PARALLEL_DECODING_PARAM =
+            new Param(
+                    "parallel decoding",
+                    Boolean.class,
+                    "enable/disable decoding batches of features in parallel",
+                    false,
+                    false,
+                    new KVP(Param.LEVEL, "advanced"));
+
     public FlatGeobufDataStoreFactory() {}
 
     @Override
     public DataStore createDataStore(Map<String, ?> map) throws IOException {
         URL url = (URL) URL_PARAM.lookUp(map);
         URI namespace = (URI) NAMESPACE_PARAM.lookUp(map);
+        boolean memoryMapped = Boolean.TRUE.equals(MEMORY_MAPPED_PARAM.lookUp(map));
+        boolean parallelDecoding = Boolean.TRUE.equals(PARALLEL_DECODING_PARAM.lookUp(map));
         File file = FlatGeobufDataStore.getFile(url);
 
         ContentDataStore store;
         if (file != null && file.isDirectory()) {
-            store = new FlatGeobufDirectoryDataStore(file);
+            FlatGeobufDirectoryDataStore directoryStore = new FlatGeobufDirectoryDataStore(file);
+            directoryStore.setMemoryMapped(memoryMapped);
+            directoryStore.setParallelDecoding(parallelDecoding);
+            store = directoryStore;
         } else {
-            store = new FlatGeobufDataStore(url);
+            FlatGeobufDataStore fileStore = new FlatGeobufDataStore(url);
+            fileStore.setMemoryMapped(memoryMapped);
+            fileStore.setParallelDecoding(parallelDecoding);
+            store = fileStore;
         }
         if (namespace != null) {
             store.setNamespaceURI(namespace.toString());
@@ -84,7 +110,9 @@ public String getDescription() {
 
     @Override
     public Param[] getParametersInfo() {
-        return new Param[] {URL_PARAM, NAMESPACE_PARAM};
+        return new Param[] {
+            URL_PARAM, NAMESPACE_PARAM, MEMORY_MAPPED_PARAM, PARALLEL_DECODING_PARAM
+        };
     }
 
     @Override
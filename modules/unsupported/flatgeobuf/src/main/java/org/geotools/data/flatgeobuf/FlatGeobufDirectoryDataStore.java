@@ -36,6 +36,10 @@ public class FlatGeobufDirectoryDataStore extends ContentDataStore {
 
     private HashMap<String, SimpleFeatureType> createFeatureTypes;
 
+    private boolean memoryMapped = false;
+
+    private boolean parallelDecoding = false;
+
     public FlatGeobufDirectoryDataStore(File directory) {
         this.directory = directory;
         createFeatureTypes = new HashMap<>();
@@ -45,6 +49,16 @@ protected File getDirectory() {
         return directory;
     }
 
+    /** @see FlatGeobufDataStore#setMemoryMapped(boolean) */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /** @see FlatGeobufDataStore#setParallelDecoding(boolean) */
+    public void setParallelDecoding(boolean parallelDecoding) {
+        this.parallelDecoding = parallelDecoding;
+    }
+
     @Override
     public void removeSchema(Name typeName) throws IOException {
         this.removeSchema(typeName.getLocalPart());
@@ -69,6 +83,8 @@ protected FlatGeobufDataStore getDataStore(String name) {
         try {
             url = file.toURI().toURL();
             FlatGeobufDataStore store = new FlatGeobufDataStore(url);
+            store.setMemoryMapped(memoryMapped);
+            store.setParallelDecoding(parallelDecoding);
             if (createFeatureTypes.containsKey(name) && !file.exists()) {
                 SimpleFeatureType featureType = createFeatureTypes.get(name);
                 store.createSchema(featureType);
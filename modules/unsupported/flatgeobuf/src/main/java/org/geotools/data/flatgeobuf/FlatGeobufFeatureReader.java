@@ -44,6 +44,7 @@ public class FlatGeobufFeatureReader implements FeatureReader<SimpleFeatureType,
     final boolean isEmpty;
 
     InputStream inputStream;
+    FeatureBatchIterator batches;
     SimpleFeature nextFeature;
 
     FlatGeobufFeatureReader(ContentState state, Query q) throws IOException {
@@ -54,21 +55,16 @@ public class FlatGeobufFeatureReader implements FeatureReader<SimpleFeatureType,
         this.featureType = state.getFeatureType();
 
         DataStore dataStore = state.getEntry().getDataStore();
-        File file;
-        URL url;
+        FlatGeobufDataStore fgbDataStore;
         if (dataStore instanceof FlatGeobufDirectoryDataStore) {
-            file =
+            fgbDataStore =
                     ((FlatGeobufDirectoryDataStore) dataStore)
-                            .getDataStore(featureType.getTypeName())
-                            .getFile();
-            url =
-                    ((FlatGeobufDirectoryDataStore) dataStore)
-                            .getDataStore(featureType.getTypeName())
-                            .getURL();
+                            .getDataStore(featureType.getTypeName());
         } else {
-            file = ((FlatGeobufDataStore) dataStore).getFile();
-            url = ((FlatGeobufDataStore) dataStore).getURL();
+            fgbDataStore = (FlatGeobufDataStore) dataStore;
         }
+        File file = fgbDataStore.getFile();
+        URL url = fgbDataStore.getURL();
 
         if (file != null && !file.exists()) {
             isEmpty = true;
@@ -78,14 +74,6 @@ public class FlatGeobufFeatureReader implements FeatureReader<SimpleFeatureType,
             isEmpty = false;
         }
 
-        inputStream = url.openStream();
-
-        if (headerMeta == null) {
-            headerMeta = HeaderMeta.read(inputStream);
-        } else {
-            skipNBytes(inputStream, headerMeta.offset);
-        }
-
         Filter filter = q.getFilter();
         Envelope bbox = new ReferencedEnvelope();
         Id id = null;
@@ -99,19 +87,29 @@ public class FlatGeobufFeatureReader implements FeatureReader<SimpleFeatureType,
                 || Double.isInfinite(bbox.getHeight())) {
             bbox = null;
         }
+
+        if (fgbDataStore.isMemoryMapped() || fgbDataStore.isParallelDecoding()) {
+            long[] fids = bbox == null && id != null ? fids(id, headerMeta, url) : null;
+            batches = FeatureBatchIterator.open(fgbDataStore, headerMeta, featureType, bbox, fids);
+            it = batches;
+            return;
+        }
+
+        inputStream = url.openStream();
+
+        if (headerMeta == null) {
+            headerMeta = HeaderMeta.read(inputStream);
+        } else {
+            skipNBytes(inputStream, headerMeta.offset);
+        }
+
         if (bbox != null)
             it =
                     FeatureCollectionConversions.deserialize(
                                     inputStream, headerMeta, featureType, bbox)
                             .iterator();
         else if (id != null) {
-            long featuresCount = headerMeta.featuresCount;
-            long[] fids =
-                    id.getIdentifiers().stream()
-                            .mapToLong(i -> extractFid(i))
-                            .filter(l -> l >= 0 && l < featuresCount)
-                            .toArray();
-            Arrays.sort(fids);
+            long[] fids = fids(id, headerMeta, url);
             it =
                     FeatureCollectionConversions.deserialize(
                                     inputStream, headerMeta, featureType, fids)
@@ -123,6 +121,23 @@ else if (id != null) {
         }
     }
 
+    /** The sorted fids of the filter that are valid for the file */
+    private static long[] fids(Id id, HeaderMeta headerMeta, URL url) throws IOException {
+        if (headerMeta == null) {
+            try (InputStream stream = url.openStream()) {
+                headerMeta = HeaderMeta.read(stream);
+            }
+        }
+        long featuresCount = headerMeta.featuresCount;
+        long[] fids =
+                id.getIdentifiers().stream()
+                        .mapToLong(i -> extractFid(i))
+                        .filter(l -> l >= 0 && l < featuresCount)
+                        .toArray();
+        Arrays.sort(fids);
+        return fids;
+    }
+
     private static long extractFid(Identifier i) {
         long fid = -1;
         String idStr = i.getID().toString();
@@ -178,5 +193,6 @@ public boolean hasNext() throws IOException {
     @Override
     public void close() throws IOException {
         if (inputStream != null) inputStream.close();
+        if (batches != null) batches.close();
     }
 }
@@ -47,7 +47,7 @@ public void metadata() {
         assertTrue(dataStoreFactory.isAvailable());
         assertNull(dataStoreFactory.getImplementationHints());
         DataAccessFactory.Param[] params = dataStoreFactory.getParametersInfo();
-        assertEquals(2, params.length);
+        assertEquals(4, params.length);
         assertEquals(FlatGeobufDataStoreFactory.URL_PARAM, params[0]);
     }
 
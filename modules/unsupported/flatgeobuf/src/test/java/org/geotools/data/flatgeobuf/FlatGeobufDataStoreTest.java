@@ -950,6 +950,47 @@ public void readCountriesWithNullIntersection() throws IOException {
         }
     }
 
+    @Test
+    public void readCountriesBatched() throws IOException {
+        boolean[][] modes = {{true, false}, {false, true}, {true, true}};
+        SimpleFeatureSource reference = getFeatureSource("countries");
+        SimpleFeatureType schema = reference.getSchema();
+        FilterFactory ff = CommonFactoryFinder.getFilterFactory();
+        String geometryPropertyName = schema.getGeometryDescriptor().getLocalName();
+        Filter[] filters = {
+            Filter.INCLUDE,
+            ff.bbox(ff.property(geometryPropertyName), new ReferencedEnvelope(0, 40, 0, 60, null)),
+            ff.id(ff.featureId("countries.3"), ff.featureId("countries.45"))
+        };
+        for (boolean[] mode : modes) {
+            Map<String, Serializable> params = new HashMap<>();
+            params.put(FlatGeobufDataStoreFactory.MEMORY_MAPPED_PARAM.key, mode[0]);
+            params.put(FlatGeobufDataStoreFactory.PARALLEL_DECODING_PARAM.key, mode[1]);
+            SimpleFeatureSource batched = getFeatureSource("countries", params);
+            for (Filter filter : filters) {
+                Query query = new Query(schema.getTypeName(), filter);
+                try (SimpleFeatureIterator expected = reference.getFeatures(query).features();
+                        SimpleFeatureIterator actual = batched.getFeatures(query).features()) {
+                    while (expected.hasNext()) {
+                        assertTrue(actual.hasNext());
+                        SimpleFeature e = expected.next();
+                        SimpleFeature a = actual.next();
+                        assertEquals(e.getID(), a.getID());
+                        assertEquals(e.getAttributes(), a.getAttributes());
+                    }
+                    assertFalse(actual.hasNext());
+                }
+            }
+        }
+    }
+
+    private SimpleFeatureSource getFeatureSource(String name, Map<String, Serializable> params)
+            throws IOException {
+        params.put("url", TestData.url(FlatGeobufDataStore.class, name + ".fgb"));
+        DataStore store = DataStoreFinder.getDataStore(params);
+        return store.getFeatureSource(name);
+    }
+
     private SimpleFeatureSource getFeatureSource(String name) throws IOException {
         URL url = TestData.url(FlatGeobufDataStore.class, name + ".fgb");
         Map<String, Serializable> params = new HashMap<>();
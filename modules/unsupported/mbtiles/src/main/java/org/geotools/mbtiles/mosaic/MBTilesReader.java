@@ -32,8 +32,11 @@
 import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Hashtable;
 import java.util.Iterator;
+import java.util.List;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReadParam;
 import javax.imageio.ImageReader;
@@ -49,12 +52,14 @@
 import org.geotools.coverage.grid.GridGeometry2D;
 import org.geotools.coverage.grid.io.AbstractGridCoverage2DReader;
 import org.geotools.coverage.grid.io.AbstractGridFormat;
+import org.geotools.coverage.util.TileImageCache;
 import org.geotools.geometry.GeneralBounds;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.mbtiles.MBTilesFile;
 import org.geotools.mbtiles.MBTilesMetadata;
 import org.geotools.mbtiles.MBTilesTile;
 import org.geotools.referencing.CRS;
+import org.geotools.util.ParallelChunks;
 import org.geotools.util.factory.Hints;
 
 public class MBTilesReader extends AbstractGridCoverage2DReader {
@@ -79,6 +84,9 @@ public class MBTilesReader extends AbstractGridCoverage2DReader {
 
     protected File sourceFile;
 
+    /** Cache of decoded tile images, shared among readers */
+    TileImageCache tileCache = TileImageCache.getDefault();
+
     public MBTilesReader(Object source, Hints hints) throws IOException {
         sourceFile = MBTilesFormat.getFileFromSource(source);
 
@@ -235,31 +243,30 @@ public GridCoverage2D read(GeneralParameterValue[] parameters)
 
             BufferedImage image = null;
 
+            List<MBTilesTile> tiles = new ArrayList<>();
             try (MBTilesFile.TileIterator it =
                     file.tiles(zoomLevel, leftTile, bottomTile, rightTile, topTile)) {
-
                 while (it.hasNext()) {
-                    MBTilesTile tile = it.next();
+                    tiles.add(it.next());
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
 
-                    BufferedImage tileImage =
-                            readImage(
-                                    tile.getData(),
-                                    metadata.getFormatStr() == null
-                                            ? "png"
-                                            : metadata.getFormatStr());
+            BufferedImage[] tileImages = readImages(tiles);
+            for (int i = 0; i < tiles.size(); i++) {
+                MBTilesTile tile = tiles.get(i);
+                BufferedImage tileImage = tileImages[i];
 
-                    if (image == null) {
-                        image = getStartImage(tileImage, width, height);
-                    }
+                if (image == null) {
+                    image = getStartImage(tileImage, width, height);
+                }
 
-                    // coordinates
-                    int posx = (int) (tile.getTileColumn() - leftTile) * DEFAULT_TILE_SIZE;
-                    int posy = (int) (topTile - tile.getTileRow()) * DEFAULT_TILE_SIZE;
+                // coordinates
+                int posx = (int) (tile.getTileColumn() - leftTile) * DEFAULT_TILE_SIZE;
+                int posy = (int) (topTile - tile.getTileRow()) * DEFAULT_TILE_SIZE;
 
-                    image.getRaster().setRect(posx, posy, tileImage.getData());
-                }
-            } catch (SQLException e) {
-                throw new IOException(e);
+                image.getRaster().setRect(posx, posy, tileImage.getData());
             }
 
             if (image == null) { // no tiles ??
@@ -273,6 +280,57 @@ public GridCoverage2D read(GeneralParameterValue[] parameters)
         }
     }
 
+    /**
+     * Decodes the tile images, looking them up in the tile cache first, and decoding the missing
+     * ones in parallel
+     */
+    private BufferedImage[] readImages(List<MBTilesTile> tiles) throws IOException {
+        BufferedImage[] images = new BufferedImage[tiles.size()];
+        // the modification time avoids serving stale tiles after the file has been rewritten
+        Object source =
+                tileCache.isEnabled()
+                        ? Arrays.asList(sourceFile.getAbsolutePath(), sourceFile.lastModified())
+                        : null;
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < tiles.size(); i++) {
+            MBTilesTile tile = tiles.get(i);
+            if (source != null) {
+                images[i] =
+                        tileCache.get(
+                                source,
+                                tile.getZoomLevel(),
+                                tile.getTileColumn(),
+                                tile.getTileRow());
+            }
+            if (images[i] == null) {
+                missing.add(i);
+            }
+        }
+
+        String format = metadata.getFormatStr() == null ? "png" : metadata.getFormatStr();
+        ParallelChunks.run(
+                missing.size(),
+                1,
+                (from, to) -> {
+                    for (int i : missing.subList(from, to)) {
+                        images[i] = readImage(tiles.get(i).getData(), format);
+                    }
+                });
+
+        if (source != null) {
+            for (int i : missing) {
+                MBTilesTile tile = tiles.get(i);
+                tileCache.put(
+                        source,
+                        tile.getZoomLevel(),
+                        tile.getTileColumn(),
+                        tile.getTileRow(),
+                        images[i]);
+            }
+        }
+        return images;
+    }
+
     private long boundMin(long maxLimit, long minLimit, double position) {
         return Math.max(maxLimit, Math.min(minLimit, Math.round(Math.floor(position))));
     }
@@ -10,6 +10,7 @@
 import org.geotools.coverage.grid.GridEnvelope2D;
 import org.geotools.coverage.grid.GridGeometry2D;
 import org.geotools.coverage.grid.io.AbstractGridFormat;
+import org.geotools.coverage.util.TileImageCache;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.image.test.ImageAssert;
 import org.geotools.parameter.Parameter;
@@ -83,4 +84,30 @@ public void testZoomlevel4() throws IOException {
         assertEquals(768, img.getWidth());
         assertEquals(2048, img.getHeight());
     }
+
+    @Test
+    public void testTileCache() throws IOException {
+        MBTilesReader reader =
+                new MBTilesReader(getClass().getResource("world_lakes.mbtiles"), null);
+        TileImageCache cache = new TileImageCache(TileImageCache.DEFAULT_MAX_SIZE);
+        reader.tileCache = cache;
+
+        GeneralParameterValue[] parameters = new GeneralParameterValue[1];
+        GridGeometry2D gg =
+                new GridGeometry2D(
+                        new GridEnvelope2D(new Rectangle(500, 500)),
+                        new ReferencedEnvelope(0, 180.0, -85.0, 0, MBTilesReader.WGS_84));
+        parameters[0] = new Parameter<>(AbstractGridFormat.READ_GRIDGEOMETRY2D, gg);
+        reader.read(parameters);
+        assertEquals(0, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        assertEquals(4, cache.getCount());
+
+        // the second read is served by the cache, with the same output
+        RenderedImage img = reader.read(parameters).getRenderedImage();
+        assertEquals(4, cache.getHits());
+        assertEquals(4, cache.getMisses());
+        ImageAssert.assertEquals(
+                URLs.urlToFile(getClass().getResource("world_lakes.png")), img, 250);
+    }
 }